@@ -71,6 +71,9 @@ public class MarketSetting implements MarketSettingModel {
     /** The final property updater. */
     private static final MethodHandle acquirableExecutionSizeUpdater = updater("acquirableExecutionSize");
 
+    /** The final property updater. */
+    private static final MethodHandle acquirableExecutionConcurrencyUpdater = updater("acquirableExecutionConcurrency");
+
     /** The final property updater. */
     private static final MethodHandle executionLoggerUpdater = updater("executionLogger");
 
@@ -104,6 +107,9 @@ public class MarketSetting implements MarketSettingModel {
     /** The exposed property. */
     public final int acquirableExecutionSize;
 
+    /** The exposed property. */
+    public final int acquirableExecutionConcurrency;
+
     /** The exposed property. */
     public final Class<? extends ExecutionLogger> executionLogger;
 
@@ -129,6 +135,7 @@ public class MarketSetting implements MarketSettingModel {
         this.targetCurrencyBidSizes = MarketSettingModel.super.targetCurrencyBidSizes();
         this.priceRangeModifier = MarketSettingModel.super.priceRangeModifier();
         this.acquirableExecutionSize = MarketSettingModel.super.acquirableExecutionSize();
+        this.acquirableExecutionConcurrency = MarketSettingModel.super.acquirableExecutionConcurrency();
         this.executionLogger = MarketSettingModel.super.executionLogger();
         this.takerFee = MarketSettingModel.super.takerFee();
         this.makerFee = MarketSettingModel.super.makerFee();
@@ -344,6 +351,42 @@ public class MarketSetting implements MarketSettingModel {
         }
     }
 
+    /**
+     * Configure max number of concurrent requests to catch up the execution history. The
+     *  concurrent requests are enabled only if the execution id is sequential and the REST API
+     *  respects both ends of the requested id range.
+     *  
+     *  @return
+     */
+    @Override
+    public final int acquirableExecutionConcurrency() {
+        return this.acquirableExecutionConcurrency;
+    }
+
+    /**
+     * Provide classic getter API.
+     *
+     * @return A value of acquirableExecutionConcurrency property.
+     */
+    @SuppressWarnings("unused")
+    private final int getAcquirableExecutionConcurrency() {
+        return this.acquirableExecutionConcurrency;
+    }
+
+    /**
+     * Provide classic setter API.
+     *
+     * @paran value A new value of acquirableExecutionConcurrency property to assign.
+     */
+    private final void setAcquirableExecutionConcurrency(int value) {
+        try {
+            acquirableExecutionConcurrencyUpdater.invoke(this, value);
+        } catch (UnsupportedOperationException e) {
+        } catch (Throwable e) {
+            throw quiet(e);
+        }
+    }
+
     /**
      * Configure {@link ExecutionLogger} parser.
      *  
@@ -527,6 +570,7 @@ public class MarketSetting implements MarketSettingModel {
         builder.append("targetCurrencyBidSizes=").append(targetCurrencyBidSizes).append(", ");
         builder.append("priceRangeModifier=").append(priceRangeModifier).append(", ");
         builder.append("acquirableExecutionSize=").append(acquirableExecutionSize).append(", ");
+        builder.append("acquirableExecutionConcurrency=").append(acquirableExecutionConcurrency).append(", ");
         builder.append("executionLogger=").append(executionLogger).append(", ");
         builder.append("takerFee=").append(takerFee).append(", ");
         builder.append("makerFee=").append(makerFee).append(", ");
@@ -542,7 +586,7 @@ public class MarketSetting implements MarketSettingModel {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(type, target, base, targetCurrencyBidSizes, priceRangeModifier, acquirableExecutionSize, executionLogger, takerFee, makerFee, targetWithdrawingFee, baseWithdrawingFee);
+        return Objects.hash(type, target, base, targetCurrencyBidSizes, priceRangeModifier, acquirableExecutionSize, acquirableExecutionConcurrency, executionLogger, takerFee, makerFee, targetWithdrawingFee, baseWithdrawingFee);
     }
 
     /**
@@ -563,6 +607,7 @@ public class MarketSetting implements MarketSettingModel {
         if (!Objects.equals(targetCurrencyBidSizes, other.targetCurrencyBidSizes)) return false;
         if (priceRangeModifier != other.priceRangeModifier) return false;
         if (acquirableExecutionSize != other.acquirableExecutionSize) return false;
+        if (acquirableExecutionConcurrency != other.acquirableExecutionConcurrency) return false;
         if (!Objects.equals(executionLogger, other.executionLogger)) return false;
         if (!Objects.equals(takerFee, other.takerFee)) return false;
         if (!Objects.equals(makerFee, other.makerFee)) return false;
@@ -749,6 +794,17 @@ public class MarketSetting implements MarketSettingModel {
             return (Next) this;
         }
 
+        /**
+         * Assign acquirableExecutionConcurrency property.
+         * 
+         * @param value A new value to assign.
+         * @return The next assignable model.
+         */
+        default Next acquirableExecutionConcurrency(int value) {
+            ((MarketSetting) this).setAcquirableExecutionConcurrency(value);
+            return (Next) this;
+        }
+
         /**
          * Assign executionLogger property.
          * 
@@ -827,6 +883,7 @@ public class MarketSetting implements MarketSettingModel {
         static final String TargetCurrencyBidSizes = "targetCurrencyBidSizes";
         static final String PriceRangeModifier = "priceRangeModifier";
         static final String AcquirableExecutionSize = "acquirableExecutionSize";
+        static final String AcquirableExecutionConcurrency = "acquirableExecutionConcurrency";
         static final String ExecutionLogger = "executionLogger";
         static final String TakerFee = "takerFee";
         static final String MakerFee = "makerFee";
@@ -2,6 +2,8 @@ package cointoss.util;
 
 import cointoss.util.EfficientWebSocket;
 import cointoss.util.EfficientWebSocketModel;
+import cointoss.util.InboundQueue.Overflow;
+import cointoss.util.JSONScanner;
 import java.lang.Override;
 import java.lang.String;
 import java.lang.StringBuilder;
@@ -63,6 +65,9 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
     /** The final property updater. */
     private static final MethodHandle updateIdUpdater = updater("updateId");
 
+    /** The final property updater. */
+    private static final MethodHandle peekIdUpdater = updater("peekId");
+
     /** The final property updater. */
     private static final MethodHandle maximumSubscriptionsUpdater = updater("maximumSubscriptions");
 
@@ -81,6 +86,15 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
     /** The final property updater. */
     private static final MethodHandle whenConnectedUpdater = updater("whenConnected");
 
+    /** The final property updater. */
+    private static final MethodHandle inboundBufferUpdater = updater("inboundBuffer");
+
+    /** The final property updater. */
+    private static final MethodHandle overflowUpdater = updater("overflow");
+
+    /** The final property updater. */
+    private static final MethodHandle conflateByUpdater = updater("conflateBy");
+
     /** The final property updater. */
     private static final MethodHandle clientUpdater = updater("client");
 
@@ -96,6 +110,9 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
     /** The exposed property. */
     public final Function<JSON, String> updateId;
 
+    /** The exposed property. */
+    public final Function<JSONScanner, String> peekId;
+
     /** The exposed property. */
     public final int maximumSubscriptions;
 
@@ -114,6 +131,15 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
     /** The exposed property. */
     public final Consumer<WebSocket> whenConnected;
 
+    /** The exposed property. */
+    public final int inboundBuffer;
+
+    /** The exposed property. */
+    public final Overflow overflow;
+
+    /** The exposed property. */
+    public final Function<JSONScanner, String> conflateBy;
+
     /** The exposed property. */
     public final HttpClient client;
 
@@ -127,12 +153,16 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         this.address = null;
         this.extractId = null;
         this.updateId = super.updateId();
+        this.peekId = super.peekId();
         this.maximumSubscriptions = super.maximumSubscriptions();
         this.ignoreMessageIf = super.ignoreMessageIf();
         this.recconnectIf = super.recconnectIf();
         this.stopRecconnectIf = super.stopRecconnectIf();
         this.pongIf = super.pongIf();
         this.whenConnected = super.whenConnected();
+        this.inboundBuffer = super.inboundBuffer();
+        this.overflow = super.overflow();
+        this.conflateBy = super.conflateBy();
         this.client = super.client();
         this.scheduler = super.scheduler();
     }
@@ -249,6 +279,45 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         }
     }
 
+    /**
+     * Peek channel id from the raw message without building the JSON tree. The message is
+     *  dispatched by {@link #extractId()} as usual when this function is not specified or returns
+     *  null.
+     *  
+     *  @return Chainable API.
+     */
+    @Override
+    public final Function<JSONScanner, String> peekId() {
+        return this.peekId;
+    }
+
+    /**
+     * Provide classic getter API.
+     *
+     * @return A value of peekId property.
+     */
+    @SuppressWarnings("unused")
+    private final Function<JSONScanner, String> getPeekId() {
+        return this.peekId;
+    }
+
+    /**
+     * Provide classic setter API.
+     *
+     * @paran value A new value of peekId property to assign.
+     */
+    private final void setPeekId(Function<JSONScanner, String> value) {
+        if (value == null) {
+            value = super.peekId();
+        }
+        try {
+            peekIdUpdater.invoke(this, value);
+        } catch (UnsupportedOperationException e) {
+        } catch (Throwable e) {
+            throw quiet(e);
+        }
+    }
+
     /**
      * Sets the maximum number of subscriptions per connection. Default value is 25. A number less
      *  than or equal to 0 is considered unlimited.
@@ -470,6 +539,119 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         }
     }
 
+    /**
+     * Sets the size of the inbound ring buffer. If the positive size is specified, the received
+     *  message is buffered and dispatched on the dedicated thread for each connection, so the slow
+     *  subscriber can't stall the frame reading. Otherwise, the message is dispatched on the
+     *  receiving thread directly. Default value is 0.
+     *  
+     *  @return Chainable API.
+     */
+    @Override
+    public final int inboundBuffer() {
+        return this.inboundBuffer;
+    }
+
+    /**
+     * Provide classic getter API.
+     *
+     * @return A value of inboundBuffer property.
+     */
+    @SuppressWarnings("unused")
+    private final int getInboundBuffer() {
+        return this.inboundBuffer;
+    }
+
+    /**
+     * Provide classic setter API.
+     *
+     * @paran value A new value of inboundBuffer property to assign.
+     */
+    private final void setInboundBuffer(int value) {
+        try {
+            inboundBufferUpdater.invoke(this, value);
+        } catch (UnsupportedOperationException e) {
+        } catch (Throwable e) {
+            throw quiet(e);
+        }
+    }
+
+    /**
+     * Sets the overflow policy of the inbound ring buffer. Default value is {@link Overflow#BLOCK}.
+     *  
+     *  @return Chainable API.
+     */
+    @Override
+    public final Overflow overflow() {
+        return this.overflow;
+    }
+
+    /**
+     * Provide classic getter API.
+     *
+     * @return A value of overflow property.
+     */
+    @SuppressWarnings("unused")
+    private final Overflow getOverflow() {
+        return this.overflow;
+    }
+
+    /**
+     * Provide classic setter API.
+     *
+     * @paran value A new value of overflow property to assign.
+     */
+    private final void setOverflow(Overflow value) {
+        if (value == null) {
+            value = super.overflow();
+        }
+        try {
+            overflowUpdater.invoke(this, value);
+        } catch (UnsupportedOperationException e) {
+        } catch (Throwable e) {
+            throw quiet(e);
+        }
+    }
+
+    /**
+     * Extract the conflation key from the raw message. The pending message which has the same key
+     *  is replaced by the newer one when the overflow policy is {@link Overflow#CONFLATE}. Return
+     *  null if the message must not be conflated (i.e. the order book diff).
+     *  
+     *  @return Chainable API.
+     */
+    @Override
+    public final Function<JSONScanner, String> conflateBy() {
+        return this.conflateBy;
+    }
+
+    /**
+     * Provide classic getter API.
+     *
+     * @return A value of conflateBy property.
+     */
+    @SuppressWarnings("unused")
+    private final Function<JSONScanner, String> getConflateBy() {
+        return this.conflateBy;
+    }
+
+    /**
+     * Provide classic setter API.
+     *
+     * @paran value A new value of conflateBy property to assign.
+     */
+    private final void setConflateBy(Function<JSONScanner, String> value) {
+        if (value == null) {
+            value = super.conflateBy();
+        }
+        try {
+            conflateByUpdater.invoke(this, value);
+        } catch (UnsupportedOperationException e) {
+        } catch (Throwable e) {
+            throw quiet(e);
+        }
+    }
+
     /**
      * Outputs a detailed log.
      *  
@@ -555,12 +737,16 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         builder.append("address=").append(address).append(", ");
         builder.append("extractId=").append(extractId).append(", ");
         builder.append("updateId=").append(updateId).append(", ");
+        builder.append("peekId=").append(peekId).append(", ");
         builder.append("maximumSubscriptions=").append(maximumSubscriptions).append(", ");
         builder.append("ignoreMessageIf=").append(ignoreMessageIf).append(", ");
         builder.append("recconnectIf=").append(recconnectIf).append(", ");
         builder.append("stopRecconnectIf=").append(stopRecconnectIf).append(", ");
         builder.append("pongIf=").append(pongIf).append(", ");
         builder.append("whenConnected=").append(whenConnected).append(", ");
+        builder.append("inboundBuffer=").append(inboundBuffer).append(", ");
+        builder.append("overflow=").append(overflow).append(", ");
+        builder.append("conflateBy=").append(conflateBy).append(", ");
         builder.append("client=").append(client).append(", ");
         builder.append("scheduler=").append(scheduler).append("]");
         return builder.toString();
@@ -573,7 +759,7 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(address, extractId, updateId, maximumSubscriptions, ignoreMessageIf, recconnectIf, stopRecconnectIf, pongIf, whenConnected, client, scheduler);
+        return Objects.hash(address, extractId, updateId, peekId, maximumSubscriptions, ignoreMessageIf, recconnectIf, stopRecconnectIf, pongIf, whenConnected, inboundBuffer, overflow, conflateBy, client, scheduler);
     }
 
     /**
@@ -591,12 +777,16 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         if (!Objects.equals(address, other.address)) return false;
         if (!Objects.equals(extractId, other.extractId)) return false;
         if (!Objects.equals(updateId, other.updateId)) return false;
+        if (!Objects.equals(peekId, other.peekId)) return false;
         if (maximumSubscriptions != other.maximumSubscriptions) return false;
         if (!Objects.equals(ignoreMessageIf, other.ignoreMessageIf)) return false;
         if (!Objects.equals(recconnectIf, other.recconnectIf)) return false;
         if (!Objects.equals(stopRecconnectIf, other.stopRecconnectIf)) return false;
         if (!Objects.equals(pongIf, other.pongIf)) return false;
         if (!Objects.equals(whenConnected, other.whenConnected)) return false;
+        if (inboundBuffer != other.inboundBuffer) return false;
+        if (!Objects.equals(overflow, other.overflow)) return false;
+        if (!Objects.equals(conflateBy, other.conflateBy)) return false;
         if (!Objects.equals(client, other.client)) return false;
         if (!Objects.equals(scheduler, other.scheduler)) return false;
         return true;
@@ -612,7 +802,7 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         if (this.address == value) {
             return this;
         }
-        return with.address(value).extractId(this.extractId).updateId(this.updateId).maximumSubscriptions(this.maximumSubscriptions).ignoreMessageIf(this.ignoreMessageIf).recconnectIf(this.recconnectIf).stopRecconnectIf(this.stopRecconnectIf).pongIf(this.pongIf).whenConnected(this.whenConnected).client(this.client).scheduler(this.scheduler);
+        return with.address(value).extractId(this.extractId).updateId(this.updateId).peekId(this.peekId).maximumSubscriptions(this.maximumSubscriptions).ignoreMessageIf(this.ignoreMessageIf).recconnectIf(this.recconnectIf).stopRecconnectIf(this.stopRecconnectIf).pongIf(this.pongIf).whenConnected(this.whenConnected).inboundBuffer(this.inboundBuffer).overflow(this.overflow).conflateBy(this.conflateBy).client(this.client).scheduler(this.scheduler);
     }
 
     /**
@@ -625,7 +815,7 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         if (this.client == value) {
             return this;
         }
-        return with.address(this.address).extractId(this.extractId).updateId(this.updateId).maximumSubscriptions(this.maximumSubscriptions).ignoreMessageIf(this.ignoreMessageIf).recconnectIf(this.recconnectIf).stopRecconnectIf(this.stopRecconnectIf).pongIf(this.pongIf).whenConnected(this.whenConnected).client(value).scheduler(this.scheduler);
+        return with.address(this.address).extractId(this.extractId).updateId(this.updateId).peekId(this.peekId).maximumSubscriptions(this.maximumSubscriptions).ignoreMessageIf(this.ignoreMessageIf).recconnectIf(this.recconnectIf).stopRecconnectIf(this.stopRecconnectIf).pongIf(this.pongIf).whenConnected(this.whenConnected).inboundBuffer(this.inboundBuffer).overflow(this.overflow).conflateBy(this.conflateBy).client(value).scheduler(this.scheduler);
     }
 
     /**
@@ -638,7 +828,7 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         if (this.scheduler == value) {
             return this;
         }
-        return with.address(this.address).extractId(this.extractId).updateId(this.updateId).maximumSubscriptions(this.maximumSubscriptions).ignoreMessageIf(this.ignoreMessageIf).recconnectIf(this.recconnectIf).stopRecconnectIf(this.stopRecconnectIf).pongIf(this.pongIf).whenConnected(this.whenConnected).client(this.client).scheduler(value);
+        return with.address(this.address).extractId(this.extractId).updateId(this.updateId).peekId(this.peekId).maximumSubscriptions(this.maximumSubscriptions).ignoreMessageIf(this.ignoreMessageIf).recconnectIf(this.recconnectIf).stopRecconnectIf(this.stopRecconnectIf).pongIf(this.pongIf).whenConnected(this.whenConnected).inboundBuffer(this.inboundBuffer).overflow(this.overflow).conflateBy(this.conflateBy).client(this.client).scheduler(value);
     }
 
     /** The singleton builder. */
@@ -711,6 +901,17 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
             return (Next) this;
         }
 
+        /**
+         * Assign peekId property.
+         * 
+         * @param value A new value to assign.
+         * @return The next assignable model.
+         */
+        default Next peekId(Function<JSONScanner, String> value) {
+            ((EfficientWebSocket) this).setPeekId(value);
+            return (Next) this;
+        }
+
         /**
          * Assign maximumSubscriptions property.
          * 
@@ -777,6 +978,39 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
             return (Next) this;
         }
 
+        /**
+         * Assign inboundBuffer property.
+         * 
+         * @param value A new value to assign.
+         * @return The next assignable model.
+         */
+        default Next inboundBuffer(int value) {
+            ((EfficientWebSocket) this).setInboundBuffer(value);
+            return (Next) this;
+        }
+
+        /**
+         * Assign overflow property.
+         * 
+         * @param value A new value to assign.
+         * @return The next assignable model.
+         */
+        default Next overflow(Overflow value) {
+            ((EfficientWebSocket) this).setOverflow(value);
+            return (Next) this;
+        }
+
+        /**
+         * Assign conflateBy property.
+         * 
+         * @param value A new value to assign.
+         * @return The next assignable model.
+         */
+        default Next conflateBy(Function<JSONScanner, String> value) {
+            ((EfficientWebSocket) this).setConflateBy(value);
+            return (Next) this;
+        }
+
         /**
          * Assign client property.
          * 
@@ -819,12 +1053,16 @@ public class EfficientWebSocket extends EfficientWebSocketModel {
         static final String Address = "address";
         static final String ExtractId = "extractId";
         static final String UpdateId = "updateId";
+        static final String PeekId = "peekId";
         static final String MaximumSubscriptions = "maximumSubscriptions";
         static final String IgnoreMessageIf = "ignoreMessageIf";
         static final String RecconnectIf = "recconnectIf";
         static final String StopRecconnectIf = "stopRecconnectIf";
         static final String PongIf = "pongIf";
         static final String WhenConnected = "whenConnected";
+        static final String InboundBuffer = "inboundBuffer";
+        static final String Overflow = "overflow";
+        static final String ConflateBy = "conflateBy";
         static final String Client = "client";
         static final String Scheduler = "scheduler";
     }
@@ -106,6 +106,12 @@ public class BackTest implements BackTestModel {
     /** The final property updater. */
     private static final MethodHandle typeUpdater = updater("type");
 
+    /** The final property updater. */
+    private static final MethodHandle parallelismUpdater = updater("parallelism");
+
+    /** The final property updater. */
+    private static final MethodHandle dayCacheSizeUpdater = updater("dayCacheSize");
+
     /** The exposed property. */
     public final MarketService service;
 
@@ -130,6 +136,12 @@ public class BackTest implements BackTestModel {
     /** The exposed property. */
     public final LogType type;
 
+    /** The exposed property. */
+    public final int parallelism;
+
+    /** The exposed property. */
+    public final long dayCacheSize;
+
     /**
      * HIDE CONSTRUCTOR
      */
@@ -142,6 +154,8 @@ public class BackTest implements BackTestModel {
         this.initialTargetCurrency = BackTestModel.super.initialTargetCurrency();
         this.detail = BackTestModel.super.detail();
         this.type = BackTestModel.super.type();
+        this.parallelism = BackTestModel.super.parallelism();
+        this.dayCacheSize = BackTestModel.super.dayCacheSize();
     }
 
     /**
@@ -437,6 +451,76 @@ public class BackTest implements BackTestModel {
         }
     }
 
+    /**
+     * Set the number of days which are read concurrently. The days are read sequentially by default,
+     *  so the caller must opt in to use more threads and memory.
+     *  
+     *  @return
+     */
+    @Override
+    public final int parallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Provide classic getter API.
+     *
+     * @return A value of parallelism property.
+     */
+    @SuppressWarnings("unused")
+    private final int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Provide classic setter API.
+     *
+     * @paran value A new value of parallelism property to assign.
+     */
+    private final void setParallelism(int value) {
+        try {
+            parallelismUpdater.invoke(this, value);
+        } catch (UnsupportedOperationException e) {
+        } catch (Throwable e) {
+            throw quiet(e);
+        }
+    }
+
+    /**
+     * Set the memory size (megabytes) of the decoded days which are shared by the concurrent
+     *  backtests in this JVM. The decoded days are not shared by default.
+     *  
+     *  @return
+     */
+    @Override
+    public final long dayCacheSize() {
+        return this.dayCacheSize;
+    }
+
+    /**
+     * Provide classic getter API.
+     *
+     * @return A value of dayCacheSize property.
+     */
+    @SuppressWarnings("unused")
+    private final long getDayCacheSize() {
+        return this.dayCacheSize;
+    }
+
+    /**
+     * Provide classic setter API.
+     *
+     * @paran value A new value of dayCacheSize property to assign.
+     */
+    private final void setDayCacheSize(long value) {
+        try {
+            dayCacheSizeUpdater.invoke(this, value);
+        } catch (UnsupportedOperationException e) {
+        } catch (Throwable e) {
+            throw quiet(e);
+        }
+    }
+
     /**
      * Show all property values.
      *
@@ -452,7 +536,9 @@ public class BackTest implements BackTestModel {
         builder.append("initialBaseCurrency=").append(initialBaseCurrency).append(", ");
         builder.append("initialTargetCurrency=").append(initialTargetCurrency).append(", ");
         builder.append("detail=").append(detail).append(", ");
-        builder.append("type=").append(type).append("]");
+        builder.append("type=").append(type).append(", ");
+        builder.append("parallelism=").append(parallelism).append(", ");
+        builder.append("dayCacheSize=").append(dayCacheSize).append("]");
         return builder.toString();
     }
 
@@ -463,7 +549,7 @@ public class BackTest implements BackTestModel {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(service, start, end, traders, initialBaseCurrency, initialTargetCurrency, detail, type);
+        return Objects.hash(service, start, end, traders, initialBaseCurrency, initialTargetCurrency, detail, type, parallelism, dayCacheSize);
     }
 
     /**
@@ -486,6 +572,8 @@ public class BackTest implements BackTestModel {
         if (!Objects.equals(initialTargetCurrency, other.initialTargetCurrency)) return false;
         if (detail != other.detail) return false;
         if (!Objects.equals(type, other.type)) return false;
+        if (parallelism != other.parallelism) return false;
+        if (dayCacheSize != other.dayCacheSize) return false;
         return true;
     }
 
@@ -704,6 +792,37 @@ public class BackTest implements BackTestModel {
         default Next fast() {
             return type(LogType.Fast);
         }
+
+        /**
+         * Assign type property.
+         * 
+         * @return The next assignable model.
+         */
+        default Next binary() {
+            return type(LogType.Binary);
+        }
+
+        /**
+         * Assign parallelism property.
+         * 
+         * @param value A new value to assign.
+         * @return The next assignable model.
+         */
+        default Next parallelism(int value) {
+            ((BackTest) this).setParallelism(value);
+            return (Next) this;
+        }
+
+        /**
+         * Assign dayCacheSize property.
+         * 
+         * @param value A new value to assign.
+         * @return The next assignable model.
+         */
+        default Next dayCacheSize(long value) {
+            ((BackTest) this).setDayCacheSize(value);
+            return (Next) this;
+        }
     }
 
     /**
@@ -730,5 +849,7 @@ public class BackTest implements BackTestModel {
         static final String InitialTargetCurrency = "initialTargetCurrency";
         static final String Detail = "detail";
         static final String Type = "type";
+        static final String Parallelism = "parallelism";
+        static final String DayCacheSize = "dayCacheSize";
     }
 }
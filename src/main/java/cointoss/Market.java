@@ -16,12 +16,15 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import cointoss.execution.Execution;
+import cointoss.execution.ExecutionBuffer;
 import cointoss.execution.ExecutionLog;
+import cointoss.execution.PriceTriggerBook;
 import cointoss.market.MarketServiceProvider;
 import cointoss.order.Order;
 import cointoss.order.OrderBookManager;
@@ -69,11 +72,19 @@ public class Market implements Disposable {
     /** The ticker manager. */
     public final TickerManager tickers;
 
+    /** The price triggers. */
+    public final PriceTriggerBook triggers = new PriceTriggerBook();
+
     /** The execution observers. */
     protected final Signaling<Execution> timelineObservers = new Signaling();
 
+    /** The number of the external observers of timeline. */
+    private final AtomicInteger timelineSubscribers = new AtomicInteger();
+
     /** The execution timeline. */
-    public final Signal<Execution> timeline = timelineObservers.expose.skipComplete();
+    public final Signal<Execution> timeline = timelineObservers.expose.skipComplete()
+            .effectOnObserve(disposer -> timelineSubscribers.incrementAndGet())
+            .effectOnDispose(() -> timelineSubscribers.decrementAndGet());
 
     private final AtomicReference<Execution> switcher = new AtomicReference<>(Market.BASE);
 
@@ -118,10 +129,11 @@ public class Market implements Disposable {
         this.priceVolume = createPriceRangedVolumeManager();
         this.tickers = createTickerManager();
 
-        // build tickers for each span
-        timeline.to(e -> {
+        // build tickers for each span (it is not counted as the observer of timeline)
+        timelineObservers.expose.skipComplete().to(e -> {
             tickers.update(e);
             priceVolume.update(e);
+            triggers.update(e);
         });
         tickers.on(Span.Hour8).open.to(priceVolume::start);
 
@@ -299,9 +311,9 @@ public class Market implements Disposable {
      */
     public final Signal<Execution> signalByPrice(Num price) {
         if (tickers.latest.v.price.isLessThan(price)) {
-            return timeline.take(e -> e.price.isGreaterThanOrEqual(price)).take(1);
+            return triggers.above(price);
         } else {
-            return timeline.take(e -> e.price.isLessThanOrEqual(price)).take(1);
+            return triggers.below(price);
         }
     }
 
@@ -317,6 +329,57 @@ public class Market implements Disposable {
         return this;
     }
 
+    /**
+     * Replay the decoded {@link Execution}s.
+     * <p>
+     * When any {@link Trader} is registered, all executions are materialized and emitted to
+     * {@link #timeline}. Otherwise, tickers and price volumes are updated directly from the
+     * primitive columns to avoid the allocation per execution, so {@link #timeline} is not emitted
+     * in this case.
+     * 
+     * @param executions The decoded executions.
+     * @return Chainable API.
+     */
+    public final Market replay(ExecutionBuffer executions) {
+        if (!managedTraders.isEmpty()) {
+            return readLog(log -> executions.replay());
+        }
+
+        ExecutionBuffer.Cursor cursor = executions.cursor();
+        while (cursor.next()) {
+            update(cursor);
+        }
+
+        if (cursor.index() != 0) {
+            tickers.latest.set(executions.get(cursor.index() - 1));
+        }
+        return this;
+    }
+
+    /**
+     * Update tickers, price volumes and price triggers by the current execution of cursor without
+     * emitting it to {@link #timeline}.
+     * 
+     * @param cursor The cursor positioned at the current execution.
+     */
+    protected final void update(ExecutionBuffer.Cursor cursor) {
+        tickers.update(cursor);
+        priceVolume.update(cursor.direction(), cursor.price(), (float) cursor.size());
+        if (triggers.size() != 0) {
+            triggers.update(cursor.execution());
+        }
+    }
+
+    /**
+     * Check whether anyone observes {@link #timeline} or not. The internal updater of tickers is
+     * not counted.
+     * 
+     * @return Result.
+     */
+    protected final boolean isTimelineObserved() {
+        return timelineSubscribers.get() != 0;
+    }
+
     /**
      * Shortcut method for {@link Tick} open timing.
      * 
@@ -28,8 +28,10 @@ import cointoss.execution.ExecutionLogRepository;
 import cointoss.market.Exchange;
 import cointoss.market.MarketServiceProvider;
 import cointoss.order.Order;
+import cointoss.order.OrderBookLog;
 import cointoss.order.OrderBookPageChanges;
 import cointoss.order.OrderState;
+import cointoss.ticker.TickStore;
 import cointoss.ticker.data.Liquidation;
 import cointoss.ticker.data.OpenInterest;
 import cointoss.util.Chrono;
@@ -51,6 +53,9 @@ public abstract class MarketService implements Comparable<MarketService>, Dispos
     /** The logging system. */
     protected static final Logger logger = LogManager.getLogger(MarketService.class);
 
+    /** The approximate memory usage of {@link OpenInterest}. (byte) */
+    protected static final int OpenInterestBytes = 48;
+
     /** The exchange. */
     public final Exchange exchange;
 
@@ -66,6 +71,12 @@ public abstract class MarketService implements Comparable<MarketService>, Dispos
     /** The execution log. */
     public final ExecutionLog log;
 
+    /** The order book log. */
+    public final OrderBookLog orderBookLog;
+
+    /** The prebuilt ticks. */
+    public final TickStore tickStore;
+
     /** The service disposer. */
     protected final Disposable disposer = Disposable.empty();
 
@@ -101,6 +112,8 @@ public abstract class MarketService implements Comparable<MarketService>, Dispos
         this.scheduler.setKeepAliveTime(30, TimeUnit.SECONDS);
         // this.writable = directory().file(".lock").lock().mapTo(true).recover(false).to().exact();
         this.log = new ExecutionLog(this);
+        this.orderBookLog = new OrderBookLog(this);
+        this.tickStore = new TickStore(this);
     }
 
     /**
@@ -380,13 +393,17 @@ public abstract class MarketService implements Comparable<MarketService>, Dispos
     public final synchronized FeatherStore<OpenInterest> openInterest() {
         if (openInterest == null && !setting.type.isSpot()) {
             openInterest = initializeOpenInterest();
-            add(openInterest);
+            if (openInterest != null) {
+                add(openInterest);
+            }
         }
         return openInterest;
     }
 
     /**
-     * Provide the market specific tick related data if needed.
+     * Provide the market specific tick related data if needed. The store should join the memory
+     * budget by {@link #OpenInterestBytes} before its data supplier starts, so that all loaded
+     * segments are tracked.
      */
     protected FeatherStore<OpenInterest> initializeOpenInterest() {
         return null;
@@ -78,6 +78,18 @@ interface MarketSettingModel {
         return 100;
     }
 
+    /**
+     * Configure max number of concurrent requests to catch up the execution history. The
+     * concurrent requests are enabled only if the execution id is sequential and the REST API
+     * respects both ends of the requested id range.
+     * 
+     * @return
+     */
+    @Icy.Property
+    default int acquirableExecutionConcurrency() {
+        return 1;
+    }
+
     /**
      * Configure {@link ExecutionLogger} parser.
      * 
@@ -0,0 +1,674 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import static java.nio.file.StandardOpenOption.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import com.github.luben.zstd.Zstd;
+
+import cointoss.Direction;
+import cointoss.util.Chrono;
+import cointoss.util.arithmetic.Num;
+import kiss.I;
+import kiss.Signal;
+
+/**
+ * Columnar binary execution log.
+ * <p>
+ * Executions are grouped into blocks, each block stores id, mills, price, size, side/consecutive
+ * and delay as separated columns. Id, mills and price are delta-encoded and all numeric values are
+ * packed as zigzag varint, then each block is compressed by zstd individually. The block index is
+ * placed at the tail of file, so any block can be decoded without reading the preceding blocks.
+ *
+ * <pre>
+ * [magic:int][version:int]
+ * [block]*         items:int rawLength:int compressedLength:int compressed:byte[]
+ * [index entry]*   offset:long firstId:long firstMills:long items:int
+ * [footer]         blocks:int indexOffset:long magic:int
+ * </pre>
+ */
+class BinaryLog {
+
+    /** The file signature. */
+    private static final int MAGIC = 0x4354424C; // CTBL
+
+    /** The format version. */
+    private static final int VERSION = 1;
+
+    /** The byte size of the index entry. */
+    private static final int INDEX_ENTRY = 8 + 8 + 8 + 4;
+
+    /** The byte size of the footer. */
+    private static final int FOOTER = 4 + 8 + 4;
+
+    /** The maximum number of executions in one block. */
+    static final int BLOCK_SIZE = 8192;
+
+    /** The compression level. */
+    private static final int LEVEL = 1;
+
+    /**
+     * Decoded block which holds all columns as primitive arrays.
+     */
+    static class Block {
+
+        /** The number of executions. */
+        int size;
+
+        /** The id column. */
+        final long[] ids;
+
+        /** The epoch mills column. */
+        final long[] mills;
+
+        /** The unscaled price column. */
+        final long[] prices;
+
+        /** The scale of price column. */
+        int priceScale;
+
+        /** The unscaled size column. */
+        final long[] sizes;
+
+        /** The scale of size column. */
+        int sizeScale;
+
+        /** The side (bit 0) and consecutive type (bit 1-2) column. */
+        final byte[] flags;
+
+        /** The delay column. */
+        final int[] delays;
+
+        /**
+         * Create block with the specified capacity.
+         *
+         * @param capacity
+         */
+        Block(int capacity) {
+            this.ids = new long[capacity];
+            this.mills = new long[capacity];
+            this.prices = new long[capacity];
+            this.sizes = new long[capacity];
+            this.flags = new byte[capacity];
+            this.delays = new int[capacity];
+        }
+
+        /**
+         * Get the direction at the specified index.
+         *
+         * @param index
+         * @return
+         */
+        Direction direction(int index) {
+            return (flags[index] & 1) == 0 ? Direction.BUY : Direction.SELL;
+        }
+
+        /**
+         * Get the consecutive type at the specified index.
+         *
+         * @param index
+         * @return
+         */
+        int consecutive(int index) {
+            return (flags[index] >> 1) & 0b11;
+        }
+
+        /**
+         * Get the price at the specified index as primitive value.
+         *
+         * @param index
+         * @return
+         */
+        double price(int index) {
+            return prices[index] / Math.pow(10, priceScale);
+        }
+
+        /**
+         * Get the size at the specified index as primitive value.
+         *
+         * @param index
+         * @return
+         */
+        double size(int index) {
+            return sizes[index] / Math.pow(10, sizeScale);
+        }
+
+        /**
+         * Materialize {@link Execution} at the specified index.
+         *
+         * @param index
+         * @return
+         */
+        Execution execution(int index) {
+            return Execution.with.direction(direction(index), Num.ofUnscaled(sizes[index], sizeScale))
+                    .price(Num.ofUnscaled(prices[index], priceScale))
+                    .id(ids[index])
+                    .date(Chrono.utcByMills(mills[index]))
+                    .consecutive(consecutive(index))
+                    .delay(delays[index]);
+        }
+    }
+
+    /**
+     * Read all executions from the specified binary log.
+     *
+     * @param file A binary log.
+     * @return
+     */
+    static Signal<Execution> read(Path file) {
+        return read(file, Long.MIN_VALUE);
+    }
+
+    /**
+     * Read executions which are executed after the specified time from the binary log. The block
+     * index is used to skip the preceding blocks without decoding.
+     *
+     * @param file A binary log.
+     * @param fromMills The start time. (epoch mills, inclusive)
+     * @return
+     */
+    static Signal<Execution> read(Path file, long fromMills) {
+        return new Signal<>((observer, disposer) -> {
+            try (Reader reader = new Reader(file)) {
+                Block block = new Block(BLOCK_SIZE);
+
+                for (int i = reader.indexOf(fromMills); i < reader.blocks() && !disposer.isDisposed(); i++) {
+                    reader.read(i, block);
+
+                    for (int j = 0; j < block.size && !disposer.isDisposed(); j++) {
+                        if (fromMills <= block.mills[j]) {
+                            observer.accept(block.execution(j));
+                        }
+                    }
+                }
+                observer.complete();
+            } catch (Throwable e) {
+                observer.error(e);
+            }
+            return disposer;
+        });
+    }
+
+    /**
+     * Random access reader.
+     */
+    static class Reader implements AutoCloseable {
+
+        /** The target file. */
+        private final FileChannel channel;
+
+        /** The block offsets. */
+        private final long[] offsets;
+
+        /** The first id of each blocks. */
+        private final long[] firstIds;
+
+        /** The first mills of each blocks. */
+        private final long[] firstMills;
+
+        /** The number of executions of each blocks. */
+        private final int[] items;
+
+        /** The reusable buffer for compressed data. */
+        private byte[] compressed = new byte[0];
+
+        /** The reusable buffer for raw data. */
+        private byte[] raw = new byte[0];
+
+        /**
+         * Open the binary log.
+         *
+         * @param file
+         * @throws IOException
+         */
+        Reader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, READ);
+
+            try {
+                long length = channel.size();
+                if (length < 8 + FOOTER) {
+                    throw new IOException("Binary log is broken. [" + file + "]");
+                }
+
+                ByteBuffer footer = readFully(length - FOOTER, FOOTER);
+                int blocks = footer.getInt();
+                long indexOffset = footer.getLong();
+                if (footer.getInt() != MAGIC || blocks < 0 || indexOffset + (long) blocks * INDEX_ENTRY != length - FOOTER) {
+                    throw new IOException("Binary log is broken. [" + file + "]");
+                }
+
+                ByteBuffer header = readFully(0, 8);
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("Unsupported binary log. [" + file + "]");
+                }
+
+                this.offsets = new long[blocks];
+                this.firstIds = new long[blocks];
+                this.firstMills = new long[blocks];
+                this.items = new int[blocks];
+
+                ByteBuffer index = readFully(indexOffset, blocks * INDEX_ENTRY);
+                for (int i = 0; i < blocks; i++) {
+                    offsets[i] = index.getLong();
+                    firstIds[i] = index.getLong();
+                    firstMills[i] = index.getLong();
+                    items[i] = index.getInt();
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Get the number of blocks.
+         *
+         * @return
+         */
+        int blocks() {
+            return offsets.length;
+        }
+
+        /**
+         * Get the number of executions in the specified block.
+         *
+         * @param block
+         * @return
+         */
+        int items(int block) {
+            return items[block];
+        }
+
+        /**
+         * Get the first id in the specified block.
+         *
+         * @param block
+         * @return
+         */
+        long firstId(int block) {
+            return firstIds[block];
+        }
+
+        /**
+         * Find the index of block which may contain the specified time.
+         *
+         * @param mills A target time.
+         * @return A block index.
+         */
+        int indexOf(long mills) {
+            int low = 0;
+            int high = firstMills.length - 1;
+            int found = 0;
+
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (firstMills[mid] < mills) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Decode the specified block into the reusable container.
+         *
+         * @param index A block index.
+         * @param block A container.
+         * @throws IOException
+         */
+        void read(int index, Block block) throws IOException {
+            ByteBuffer head = readFully(offsets[index], 12);
+            int size = head.getInt();
+            int rawLength = head.getInt();
+            int compressedLength = head.getInt();
+
+            if (size < 0 || block.ids.length < size || rawLength < 0 || compressedLength < 0) {
+                throw new IOException("Binary log is broken at block " + index + ".");
+            }
+
+            if (compressed.length < compressedLength) compressed = new byte[compressedLength];
+            if (raw.length < rawLength) raw = new byte[rawLength];
+
+            ByteBuffer buffer = ByteBuffer.wrap(compressed, 0, compressedLength);
+            long position = offsets[index] + 12;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) throw new IOException("Unexpected EOF.");
+                position += read;
+            }
+
+            long decoded = Zstd.decompressByteArray(raw, 0, rawLength, compressed, 0, compressedLength);
+            if (decoded != rawLength) {
+                throw new IOException("Binary log is broken at block " + index + ".");
+            }
+            Packer.decode(raw, size, block);
+        }
+
+        /**
+         * Read bytes fully.
+         *
+         * @param position
+         * @param length
+         * @return
+         * @throws IOException
+         */
+        private ByteBuffer readFully(long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) throw new IOException("Unexpected EOF.");
+            }
+            return buffer.flip();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Sequential writer.
+     */
+    static class Writer implements AutoCloseable {
+
+        /** The destination. */
+        private final DataOutputStream out;
+
+        /** The buffering block. */
+        private final Block block = new Block(BLOCK_SIZE);
+
+        /** The reusable buffer for raw data. */
+        private final byte[] raw = new byte[Packer.capacity(BLOCK_SIZE)];
+
+        /** The reusable buffer for compressed data. */
+        private final byte[] compressed = new byte[(int) Zstd.compressBound(raw.length)];
+
+        /** The current file position. */
+        private long position;
+
+        /** The index store. */
+        private ByteBuffer indexes = ByteBuffer.allocate(INDEX_ENTRY * 64);
+
+        /** The number of written blocks. */
+        private int blocks;
+
+        /**
+         * Create writer.
+         *
+         * @param out
+         */
+        Writer(OutputStream out) {
+            try {
+                this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+                this.out.writeInt(MAGIC);
+                this.out.writeInt(VERSION);
+                this.position = 8;
+            } catch (IOException e) {
+                throw I.quiet(e);
+            }
+        }
+
+        /**
+         * Write the execution.
+         *
+         * @param e
+         */
+        void write(Execution e) {
+            int i = block.size;
+            block.ids[i] = e.id;
+            block.mills[i] = e.mills;
+            block.prices[i] = e.price.unscaled(e.price.scale());
+            block.priceScale = i == 0 ? e.price.scale() : block.priceScale;
+            block.sizes[i] = e.size.unscaled(e.size.scale());
+            block.sizeScale = i == 0 ? e.size.scale() : block.sizeScale;
+            block.flags[i] = (byte) ((e.isBuy() ? 0 : 1) | ((e.consecutive & 0b11) << 1));
+            block.delays[i] = e.delay;
+
+            // align the scale in this block
+            if (block.priceScale != e.price.scale()) {
+                block.priceScale = rescale(block.prices, i, block.priceScale, e.price.scale());
+            }
+            if (block.sizeScale != e.size.scale()) {
+                block.sizeScale = rescale(block.sizes, i, block.sizeScale, e.size.scale());
+            }
+            block.size++;
+
+            if (block.size == BLOCK_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * Align all values in the block to the larger scale.
+         *
+         * @param values A column.
+         * @param last The index of the latest value.
+         * @param current The current scale of values (except the latest value).
+         * @param latest The scale of the latest value.
+         * @return The aligned scale.
+         */
+        private int rescale(long[] values, int last, int current, int latest) {
+            if (current < latest) {
+                long multiplier = (long) Math.pow(10, latest - current);
+                for (int i = 0; i < last; i++) {
+                    values[i] = Math.multiplyExact(values[i], multiplier);
+                }
+                return latest;
+            } else {
+                values[last] = Math.multiplyExact(values[last], (long) Math.pow(10, current - latest));
+                return current;
+            }
+        }
+
+        /**
+         * Write the buffering block.
+         */
+        private void flush() {
+            if (block.size == 0) {
+                return;
+            }
+
+            try {
+                int rawLength = Packer.encode(block, raw);
+                long compressedLength = Zstd.compressByteArray(compressed, 0, compressed.length, raw, 0, rawLength, LEVEL);
+                if (Zstd.isError(compressedLength)) {
+                    throw new IOException(Zstd.getErrorName(compressedLength));
+                }
+
+                out.writeInt(block.size);
+                out.writeInt(rawLength);
+                out.writeInt((int) compressedLength);
+                out.write(compressed, 0, (int) compressedLength);
+
+                if (indexes.remaining() < INDEX_ENTRY) {
+                    indexes = ByteBuffer.allocate(indexes.capacity() * 2).put(indexes.flip());
+                }
+                indexes.putLong(position).putLong(block.ids[0]).putLong(block.mills[0]).putInt(block.size);
+
+                position += 12 + compressedLength;
+                blocks++;
+                block.size = 0;
+            } catch (IOException e) {
+                throw I.quiet(e);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() {
+            try {
+                flush();
+
+                out.write(indexes.array(), 0, indexes.position());
+                out.writeInt(blocks);
+                out.writeLong(position);
+                out.writeInt(MAGIC);
+                out.close();
+            } catch (IOException e) {
+                throw I.quiet(e);
+            }
+        }
+    }
+
+    /**
+     * Zigzag varint column packer.
+     */
+    private static class Packer {
+
+        /**
+         * Compute the maximum byte size of the packed block.
+         *
+         * @param items
+         * @return
+         */
+        private static int capacity(int items) {
+            return 2 + items * (10 * 5 + 1);
+        }
+
+        /**
+         * Pack the block.
+         *
+         * @param block A source.
+         * @param bytes A destination.
+         * @return The written length.
+         */
+        private static int encode(Block block, byte[] bytes) {
+            int p = 0;
+            bytes[p++] = (byte) block.priceScale;
+            bytes[p++] = (byte) block.sizeScale;
+
+            long prev = 0;
+            for (int i = 0; i < block.size; i++) {
+                p = put(bytes, p, block.ids[i] - prev);
+                prev = block.ids[i];
+            }
+
+            prev = 0;
+            for (int i = 0; i < block.size; i++) {
+                p = put(bytes, p, block.mills[i] - prev);
+                prev = block.mills[i];
+            }
+
+            prev = 0;
+            for (int i = 0; i < block.size; i++) {
+                p = put(bytes, p, block.prices[i] - prev);
+                prev = block.prices[i];
+            }
+
+            for (int i = 0; i < block.size; i++) {
+                p = put(bytes, p, block.sizes[i]);
+            }
+
+            for (int i = 0; i < block.size; i++) {
+                bytes[p++] = block.flags[i];
+            }
+
+            for (int i = 0; i < block.size; i++) {
+                p = put(bytes, p, block.delays[i]);
+            }
+            return p;
+        }
+
+        /**
+         * Unpack the block.
+         *
+         * @param bytes A source.
+         * @param size The number of items.
+         * @param block A destination.
+         */
+        private static void decode(byte[] bytes, int size, Block block) {
+            int[] p = {0};
+            block.size = size;
+            block.priceScale = bytes[p[0]++];
+            block.sizeScale = bytes[p[0]++];
+
+            long prev = 0;
+            for (int i = 0; i < size; i++) {
+                block.ids[i] = prev += get(bytes, p);
+            }
+
+            prev = 0;
+            for (int i = 0; i < size; i++) {
+                block.mills[i] = prev += get(bytes, p);
+            }
+
+            prev = 0;
+            for (int i = 0; i < size; i++) {
+                block.prices[i] = prev += get(bytes, p);
+            }
+
+            for (int i = 0; i < size; i++) {
+                block.sizes[i] = get(bytes, p);
+            }
+
+            for (int i = 0; i < size; i++) {
+                block.flags[i] = bytes[p[0]++];
+            }
+
+            for (int i = 0; i < size; i++) {
+                block.delays[i] = (int) get(bytes, p);
+            }
+        }
+
+        /**
+         * Write the zigzag varint.
+         *
+         * @param bytes
+         * @param position
+         * @param value
+         * @return The next position.
+         */
+        private static int put(byte[] bytes, int position, long value) {
+            long v = (value << 1) ^ (value >> 63);
+            while ((v & ~0x7FL) != 0) {
+                bytes[position++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            bytes[position++] = (byte) v;
+            return position;
+        }
+
+        /**
+         * Read the zigzag varint.
+         *
+         * @param bytes
+         * @param position
+         * @return
+         */
+        private static long get(byte[] bytes, int[] position) {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position[0]++];
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return (v >>> 1) ^ -(v & 1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,368 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.Arrays;
+
+import cointoss.Direction;
+import cointoss.util.Chrono;
+import cointoss.util.arithmetic.Num;
+import kiss.I;
+import kiss.Signal;
+
+/**
+ * The immutable columnar buffer of decoded {@link Execution}s.
+ * <p>
+ * All values are stored as primitive columns, so the decoded log can be shared by many consumers
+ * (i.e. parallel backtests) without parsing the log again. {@link Execution} is mutable, so the
+ * fresh instance is materialized for each access. The hot loop which needs only some values (i.e.
+ * tickers) can read the columns directly through {@link Cursor} without materializing.
+ */
+public final class ExecutionBuffer {
+
+    /** The id column. */
+    private long[] ids;
+
+    /** The epoch mills column. */
+    private long[] mills;
+
+    /** The unscaled price column. */
+    private long[] prices;
+
+    /** The scale of price column. */
+    private int priceScale;
+
+    /** The unscaled size column. */
+    private long[] sizes;
+
+    /** The scale of size column. */
+    private int sizeScale;
+
+    /** The side (bit 0) and consecutive type (bit 1-2) column. */
+    private byte[] flags;
+
+    /** The delay column. */
+    private int[] delays;
+
+    /** The number of executions. */
+    private int size;
+
+    /**
+     * Create the empty buffer with the specified capacity.
+     *
+     * @param capacity An initial capacity.
+     */
+    private ExecutionBuffer(int capacity) {
+        this.ids = new long[capacity];
+        this.mills = new long[capacity];
+        this.prices = new long[capacity];
+        this.sizes = new long[capacity];
+        this.flags = new byte[capacity];
+        this.delays = new int[capacity];
+    }
+
+    /**
+     * Decode all executions into the buffer. This method blocks until the specified executions are
+     * completed.
+     *
+     * @param executions The source executions.
+     * @return The decoded buffer.
+     */
+    public static ExecutionBuffer of(Signal<Execution> executions) {
+        ExecutionBuffer buffer = new ExecutionBuffer(1024);
+        Throwable[] error = new Throwable[1];
+        executions.to(buffer::add, e -> error[0] = e);
+
+        if (error[0] != null) {
+            throw I.quiet(error[0]);
+        }
+        buffer.trim();
+        return buffer;
+    }
+
+    /**
+     * Append the execution.
+     *
+     * @param e An execution.
+     */
+    private void add(Execution e) {
+        if (size == ids.length) {
+            resize(size * 2);
+        }
+
+        if (priceScale < e.price.scale()) {
+            rescale(prices, e.price.scale() - priceScale);
+            priceScale = e.price.scale();
+        }
+
+        if (sizeScale < e.size.scale()) {
+            rescale(sizes, e.size.scale() - sizeScale);
+            sizeScale = e.size.scale();
+        }
+
+        ids[size] = e.id;
+        mills[size] = e.mills;
+        prices[size] = e.price.unscaled(priceScale);
+        sizes[size] = e.size.unscaled(sizeScale);
+        flags[size] = (byte) ((e.direction.isBuy() ? 0 : 1) | e.consecutive << 1);
+        delays[size] = e.delay;
+        size++;
+    }
+
+    /**
+     * Widen the scale of all stored values.
+     *
+     * @param values A column.
+     * @param diff A scale difference.
+     */
+    private void rescale(long[] values, int diff) {
+        long multiplier = 1;
+        for (int i = 0; i < diff; i++) {
+            multiplier = Math.multiplyExact(multiplier, 10);
+        }
+
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.multiplyExact(values[i], multiplier);
+        }
+    }
+
+    /**
+     * Change the capacity of all columns.
+     *
+     * @param capacity A new capacity.
+     */
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        mills = Arrays.copyOf(mills, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        delays = Arrays.copyOf(delays, capacity);
+    }
+
+    /**
+     * Release the unused capacity.
+     */
+    private void trim() {
+        if (size != ids.length) {
+            resize(size);
+        }
+    }
+
+    /**
+     * Get the number of executions.
+     *
+     * @return The number of executions.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compute the approximate memory usage of columns.
+     *
+     * @return A byte size.
+     */
+    public long memory() {
+        return (long) size * (8 + 8 + 8 + 8 + 1 + 4);
+    }
+
+    /**
+     * Get the epoch mills at the specified index.
+     *
+     * @param index An index of execution.
+     * @return An epoch mills.
+     */
+    public long mills(int index) {
+        return mills[index];
+    }
+
+    /**
+     * Materialize {@link Execution} at the specified index.
+     *
+     * @param index An index of execution.
+     * @return A new execution.
+     */
+    public Execution get(int index) {
+        return Execution.with.direction((flags[index] & 1) == 0 ? Direction.BUY : Direction.SELL, Num.ofUnscaled(sizes[index], sizeScale))
+                .price(Num.ofUnscaled(prices[index], priceScale))
+                .id(ids[index])
+                .date(Chrono.utcByMills(mills[index]))
+                .consecutive((flags[index] >> 1) & 0b11)
+                .delay(delays[index]);
+    }
+
+    /**
+     * Create the new {@link Cursor} which is positioned before the first execution.
+     *
+     * @return A new cursor.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Emit all executions as the new instances.
+     *
+     * @return The executions.
+     */
+    public Signal<Execution> replay() {
+        return new Signal<>((observer, disposer) -> {
+            for (int i = 0; i < size && !disposer.isDisposed(); i++) {
+                observer.accept(get(i));
+            }
+            observer.complete();
+            return disposer;
+        });
+    }
+
+    /**
+     * The flyweight view over the columns. The values are decoded on demand from the current
+     * position, and {@link Execution} is materialized only when it is actually requested.
+     */
+    public final class Cursor {
+
+        /** The current position. */
+        private int index = -1;
+
+        /** The unscaled value of the cached price. */
+        private long unscaled;
+
+        /** The cached price. */
+        private Num price;
+
+        /** The divisor of size column. */
+        private final double divisor = Math.pow(10, sizeScale);
+
+        /** The position of the materialized execution. */
+        private int materialized = -1;
+
+        /** The materialized execution. */
+        private Execution execution;
+
+        /**
+         * Hide constructor.
+         */
+        private Cursor() {
+        }
+
+        /**
+         * Move to the next execution.
+         *
+         * @return Returns <code>false</code> if there is no more execution.
+         */
+        public boolean next() {
+            if (index < size) {
+                index++;
+            }
+            return index < size;
+        }
+
+        /**
+         * Get the current position.
+         *
+         * @return An index of execution.
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * Get the id of current execution.
+         *
+         * @return An id.
+         */
+        public long id() {
+            return ids[index];
+        }
+
+        /**
+         * Get the epoch mills of current execution.
+         *
+         * @return An epoch mills.
+         */
+        public long mills() {
+            return mills[index];
+        }
+
+        /**
+         * Get the direction of current execution.
+         *
+         * @return A direction.
+         */
+        public Direction direction() {
+            return (flags[index] & 1) == 0 ? Direction.BUY : Direction.SELL;
+        }
+
+        /**
+         * Get the consecutive type of current execution.
+         *
+         * @return A consecutive type.
+         */
+        public int consecutive() {
+            return (flags[index] >> 1) & 0b11;
+        }
+
+        /**
+         * Get the delay of current execution.
+         *
+         * @return A delay.
+         */
+        public int delay() {
+            return delays[index];
+        }
+
+        /**
+         * Get the price of current execution. The same instance is reused while the price is not
+         * changed.
+         *
+         * @return A price.
+         */
+        public Num price() {
+            long value = prices[index];
+            if (price == null || unscaled != value) {
+                unscaled = value;
+                price = Num.ofUnscaled(value, priceScale);
+            }
+            return price;
+        }
+
+        /**
+         * Get the size of current execution.
+         *
+         * @return A size.
+         */
+        public double size() {
+            return sizes[index] / divisor;
+        }
+
+        /**
+         * Materialize the previous execution.
+         *
+         * @return An execution or null if the cursor is not beyond the first execution.
+         */
+        public Execution previous() {
+            return index <= 0 ? null : get(Math.min(index, size) - 1);
+        }
+
+        /**
+         * Materialize the current execution. The same instance is returned for the same position.
+         *
+         * @return An execution.
+         */
+        public Execution execution() {
+            if (materialized != index) {
+                materialized = index;
+                execution = get(index);
+            }
+            return execution;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import kiss.I;
+import kiss.Signal;
+
+/**
+ * The process-wide size-bounded cache of the decoded daily executions.
+ * <p>
+ * The completed day is immutable, so the decoded {@link ExecutionBuffer} can be shared by all
+ * concurrent readers (i.e. backtests and sweep jobs over the overlapping date ranges) in the same
+ * JVM. The concurrent readers of the same day wait for the single decoding. The least recently used
+ * day is evicted when the total memory usage exceeds the capacity.
+ * <p>
+ * The decoded days occupy a large amount of heap, so {@link #Shared} is disabled by default. The
+ * application which runs many backtests over the overlapping days opts in by the system property
+ * "cointoss.dayCache" (megabytes) at startup, or by {@link #reserve(long)} before reading (i.e.
+ * BackTest#dayCacheSize and BackTestSweep#dayCacheSize). The memory is released by setting the
+ * capacity to zero again.
+ */
+public final class ExecutionDayCache {
+
+    /** The size of megabyte. */
+    private static final long MB = 1024 * 1024;
+
+    /** The shared cache which is disabled until the capacity is specified. */
+    public static final ExecutionDayCache Shared = new ExecutionDayCache(Math.max(0, Long.getLong("cointoss.dayCache", 0)) * MB);
+
+    /** The cached days in access order. */
+    private final LinkedHashMap<String, CompletableFuture<ExecutionBuffer>> days = new LinkedHashMap(16, 0.75f, true);
+
+    /** The maximum memory usage. (byte) */
+    private long capacity;
+
+    /** The current memory usage. (byte) */
+    private long memory;
+
+    /** The number of cache hits. */
+    private long hits;
+
+    /** The number of cache misses. */
+    private long misses;
+
+    /** The number of evicted days. */
+    private long evictions;
+
+    /**
+     * Create cache with the specified capacity.
+     *
+     * @param capacity The maximum memory usage. (byte)
+     */
+    ExecutionDayCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get the maximum memory usage.
+     *
+     * @return The maximum memory usage. (byte)
+     */
+    public synchronized long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Change the maximum memory usage. The non-positive value disables caching and releases all
+     * cached days.
+     *
+     * @param capacity The maximum memory usage. (byte)
+     * @return Chainable API.
+     */
+    public synchronized ExecutionDayCache capacity(long capacity) {
+        this.capacity = capacity;
+        evict(null);
+        return this;
+    }
+
+    /**
+     * Expand the maximum memory usage to the specified size at least. The larger capacity which is
+     * reserved by the other user is kept as it is.
+     *
+     * @param megabytes The required memory usage. (megabyte)
+     * @return Chainable API.
+     */
+    public synchronized ExecutionDayCache reserve(long megabytes) {
+        if (capacity < megabytes * MB) {
+            capacity = megabytes * MB;
+        }
+        return this;
+    }
+
+    /**
+     * Get the current memory usage.
+     *
+     * @return The current memory usage. (byte)
+     */
+    public synchronized long memory() {
+        return memory;
+    }
+
+    /**
+     * Get the number of cache hits.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of cache misses.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of evicted days.
+     *
+     * @return The number of evicted days.
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Remove all cached days.
+     */
+    public synchronized void clear() {
+        days.values().removeIf(CompletableFuture::isDone);
+        memory = 0;
+    }
+
+    /**
+     * Read the cached day or decode it from the specified source. The source must be the completed
+     * day.
+     *
+     * @param key A day identifier.
+     * @param source A source of executions.
+     * @return The executions.
+     */
+    Signal<Execution> read(String key, Supplier<Signal<Execution>> source) {
+        return I.signal(key).flatMap(k -> capacity() <= 0 ? source.get() : load(k, source).replay());
+    }
+
+    /**
+     * Read the cached day or decode it from the specified source as {@link ExecutionBuffer}. The
+     * source must be the completed day.
+     *
+     * @param key A day identifier.
+     * @param source A source of executions.
+     * @return The decoded executions.
+     */
+    ExecutionBuffer buffer(String key, Supplier<Signal<Execution>> source) {
+        return capacity() <= 0 ? ExecutionBuffer.of(source.get()) : load(key, source);
+    }
+
+    /**
+     * Load the cached day or decode it from the specified source.
+     *
+     * @param key A day identifier.
+     * @param source A source of executions.
+     * @return The decoded executions.
+     */
+    private ExecutionBuffer load(String key, Supplier<Signal<Execution>> source) {
+        CompletableFuture<ExecutionBuffer> future;
+        boolean owner = false;
+
+        synchronized (this) {
+            future = days.get(key);
+            if (future != null) {
+                hits++;
+            } else {
+                misses++;
+                owner = true;
+                future = new CompletableFuture();
+                days.put(key, future);
+            }
+        }
+
+        if (owner) {
+            // decode outside of lock, the other readers of the same day wait for it
+            try {
+                ExecutionBuffer buffer = ExecutionBuffer.of(source.get());
+
+                synchronized (this) {
+                    memory += buffer.memory();
+                    future.complete(buffer);
+                    evict(key);
+                }
+                return buffer;
+            } catch (Throwable e) {
+                synchronized (this) {
+                    days.remove(key, future);
+                }
+                future.completeExceptionally(e);
+                throw I.quiet(e);
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw I.quiet(e.getCause());
+        }
+    }
+
+    /**
+     * Evict the least recently used days until the memory usage is within the capacity. This
+     * method must be invoked in lock.
+     *
+     * @param latest The latest cached day which is evicted only if it exceeds the capacity alone.
+     */
+    private void evict(String latest) {
+        Iterator<Entry<String, CompletableFuture<ExecutionBuffer>>> iterator = days.entrySet().iterator();
+
+        while (capacity < memory && iterator.hasNext()) {
+            Entry<String, CompletableFuture<ExecutionBuffer>> entry = iterator.next();
+            CompletableFuture<ExecutionBuffer> future = entry.getValue();
+
+            // the decoding day is not evicted
+            if (future.isDone() && !entry.getKey().equals(latest)) {
+                memory -= future.join().memory();
+                evictions++;
+                iterator.remove();
+            }
+        }
+
+        if (capacity < memory && latest != null) {
+            CompletableFuture<ExecutionBuffer> future = days.remove(latest);
+            if (future != null) {
+                memory -= future.join().memory();
+                evictions++;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -31,9 +31,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -92,6 +95,17 @@ public class ExecutionLog {
         });
     }
 
+    /** The maximum number of realtime executions which are buffered while REST API is catching up. */
+    private static final int RealtimeBufferLimit = 200_000;
+
+    /** The thread pool for the concurrent REST requests. */
+    private static final ExecutorService fetcher = Executors.newCachedThreadPool(run -> {
+        Thread thread = new Thread(run);
+        thread.setName("ExecutionLog Fetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /** NOOP TASK */
     private static final ScheduledFuture NOOP = new ScheduledFuture() {
 
@@ -283,6 +297,13 @@ public class ExecutionLog {
         root.delete("*.flog");
     }
 
+    /**
+     * Clear all binary log.
+     */
+    public final void clearBinaryCache() {
+        root.delete("*.blog");
+    }
+
     /**
      * Clear all fast log.
      */
@@ -296,15 +317,26 @@ public class ExecutionLog {
      * @param start The start date.
      * @return
      */
-    public final synchronized Signal<Execution> from(ZonedDateTime start, LogType... type) {
+    public final Signal<Execution> from(ZonedDateTime start, LogType... type) {
+        return from(start, 1, type);
+    }
+
+    /**
+     * Read date from the specified date. The cached logs of upcoming days are read concurrently.
+     * 
+     * @param start The start date.
+     * @param parallelism The maximum number of days which are read concurrently.
+     * @return
+     */
+    public final synchronized Signal<Execution> from(ZonedDateTime start, int parallelism, LogType... type) {
         ZonedDateTime endDay = repository.lastZDT();
         ZonedDateTime startDay = Chrono.between(repository.firstZDT(), start, endDay).truncatedTo(ChronoUnit.DAYS);
 
-        return I.signal(startDay)
+        Signal<ZonedDateTime> days = I.signal(startDay)
                 .recurse(day -> day.plusDays(1))
-                .takeWhile(day -> day.isBefore(endDay) || day.isEqual(endDay))
-                .concatMap(day -> new Cache(day).read(type))
-                .concat(network(-1).effect(this::cache));
+                .takeWhile(day -> day.isBefore(endDay) || day.isEqual(endDay));
+
+        return ParallelReader.read(days, day -> new Cache(day).read(type), parallelism).concat(network(-1).effect(this::cache));
     }
 
     /**
@@ -330,12 +362,79 @@ public class ExecutionLog {
             long cacheId = lastCache().estimateLastID();
             long startId = fromId != -1 ? fromId
                     : cacheId != -1 ? cacheId : service.searchInitialExecution().map(e -> e.id).waitForTerminate().to().exact();
+            int concurrency = service.setting.acquirableExecutionConcurrency();
             Num coefficient = Num.ONE;
             ArrayDeque<Execution> rests = new ArrayDeque(size);
             while (!disposer.isDisposed()) {
                 rests.clear();
 
                 long range = Math.round(service.setting.acquirableExecutionSize * coefficient.doubleValue());
+
+                if (activeRealtime && 1 < concurrency && startId + concurrency * (range - 1) < buffer.realtimeFirstId()) {
+                    // REST API is far behind the real-time API (i.e. reconnection after the
+                    // maintenance), request the successive ranges concurrently.
+                    CompletableFuture<long[]>[] windows = new CompletableFuture[concurrency];
+                    List<Execution>[] results = new List[concurrency];
+                    for (int i = 0; i < concurrency; i++) {
+                        long start = startId + i * (range - 1);
+                        List<Execution> result = results[i] = new ArrayList(size);
+                        windows[i] = CompletableFuture.supplyAsync(() -> fetch(start, start + range, result), fetcher);
+                    }
+
+                    // process the responses in id order
+                    boolean truncated = false;
+                    int max = 0;
+                    Execution latest = null;
+                    for (int i = 0; i < concurrency; i++) {
+                        long end = startId + range;
+                        long[] window;
+                        try {
+                            window = windows[i].join();
+                        } catch (CompletionException e) {
+                            observer.error(e.getCause());
+                            return disposer;
+                        }
+
+                        if (size <= window[0] && coefficient.isGreaterThan(1)) {
+                            // The server may truncate this range at either end, so this and the
+                            // following ranges are discarded before any execution is emitted and
+                            // requested again in the narrowed range.
+                            truncated = true;
+                            break;
+                        }
+
+                        for (Execution execution : results[i]) {
+                            if (!buffer.canSwitch(execution)) {
+                                observer.accept(execution);
+                                latest = execution;
+                            } else {
+                                // REST API has caught up with the real-time API,
+                                // we must switch to realtime API.
+                                buffer.switchToRealtime(execution.id, observer);
+                                return disposer;
+                            }
+                        }
+
+                        if (size <= window[0] && !results[i].isEmpty() && window[1] < end - 1) {
+                            // The range can't be narrowed anymore, so the following ranges are
+                            // discarded and requested again from the last execution.
+                            startId = window[1];
+                            truncated = true;
+                            break;
+                        }
+                        startId = end - 1;
+                        max = Math.max(max, results[i].size());
+                    }
+                    log.info("{} \t{} size {}({}) x{}", service.id, latest == null ? startId : latest.date, max, coefficient, concurrency);
+
+                    if (truncated) {
+                        coefficient = Num.max(Num.ONE, coefficient.isGreaterThan(50) ? coefficient.divide(2).scale(0) : coefficient.minus(5));
+                    } else {
+                        coefficient = expand(coefficient, max, size);
+                    }
+                    continue;
+                }
+
                 service.executions(startId, startId + range).waitForTerminate().to(rests::add, observer::error);
 
                 // Since the synchronous REST API did not return an error, it can be determined that
@@ -376,20 +475,7 @@ public class ExecutionLog {
                             return disposer;
                         }
                         startId = latestId;
-
-                        // The number of acquired data is too small,
-                        // expand the data range slightly from next time.
-                        if (retrieved < size * 0.05) {
-                            coefficient = coefficient.plus("50");
-                        } else if (retrieved < size * 0.1) {
-                            coefficient = coefficient.plus("5");
-                        } else if (retrieved < size * 0.3) {
-                            coefficient = coefficient.plus("2");
-                        } else if (retrieved < size * 0.5) {
-                            coefficient = coefficient.plus("0.5");
-                        } else if (retrieved < size * 0.7) {
-                            coefficient = coefficient.plus("0.1");
-                        }
+                        coefficient = expand(coefficient, retrieved, size);
                     }
                 } else {
                     // REST API returns empty execution
@@ -412,6 +498,57 @@ public class ExecutionLog {
         }).effectOnError(e -> e.printStackTrace()).retryWhen(service.retryPolicy(500, "ExecutionLog"));
     }
 
+    /**
+     * Request the executions in the specified range. (both ends are excluded)
+     * 
+     * @param startId The start id.
+     * @param endId The end id.
+     * @param result The executions in range.
+     * @return The number of retrieved executions and the last id in range.
+     */
+    private long[] fetch(long startId, long endId, List<Execution> result) {
+        long[] window = {0, startId};
+        Throwable[] error = new Throwable[1];
+
+        // some exchanges ignore the end id, so the executions out of range are dropped
+        service.executions(startId, endId).waitForTerminate().to(e -> {
+            window[0]++;
+            if (e.id < endId) {
+                result.add(e);
+                window[1] = e.id;
+            }
+        }, e -> error[0] = e);
+
+        if (error[0] != null) {
+            throw I.quiet(error[0]);
+        }
+        return window;
+    }
+
+    /**
+     * The number of acquired data is too small, expand the data range slightly from next time.
+     * 
+     * @param coefficient The current coefficient of range.
+     * @param retrieved The number of retrieved executions.
+     * @param size The acquirable size.
+     * @return The next coefficient.
+     */
+    private Num expand(Num coefficient, int retrieved, int size) {
+        if (retrieved < size * 0.05) {
+            return coefficient.plus("50");
+        } else if (retrieved < size * 0.1) {
+            return coefficient.plus("5");
+        } else if (retrieved < size * 0.3) {
+            return coefficient.plus("2");
+        } else if (retrieved < size * 0.5) {
+            return coefficient.plus("0.5");
+        } else if (retrieved < size * 0.7) {
+            return coefficient.plus("0.1");
+        } else {
+            return coefficient;
+        }
+    }
+
     /**
      * Store the {@link Execution} to local cache.
      * 
@@ -515,7 +652,85 @@ public class ExecutionLog {
      * @return
      */
     public final Signal<Execution> range(ZonedDateTime start, ZonedDateTime end, LogType... type) {
-        return I.signal(start).recurse(day -> day.plusDays(1)).takeUntil(day -> day.isEqual(end)).flatMap(day -> at(day, type));
+        return range(start, end, 1, type);
+    }
+
+    /**
+     * Read log from the specified start to end. The upcoming days are read concurrently on the
+     * bounded worker pool and are emitted in date order.
+     * 
+     * @param start
+     * @param end
+     * @param parallelism The maximum number of days which are read concurrently.
+     * @return
+     */
+    public final Signal<Execution> range(ZonedDateTime start, ZonedDateTime end, int parallelism, LogType... type) {
+        Signal<ZonedDateTime> days = I.signal(start).recurse(day -> day.plusDays(1)).takeUntil(day -> day.isEqual(end));
+
+        return ParallelReader.read(days, day -> shared(day, type), parallelism);
+    }
+
+    /**
+     * Read log from the specified start to end as the decoded {@link ExecutionBuffer} of each day.
+     * The upcoming days are decoded concurrently on the bounded worker pool and are emitted in date
+     * order.
+     * 
+     * @param start
+     * @param end
+     * @param parallelism The maximum number of days which are decoded concurrently.
+     * @return
+     */
+    public final Signal<ExecutionBuffer> buffers(ZonedDateTime start, ZonedDateTime end, int parallelism, LogType... type) {
+        Signal<ZonedDateTime> days = I.signal(start).recurse(day -> day.plusDays(1)).takeUntil(day -> day.isEqual(end));
+
+        return ParallelReader.read(days, day -> I.signal(day).map(d -> buffer(d, type)), parallelism);
+    }
+
+    /**
+     * Read log at the specified date through {@link ExecutionDayCache#Shared}. The day which is not
+     * completed yet is read directly. The cache key is the day file which holds the decoded
+     * executions (the binary log is built from the compact log, so they share the key) and the
+     * size of compact log, so the rebuilt log is never confused with the old one.
+     * 
+     * @param date
+     * @return
+     */
+    private Signal<Execution> shared(ZonedDateTime date, LogType... type) {
+        Cache cache = new Cache(date);
+
+        if (!cache.existCompact()) {
+            return cache.read(type);
+        }
+
+        return ExecutionDayCache.Shared.read(key(cache, type), () -> cache.read(type));
+    }
+
+    /**
+     * Decode log at the specified date through {@link ExecutionDayCache#Shared}. The day which is
+     * not completed yet is decoded directly.
+     * 
+     * @param date
+     * @return
+     */
+    private ExecutionBuffer buffer(ZonedDateTime date, LogType... type) {
+        Cache cache = new Cache(date);
+
+        if (!cache.existCompact()) {
+            return ExecutionBuffer.of(cache.read(type));
+        }
+        return ExecutionDayCache.Shared.buffer(key(cache, type), () -> cache.read(type));
+    }
+
+    /**
+     * Compute the key of {@link ExecutionDayCache}.
+     * 
+     * @param cache The completed day.
+     * @return A day identifier.
+     */
+    private String key(Cache cache, LogType... type) {
+        File compact = cache.compactLog();
+        File file = type != null && type.length != 0 && type[0] == LogType.Fast ? cache.fastLog() : compact;
+        return file.asJavaPath().toAbsolutePath() + " " + compact.size();
     }
 
     /**
@@ -591,6 +806,15 @@ public class ExecutionLog {
             return existNormal() || existCompact();
         }
 
+        /**
+         * Locate binary execution log.
+         * 
+         * @return A file location.
+         */
+        final File binaryLog() {
+            return normal.extension("blog");
+        }
+
         /**
          * Check whether the cache file exist or not.
          * 
@@ -638,6 +862,16 @@ public class ExecutionLog {
             return fast.isPresent() && fast.size() != 0;
         }
 
+        /**
+         * Check whether the cache file exist or not.
+         * 
+         * @return
+         */
+        boolean existBinary() {
+            File binary = binaryLog();
+            return binary.isPresent() && binary.size() != 0;
+        }
+
         /**
          * Start writing log automatically.
          * 
@@ -676,6 +910,8 @@ public class ExecutionLog {
             if (existCompact()) {
                 if (type == LogType.Fast) {
                     return readFast();
+                } else if (type == LogType.Binary) {
+                    return readBinary();
                 } else {
                     return readCompact();
                 }
@@ -781,14 +1017,43 @@ public class ExecutionLog {
         }
 
         /**
-         * Read log from the external repository.
+         * Read binary log. If it doesn't exist yet, it is built from the compact log.
+         * 
+         * @return
+         */
+        Signal<Execution> readBinary() {
+            Stopwatch stopwatch = Stopwatch.createUnstarted();
+            File binary = binaryLog();
+
+            if (!existBinary()) {
+                return writeBinary(readCompact()).effectOnObserve(stopwatch::start)
+                        .effectOnError(e -> log.error("Fail to read binary log. [" + binary + "]"))
+                        .effectOnComplete(() -> {
+                            log.trace("Read binary log {} [{}] {}", service.id, date, stopwatch.stop().elapsed());
+                        });
+            } else {
+                return BinaryLog.read(binary.asJavaPath())
+                        .effectOnObserve(stopwatch::start)
+                        .effectOnError(e -> {
+                            log.error("Fail to read binary log. [" + binary + "]");
+                            binary.delete();
+                        })
+                        .effectOnComplete(() -> {
+                            log.trace("Read binary log {} [{}] {}", service.id, date, stopwatch.stop().elapsed());
+                        });
+            }
+        }
+
+        /**
+         * Read log from the external repository. The downloaded executions are written into the
+         * compact log directly while streaming, the other logs are built from it on demand.
          * 
          * @return
          */
         Signal<Execution> readExternalRepository(ExecutionLogRepository external) {
             Stopwatch stopwatch = Stopwatch.createUnstarted();
 
-            return writeNormal(external.convert(date)
+            return writeCompact(external.convert(date)
                     .effectOnError(e -> log.error("Fail to download external log {} [{}].", service, date))
                     .effectOnObserve(stopwatch::start)
                     .effectOnComplete(() -> {
@@ -940,6 +1205,30 @@ public class ExecutionLog {
             }
         }
 
+        /**
+         * Write the execution log to the binary log.
+         * 
+         * @param executions A list of executions to write.
+         */
+        void writeBinary(Execution... executions) {
+            writeBinary(I.signal(executions)).to(I.NoOP);
+        }
+
+        /**
+         * Write the execution log to the binary log.
+         * 
+         * @param executions A stream of executions to write.
+         * @return Wrapped {@link Signal}.
+         */
+        Signal<Execution> writeBinary(Signal<Execution> executions) {
+            BinaryLog.Writer writer = new BinaryLog.Writer(binaryLog().newOutputStream(ATOMIC_WRITE));
+
+            return executions.effect(writer::write).effectOnComplete(() -> {
+                writer.close();
+                repository.updateLocal(date);
+            });
+        }
+
         /**
          * Create new CSV writer.
          * 
@@ -972,7 +1261,19 @@ public class ExecutionLog {
         void convertNormalToCompact(boolean async) {
             if (!existCompact() && (!queue.isEmpty() || existNormal())) {
                 if (async) {
-                    scheduler.schedule(() -> convertNormalToCompact(false), 5, TimeUnit.SECONDS);
+                    scheduler.schedule(() -> {
+                        convertNormalToCompact(false);
+
+                        // extend the prebuilt ticks incrementally, the initial build is too heavy
+                        // to run on this scheduler
+                        if (service.tickStore.time() != -1) {
+                            try {
+                                service.tickStore.build();
+                            } catch (Throwable e) {
+                                log.error("{} fails to build ticks. [{}]", service, date, e);
+                            }
+                        }
+                    }, 5, TimeUnit.SECONDS);
                 } else {
                     writeFast(writeCompact(readNormal())).to(I.NoOP, e -> {
                         log.error("{} fails to compact the normal log. [{}]", service, date, e);
@@ -1163,10 +1464,19 @@ public class ExecutionLog {
         private final Consumer<? super Throwable> error;
 
         /** The actual realtime execution buffer. */
-        private ConcurrentLinkedDeque<Execution> realtime = new ConcurrentLinkedDeque();
+        private volatile ConcurrentLinkedDeque<Execution> realtime = new ConcurrentLinkedDeque();
+
+        /** The number of buffered executions. (guarded by this) */
+        private int buffered;
+
+        /** The buffered head is matched by REST API, it must not be dropped. (guarded by this) */
+        private boolean matched;
+
+        /** The realtime receiver after switching. (guarded by this) */
+        private Observer<? super Execution> switched;
 
         /** The execution event receiver. */
-        private Observer<? super Execution> destination = realtime::add;
+        private volatile Observer<? super Execution> destination = this::buffer;
 
         /** The no-realtime latest execution id. */
         private long latestId = -1;
@@ -1196,19 +1506,42 @@ public class ExecutionLog {
             error.accept(e);
         }
 
+        /**
+         * Store the realtime execution until REST API catches up. The oldest execution is dropped
+         * when the buffer is full, it will be retrieved by REST API instead. The dropping and the
+         * switching run in the same lock, so the head which is matched by REST API is never
+         * dropped.
+         * 
+         * @param e A realtime execution.
+         */
+        private synchronized void buffer(Execution e) {
+            // the execution which is received while switching
+            if (switched != null) {
+                switched.accept(e);
+                return;
+            }
+
+            realtime.add(e);
+
+            if (RealtimeBufferLimit < ++buffered && !matched) {
+                realtime.pollFirst();
+                buffered--;
+            }
+        }
+
         /**
          * Test whether the specified execution is queued in realtime buffer or not.
          * 
          * @param e An execution which is retrieved by REST API.
          * @return
          */
-        private boolean canSwitch(Execution e) {
+        private synchronized boolean canSwitch(Execution e) {
             // realtime buffer is empty
             Execution first = realtime.peekFirst();
             if (first == null) {
                 return false;
             }
-            return service.checkEquality(e, first);
+            return matched = service.checkEquality(e, first);
         }
 
         /**
@@ -1217,16 +1550,19 @@ public class ExecutionLog {
          * @param currentId
          * @param observer
          */
-        private void switchToRealtime(long currentId, Observer<? super Execution> observer) {
-            while (!realtime.isEmpty()) {
-                ConcurrentLinkedDeque<Execution> buffer = realtime;
-                realtime = new ConcurrentLinkedDeque();
-                latestId = -1;
-                for (Execution e : buffer) {
-                    observer.accept(e);
-                }
+        private synchronized void switchToRealtime(long currentId, Observer<? super Execution> observer) {
+            ConcurrentLinkedDeque<Execution> buffer = realtime;
+            realtime = new ConcurrentLinkedDeque();
+            buffered = 0;
+            matched = false;
+            latestId = -1;
+            for (Execution e : buffer) {
+                observer.accept(e);
+            }
+            if (!buffer.isEmpty()) {
                 log.info("{} \t{} size {}", service.id, buffer.peek().date, buffer.size());
             }
+            switched = observer;
             destination = observer;
         }
 
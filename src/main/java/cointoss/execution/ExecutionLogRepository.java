@@ -9,15 +9,38 @@
  */
 package cointoss.execution;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
 
 import cointoss.MarketService;
 import cointoss.util.Chrono;
+import kiss.Disposable;
+import kiss.I;
+import kiss.Observer;
 import kiss.Signal;
 
 public abstract class ExecutionLogRepository {
 
+    /** The maximum number of rows which are buffered in memory while reversing. */
+    protected static final int SPILL_SIZE = 100000;
+
     /** The target service. */
     protected final MarketService service;
 
@@ -79,4 +102,175 @@ public abstract class ExecutionLogRepository {
      * @return
      */
     public abstract Signal<Execution> convert(ZonedDateTime date);
+
+    /**
+     * Download the gzipped CSV and parse it row by row. The header row is skipped.
+     * 
+     * @param uri A location of CSV.
+     * @return A stream of rows.
+     */
+    protected static Signal<String[]> downloadCSV(String uri) {
+        return parseCSV(I.http(uri, InputStream.class));
+    }
+
+    /**
+     * Download the gzipped CSV and parse it row by row. The header row is skipped. The CSV which
+     * can't be requested (i.e. not published) is treated as empty, but the error while reading or
+     * parsing is propagated, so the truncated rows are never completed normally.
+     * 
+     * @param uri A location of CSV.
+     * @return A stream of rows.
+     */
+    protected static Signal<String[]> downloadOptionalCSV(String uri) {
+        return parseCSV(I.http(uri, InputStream.class).errorResume(I.signal()));
+    }
+
+    /**
+     * Parse the gzipped CSV row by row. The header row is skipped.
+     * 
+     * @param request A response of CSV.
+     * @return A stream of rows.
+     */
+    private static Signal<String[]> parseCSV(Signal<InputStream> request) {
+        CsvParserSettings setting = new CsvParserSettings();
+        setting.getFormat().setDelimiter(',');
+        setting.getFormat().setLineSeparator("\n");
+        setting.setHeaderExtractionEnabled(true);
+        CsvParser parser = new CsvParser(setting);
+
+        return request.flatIterable(in -> parser.iterate(new GZIPInputStream(in), StandardCharsets.ISO_8859_1))
+                .effectOnComplete(parser::stopParsing);
+    }
+
+    /**
+     * Reverse the order of rows with the bounded memory. The rows are divided into chunks, each
+     * full chunk is spilled into the temporary file in reverse order, and the files are read back
+     * from the last one when the source is completed. So the memory holds only one chunk at most.
+     * 
+     * @param rows A stream of rows.
+     * @param chunkSize The maximum number of rows in memory.
+     * @return A reversed stream of rows.
+     */
+    protected static Signal<String[]> reverse(Signal<String[]> rows, int chunkSize) {
+        return new Signal<>((observer, disposer) -> {
+            Spill spill = new Spill(chunkSize);
+            disposer.add(spill::delete);
+
+            return disposer.add(rows.to(spill::add, e -> {
+                spill.delete();
+                observer.error(e);
+            }, () -> {
+                try {
+                    spill.drain(observer, disposer);
+                    observer.complete();
+                } catch (Throwable e) {
+                    observer.error(e);
+                } finally {
+                    spill.delete();
+                }
+            }));
+        });
+    }
+
+    /**
+     * The temporary storage for reversing rows.
+     */
+    private static class Spill {
+
+        /** The maximum number of rows in memory. */
+        private final int chunkSize;
+
+        /** The rows in memory. */
+        private final List<String[]> chunk = new ArrayList();
+
+        /** The spilled files. */
+        private final List<Path> files = new ArrayList();
+
+        /**
+         * @param chunkSize The maximum number of rows in memory.
+         */
+        private Spill(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * Add the next row.
+         * 
+         * @param row A row to add.
+         */
+        private void add(String[] row) {
+            chunk.add(row);
+
+            if (chunk.size() == chunkSize) {
+                try {
+                    Path file = Files.createTempFile("execution", ".spill");
+                    synchronized (files) {
+                        files.add(file);
+                    }
+
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new ZstdOutputStream(Files
+                            .newOutputStream(file), 1)))) {
+                        for (int i = chunk.size() - 1; 0 <= i; i--) {
+                            String[] values = chunk.get(i);
+                            out.writeShort(values.length);
+                            for (String value : values) {
+                                out.writeBoolean(value != null);
+                                if (value != null) out.writeUTF(value);
+                            }
+                        }
+                    }
+                    chunk.clear();
+                } catch (IOException e) {
+                    throw I.quiet(e);
+                }
+            }
+        }
+
+        /**
+         * Emit all rows in reverse order.
+         * 
+         * @param observer A destination.
+         * @param disposer A cancellation.
+         */
+        private void drain(Observer<? super String[]> observer, Disposable disposer) throws IOException {
+            for (int i = chunk.size() - 1; 0 <= i && !disposer.isDisposed(); i--) {
+                observer.accept(chunk.get(i));
+            }
+            chunk.clear();
+
+            List<Path> spilled;
+            synchronized (files) {
+                spilled = new ArrayList(files);
+            }
+
+            for (int i = spilled.size() - 1; 0 <= i && !disposer.isDisposed(); i--) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(new ZstdInputStream(Files
+                        .newInputStream(spilled.get(i)))))) {
+                    for (int j = 0; j < chunkSize && !disposer.isDisposed(); j++) {
+                        String[] values = new String[in.readShort()];
+                        for (int k = 0; k < values.length; k++) {
+                            values[k] = in.readBoolean() ? in.readUTF() : null;
+                        }
+                        observer.accept(values);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Delete all spilled files.
+         */
+        private void delete() {
+            synchronized (files) {
+                for (Path file : files) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+                files.clear();
+            }
+        }
+    }
 }
\ No newline at end of file
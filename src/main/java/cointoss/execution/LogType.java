@@ -13,5 +13,5 @@ package cointoss.execution;
  * 
  */
 public enum LogType {
-    Normal, Fast;
+    Normal, Fast, Binary;
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import kiss.Signal;
+
+/**
+ * Reads the ordered sources concurrently on the bounded worker pool and emits their items in the
+ * source order.
+ * <p>
+ * Each source is transfered to the consumer through its own bounded queue, so the worker which
+ * gets ahead of the consumer is blocked until the consumer catches up. At most
+ * {@code parallelism} sources are read at the same time, the memory usage is capped by
+ * {@code parallelism * BUFFER_SIZE * CHUNK_SIZE} items.
+ */
+class ParallelReader {
+
+    /** The number of items which are transfered at once. */
+    static final int CHUNK_SIZE = 1024;
+
+    /** The maximum number of buffered chunks per source. */
+    static final int BUFFER_SIZE = 32;
+
+    /** The end marker of source. */
+    private static final Object END = new Object();
+
+    /**
+     * Read all sources concurrently and emit their items in the source order.
+     *
+     * @param sources The ordered source keys.
+     * @param reader The source reader.
+     * @param parallelism The maximum number of sources which are read concurrently.
+     * @return The ordered items.
+     */
+    static <S, T> Signal<T> read(Signal<S> sources, Function<S, Signal<T>> reader, int parallelism) {
+        if (parallelism <= 1) {
+            return sources.concatMap(reader::apply);
+        }
+
+        return new Signal<>((observer, disposer) -> {
+            Iterator<S> keys = sources.toList().iterator();
+            ArrayDeque<Lane<S, T>> lanes = new ArrayDeque();
+            ExecutorService pool = Executors.newFixedThreadPool(parallelism, run -> {
+                Thread thread = new Thread(run);
+                thread.setName("ExecutionLog Reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            try {
+                while (lanes.size() < parallelism && keys.hasNext()) {
+                    lanes.add(new Lane(keys.next(), reader, pool));
+                }
+
+                Lane<S, T> lane;
+                while ((lane = lanes.poll()) != null) {
+                    while (true) {
+                        if (disposer.isDisposed()) {
+                            return disposer;
+                        }
+
+                        Object chunk = lane.queue.take();
+                        if (chunk == END) {
+                            break;
+                        } else if (chunk instanceof Throwable) {
+                            observer.error((Throwable) chunk);
+                            return disposer;
+                        } else {
+                            for (T item : (List<T>) chunk) {
+                                observer.accept(item);
+                            }
+                        }
+                    }
+
+                    // the finished worker can read the next source
+                    if (keys.hasNext()) {
+                        lanes.add(new Lane(keys.next(), reader, pool));
+                    }
+                }
+                observer.complete();
+            } catch (InterruptedException e) {
+                observer.error(e);
+            } finally {
+                pool.shutdownNow();
+            }
+            return disposer;
+        });
+    }
+
+    /**
+     * The reading task of single source.
+     */
+    private static class Lane<S, T> implements Runnable {
+
+        /** The transfer queue. */
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue(BUFFER_SIZE);
+
+        /** The source key. */
+        private final S key;
+
+        /** The source reader. */
+        private final Function<S, Signal<T>> reader;
+
+        /** The current chunk. */
+        private List<T> chunk = new ArrayList(CHUNK_SIZE);
+
+        /** The cancellation state. (visible to the thread which emits the source items) */
+        private volatile boolean stopped;
+
+        /**
+         * Start reading on the specified pool.
+         *
+         * @param key The source key.
+         * @param reader The source reader.
+         * @param pool The worker pool.
+         */
+        private Lane(S key, Function<S, Signal<T>> reader, ExecutorService pool) {
+            this.key = key;
+            this.reader = reader;
+
+            pool.execute(this);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run() {
+            try {
+                reader.apply(key).takeWhile(item -> !stopped).to(this::accept, this::error, this::complete);
+            } catch (Throwable e) {
+                error(e);
+            }
+        }
+
+        /**
+         * Buffer the item and transfer it by chunk.
+         *
+         * @param item
+         */
+        private void accept(T item) {
+            chunk.add(item);
+
+            if (chunk.size() == CHUNK_SIZE) {
+                put(chunk);
+                chunk = new ArrayList(CHUNK_SIZE);
+            }
+        }
+
+        /**
+         * Transfer the error.
+         *
+         * @param e
+         */
+        private void error(Throwable e) {
+            if (!stopped) {
+                put(e);
+                stopped = true;
+            }
+        }
+
+        /**
+         * Transfer the rest items and the end marker.
+         */
+        private void complete() {
+            if (!stopped) {
+                if (!chunk.isEmpty()) put(chunk);
+                put(END);
+                stopped = true;
+            }
+        }
+
+        /**
+         * Transfer the data to consumer, wait until the queue has free space.
+         *
+         * @param data
+         */
+        private void put(Object data) {
+            try {
+                queue.put(data);
+            } catch (InterruptedException e) {
+                // the consumer has gone
+                stopped = true;
+                throw new CancellationException();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cointoss.util.arithmetic.Num;
+import kiss.Disposable;
+import kiss.Observer;
+import kiss.Signal;
+import kiss.Variable;
+
+/**
+ * The price-sorted book of the armed triggers on {@link Execution} price.
+ * <p>
+ * The triggers which fire at or above their prices and the triggers which fire at or below their
+ * prices are held in the separated binary heaps of primitive keys, so each execution touches only
+ * the crossed triggers instead of evaluating all armed triggers. The trigger can follow the
+ * {@link Variable} price (i.e. trailing stop), its key is moved in the heap on each change.
+ */
+public final class PriceTriggerBook {
+
+    /** The triggers which fire at or above their prices. */
+    private final Heap above = new Heap(1);
+
+    /** The triggers which fire at or below their prices. */
+    private final Heap below = new Heap(-1);
+
+    /**
+     * Get the number of armed triggers.
+     *
+     * @return The number of armed triggers.
+     */
+    public synchronized int size() {
+        return above.size + below.size;
+    }
+
+    /**
+     * Create the signal which is fired only once when the execution is at or above the specified
+     * price.
+     *
+     * @param price A trigger price.
+     * @return The first crossed execution.
+     */
+    public Signal<Execution> above(Num price) {
+        return above(Variable.of(price));
+    }
+
+    /**
+     * Create the signal which is fired only once when the execution is at or above the specified
+     * price.
+     *
+     * @param price A trigger price which may be changed until it is fired.
+     * @return The first crossed execution.
+     */
+    public Signal<Execution> above(Variable<Num> price) {
+        return arm(above, price);
+    }
+
+    /**
+     * Create the signal which is fired only once when the execution is at or below the specified
+     * price.
+     *
+     * @param price A trigger price.
+     * @return The first crossed execution.
+     */
+    public Signal<Execution> below(Num price) {
+        return below(Variable.of(price));
+    }
+
+    /**
+     * Create the signal which is fired only once when the execution is at or below the specified
+     * price.
+     *
+     * @param price A trigger price which may be changed until it is fired.
+     * @return The first crossed execution.
+     */
+    public Signal<Execution> below(Variable<Num> price) {
+        return arm(below, price);
+    }
+
+    /**
+     * Arm the new trigger while the signal is subscribed.
+     *
+     * @param heap A target heap.
+     * @param price A trigger price.
+     * @return The first crossed execution.
+     */
+    private Signal<Execution> arm(Heap heap, Variable<Num> price) {
+        return new Signal<>((observer, disposer) -> {
+            Trigger trigger = new Trigger(observer, disposer);
+
+            synchronized (this) {
+                heap.add(trigger, price.v.doubleValue());
+            }
+
+            disposer.add(price.observe().to(v -> {
+                synchronized (this) {
+                    heap.move(trigger, v.doubleValue());
+                }
+            }));
+            disposer.add(() -> {
+                synchronized (this) {
+                    heap.remove(trigger);
+                }
+            });
+            return disposer;
+        });
+    }
+
+    /**
+     * Fire all triggers which are crossed by the specified execution.
+     *
+     * @param e The latest execution.
+     */
+    public void update(Execution e) {
+        List<Trigger> fired = null;
+
+        synchronized (this) {
+            if (above.size + below.size == 0) {
+                return;
+            }
+
+            double price = e.price.doubleValue();
+            while (above.isCrossed(price)) {
+                (fired == null ? fired = new ArrayList() : fired).add(above.poll());
+            }
+            while (below.isCrossed(price)) {
+                (fired == null ? fired = new ArrayList() : fired).add(below.poll());
+            }
+        }
+
+        // notify outside of lock, the observer may arm the new trigger
+        if (fired != null) {
+            for (Trigger trigger : fired) {
+                trigger.observer.accept(e);
+                trigger.observer.complete();
+                trigger.disposer.dispose();
+            }
+        }
+    }
+
+    /**
+     * The armed trigger.
+     */
+    private static final class Trigger {
+
+        /** The event receiver. */
+        private final Observer<? super Execution> observer;
+
+        /** The subscription. */
+        private final Disposable disposer;
+
+        /** The position in heap, -1 means it is not armed. */
+        private int index = -1;
+
+        /**
+         * Create trigger.
+         *
+         * @param observer The event receiver.
+         * @param disposer The subscription.
+         */
+        private Trigger(Observer<? super Execution> observer, Disposable disposer) {
+            this.observer = observer;
+            this.disposer = disposer;
+        }
+    }
+
+    /**
+     * The indexed binary min-heap of triggers. The key is the price multiplied by the sign, so the
+     * trigger with the nearest price is always at the top.
+     */
+    private static final class Heap {
+
+        /** The sign of keys. */
+        private final double sign;
+
+        /** The keys. */
+        private double[] keys = new double[16];
+
+        /** The triggers. */
+        private Trigger[] triggers = new Trigger[16];
+
+        /** The number of triggers. */
+        private int size;
+
+        /**
+         * Create heap.
+         *
+         * @param sign The sign of keys.
+         */
+        private Heap(double sign) {
+            this.sign = sign;
+        }
+
+        /**
+         * Test whether the top trigger is crossed by the specified price.
+         *
+         * @param price A current price.
+         * @return Result.
+         */
+        private boolean isCrossed(double price) {
+            return size != 0 && keys[0] <= sign * price;
+        }
+
+        /**
+         * Add the trigger.
+         *
+         * @param trigger A new trigger.
+         * @param price A trigger price.
+         */
+        private void add(Trigger trigger, double price) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                triggers = Arrays.copyOf(triggers, size * 2);
+            }
+            set(size++, trigger, sign * price);
+            up(trigger.index);
+        }
+
+        /**
+         * Move the trigger to the new price.
+         *
+         * @param trigger An armed trigger.
+         * @param price A new price.
+         */
+        private void move(Trigger trigger, double price) {
+            int index = trigger.index;
+            if (index != -1) {
+                keys[index] = sign * price;
+                up(index);
+                down(trigger.index);
+            }
+        }
+
+        /**
+         * Remove the trigger.
+         *
+         * @param trigger An armed trigger.
+         */
+        private void remove(Trigger trigger) {
+            int index = trigger.index;
+            if (index != -1) {
+                trigger.index = -1;
+                size--;
+
+                if (index != size) {
+                    Trigger last = triggers[size];
+                    set(index, last, keys[size]);
+                    up(index);
+                    down(last.index);
+                }
+                triggers[size] = null;
+            }
+        }
+
+        /**
+         * Remove the top trigger.
+         *
+         * @return The removed trigger.
+         */
+        private Trigger poll() {
+            Trigger top = triggers[0];
+            remove(top);
+            return top;
+        }
+
+        /**
+         * Move the trigger toward the top.
+         *
+         * @param index A position.
+         */
+        private void up(int index) {
+            Trigger trigger = triggers[index];
+            double key = keys[index];
+
+            while (0 < index) {
+                int parent = (index - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                set(index, triggers[parent], keys[parent]);
+                index = parent;
+            }
+            set(index, trigger, key);
+        }
+
+        /**
+         * Move the trigger toward the bottom.
+         *
+         * @param index A position.
+         */
+        private void down(int index) {
+            Trigger trigger = triggers[index];
+            double key = keys[index];
+
+            while (true) {
+                int child = index * 2 + 1;
+                if (size <= child) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                set(index, triggers[child], keys[child]);
+                index = child;
+            }
+            set(index, trigger, key);
+        }
+
+        /**
+         * Put the trigger at the specified position.
+         *
+         * @param index A position.
+         * @param trigger A trigger.
+         * @param key A key.
+         */
+        private void set(int index, Trigger trigger, double key) {
+            keys[index] = key;
+            triggers[index] = trigger;
+            trigger.index = index;
+        }
+    }
+}
\ No newline at end of file
@@ -174,11 +174,12 @@ class Repository implements Storable<Repository> {
     }
 
     /**
-     * Update the local resource.
+     * Update the local resource. The logs of multiple days are written concurrently, so this
+     * method is synchronized.
      * 
      * @param date
      */
-    void updateLocal(LocalDate date) {
+    synchronized void updateLocal(LocalDate date) {
         if (localFirst == null || date.isBefore(localFirst)) {
             localFirst = date;
             store();
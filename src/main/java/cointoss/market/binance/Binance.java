@@ -18,6 +18,9 @@ import kiss.I;
 
 public final class Binance extends MarketServiceProvider {
 
+    /** Limitation */
+    private static final int AcquirableConcurrency = 4;
+
     /** Limitation */
     private static final int AcquirableSize = 1000;
 
@@ -25,65 +28,77 @@ public final class Binance extends MarketServiceProvider {
             .target(Currency.BTC.minimumSize(0.000001))
             .base(Currency.USDT.minimumSize(0.01))
             .priceRangeModifier(500)
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService EOS_USDT = new BinanceService("EOSUSDT", MarketSetting.with.spot()
             .target(Currency.EOS.minimumSize(0.01))
             .base(Currency.USDT.minimumSize(0.0001))
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService ETH_USDT = new BinanceService("ETHUSDT", MarketSetting.with.spot()
             .target(Currency.ETH.minimumSize(0.00001))
             .base(Currency.USDT.minimumSize(0.01))
             .priceRangeModifier(100)
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService LINK_USDT = new BinanceService("LINKUSDT", MarketSetting.with.spot()
             .target(Currency.LINK.minimumSize(0.01))
             .base(Currency.USDT.minimumSize(0.0001))
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService SRM_USDT = new BinanceService("SRMUSDT", MarketSetting.with.spot()
             .target(Currency.SRM.minimumSize(0.01))
             .base(Currency.USDT.minimumSize(0.0001))
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService XRP_USDT = new BinanceService("XRPUSDT", MarketSetting.with.spot()
             .target(Currency.XRP.minimumSize(0.1))
             .base(Currency.USDT.minimumSize(0.00001))
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService FUTURE_BTC_USDT = new BinanceService("BTCUSDT", MarketSetting.with.derivative()
             .target(Currency.BTC.minimumSize(0.001))
             .base(Currency.USDT.minimumSize(0.01))
             .priceRangeModifier(500)
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService FUTURE_EHT_USDT = new BinanceService("ETHUSDT", MarketSetting.with.derivative()
             .target(Currency.ETH.minimumSize(0.001))
             .base(Currency.USDT.minimumSize(0.01))
             .priceRangeModifier(100)
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService FUTURE_COMP_USDT = new BinanceService("COMPUSDT", MarketSetting.with.derivative()
             .target(Currency.COMP.minimumSize(0.001))
             .base(Currency.USDT.minimumSize(0.01))
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService FUTURE_MKR_USDT = new BinanceService("MKRUSDT", MarketSetting.with.derivative()
             .target(Currency.MKR.minimumSize(0.001))
             .base(Currency.USDT.minimumSize(0.01))
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService FUTURE_UNI_USDT = new BinanceService("UNIUSDT", MarketSetting.with.derivative()
             .target(Currency.UNI.minimumSize(1))
             .base(Currency.USDT.minimumSize(0.0001))
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     public static final MarketService FUTURE_DOGE_USDT = new BinanceService("DOGEUSDT", MarketSetting.with.derivative()
             .target(Currency.DOGE.minimumSize(1))
             .base(Currency.USDT.minimumSize(0.000001))
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     // public static final MarketService FUTURE_BTCUSD_210326 = new BinanceService("BTCUSD_210326",
     // MarketSetting.with.derivative()
@@ -96,7 +111,8 @@ public final class Binance extends MarketServiceProvider {
             .target(Currency.BTC.minimumSize(0.00001))
             .base(Currency.USD.minimumSize(0.1))
             .priceRangeModifier(500)
-            .acquirableExecutionSize(AcquirableSize));
+            .acquirableExecutionSize(AcquirableSize)
+            .acquirableExecutionConcurrency(AcquirableConcurrency));
 
     /**
      * {@inheritDoc}
@@ -35,9 +35,11 @@ import cointoss.util.APILimiter;
 import cointoss.util.Chrono;
 import cointoss.util.EfficientWebSocket;
 import cointoss.util.EfficientWebSocketModel.IdentifiableTopic;
+import cointoss.util.JSONScanner;
 import cointoss.util.Network;
 import cointoss.util.arithmetic.Num;
 import cointoss.util.feather.FeatherStore;
+import cointoss.util.feather.MemoryBudget;
 import kiss.I;
 import kiss.JSON;
 import kiss.Signal;
@@ -49,7 +51,8 @@ public class BinanceService extends MarketService {
 
     /** The realtime communicator. */
     private static final EfficientWebSocket Realtime = EfficientWebSocket.with.address("wss://stream.binance.com:9443/stream")
-            .extractId(json -> json.text("stream"));
+            .extractId(json -> json.text("stream"))
+            .peekId(scanner -> scanner.text("stream"));
 
     /** The realtime communicator. */
     private static final EfficientWebSocket RealtimeFuture = Realtime.withAddress("wss://fstream.binance.com/stream");
@@ -91,7 +94,9 @@ public class BinanceService extends MarketService {
      */
     @Override
     protected Signal<Execution> connectExecutionRealtimely() {
-        return clientRealtimely().subscribe(new Topic("aggTrade", marketName)).map(json -> createExecution(json.get("data")));
+        return clientRealtimely().subscribeStreaming(new Topic("aggTrade", marketName))
+                .flatMap(scanner -> scanner.find("data"))
+                .map(this::createExecution);
     }
 
     /**
@@ -133,8 +138,40 @@ public class BinanceService extends MarketService {
         Direction side = e.get(Boolean.class, "m") ? Direction.SELL : Direction.BUY;
         Num size = e.get(Num.class, "q");
         Num price = e.get(Num.class, "p");
+        long time = Long.parseLong(e.text("T"));
+
+        return createExecution(id, side, size, price, time);
+    }
+
+    /**
+     * Convert to {@link Execution} without building the JSON tree.
+     * 
+     * @param e
+     * @return
+     */
+    private Execution createExecution(JSONScanner e) {
+        long id = e.asLong("a");
+        Direction side = e.asBoolean("m") ? Direction.SELL : Direction.BUY;
+        Num size = e.asNum("q");
+        Num price = e.asNum("p");
+        long time = e.asLong("T");
+
+        return createExecution(id, side, size, price, time);
+    }
+
+    /**
+     * Convert to {@link Execution}.
+     * 
+     * @param id An execution id.
+     * @param side A taker side.
+     * @param size An executed size.
+     * @param price An executed price.
+     * @param time An executed time. (epoch millis)
+     * @return
+     */
+    private Execution createExecution(long id, Direction side, Num size, Num price, long time) {
         if (isDelivery) size = size.divide(price).scale(setting.target.scale);
-        ZonedDateTime date = Chrono.utcByMills(Long.parseLong(e.text("T")));
+        ZonedDateTime date = Chrono.utcByMills(time);
 
         return Execution.with.direction(side, size)
                 .id(id)
@@ -187,7 +224,9 @@ public class BinanceService extends MarketService {
     protected FeatherStore<OpenInterest> initializeOpenInterest() {
         return FeatherStore.create(OpenInterest.class, Span.Minute5)
                 .enableInterpolation(4)
-                .enableDiskStore(file("oi.db"))
+                .enableCompressedDiskStore(file("oi.db"))
+                .enableWriteBehind(1, MINUTES)
+                .enableMemoryBudget(MemoryBudget.Shared, OpenInterestBytes, 1)
                 .enableDataSupplier(seconds -> {
                     // https://binance-docs.github.io/apidocs/futures/en/#open-interest-statistics
                     // [[ Only the data of the latest 30 days is available. ]]
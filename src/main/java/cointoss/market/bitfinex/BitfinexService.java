@@ -36,6 +36,7 @@ import cointoss.util.EfficientWebSocketModel.IdentifiableTopic;
 import cointoss.util.Network;
 import cointoss.util.arithmetic.Num;
 import cointoss.util.feather.FeatherStore;
+import cointoss.util.feather.MemoryBudget;
 import kiss.I;
 import kiss.JSON;
 import kiss.Signal;
@@ -220,7 +221,9 @@ public class BitfinexService extends MarketService {
     protected FeatherStore<OpenInterest> initializeOpenInterest() {
         return FeatherStore.create(OpenInterest.class, Span.Minute5)
                 .enableInterpolation(5)
-                .enableDiskStore(file("oi.db"))
+                .enableCompressedDiskStore(file("oi.db"))
+                .enableWriteBehind(1, TimeUnit.MINUTES)
+                .enableMemoryBudget(MemoryBudget.Shared, OpenInterestBytes, 1)
                 .enableDataSupplier(seconds -> {
                     ZonedDateTime lowerLimit = Chrono.utcNow().minusYears(1);
                     ZonedDateTime time = Chrono.max(lowerLimit, Chrono.utcBySeconds(seconds));
@@ -49,6 +49,7 @@ import cointoss.util.APILimiter;
 import cointoss.util.Chrono;
 import cointoss.util.EfficientWebSocket;
 import cointoss.util.EfficientWebSocketModel.IdentifiableTopic;
+import cointoss.util.JSONScanner;
 import cointoss.util.Network;
 import cointoss.util.arithmetic.Num;
 import kiss.I;
@@ -74,6 +75,10 @@ public class BitFlyerService extends MarketService {
     /** The shared realtime communicator. It will be shared across all markets on this exchange. */
     private static final EfficientWebSocket Realtime = EfficientWebSocket.with.address("wss://ws.lightstream.bitflyer.com/json-rpc")
             .extractId(json -> json.find(String.class, "params", "channel").toString())
+            .peekId(scanner -> {
+                String channel = scanner.text("params", "channel");
+                return channel == null ? null : "[" + channel + "]";
+            })
             .whenConnected(ws -> ws.sendText(I.write(new Auth()), true));
 
     /** The realtime data format */
@@ -212,9 +217,9 @@ public class BitFlyerService extends MarketService {
     protected Signal<Execution> connectExecutionRealtimely() {
         String[] previous = new String[] {"", ""};
 
-        return clientRealtimely().subscribe(new Topic("lightning_executions_", marketName))
-                .flatIterable(json -> json.find("params", "message", "*"))
-                .map(json -> convertExecution(json, previous))
+        return clientRealtimely().subscribeStreaming(new Topic("lightning_executions_", marketName))
+                .flatMap(scanner -> scanner.find("params", "message", "*"))
+                .map(scanner -> convertExecution(scanner, previous))
                 .skipNull();
     }
 
@@ -306,21 +311,63 @@ public class BitFlyerService extends MarketService {
             return null; // skip
         }
 
-        id = latestId = id != 0 ? id : ++latestId;
         Direction direction = json.get(Direction.class, "side");
         Num size = json.get(Num.class, "size");
         Num price = json.get(Num.class, "price");
-        ZonedDateTime date = parse(json.text("exec_date")).atZone(Chrono.UTC);
+        String date = json.text("exec_date");
         String buyer = json.text("buy_child_order_acceptance_id");
         String seller = json.text("sell_child_order_acceptance_id");
+
+        return convertExecution(id, direction, size, price, date, buyer, seller, previous);
+    }
+
+    /**
+     * Convert to {@link Execution} without building the JSON tree.
+     * 
+     * @param scanner Message represents executed trade.
+     * @param previous Previous execution info.
+     * @return A parsed {@link Execution}.
+     */
+    private Execution convertExecution(JSONScanner scanner, String[] previous) {
+        long id = scanner.asLong("id");
+        if (id == 0 && latestId == 0) {
+            return null; // skip
+        }
+
+        Direction direction = Direction.parse(scanner.text("side"));
+        Num size = scanner.asNum("size");
+        Num price = scanner.asNum("price");
+        String date = scanner.text("exec_date");
+        String buyer = scanner.text("buy_child_order_acceptance_id");
+        String seller = scanner.text("sell_child_order_acceptance_id");
+
+        return convertExecution(id, direction, size, price, date, buyer, seller, previous);
+    }
+
+    /**
+     * Convert to {@link Execution}.
+     * 
+     * @param id An execution id.
+     * @param direction A taker side.
+     * @param size An executed size.
+     * @param price An executed price.
+     * @param date An executed date.
+     * @param buyer A buyer's order id.
+     * @param seller A seller's order id.
+     * @param previous Previous execution info.
+     * @return A parsed {@link Execution}.
+     */
+    private Execution convertExecution(long id, Direction direction, Num size, Num price, String date, String buyer, String seller, String[] previous) {
+        id = latestId = id != 0 ? id : ++latestId;
+        ZonedDateTime time = parse(date).atZone(Chrono.UTC);
         String taker = direction.isBuy() ? buyer : seller;
         int consecutiveType = estimateConsecutiveType(previous[0], previous[1], buyer, seller, direction);
-        int delay = estimateDelay(taker, date);
+        int delay = estimateDelay(taker, time);
 
         previous[0] = buyer;
         previous[1] = seller;
 
-        return Execution.with.direction(direction, size).id(id).price(price).date(date).consecutive(consecutiveType).delay(delay);
+        return Execution.with.direction(direction, size).id(id).price(price).date(time).consecutive(consecutiveType).delay(delay);
     }
 
     /**
@@ -18,6 +18,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import cointoss.Direction;
 import cointoss.MarketService;
@@ -37,6 +38,7 @@ import cointoss.util.EfficientWebSocketModel.IdentifiableTopic;
 import cointoss.util.Network;
 import cointoss.util.arithmetic.Num;
 import cointoss.util.feather.FeatherStore;
+import cointoss.util.feather.MemoryBudget;
 import kiss.JSON;
 import kiss.Signal;
 
@@ -245,7 +247,9 @@ public class BitMexService extends MarketService {
     @Override
     protected FeatherStore<OpenInterest> initializeOpenInterest() {
         return FeatherStore.create(OpenInterest.class, Span.Minute5)
-                .enableDiskStore(file("oi.db"))
+                .enableCompressedDiskStore(file("oi.db"))
+                .enableWriteBehind(1, TimeUnit.MINUTES)
+                .enableMemoryBudget(MemoryBudget.Shared, OpenInterestBytes, 1)
                 .enableDataSupplier(null, connectOpenInterest());
     }
 
@@ -9,21 +9,16 @@
  */
 package cointoss.market.bybit;
 
-import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.Builder;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
-import java.util.zip.GZIPInputStream;
-
-import com.univocity.parsers.csv.CsvParser;
-import com.univocity.parsers.csv.CsvParserSettings;
 
 import cointoss.Direction;
 import cointoss.MarketService;
@@ -44,6 +39,7 @@ import cointoss.util.Network;
 import cointoss.util.Primitives;
 import cointoss.util.arithmetic.Num;
 import cointoss.util.feather.FeatherStore;
+import cointoss.util.feather.MemoryBudget;
 import kiss.I;
 import kiss.JSON;
 import kiss.Signal;
@@ -274,7 +270,9 @@ public class BybitService extends MarketService {
     @Override
     protected FeatherStore<OpenInterest> initializeOpenInterest() {
         return FeatherStore.create(OpenInterest.class, Span.Minute5)
-                .enableDiskStore(file("oi.db"))
+                .enableCompressedDiskStore(file("oi.db"))
+                .enableWriteBehind(1, TimeUnit.MINUTES)
+                .enableMemoryBudget(MemoryBudget.Shared, OpenInterestBytes, 1)
                 .enableDataSupplier(time -> provideOpenInterest(Chrono.utcBySeconds(time)), connectOpenInterest());
     }
 
@@ -365,27 +363,17 @@ public class BybitService extends MarketService {
             String uri = "https://public.bybit.com/trading/" + service.marketName + "/" + service.marketName + Chrono.Date
                     .format(date) + ".csv.gz";
 
-            CsvParserSettings setting = new CsvParserSettings();
-            setting.getFormat().setDelimiter(',');
-            setting.getFormat().setLineSeparator("\n");
-            setting.setHeaderExtractionEnabled(true);
-            CsvParser parser = new CsvParser(setting);
-
             long[] context = new long[3];
 
-            return I.http(uri, InputStream.class)
-                    .effectOnError(e -> e.printStackTrace())
-                    .flatIterable(in -> parser.iterate(new GZIPInputStream(in), StandardCharsets.ISO_8859_1))
-                    .effectOnComplete(parser::stopParsing)
-                    .reverse()
-                    .map(values -> {
-                        ZonedDateTime time = parseTime(values[0]);
-                        Direction side = Direction.parse(values[2]);
-                        Num size = Num.of(values[9]);
-                        Num price = Num.of(values[4]);
-
-                        return Support.createExecution(side, size, price, time, context);
-                    });
+            // The official log is sorted in descending order of time.
+            return reverse(downloadCSV(uri), SPILL_SIZE).map(values -> {
+                ZonedDateTime time = parseTime(values[0]);
+                Direction side = Direction.parse(values[2]);
+                Num size = Num.of(values[9]);
+                Num price = Num.of(values[4]);
+
+                return Support.createExecution(side, size, price, time, context);
+            });
         }
 
         /**
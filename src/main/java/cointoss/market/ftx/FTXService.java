@@ -40,6 +40,7 @@ import cointoss.util.Network;
 import cointoss.util.Primitives;
 import cointoss.util.arithmetic.Num;
 import cointoss.util.feather.FeatherStore;
+import cointoss.util.feather.MemoryBudget;
 import kiss.I;
 import kiss.JSON;
 import kiss.Signal;
@@ -262,7 +263,9 @@ public class FTXService extends MarketService {
     @Override
     protected FeatherStore<OpenInterest> initializeOpenInterest() {
         return FeatherStore.create(OpenInterest.class, Span.Minute5)
-                .enableDiskStore(file("oi.db"))
+                .enableCompressedDiskStore(file("oi.db"))
+                .enableWriteBehind(1, TimeUnit.MINUTES)
+                .enableMemoryBudget(MemoryBudget.Shared, OpenInterestBytes, 1)
                 .enableDataSupplier(this::provideOpenInterest, connectOpenInterest());
     }
 
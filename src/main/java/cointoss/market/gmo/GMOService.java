@@ -11,20 +11,14 @@ package cointoss.market.gmo;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
-import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.Builder;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.function.Function;
-import java.util.zip.GZIPInputStream;
-
-import com.univocity.parsers.csv.CsvParser;
-import com.univocity.parsers.csv.CsvParserSettings;
 
 import cointoss.Direction;
 import cointoss.MarketService;
@@ -298,18 +292,9 @@ public class GMOService extends MarketService {
             String uri = "https://api.coin.z.com/data/trades/" + service.marketName + "/" + formatter
                     .format(target) + "_" + service.marketName + ".csv.gz";
 
-            CsvParserSettings setting = new CsvParserSettings();
-            setting.getFormat().setDelimiter(',');
-            setting.getFormat().setLineSeparator("\n");
-            setting.setHeaderExtractionEnabled(true);
-            CsvParser parser = new CsvParser(setting);
-
             REPOSITORY_LIMITER.acquire();
 
-            return I.http(uri, InputStream.class)
-                    .errorResume(I.signal())
-                    .flatIterable(in -> parser.iterate(new GZIPInputStream(in), StandardCharsets.ISO_8859_1))
-                    .effectOnComplete(parser::stopParsing);
+            return downloadOptionalCSV(uri);
         }
     }
 }
\ No newline at end of file
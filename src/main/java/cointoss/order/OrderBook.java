@@ -10,19 +10,18 @@
 package cointoss.order;
 
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentNavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.UnaryOperator;
 
 import cointoss.Direction;
 import cointoss.MarketSetting;
 import cointoss.util.Primitives;
 import cointoss.util.arithmetic.Num;
+import cointoss.util.map.ConcurrentNavigableLongMap;
+import cointoss.util.map.LongMap;
 import kiss.Signal;
 import kiss.Signaling;
 import kiss.Variable;
@@ -44,8 +43,14 @@ public class OrderBook {
     /** The taker fee calculator. */
     private final UnaryOperator<Num> takerFee;
 
-    /** The base boards. */
-    private final ConcurrentSkipListMap<Num, OrderBookPage> base;
+    /**
+     * The scale of price tick. All prices are managed as the scaled long value (price ×
+     * 10^tickScale), so the order book is searched and grouped without {@link Num} comparison.
+     */
+    private int tickScale;
+
+    /** The base boards by price tick. */
+    private final ConcurrentNavigableLongMap<OrderBookPage> base;
 
     /** The grouped order book. */
     private GroupedOrderBook group;
@@ -62,8 +67,9 @@ public class OrderBook {
      */
     OrderBook(MarketSetting setting, Direction side) {
         this.side = Objects.requireNonNull(side);
-        this.base = new ConcurrentSkipListMap(side.isBuy() ? Comparator.reverseOrder() : Comparator.naturalOrder());
+        this.base = side.isBuy() ? LongMap.createReversedMap() : LongMap.createSortedMap();
         this.scaleBase = setting.base.scale;
+        this.tickScale = scaleBase;
         this.scaleTarget = setting.target.scale;
         this.takerFee = setting.takerFee;
         this.group = new GroupedOrderBook(setting.base.minimumSize);
@@ -111,6 +117,62 @@ public class OrderBook {
         return group.pages.values();
     }
 
+    /**
+     * Get all boards from the best price.
+     * 
+     * @return A live view.
+     */
+    final Collection<OrderBookPage> pages() {
+        return base.values();
+    }
+
+    /**
+     * Convert the price to the exact tick. If the price is finer than the current tick, all ticks
+     * are rescaled.
+     * 
+     * @param price A price.
+     * @return The price tick.
+     */
+    private long tick(Num price) {
+        try {
+            return price.unscaled(tickScale);
+        } catch (ArithmeticException e) {
+            int scale = price.scale();
+            if (scale <= tickScale) {
+                throw e;
+            }
+            rescale(scale);
+            return price.unscaled(tickScale);
+        }
+    }
+
+    /**
+     * Convert the price to the rounded tick.
+     * 
+     * @param price A price.
+     * @param mode A rounding mode.
+     * @return The price tick.
+     */
+    private long tick(Num price, RoundingMode mode) {
+        return price.scale(tickScale, mode).unscaled(tickScale);
+    }
+
+    /**
+     * Change the scale of price tick and rebuild all boards.
+     * 
+     * @param scale A new scale.
+     */
+    private synchronized void rescale(int scale) {
+        List<OrderBookPage> pages = new ArrayList(base.values());
+
+        tickScale = scale;
+        base.clear();
+        for (OrderBookPage page : pages) {
+            base.put(page.price.unscaled(scale), page);
+        }
+        group.rebuild();
+    }
+
     /**
      * It finds the largest order in the currently selected OrderBook within the specified price
      * range.
@@ -126,13 +188,19 @@ public class OrderBook {
             return max;
         }
 
+        GroupedOrderBook group = this.group;
+        long lower = tick(lowerPrice, RoundingMode.CEILING);
+        long upper = tick(upperPrice, RoundingMode.FLOOR);
+        long first = base.firstLongKey();
+        long last = base.lastLongKey();
+
         if (side.isBuy()) {
-            if (lowerPrice.isGreaterThan(base.firstKey()) || upperPrice.isLessThan(base.lastKey())) {
+            if (first < lower || upper < last) {
                 return max;
             }
 
-            Num lowerRounded = Num.max(base.lastKey(), lowerPrice).floor(group.range);
-            Num upperRounded = Num.min(base.firstKey(), upperPrice).floor(group.range);
+            long lowerRounded = group.floor(Math.max(last, lower));
+            long upperRounded = group.floor(Math.min(first, upper));
 
             for (OrderBookPage page : group.pages.subMap(upperRounded, true, lowerRounded, true).values()) {
                 if (max.size < page.size) {
@@ -140,12 +208,12 @@ public class OrderBook {
                 }
             }
         } else {
-            if (upperPrice.isLessThan(base.firstKey()) || lowerPrice.isGreaterThan(base.lastKey())) {
+            if (upper < first || last < lower) {
                 return max;
             }
 
-            Num lowerRounded = Num.max(base.firstKey(), lowerPrice).floor(group.range);
-            Num upperRounded = Num.min(base.lastKey(), upperPrice).floor(group.range);
+            long lowerRounded = group.floor(Math.max(first, lower));
+            long upperRounded = group.floor(Math.min(last, upper));
 
             for (OrderBookPage page : group.pages.subMap(lowerRounded, true, upperRounded, true).values()) {
                 if (max.size < page.size) {
@@ -165,12 +233,26 @@ public class OrderBook {
         return group.pages.values();
     }
 
-    public final ConcurrentNavigableMap<Num, OrderBookPage> headMap(Num price) {
-        return group.pages.headMap(price, true);
+    /**
+     * Get the pages of the current selected grouped view from the best price to the specified
+     * price.
+     * 
+     * @param price A price.
+     * @return A live view.
+     */
+    public final Collection<OrderBookPage> headMap(Num price) {
+        return group.pages.headMap(tick(price, side.isBuy() ? RoundingMode.CEILING : RoundingMode.FLOOR), true).values();
     }
 
-    public final ConcurrentNavigableMap<Num, OrderBookPage> tailMap(Num price) {
-        return group.pages.tailMap(price, true);
+    /**
+     * Get the pages of the current selected grouped view from the specified price to the worst
+     * price.
+     * 
+     * @param price A price.
+     * @return A live view.
+     */
+    public final Collection<OrderBookPage> tailMap(Num price) {
+        return group.pages.tailMap(tick(price, side.isBuy() ? RoundingMode.FLOOR : RoundingMode.CEILING), true).values();
     }
 
     /**
@@ -255,15 +337,23 @@ public class OrderBook {
      * @return A predicted price.
      */
     public final Signal<Num> predictRealTakingPrice(Signal<Num> size) {
-        return best.observing().combineLatest(size).map(e -> {
-            Num price = predictTakingPrice(e.ⅱ);
+        return best.observing().combineLatest(size).map(e -> predictRealTakingPrice(e.ⅱ));
+    }
 
-            if (side == Direction.BUY) {
-                return price.minus(takerFee.apply(price));
-            } else {
-                return price.plus(takerFee.apply(price));
-            }
-        });
+    /**
+     * Predict the real taking price which includes the taker fee.
+     * 
+     * @param size A taking size.
+     * @return A predicted price.
+     */
+    public final Num predictRealTakingPrice(Num size) {
+        Num price = predictTakingPrice(size);
+
+        if (side == Direction.BUY) {
+            return price.minus(takerFee.apply(price));
+        } else {
+            return price.plus(takerFee.apply(price));
+        }
     }
 
     /**
@@ -306,14 +396,16 @@ public class OrderBook {
      * @return A computed best price.
      */
     public final Num computeBestPrice(Num start, Num threshold, Num diff) {
-        Num total = Num.ZERO;
-        for (OrderBookPage board : base.values()) {
-            if (board.price.isLessThanOrEqual(side, start)) {
-                total = total.plus(board.size);
+        double total = 0;
+        double limit = threshold.doubleValue();
+        long from = tick(start, side.isBuy() ? RoundingMode.FLOOR : RoundingMode.CEILING);
 
-                if (total.isGreaterThanOrEqual(threshold)) {
-                    return board.price.plus(side, diff);
-                }
+        // the boards are sorted from the best price, so skip the boards over the start price
+        for (OrderBookPage board : base.tailMap(from, true).values()) {
+            total += board.size;
+
+            if (limit <= total) {
+                return board.price.plus(side, diff);
             }
         }
         return null;
@@ -325,21 +417,20 @@ public class OrderBook {
      * @param hint A price hint.
      */
     public void fix(Num hint) {
-        if (!base.isEmpty()) {
-            Num price = base.firstKey();
+        long limit = tick(hint, side.isBuy() ? RoundingMode.FLOOR : RoundingMode.CEILING);
 
-            while (price != null && price.isGreaterThan(side, hint)) {
-                OrderBookPage removed = base.remove(price);
+        while (!base.isEmpty()) {
+            long price = base.firstLongKey();
 
-                group.update(price, removed.size * -1);
-                group.fix(hint);
+            if (side.isBuy() ? price <= limit : limit <= price) {
+                break;
+            }
 
-                if (base.isEmpty()) {
-                    break;
-                } else {
-                    price = base.firstKey();
-                }
+            OrderBookPage removed = base.remove(price);
+            if (removed != null) {
+                group.update(price, removed.size * -1);
             }
+            group.fix(limit);
         }
     }
 
@@ -349,26 +440,43 @@ public class OrderBook {
      * @param units
      */
     public void update(List<OrderBookPage> units) {
+        apply(units);
+        publish();
+    }
+
+    /**
+     * Apply the changes of orders without any notification.
+     * 
+     * @param units
+     */
+    void apply(List<OrderBookPage> units) {
         for (OrderBookPage board : units) {
+            long price = tick(board.price);
+
             if (board.size == 0d) {
                 // remove
-                OrderBookPage removed = base.remove(board.price);
+                OrderBookPage removed = base.remove(price);
 
                 if (removed != null) {
-                    group.update(removed.price, removed.size * -1);
+                    group.update(price, removed.size * -1);
                 }
             } else {
                 // add
-                OrderBookPage previous = base.put(board.price, board);
+                OrderBookPage previous = base.put(price, board);
 
                 if (previous == null) {
-                    group.update(board.price, board.size);
+                    group.update(price, board.size);
                 } else {
-                    group.update(board.price, board.size - previous.size);
+                    group.update(price, board.size - previous.size);
                 }
             }
         }
+    }
 
+    /**
+     * Notify the current best order and the update of orders.
+     */
+    void publish() {
         if (base.isEmpty() == false) {
             best.set(base.firstEntry().getValue());
         }
@@ -376,15 +484,19 @@ public class OrderBook {
     }
 
     /**
-     * 
+     * The grouped view by the price range. The group is computed by the integer division of price
+     * tick.
      */
     private class GroupedOrderBook {
 
         /** The price range. */
         private final Num range;
 
-        private final ConcurrentSkipListMap<Num, OrderBookPage> pages = new ConcurrentSkipListMap(side.isBuy() ? Comparator.reverseOrder()
-                : Comparator.naturalOrder());
+        /** The price range in tick. */
+        private long ticks;
+
+        /** The grouped pages by price tick. */
+        private final ConcurrentNavigableLongMap<OrderBookPage> pages = side.isBuy() ? LongMap.createReversedMap() : LongMap.createSortedMap();
 
         /**
          * Build {@link GroupedOrderBook}.
@@ -394,43 +506,67 @@ public class OrderBook {
         private GroupedOrderBook(Num range) {
             this.range = Objects.requireNonNull(range);
 
-            // grouping the current boards
+            rebuild();
+        }
+
+        /**
+         * Group the current boards.
+         */
+        private void rebuild() {
+            ticks = Math.max(1, tick(range, RoundingMode.CEILING));
+            pages.clear();
+
             for (OrderBookPage board : base.values()) {
-                update(board.price, board.size);
+                update(board.price.unscaled(tickScale), board.size);
             }
         }
 
+        /**
+         * Compute the grouped tick.
+         * 
+         * @param tick A price tick.
+         * @return The grouped tick.
+         */
+        private long floor(long tick) {
+            return Math.floorDiv(tick, ticks) * ticks;
+        }
+
         /**
          * Update price and size.
          * 
-         * @param price
-         * @param size
+         * @param tick A price tick.
+         * @param size A size delta.
          */
-        private void update(Num price, double size) {
-            price = price.floor(range);
+        private void update(long tick, double size) {
+            long grouped = floor(tick);
 
-            OrderBookPage page = pages.computeIfAbsent(price, key -> new OrderBookPage(key, 0, side.isBuy() ? Num.ZERO : range));
+            OrderBookPage page = pages.get(grouped);
+            if (page == null) {
+                page = new OrderBookPage(Num.ofUnscaled(grouped, tickScale), 0, side.isBuy() ? Num.ZERO : range);
+                pages.put(grouped, page);
+            }
             page.size += size;
 
             if (Primitives.roundDecimal(page.size, scaleTarget, RoundingMode.DOWN) <= 0) {
-                pages.remove(price);
+                pages.remove(grouped);
             }
         }
 
         /**
          * Fix error price.
          * 
-         * @param hint A price hint.
+         * @param hint A price hint in tick.
          */
-        private void fix(Num hint) {
-            if (!pages.isEmpty()) {
-                hint = hint.floor(range);
-
-                Entry<Num, OrderBookPage> entry = pages.firstEntry();
-                while (entry != null && entry.getKey().isGreaterThan(side, hint)) {
-                    pages.pollFirstEntry();
-                    entry = pages.firstEntry();
+        private void fix(long hint) {
+            long limit = floor(hint);
+
+            while (!pages.isEmpty()) {
+                long price = pages.firstLongKey();
+
+                if (side.isBuy() ? price <= limit : limit <= price) {
+                    break;
                 }
+                pages.remove(price);
             }
         }
     }
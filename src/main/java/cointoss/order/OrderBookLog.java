@@ -0,0 +1,562 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.order;
+
+import static java.nio.file.StandardOpenOption.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.github.luben.zstd.Zstd;
+
+import cointoss.Direction;
+import cointoss.MarketService;
+import cointoss.util.Chrono;
+import cointoss.util.arithmetic.Num;
+import kiss.Disposable;
+import kiss.I;
+import psychopath.Directory;
+import psychopath.File;
+
+/**
+ * The persistent log of {@link OrderBookPageChanges} which is stored next to the execution log by
+ * day.
+ * <p>
+ * The changes are buffered in memory and written as the zstd compressed chunk. Every chunk starts
+ * with the full snapshot of order book, so the replay can skip the preceding chunks without
+ * decoding them. In the chunk, the time is delta-encoded from the previous record and the price is
+ * delta-encoded from the previous page as zigzag varint.
+ *
+ * <pre>
+ * [chunk]*   firstMills:long lastMills:long items:int rawLength:int compressedLength:int compressed:byte[]
+ * [record]*  type:byte timeDelta:varint scale:byte bids:varint [page]* asks:varint [page]*
+ * [page]     priceDelta:varint size:float
+ * </pre>
+ */
+public class OrderBookLog {
+
+    /** The record type. */
+    private static final byte DELTA = 0;
+
+    /** The record type which clears the inside of changes. */
+    private static final byte CLEAR = 1;
+
+    /** The record type of the full order book. */
+    private static final byte SNAPSHOT = 2;
+
+    /** The byte size of the chunk header. */
+    private static final int HEADER = 8 + 8 + 4 + 4 + 4;
+
+    /** The compression level. */
+    private static final int LEVEL = 3;
+
+    /** The millis of one day. */
+    private static final long DAY = 24 * 60 * 60 * 1000;
+
+    /** The market service. */
+    private final MarketService service;
+
+    /** The root directory of logs. */
+    private final Directory root;
+
+    /** The time span of chunk. (millis) */
+    private final long span;
+
+    /** The replica of asks to build snapshot. */
+    private final OrderBook asks;
+
+    /** The replica of bids to build snapshot. */
+    private final OrderBook bids;
+
+    /** The writing buffer of the current chunk. */
+    private final Encoder chunk = new Encoder();
+
+    /** The time of the first record in the current chunk. */
+    private long first;
+
+    /** The time of the last record in the current chunk. */
+    private long last;
+
+    /** The number of records in the current chunk. */
+    private int items;
+
+    /** The disposer of the current recording. (null when not recording) */
+    private Disposable recording;
+
+    /**
+     * Create log manager.
+     *
+     * @param service A market service.
+     */
+    public OrderBookLog(MarketService service) {
+        this(service, service.directory(), TimeUnit.MINUTES.toMillis(10));
+    }
+
+    /**
+     * Create log manager with the specified log store directory.
+     *
+     * @param service A market service.
+     * @param root A log store directory.
+     * @param span A time span of chunk. (millis)
+     */
+    OrderBookLog(MarketService service, Directory root, long span) {
+        this.service = Objects.requireNonNull(service);
+        this.root = Objects.requireNonNull(root);
+        this.span = span;
+        this.asks = new OrderBook(service.setting, Direction.SELL);
+        this.bids = new OrderBook(service.setting, Direction.BUY);
+    }
+
+    /**
+     * Locate the log file of the specified day.
+     *
+     * @param day An epoch day.
+     * @return A file location.
+     */
+    private File file(long day) {
+        return root.file("orderbook" + Chrono.DateCompact.format(LocalDate.ofEpochDay(day)) + ".olog");
+    }
+
+    /**
+     * Start recording the realtime order book. The log is shared by all users of the service, so
+     * the recording is started only once and is stopped when the service is disposed.
+     *
+     * @return A disposer to stop recording. The buffered changes are written on disposing.
+     */
+    public synchronized Disposable record() {
+        if (recording == null || recording.isDisposed()) {
+            recording = service.orderBookRealtimely().to(changes -> store(changes, service.now().toInstant().toEpochMilli())).add(this::flush);
+            service.add(recording);
+        }
+        return recording;
+    }
+
+    /**
+     * Store the changes.
+     *
+     * @param changes The changes of order book.
+     * @param mills The received time.
+     */
+    synchronized void store(OrderBookPageChanges changes, long mills) {
+        if (items != 0 && (first + span <= mills || first / DAY != mills / DAY)) {
+            flush();
+        }
+
+        if (items == 0) {
+            first = last = mills;
+            write(SNAPSHOT, mills, bids.pages(), asks.pages());
+        }
+        write(changes.clearInside ? CLEAR : DELTA, mills, changes.bids, changes.asks);
+
+        // update replica in the same way as OrderBookManager
+        if (changes.clearInside) {
+            asks.fix(changes.asks.get(changes.asks.size() - 1).price);
+            bids.fix(changes.bids.get(changes.bids.size() - 1).price);
+        }
+        asks.apply(changes.asks);
+        bids.apply(changes.bids);
+    }
+
+    /**
+     * Encode the record.
+     *
+     * @param type A record type.
+     * @param mills A record time.
+     * @param bids A list of bids.
+     * @param asks A list of asks.
+     */
+    private void write(byte type, long mills, Collection<OrderBookPage> bids, Collection<OrderBookPage> asks) {
+        int scale = service.setting.base.scale;
+        for (OrderBookPage page : bids) scale = Math.max(scale, page.price.scale());
+        for (OrderBookPage page : asks) scale = Math.max(scale, page.price.scale());
+
+        chunk.writeByte(type);
+        chunk.writeVar(mills - last);
+        chunk.writeByte(scale);
+        chunk.writePages(bids, scale);
+        chunk.writePages(asks, scale);
+
+        last = mills;
+        items++;
+    }
+
+    /**
+     * Write the current chunk to the log file.
+     */
+    synchronized void flush() {
+        if (items == 0) {
+            return;
+        }
+
+        byte[] compressed = Zstd.compress(Arrays.copyOf(chunk.bytes, chunk.position), LEVEL);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + compressed.length)
+                .putLong(first)
+                .putLong(last)
+                .putInt(items)
+                .putInt(chunk.position)
+                .putInt(compressed.length)
+                .put(compressed)
+                .flip();
+
+        try (FileChannel channel = FileChannel.open(file(first / DAY).create().asJavaPath(), CREATE, APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw I.quiet(e);
+        } finally {
+            chunk.position = 0;
+            items = 0;
+        }
+    }
+
+    /**
+     * Replay the recorded order book in the specified period.
+     *
+     * @param start A start time (included).
+     * @param end A end time (excluded).
+     * @return A replayer.
+     */
+    public Replay replay(ZonedDateTime start, ZonedDateTime end) {
+        return replay(start.toInstant().toEpochMilli(), end.toInstant().toEpochMilli());
+    }
+
+    /**
+     * Replay the recorded order book in the specified period.
+     *
+     * @param start A start time. (epoch millis, included)
+     * @param end A end time. (epoch millis, excluded)
+     * @return A replayer.
+     */
+    Replay replay(long start, long end) {
+        return new Replay(start, end);
+    }
+
+    /**
+     * The pull-based replayer which is merged with other time series (i.e. the execution log) by
+     * timestamp.
+     */
+    public final class Replay {
+
+        /** The start time. */
+        private final long start;
+
+        /** The end time. */
+        private final long end;
+
+        /** The current epoch day. */
+        private long day;
+
+        /** The last epoch day. */
+        private final long lastDay;
+
+        /** The read position of the current file. */
+        private long offset;
+
+        /** The decoded times of the current chunk. */
+        private long[] times = new long[0];
+
+        /** The decoded changes of the current chunk. */
+        private final List<OrderBookPageChanges> records = new ArrayList();
+
+        /** The index of next record. */
+        private int index;
+
+        /**
+         * @param start A start time.
+         * @param end A end time.
+         */
+        private Replay(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.day = start / DAY;
+            this.lastDay = (end - 1) / DAY;
+        }
+
+        /**
+         * Emit all changes which are recorded until the specified time. The changes before the
+         * start time are emitted at the first call to build the order book at the start time.
+         *
+         * @param mills A time. (epoch millis, included)
+         * @param action A receiver of changes.
+         */
+        public void until(long mills, Consumer<OrderBookPageChanges> action) {
+            while (index < records.size() || load()) {
+                long time = times[index];
+
+                if (mills < time) {
+                    return;
+                } else if (end <= time) {
+                    records.clear();
+                    index = 0;
+                    day = lastDay + 1;
+                    return;
+                }
+                action.accept(records.get(index++));
+            }
+        }
+
+        /**
+         * Load the next chunk.
+         *
+         * @return Result.
+         */
+        private boolean load() {
+            records.clear();
+            index = 0;
+
+            for (; day <= lastDay; day++, offset = 0) {
+                File file = file(day);
+
+                if (file.isPresent()) {
+                    try (FileChannel channel = FileChannel.open(file.asJavaPath(), READ)) {
+                        long size = channel.size();
+
+                        while (offset + HEADER <= size) {
+                            ByteBuffer header = read(channel, offset, HEADER);
+                            long first = header.getLong();
+                            long last = header.getLong();
+                            int items = header.getInt();
+                            int raw = header.getInt();
+                            int compressed = header.getInt();
+
+                            if (size < offset + HEADER + compressed) {
+                                break; // truncated chunk
+                            }
+
+                            long position = offset + HEADER;
+                            offset = position + compressed;
+
+                            // the following chunk starts with the snapshot, so skip it safely
+                            if (last < start) {
+                                continue;
+                            }
+
+                            decode(Zstd.decompress(read(channel, position, compressed).array(), raw), first, items);
+                            return true;
+                        }
+                    } catch (IOException e) {
+                        throw I.quiet(e);
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Decode all records in chunk.
+         *
+         * @param bytes A decompressed chunk.
+         * @param first The time of the first record.
+         * @param items The number of records.
+         */
+        private void decode(byte[] bytes, long first, int items) {
+            Decoder decoder = new Decoder(bytes);
+            long time = first;
+
+            if (times.length < items) {
+                times = new long[items];
+            }
+
+            for (int i = 0; i < items; i++) {
+                byte type = decoder.readByte();
+                time += decoder.readVar();
+                int scale = decoder.readByte();
+
+                OrderBookPageChanges changes = new OrderBookPageChanges();
+                decoder.readPages(changes.bids, scale);
+                decoder.readPages(changes.asks, scale);
+                changes.clearInside = type == CLEAR || (type == SNAPSHOT && !changes.bids.isEmpty() && !changes.asks.isEmpty());
+
+                times[i] = time;
+                records.add(changes);
+            }
+        }
+
+        /**
+         * Read the specified range of file.
+         *
+         * @param channel A file channel.
+         * @param position A start position.
+         * @param length A length to read.
+         * @return A read buffer.
+         */
+        private ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of order book log.");
+                }
+            }
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * Growable zigzag varint writer.
+     */
+    private static class Encoder {
+
+        /** The buffer. */
+        private byte[] bytes = new byte[64 * 1024];
+
+        /** The write position. */
+        private int position;
+
+        /**
+         * Write the byte.
+         *
+         * @param value A value.
+         */
+        private void writeByte(int value) {
+            ensure(1);
+            bytes[position++] = (byte) value;
+        }
+
+        /**
+         * Write the zigzag varint.
+         *
+         * @param value A value.
+         */
+        private void writeVar(long value) {
+            ensure(10);
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                bytes[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            bytes[position++] = (byte) zigzag;
+        }
+
+        /**
+         * Write the float.
+         *
+         * @param value A value.
+         */
+        private void writeFloat(float value) {
+            ensure(4);
+            int bits = Float.floatToIntBits(value);
+            bytes[position++] = (byte) (bits >>> 24);
+            bytes[position++] = (byte) (bits >>> 16);
+            bytes[position++] = (byte) (bits >>> 8);
+            bytes[position++] = (byte) bits;
+        }
+
+        /**
+         * Write the pages with delta-encoded price.
+         *
+         * @param pages A list of pages.
+         * @param scale A price scale.
+         */
+        private void writePages(Collection<OrderBookPage> pages, int scale) {
+            writeVar(pages.size());
+
+            long previous = 0;
+            for (OrderBookPage page : pages) {
+                long price = page.price.unscaled(scale);
+                writeVar(price - previous);
+                writeFloat(page.size);
+                previous = price;
+            }
+        }
+
+        /**
+         * Expand the buffer if needed.
+         *
+         * @param size A required size.
+         */
+        private void ensure(int size) {
+            if (bytes.length < position + size) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + size));
+            }
+        }
+    }
+
+    /**
+     * Zigzag varint reader.
+     */
+    private static class Decoder {
+
+        /** The buffer. */
+        private final byte[] bytes;
+
+        /** The read position. */
+        private int position;
+
+        /**
+         * @param bytes A buffer.
+         */
+        private Decoder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Read the byte.
+         *
+         * @return A value.
+         */
+        private byte readByte() {
+            return bytes[position++];
+        }
+
+        /**
+         * Read the zigzag varint.
+         *
+         * @return A value.
+         */
+        private long readVar() {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        /**
+         * Read the float.
+         *
+         * @return A value.
+         */
+        private float readFloat() {
+            int bits = (bytes[position++] & 0xFF) << 24 | (bytes[position++] & 0xFF) << 16 | (bytes[position++] & 0xFF) << 8 | (bytes[position++] & 0xFF);
+            return Float.intBitsToFloat(bits);
+        }
+
+        /**
+         * Read the pages with delta-encoded price.
+         *
+         * @param pages A list to store.
+         * @param scale A price scale.
+         */
+        private void readPages(List<OrderBookPage> pages, int scale) {
+            int size = (int) readVar();
+
+            long price = 0;
+            for (int i = 0; i < size; i++) {
+                price += readVar();
+                pages.add(new OrderBookPage(Num.ofUnscaled(price, scale), readFloat()));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -9,6 +9,11 @@
  */
 package cointoss.order;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.google.common.annotations.VisibleForTesting;
 
 import cointoss.Direction;
@@ -16,7 +21,9 @@ import cointoss.Directional;
 import cointoss.MarketService;
 import cointoss.util.arithmetic.Num;
 import kiss.Disposable;
+import kiss.I;
 import kiss.Signal;
+import kiss.Signaling;
 import kiss.Variable;
 
 public class OrderBookManager implements Disposable {
@@ -30,6 +37,30 @@ public class OrderBookManager implements Disposable {
     /** The current spread. */
     public final Variable<Num> spread = Variable.of(Num.ZERO);
 
+    /** The batch publisher. */
+    private final Signaling<Batch> batching = new Signaling();
+
+    /** The consistent snapshot event which is published once for each batch of changes. */
+    public final Signal<Batch> batch = batching.expose;
+
+    /** The pending changes. */
+    private final ConcurrentLinkedQueue<OrderBookPageChanges> pending = new ConcurrentLinkedQueue();
+
+    /** The work-in-progress counter to coalesce the concurrent changes. */
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /** The market scheduler. */
+    private final ScheduledExecutorService scheduler;
+
+    /** The conflation mode. */
+    private volatile boolean conflating;
+
+    /** The periodic flusher. */
+    private Disposable flusher = Disposable.empty();
+
+    /** The sequence number of the latest batch. */
+    private long sequence;
+
     /**
      * Expose to test.
      * 
@@ -46,23 +77,89 @@ public class OrderBookManager implements Disposable {
     public OrderBookManager(MarketService service, Signal<Num> fixPageByPrice) {
         this.shorts = new OrderBook(service.setting, Direction.SELL);
         this.longs = new OrderBook(service.setting, Direction.BUY);
+        this.scheduler = service.scheduler();
         shorts.best.observe().combineLatest(longs.best.observe()).to(v -> spread.set(v.ⅰ.price.minus(v.ⅱ.price)));
 
         // orderbook management
-        service.add(service.orderBookRealtimely().to(board -> {
-            if (board.clearInside) {
-                shorts.fix(board.asks.get(board.asks.size() - 1).price);
-                longs.fix(board.bids.get(board.bids.size() - 1).price);
-            }
-            shorts.update(board.asks);
-            longs.update(board.bids);
-        }));
+        service.add(service.orderBookRealtimely().to(this::receive));
         service.add(fixPageByPrice.to(price -> {
-            shorts.fix(price);
-            longs.fix(price);
+            synchronized (this) {
+                shorts.fix(price);
+                longs.fix(price);
+            }
         }));
     }
 
+    /**
+     * Conflate the changes of order book and apply them at the specified interval. All changes in
+     * the interval are applied at once and published as one {@link Batch}, so the observers of
+     * {@link OrderBook#best}, {@link OrderBook#update} and {@link #batch} run once per interval
+     * instead of once per change. The non-positive interval stops the conflation.
+     * 
+     * @param interval A conflation interval.
+     * @param unit A time unit.
+     * @return Chainable API.
+     */
+    public synchronized OrderBookManager conflate(long interval, TimeUnit unit) {
+        flusher.dispose();
+
+        if (0 < interval) {
+            conflating = true;
+            flusher = I.schedule(interval, interval, unit, true, scheduler).to(this::flush);
+        } else {
+            conflating = false;
+            flusher = Disposable.empty();
+            flush();
+        }
+        return this;
+    }
+
+    /**
+     * Receive the changes of order book. Without conflation, the changes are applied immediately,
+     * but the changes arriving concurrently while applying are coalesced into the next batch.
+     * 
+     * @param changes The changes of order book.
+     */
+    void receive(OrderBookPageChanges changes) {
+        pending.add(changes);
+
+        if (!conflating && wip.getAndIncrement() == 0) {
+            int missed = 1;
+            do {
+                flush();
+            } while ((missed = wip.addAndGet(-missed)) != 0);
+        }
+    }
+
+    /**
+     * Apply all pending changes and publish the batch.
+     */
+    synchronized void flush() {
+        boolean askChanged = false;
+        boolean bidChanged = false;
+        int size = 0;
+
+        OrderBookPageChanges changes;
+        while ((changes = pending.poll()) != null) {
+            if (changes.clearInside) {
+                shorts.fix(changes.asks.get(changes.asks.size() - 1).price);
+                longs.fix(changes.bids.get(changes.bids.size() - 1).price);
+            }
+            shorts.apply(changes.asks);
+            longs.apply(changes.bids);
+
+            askChanged |= changes.clearInside || !changes.asks.isEmpty();
+            bidChanged |= changes.clearInside || !changes.bids.isEmpty();
+            size++;
+        }
+
+        if (size != 0) {
+            if (askChanged) shorts.publish();
+            if (bidChanged) longs.publish();
+            batching.accept(new Batch(++sequence, size, shorts.best.v, longs.best.v));
+        }
+    }
+
     /**
      * Retrieve the {@link OrderBook} by {@link Direction}.
      * 
@@ -131,6 +228,48 @@ public class OrderBookManager implements Disposable {
      * {@inheritDoc}
      */
     @Override
-    public void vandalize() {
+    public synchronized void vandalize() {
+        flusher.dispose();
+    }
+
+    /**
+     * The consistent snapshot event of order book.
+     */
+    public static final class Batch {
+
+        /** The sequence number which starts from 1. */
+        public final long sequence;
+
+        /** The number of applied changes. */
+        public final int changes;
+
+        /** The best ask order. (nullable) */
+        public final OrderBookPage ask;
+
+        /** The best bid order. (nullable) */
+        public final OrderBookPage bid;
+
+        /**
+         * Build the batch event.
+         * 
+         * @param sequence A sequence number.
+         * @param changes A number of applied changes.
+         * @param ask A best ask.
+         * @param bid A best bid.
+         */
+        private Batch(long sequence, int changes, OrderBookPage ask, OrderBookPage bid) {
+            this.sequence = sequence;
+            this.changes = changes;
+            this.ask = ask;
+            this.bid = bid;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "Batch [sequence=" + sequence + ", changes=" + changes + ", ask=" + ask + ", bid=" + bid + "]";
+        }
     }
 }
\ No newline at end of file
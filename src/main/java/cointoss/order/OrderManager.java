@@ -19,6 +19,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import cointoss.Direction;
 import cointoss.MarketService;
 import cointoss.util.arithmetic.Num;
+import cointoss.util.arithmetic.NumAccumulator;
 import kiss.Disposable;
 import kiss.I;
 import kiss.Signal;
@@ -58,7 +59,7 @@ public final class OrderManager {
     public final Variable<Num> compoundPrice = Variable.of(Num.ZERO);
 
     /** The compound total position price. */
-    private Num compoundTotalPrice = Num.ZERO;
+    private final NumAccumulator compoundTotalPrice = new NumAccumulator();
 
     /**
      * @param service
@@ -160,9 +161,10 @@ public final class OrderManager {
         calculateCompoundPosition(order.direction, order.price, order.executedSize, updater.price, updater.executedSize);
 
         Num newExecutedSize = order.executedSize.plus(updater.size);
-        Num newAveragePrice = order.price.multiply(order.executedSize)
-                .plus(updater.price.multiply(updater.size))
+        Num newAveragePrice = new NumAccumulator(order.price).multiply(order.executedSize)
+                .plusMultiply(updater.price, updater.size)
                 .divide(newExecutedSize)
+                .toNum()
                 .scale(service.setting.base.scale);
         Num newCommission = order.commission.plus(updater.commission);
 
@@ -196,22 +198,19 @@ public final class OrderManager {
             } else {
                 compoundSize.set(diffSize.negate());
             }
-            compoundTotalPrice = newPrice.multiply(diffSize);
+            compoundTotalPrice.set(newPrice).multiply(diffSize);
         } else {
             if (compoundSize.v.isPositive()) {
                 // long position
                 if (side.isBuy()) {
-                    Num oldTotalPrice = oldPrice.multiply(oldSize);
-                    Num newTotalPrice = newPrice.multiply(newSize);
-
                     compoundSize.set(v -> v.plus(diffSize));
-                    compoundTotalPrice = compoundTotalPrice.minus(oldTotalPrice).plus(newTotalPrice);
+                    compoundTotalPrice.minusMultiply(oldPrice, oldSize).plusMultiply(newPrice, newSize);
                 } else {
                     compoundSize.set(v -> v.minus(diffSize));
                     if (compoundSize.v.isNegative()) {
-                        compoundTotalPrice = newPrice.multiply(compoundSize).abs();
+                        compoundTotalPrice.set(newPrice).multiply(compoundSize.v).abs();
                     } else {
-                        compoundTotalPrice = compoundPrice.v.multiply(compoundSize);
+                        compoundTotalPrice.set(compoundPrice.v).multiply(compoundSize.v);
                     }
                 }
             } else {
@@ -219,25 +218,22 @@ public final class OrderManager {
                 if (side.isBuy()) {
                     compoundSize.set(v -> v.plus(diffSize));
                     if (compoundSize.v.isPositive()) {
-                        compoundTotalPrice = newPrice.multiply(compoundSize);
+                        compoundTotalPrice.set(newPrice).multiply(compoundSize.v);
                     } else {
-                        compoundTotalPrice = compoundPrice.v.multiply(compoundSize).abs();
+                        compoundTotalPrice.set(compoundPrice.v).multiply(compoundSize.v).abs();
                     }
                 } else {
-                    Num oldTotalPrice = oldPrice.multiply(oldSize);
-                    Num newTotalPrice = newPrice.multiply(newSize);
-
                     compoundSize.set(v -> v.minus(diffSize));
-                    compoundTotalPrice = compoundTotalPrice.minus(oldTotalPrice).plus(newTotalPrice);
+                    compoundTotalPrice.minusMultiply(oldPrice, oldSize).plusMultiply(newPrice, newSize);
                 }
             }
         }
 
         if (compoundSize.v.isZero()) {
             compoundPrice.set(Num.ZERO);
-            compoundTotalPrice = Num.ZERO;
+            compoundTotalPrice.clear();
         } else {
-            compoundPrice.set(compoundTotalPrice.divide(compoundSize.v.abs()).scale(service.setting.base.scale));
+            compoundPrice.set(compoundTotalPrice.toNum().divide(compoundSize.v.abs()).scale(service.setting.base.scale));
         }
     }
 
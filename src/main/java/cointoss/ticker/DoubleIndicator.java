@@ -9,7 +9,6 @@
  */
 package cointoss.ticker;
 
-import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -88,19 +87,7 @@ public abstract class DoubleIndicator extends AbstractNumberIndicator<Double, Do
      */
     @Override
     public final DoubleIndicator ema(int size) {
-        double multiplier = 2.0 / (size + 1);
-
-        return memoize((size + 1) * 4, (tick, self) -> {
-            Tick before = ticker.ticks.before(tick);
-            if (before == null) {
-                return valueAt(tick);
-            }
-
-            double prev = self.apply(before);
-            double now = valueAt(tick);
-
-            return ((now - prev) * multiplier) + prev;
-        });
+        return average(MovingAverage.Type.EMA, size);
     }
 
     /**
@@ -108,19 +95,7 @@ public abstract class DoubleIndicator extends AbstractNumberIndicator<Double, Do
      */
     @Override
     public final DoubleIndicator mma(int size) {
-        double multiplier = 1.0 / size;
-
-        return memoize((size + 1) * 4, (tick, self) -> {
-            Tick before = ticker.ticks.before(tick);
-            if (before == null) {
-                return valueAt(tick);
-            }
-
-            double prev = self.apply(before);
-            double now = valueAt(tick);
-
-            return ((now - prev) * multiplier) + prev;
-        });
+        return average(MovingAverage.Type.MMA, size);
     }
 
     /**
@@ -128,19 +103,7 @@ public abstract class DoubleIndicator extends AbstractNumberIndicator<Double, Do
      */
     @Override
     public final DoubleIndicator sma(int size) {
-        return new DoubleIndicator(ticker, normalizer) {
-
-            @Override
-            protected double valueAtRounded(Tick tick) {
-                double value = 0;
-                List<Tick> before = ticker.ticks.query(tick, o -> o.reverse().max(size)).toList();
-                int actualSize = before.size();
-                for (int i = 0; i < actualSize; i++) {
-                    value += DoubleIndicator.this.doubleAt(before.get(i));
-                }
-                return value / actualSize;
-            }
-        }.memoize();
+        return average(MovingAverage.Type.SMA, size);
     }
 
     /**
@@ -148,19 +111,26 @@ public abstract class DoubleIndicator extends AbstractNumberIndicator<Double, Do
      */
     @Override
     public final DoubleIndicator wma(int size) {
+        return average(MovingAverage.Type.WMA, size);
+    }
+
+    /**
+     * Wrap by the incremental moving average.
+     * 
+     * @param type An average type.
+     * @param size A tick size.
+     * @return A wrapped indicator.
+     */
+    private DoubleIndicator average(MovingAverage.Type type, int size) {
+        MovingAverage average = new MovingAverage(ticker, type, size, this::doubleAt);
+
         return new DoubleIndicator(ticker, normalizer) {
 
             @Override
             protected double valueAtRounded(Tick tick) {
-                double value = 0;
-                List<Tick> previous = ticker.ticks.query(tick, o -> o.reverse().max(size)).toList();
-                int actualSize = previous.size();
-                for (int i = 0; i < actualSize; i++) {
-                    value += DoubleIndicator.this.doubleAt(previous.get(i)) * (actualSize - i);
-                }
-                return value / (actualSize * (actualSize + 1) / 2);
+                return average.valueAt(tick);
             }
-        }.memoize();
+        };
     }
 
     /**
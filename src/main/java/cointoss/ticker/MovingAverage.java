@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.ticker;
+
+import java.lang.ref.WeakReference;
+import java.util.function.ToDoubleFunction;
+
+import cointoss.ticker.TickColumns.Column;
+
+/**
+ * The incremental calculator of moving average on the {@link Ticker}.
+ * <p>
+ * The rolling state (the average, the window sum and the weighted window sum) is persisted for each
+ * closed tick by its index, so the value of closed tick is only the array lookup and the next
+ * closed tick is computed from the previous state in O(1). The state is pushed forward whenever
+ * {@link Ticker} closes the tick, and it catches up lazily when the unprocessed tick is requested.
+ * The latest tick is never stored because its value is still changing.
+ * <p>
+ * The state is seeded from the bounded look-back before the first requested tick instead of the
+ * head of {@link Ticker}, so the warm-started ticker never walks through the whole prebuilt
+ * history. The look-back covers the window exactly for SMA and WMA, and it is long enough for EMA
+ * and MMA to forget the seed. The state is seeded again when it grows beyond the bounded capacity,
+ * so the realtime ticker keeps only the recent state.
+ */
+final class MovingAverage {
+
+    /** The look-back multiplier of window size for EMA and MMA. */
+    private static final int WARMUP = 20;
+
+    /** The average type. */
+    enum Type {
+        /** The exponential moving average. */
+        EMA,
+
+        /** The modified moving average. */
+        MMA,
+
+        /** The simple moving average. */
+        SMA,
+
+        /** The weighted moving average. */
+        WMA;
+    }
+
+    /** The target ticker. */
+    private final Ticker ticker;
+
+    /** The average type. */
+    private final Type type;
+
+    /** The window size. */
+    private final int size;
+
+    /** The flag whether the average is based on the window or not. */
+    private final boolean windowed;
+
+    /** The smoothing factor for EMA and MMA. */
+    private final double multiplier;
+
+    /** The source value of tick. */
+    private final ToDoubleFunction<Tick> source;
+
+    /** The number of ticks to look back from the requested tick. */
+    private final int lookback;
+
+    /** The maximum number of stored ticks. */
+    private final int capacity;
+
+    /** The open time of the first stored tick. (epoch seconds) */
+    private long origin = -1;
+
+    /** The last index of the stored state. */
+    private int stored = -1;
+
+    /** The source value column. */
+    private final Column values = new Column();
+
+    /** The average column. */
+    private final Column averages = new Column();
+
+    /** The window sum column. */
+    private final Column sums = new Column();
+
+    /** The weighted window sum column. */
+    private final Column weights = new Column();
+
+    /** The window sum of the latest calculation. */
+    private double sum;
+
+    /** The weighted window sum of the latest calculation. */
+    private double weight;
+
+    /**
+     * Create the incremental calculator.
+     *
+     * @param ticker A target ticker.
+     * @param type An average type.
+     * @param size A window size.
+     * @param source A source value of tick.
+     */
+    MovingAverage(Ticker ticker, Type type, int size, ToDoubleFunction<Tick> source) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive. [" + size + "]");
+        }
+
+        this.ticker = ticker;
+        this.type = type;
+        this.size = size;
+        this.windowed = type == Type.SMA || type == Type.WMA;
+        this.multiplier = type == Type.EMA ? 2.0 / (size + 1) : 1.0 / size;
+        this.source = source;
+        this.lookback = windowed ? size : size * WARMUP;
+        this.capacity = Math.max(TickColumns.CHUNK_SIZE, lookback * 4);
+
+        // The ticker must not keep the unused indicator alive, the subscription is disposed on the
+        // next closing after this calculator is collected.
+        WeakReference<MovingAverage> reference = new WeakReference(this);
+        ticker.closing.expose.takeWhile(tick -> reference.get() != null).to(tick -> {
+            MovingAverage average = reference.get();
+            if (average != null) average.valueAt(tick);
+        });
+    }
+
+    /**
+     * Compute the average at the specified tick.
+     *
+     * @param tick A target tick.
+     * @return The average value.
+     */
+    synchronized double valueAt(Tick tick) {
+        Tick latest = ticker.current;
+        long first = ticker.ticks.firstTime();
+        if (latest == null || tick.openTime < first) {
+            return source.applyAsDouble(tick);
+        }
+
+        // Seed the state from the bounded look-back. The ticks just after the seed are not warmed
+        // up unless the seed is the head of ticker, so the state is recomputed from the older seed
+        // only when such tick is requested (i.e. scroll back the chart). The state which exceeds
+        // the capacity is also seeded again to bound the memory.
+        long time = Math.min(tick.openTime, latest.openTime);
+        long warmup = lookback * ticker.span.seconds;
+        if (origin == -1 || time < origin || (origin != first && time < origin + warmup) || capacity <= index(time)) {
+            reset(Math.max(first, time - warmup * 2), time);
+        }
+
+        int index = index(time);
+        int latestIndex = index(latest.openTime);
+
+        // store all closed ticks until the requested one
+        int closed = Math.min(index, latestIndex - 1);
+        for (int i = stored + 1; i <= closed; i++) {
+            long openTime = origin + i * ticker.span.seconds;
+            Tick target = openTime == tick.openTime ? tick : ticker.ticks.at(openTime);
+            if (target == null && i == 0) {
+                // the seed tick is lost after seeding, there is no previous state to complement
+                target = tick;
+            }
+            double value = target != null ? source.applyAsDouble(target) : windowed ? values.get(i - 1) : averages.get(i - 1);
+            double average = calculate(i, value);
+
+            if (windowed) {
+                values.set(i, value);
+                if (i % size == 0) {
+                    average = resync(i);
+                }
+                sums.set(i, sum);
+                weights.set(i, weight);
+            }
+            averages.set(i, average);
+            stored = i;
+        }
+
+        if (index <= stored) {
+            return averages.get(index);
+        } else {
+            // the latest tick is calculated every time
+            return calculate(index, source.applyAsDouble(latest));
+        }
+    }
+
+    /**
+     * Reset all states. The stored columns are overwritten from the new origin. The origin is moved
+     * forward to the first available tick, because the tick at the look-back origin may be missing
+     * (i.e. blank period or the segment which can't be restored).
+     *
+     * @param origin A new origin time.
+     * @param time The requested time.
+     */
+    private void reset(long origin, long time) {
+        while (origin < time && ticker.ticks.at(origin) == null) {
+            origin += ticker.span.seconds;
+        }
+        this.origin = origin;
+        this.stored = -1;
+    }
+
+    /**
+     * Compute the index of tick.
+     *
+     * @param time An open time of tick.
+     * @return The index.
+     */
+    private int index(long time) {
+        return (int) ((time - origin) / ticker.span.seconds);
+    }
+
+    /**
+     * Calculate the average from the previous state.
+     *
+     * @param index A tick index.
+     * @param value A source value of tick.
+     * @return The average value.
+     */
+    private double calculate(int index, double value) {
+        switch (type) {
+        case EMA:
+        case MMA:
+            if (index == 0) {
+                return value;
+            }
+            double prev = averages.get(index - 1);
+            return ((value - prev) * multiplier) + prev;
+
+        default:
+            int actualSize = Math.min(index + 1, size);
+            double prevSum = index == 0 ? 0 : sums.get(index - 1);
+            double prevWeight = index == 0 ? 0 : weights.get(index - 1);
+            boolean full = size <= index;
+
+            sum = prevSum + value - (full ? values.get(index - size) : 0);
+            weight = prevWeight + value * actualSize - (full ? prevSum : 0);
+
+            return type == Type.SMA ? sum / actualSize : weight / (actualSize * (actualSize + 1) / 2);
+        }
+    }
+
+    /**
+     * Recompute the window sums from the stored values to discard the accumulated rounding error.
+     *
+     * @param index A tick index.
+     * @return The average value.
+     */
+    private double resync(int index) {
+        int actualSize = Math.min(index + 1, size);
+
+        sum = 0;
+        weight = 0;
+        for (int i = 0; i < actualSize; i++) {
+            double value = values.get(index - i);
+            sum += value;
+            weight += value * (actualSize - i);
+        }
+        return type == Type.SMA ? sum / actualSize : weight / (actualSize * (actualSize + 1) / 2);
+    }
+}
\ No newline at end of file
@@ -9,7 +9,6 @@
  */
 package cointoss.ticker;
 
-import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -89,19 +88,7 @@ public abstract class NumIndicator extends AbstractNumberIndicator<Num, NumIndic
      */
     @Override
     public final NumIndicator ema(int size) {
-        double multiplier = 2.0 / (size + 1);
-
-        return memoize((size + 1) * 4, (tick, self) -> {
-            Tick before = ticker.ticks.before(tick);
-            if (before == null) {
-                return valueAt(tick);
-            }
-
-            double prev = self.apply(before).doubleValue();
-            double now = valueAt(tick).doubleValue();
-
-            return Num.of(((now - prev) * multiplier) + prev);
-        });
+        return average(MovingAverage.Type.EMA, size);
     }
 
     /**
@@ -109,19 +96,7 @@ public abstract class NumIndicator extends AbstractNumberIndicator<Num, NumIndic
      */
     @Override
     public final NumIndicator mma(int size) {
-        double multiplier = 1.0 / size;
-
-        return memoize((size + 1) * 4, (tick, self) -> {
-            Tick before = ticker.ticks.before(tick);
-            if (before == null) {
-                return valueAt(tick);
-            }
-
-            double prev = self.apply(before).doubleValue();
-            double now = valueAt(tick).doubleValue();
-
-            return Num.of(((now - prev) * multiplier) + prev);
-        });
+        return average(MovingAverage.Type.MMA, size);
     }
 
     /**
@@ -129,19 +104,7 @@ public abstract class NumIndicator extends AbstractNumberIndicator<Num, NumIndic
      */
     @Override
     public final NumIndicator sma(int size) {
-        return new NumIndicator(ticker, normalizer) {
-
-            @Override
-            protected Num valueAtRounded(Tick tick) {
-                double value = 0;
-                List<Tick> before = ticker.ticks.query(tick, o -> o.reverse().max(size)).toList();
-                int actualSize = before.size();
-                for (int i = 0; i < actualSize; i++) {
-                    value += NumIndicator.this.valueAt(before.get(i)).doubleValue();
-                }
-                return Num.of(value / actualSize);
-            }
-        }.memoize();
+        return average(MovingAverage.Type.SMA, size);
     }
 
     /**
@@ -149,21 +112,26 @@ public abstract class NumIndicator extends AbstractNumberIndicator<Num, NumIndic
      */
     @Override
     public final NumIndicator wma(int size) {
+        return average(MovingAverage.Type.WMA, size);
+    }
+
+    /**
+     * Wrap by the incremental moving average.
+     * 
+     * @param type An average type.
+     * @param size A tick size.
+     * @return A wrapped indicator.
+     */
+    private NumIndicator average(MovingAverage.Type type, int size) {
+        MovingAverage average = new MovingAverage(ticker, type, size, tick -> valueAt(tick).doubleValue());
+
         return new NumIndicator(ticker, normalizer) {
 
             @Override
             protected Num valueAtRounded(Tick tick) {
-                double value = 0;
-                List<Tick> previous = ticker.ticks.query(tick, o -> o.reverse().max(size)).toList();
-                int actualSize = previous.size();
-
-                for (int i = 0; i < actualSize; i++) {
-                    value += NumIndicator.this.valueAt(previous.get(i)).doubleValue() * (actualSize - i);
-                }
-
-                return Num.of(value / (actualSize * (actualSize + 1) / 2));
+                return Num.of(average.valueAt(tick));
             }
-        }.memoize();
+        };
     }
 
     /**
@@ -13,6 +13,7 @@ import java.time.ZonedDateTime;
 
 import cointoss.util.Chrono;
 import cointoss.util.arithmetic.Num;
+import cointoss.util.arithmetic.NumAccumulator;
 import cointoss.util.feather.TemporalData;
 
 public final class Tick implements TemporalData {
@@ -20,6 +21,9 @@ public final class Tick implements TemporalData {
     /** The empty dummy. */
     static final Tick EMPTY = new Tick();
 
+    /** The approximate memory usage of the tick which includes its prices. (byte) */
+    static final int Bytes = 224;
+
     /** Begin time of this tick (epoch second). */
     public final long openTime;
 
@@ -76,6 +80,31 @@ public final class Tick implements TemporalData {
         this.shortLosscutVolume = ticker.manager.shortLosscutVolume;
     }
 
+    /**
+     * Restore the closed {@link Tick} from the stored values.
+     * 
+     * @param openTime A start time of period.
+     * @param open A open price.
+     * @param close A close price.
+     * @param high A high price.
+     * @param low A low price.
+     * @param longVolume A long volume.
+     * @param longLosscutVolume A long losscut volume.
+     * @param shortVolume A short volume.
+     * @param shortLosscutVolume A short losscut volume.
+     */
+    Tick(long openTime, Num open, Num close, Num high, Num low, double longVolume, double longLosscutVolume, double shortVolume, double shortLosscutVolume) {
+        this.openTime = openTime;
+        this.openPrice = open;
+        this.closePrice = close;
+        this.highPrice = high;
+        this.lowPrice = low;
+        this.longVolume = longVolume;
+        this.longLosscutVolume = longLosscutVolume;
+        this.shortVolume = shortVolume;
+        this.shortLosscutVolume = shortLosscutVolume;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -107,7 +136,7 @@ public final class Tick implements TemporalData {
      * @return The tick related value.
      */
     public Num closePrice() {
-        return ticker == null ? closePrice : ticker.manager.latest.v.price;
+        return ticker == null ? closePrice : ticker.manager.latestPrice;
     }
 
     /**
@@ -155,7 +184,7 @@ public final class Tick implements TemporalData {
      * @return The tick related value.
      */
     public Num heikinPrice() {
-        return highPrice.plus(lowPrice).plus(openPrice).plus(closePrice()).divide(Num.FOUR);
+        return new NumAccumulator(highPrice).plus(lowPrice).plus(openPrice).plus(closePrice()).divide(Num.FOUR).toNum();
     }
 
     /**
@@ -175,7 +204,7 @@ public final class Tick implements TemporalData {
      * @return The tick related value.
      */
     public Num typicalPrice() {
-        return highPrice.plus(lowPrice).plus(closePrice()).divide(Num.THREE);
+        return new NumAccumulator(highPrice).plus(lowPrice).plus(closePrice()).divide(Num.THREE).toNum();
     }
 
     /**
@@ -195,7 +224,7 @@ public final class Tick implements TemporalData {
      * @return The tick related value.
      */
     public Num medianPrice() {
-        return highPrice.plus(lowPrice).divide(Num.TWO);
+        return new NumAccumulator(highPrice).plus(lowPrice).divide(Num.TWO).toNum();
     }
 
     /**
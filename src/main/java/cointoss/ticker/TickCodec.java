@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.ticker;
+
+import java.nio.ByteBuffer;
+
+import cointoss.util.arithmetic.Num;
+import cointoss.util.feather.DataCodec;
+
+/**
+ * The fixed width {@link DataCodec} of the closed {@link Tick}.
+ */
+class TickCodec extends DataCodec<Tick> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return 8 * 8;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Tick read(long time, ByteBuffer reader) {
+        Num open = Num.of(reader.getDouble());
+        Num close = Num.of(reader.getDouble());
+        Num high = Num.of(reader.getDouble());
+        Num low = Num.of(reader.getDouble());
+
+        return new Tick(time, open, close, high, low, reader.getDouble(), reader.getDouble(), reader.getDouble(), reader.getDouble());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(Tick item, ByteBuffer writer) {
+        writer.putDouble(item.openPrice.doubleValue());
+        writer.putDouble(item.closePrice().doubleValue());
+        writer.putDouble(item.highPrice().doubleValue());
+        writer.putDouble(item.lowPrice().doubleValue());
+        writer.putDouble(item.longVolume());
+        writer.putDouble(item.longLosscutVolume());
+        writer.putDouble(item.shortVolume());
+        writer.putDouble(item.shortLosscutVolume());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,452 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.ticker;
+
+import java.util.Arrays;
+
+import cointoss.util.arithmetic.Num;
+import kiss.Signal;
+
+/**
+ * Columnar storage for the closed {@link Tick}s of single {@link Ticker}.
+ * <p>
+ * Each value of tick is stored in the primitive column which is divided into the fixed size
+ * chunks, so the memory footprint of tick is only 64 bytes and indicators can scan the column
+ * sequentially without any object dereference. The prices are stored as the unscaled long value at
+ * the common scale of this storage, so the {@link Tick} view restores them exactly.
+ * <p>
+ * Since {@link Ticker} complements the blank period, the stored ticks are contiguous in time and
+ * the open time is computed from the index.
+ */
+public final class TickColumns {
+
+    /** The bit size of chunk. */
+    static final int SHIFT = 10;
+
+    /** The number of items in chunk. */
+    static final int CHUNK_SIZE = 1 << SHIFT;
+
+    /** The index mask in chunk. */
+    static final int MASK = CHUNK_SIZE - 1;
+
+    /** The power of ten by scale. */
+    private static final long[] POW10 = new long[19];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    /** The duration of tick. (seconds) */
+    private final long duration;
+
+    /** The open time of the first tick. (epoch seconds) */
+    private long startTime = -1;
+
+    /** The number of stored ticks. */
+    private int size;
+
+    /** The common scale of all price columns. */
+    private int scale;
+
+    /** The open price column. */
+    private final Prices open = new Prices();
+
+    /** The close price column. */
+    private final Prices close = new Prices();
+
+    /** The high price column. */
+    private final Prices high = new Prices();
+
+    /** The low price column. */
+    private final Prices low = new Prices();
+
+    /** The long volume column. */
+    private final Column longVolume = new Column();
+
+    /** The long losscut volume column. */
+    private final Column longLosscutVolume = new Column();
+
+    /** The short volume column. */
+    private final Column shortVolume = new Column();
+
+    /** The short losscut volume column. */
+    private final Column shortLosscutVolume = new Column();
+
+    /**
+     * Create columnar storage.
+     *
+     * @param span The target span.
+     */
+    TickColumns(Span span) {
+        this.duration = span.seconds;
+    }
+
+    /**
+     * Store the closed {@link Tick}.
+     *
+     * @param tick A closed tick.
+     */
+    synchronized void add(Tick tick) {
+        if (startTime == -1) {
+            startTime = tick.openTime;
+        }
+
+        long index = (tick.openTime - startTime) / duration;
+        if (index < 0 || Integer.MAX_VALUE <= index) {
+            throw new IllegalArgumentException("Tick [" + tick + "] is out of range.");
+        }
+
+        Num o = tick.openPrice;
+        Num c = tick.closePrice();
+        Num h = tick.highPrice();
+        Num l = tick.lowPrice();
+        rescale(Math.max(Math.max(o.scale(), c.scale()), Math.max(h.scale(), l.scale())));
+
+        int i = (int) index;
+        open.set(i, o.unscaled(scale));
+        close.set(i, c.unscaled(scale));
+        high.set(i, h.unscaled(scale));
+        low.set(i, l.unscaled(scale));
+        longVolume.set(i, tick.longVolume());
+        longLosscutVolume.set(i, tick.longLosscutVolume());
+        shortVolume.set(i, tick.shortVolume());
+        shortLosscutVolume.set(i, tick.shortLosscutVolume());
+
+        if (size <= i) {
+            size = i + 1;
+        }
+    }
+
+    /**
+     * Expand the scale of all price columns if needed. This happens only when the more precise price
+     * than ever is stored.
+     *
+     * @param required The required scale.
+     */
+    private void rescale(int required) {
+        if (scale < required) {
+            if (POW10.length <= required) {
+                throw new ArithmeticException("Scale [" + required + "] is too large.");
+            }
+
+            long multiplier = POW10[required - scale];
+            open.multiply(size, multiplier);
+            close.multiply(size, multiplier);
+            high.multiply(size, multiplier);
+            low.multiply(size, multiplier);
+            scale = required;
+        }
+    }
+
+    /**
+     * Return the number of stored ticks.
+     *
+     * @return A positive size or zero.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Check whether this storage is empty or not.
+     *
+     * @return Result.
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the open time of the first tick.
+     *
+     * @return The epoch seconds or -1 if this storage is empty.
+     */
+    public synchronized long firstTime() {
+        return size == 0 ? -1 : startTime;
+    }
+
+    /**
+     * Get the open time of the last tick.
+     *
+     * @return The epoch seconds or -1 if this storage is empty.
+     */
+    public synchronized long lastTime() {
+        return size == 0 ? -1 : openTime(size - 1);
+    }
+
+    /**
+     * Compute the index of tick which contains the specified time.
+     *
+     * @param time A target time. (epoch seconds)
+     * @return The index or -1 if no tick contains the time.
+     */
+    public synchronized int indexOf(long time) {
+        if (size == 0 || time < startTime) {
+            return -1;
+        }
+
+        long index = (time - startTime) / duration;
+        return index < size ? (int) index : -1;
+    }
+
+    /**
+     * Retrieve the open time of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The epoch seconds.
+     */
+    public synchronized long openTime(int index) {
+        return startTime + index * duration;
+    }
+
+    /**
+     * Retrieve the open price of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double openPrice(int index) {
+        return toDouble(open.get(index));
+    }
+
+    /**
+     * Retrieve the close price of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double closePrice(int index) {
+        return toDouble(close.get(index));
+    }
+
+    /**
+     * Retrieve the high price of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double highPrice(int index) {
+        return toDouble(high.get(index));
+    }
+
+    /**
+     * Retrieve the low price of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double lowPrice(int index) {
+        return toDouble(low.get(index));
+    }
+
+    /**
+     * Retrieve the typical price of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double typicalPrice(int index) {
+        return (toDouble(high.get(index)) + toDouble(low.get(index)) + toDouble(close.get(index))) / 3;
+    }
+
+    /**
+     * Retrieve the volume of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double volume(int index) {
+        return longVolume.get(index) + shortVolume.get(index);
+    }
+
+    /**
+     * Retrieve the long volume of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double longVolume(int index) {
+        return longVolume.get(index);
+    }
+
+    /**
+     * Retrieve the long losscut volume of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double longLosscutVolume(int index) {
+        return longLosscutVolume.get(index);
+    }
+
+    /**
+     * Retrieve the short volume of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double shortVolume(int index) {
+        return shortVolume.get(index);
+    }
+
+    /**
+     * Retrieve the short losscut volume of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The tick related value.
+     */
+    public synchronized double shortLosscutVolume(int index) {
+        return shortLosscutVolume.get(index);
+    }
+
+    /**
+     * Create the read-only {@link Tick} view of the specified tick.
+     *
+     * @param index A tick index.
+     * @return The view of tick.
+     */
+    public synchronized Tick view(int index) {
+        return new Tick(openTime(index), toNum(open.get(index)), toNum(close.get(index)), toNum(high.get(index)), toNum(low
+                .get(index)), longVolume.get(index), longLosscutVolume.get(index), shortVolume.get(index), shortLosscutVolume.get(index));
+    }
+
+    /**
+     * Create the read-only {@link Tick} views in the specified time range.
+     *
+     * @param start A start time. (epoch seconds, included)
+     * @param end A end time. (epoch seconds, excluded)
+     * @return The views of tick.
+     */
+    public Signal<Tick> query(long start, long end) {
+        return new Signal<>((observer, disposer) -> {
+            int from, to;
+            synchronized (this) {
+                from = size == 0 || start <= startTime ? 0 : (int) Math.min(size, (start - startTime + duration - 1) / duration);
+                to = size == 0 || end <= startTime ? 0 : (int) Math.min(size, (end - startTime + duration - 1) / duration);
+            }
+
+            for (int i = from; i < to && !disposer.isDisposed(); i++) {
+                observer.accept(view(i));
+            }
+            observer.complete();
+            return disposer;
+        });
+    }
+
+    /**
+     * Convert the stored price to double.
+     *
+     * @param unscaled The stored price.
+     * @return The price.
+     */
+    private double toDouble(long unscaled) {
+        return scale == 0 ? unscaled : (double) unscaled / POW10[scale];
+    }
+
+    /**
+     * Convert the stored price to {@link Num}.
+     *
+     * @param unscaled The stored price.
+     * @return The price.
+     */
+    private Num toNum(long unscaled) {
+        return Num.ofUnscaled(unscaled, scale);
+    }
+
+    /**
+     * The chunked primitive column.
+     */
+    static final class Column {
+
+        /** The chunks. */
+        private double[][] chunks = new double[0][];
+
+        /**
+         * Read value.
+         *
+         * @param index A value index.
+         * @return A value.
+         */
+        double get(int index) {
+            return chunks[index >>> SHIFT][index & MASK];
+        }
+
+        /**
+         * Write value.
+         *
+         * @param index A value index.
+         * @param value A value.
+         */
+        void set(int index, double value) {
+            int chunk = index >>> SHIFT;
+            if (chunks.length <= chunk) {
+                chunks = Arrays.copyOf(chunks, Math.max(chunk + 1, chunks.length * 2));
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new double[CHUNK_SIZE];
+            }
+            chunks[chunk][index & MASK] = value;
+        }
+    }
+
+    /**
+     * The chunked primitive column of the unscaled prices.
+     */
+    private static final class Prices {
+
+        /** The chunks. */
+        private long[][] chunks = new long[0][];
+
+        /**
+         * Read value.
+         *
+         * @param index A value index.
+         * @return A value.
+         */
+        private long get(int index) {
+            return chunks[index >>> SHIFT][index & MASK];
+        }
+
+        /**
+         * Write value.
+         *
+         * @param index A value index.
+         * @param value A value.
+         */
+        private void set(int index, long value) {
+            int chunk = index >>> SHIFT;
+            if (chunks.length <= chunk) {
+                chunks = Arrays.copyOf(chunks, Math.max(chunk + 1, chunks.length * 2));
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new long[CHUNK_SIZE];
+            }
+            chunks[chunk][index & MASK] = value;
+        }
+
+        /**
+         * Multiply all values to expand the scale.
+         *
+         * @param size The number of values.
+         * @param multiplier The multiplier.
+         */
+        private void multiply(int size, long multiplier) {
+            for (int i = 0; i < size; i++) {
+                long[] chunk = chunks[i >>> SHIFT];
+                if (chunk != null) {
+                    chunk[i & MASK] = Math.multiplyExact(chunk[i & MASK], multiplier);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.ticker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.base.Stopwatch;
+
+import cointoss.MarketService;
+import cointoss.execution.Execution;
+import cointoss.execution.ExecutionLog;
+import cointoss.util.Chrono;
+import cointoss.util.feather.FeatherStore;
+import cointoss.util.feather.MemoryBudget;
+import kiss.I;
+import kiss.Signal;
+import psychopath.Directory;
+import psychopath.File;
+
+/**
+ * The prebuilt {@link Tick}s of all {@link Span}s which are computed from the completed execution
+ * logs.
+ * <p>
+ * The builder replays each completed day only once and stores the closed ticks on disk through
+ * {@link FeatherStore#enableCompressedDiskStore(File, cointoss.util.feather.DataCodec)}. The tick
+ * which is not closed at the end of the last built day (i.e. {@link Span#Day3} and
+ * {@link Span#Day7}) is also stored, so {@link TickerManager#restore(TickStore)} can continue it
+ * and only the executions after the last built day are replayed.
+ * <p>
+ * The restored tickers read the stores through {@link #query(Span, long, long)} while the
+ * incremental build is writing them on the other thread, so the closed ticks are written per day
+ * under the write lock and the readers never see the segment which is being modified or evicted.
+ */
+public final class TickStore {
+
+    /** The logging system. */
+    private static final Logger log = LogManager.getLogger(TickStore.class);
+
+    /** The market service. */
+    private final MarketService service;
+
+    /** The root directory of stores. */
+    private final Directory root;
+
+    /** The stores for each span. */
+    private final FeatherStore<Tick>[] stores = new FeatherStore[Span.values().length];
+
+    /** The end time (epoch seconds) of the built ticks, -2 means unknown yet. */
+    private long time = -2;
+
+    /** The lock between the builder and the readers of stores. */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** The monitor to build only one at a time. */
+    private final Object builder = new Object();
+
+    /**
+     * Create the store.
+     *
+     * @param service A market service.
+     */
+    public TickStore(MarketService service) {
+        this(service, service.directory());
+    }
+
+    /**
+     * Create the store with the specified directory.
+     *
+     * @param service A market service.
+     * @param root A store directory.
+     */
+    TickStore(MarketService service, Directory root) {
+        this.service = Objects.requireNonNull(service);
+        this.root = Objects.requireNonNull(root);
+    }
+
+    /**
+     * Get the prebuilt ticks of the specified {@link Span}.
+     *
+     * @param span A target span.
+     * @return The prebuilt ticks.
+     */
+    public synchronized FeatherStore<Tick> on(Span span) {
+        FeatherStore<Tick> store = stores[span.ordinal()];
+        if (store == null) {
+            store = stores[span.ordinal()] = FeatherStore.create(Tick.class, span)
+                    .enableCompressedDiskStore(root.file("tick-" + span.name() + ".db"), new TickCodec())
+                    .enableReadAhead(4)
+                    .enableMemoryBudget(MemoryBudget.Shared, Tick.Bytes, 2);
+        }
+        return store;
+    }
+
+    /**
+     * Locate the file which holds the end time of the built ticks.
+     *
+     * @return A file location.
+     */
+    private File marker() {
+        return root.file("tick.built");
+    }
+
+    /**
+     * Get the end time of the built ticks.
+     *
+     * @return The end time (epoch seconds) or -1 if nothing is built.
+     */
+    public synchronized long time() {
+        if (time == -2) {
+            File marker = marker();
+
+            try {
+                time = marker.isPresent() ? Long.parseLong(Files.readString(marker.asJavaPath()).trim()) : -1;
+            } catch (IOException | NumberFormatException e) {
+                log.error("Fail to read the built time of ticks. [" + marker + "]", e);
+                time = -1;
+            }
+        }
+        return time;
+    }
+
+    /**
+     * Build the ticks of all completed days which are not built yet. The latest cached day is
+     * not completed, so it is excluded.
+     */
+    public void build() {
+        ExecutionLog logs = service.log;
+        LocalDate end = logs.lastCacheDate().toLocalDate();
+        LocalDate today = Chrono.utcNow().toLocalDate();
+
+        build(day -> logs.at(day), logs.firstCacheDate().toLocalDate(), end.isBefore(today) ? end : today);
+    }
+
+    /**
+     * Build the ticks from the specified start day until the end day.
+     *
+     * @param source The executions of the specified day.
+     * @param first The first day of logs.
+     * @param end The end day. (excluded)
+     */
+    void build(Function<LocalDate, Signal<Execution>> source, LocalDate first, LocalDate end) {
+        synchronized (builder) {
+            buildExclusively(source, first, end);
+        }
+    }
+
+    /**
+     * Build the ticks from the specified start day until the end day. This method must be invoked
+     * by only one thread at a time.
+     *
+     * @param source The executions of the specified day.
+     * @param first The first day of logs.
+     * @param end The end day. (excluded)
+     */
+    private void buildExclusively(Function<LocalDate, Signal<Execution>> source, LocalDate first, LocalDate end) {
+        long built = time();
+        long endTime = Chrono.utc(end).toEpochSecond();
+        if (endTime <= built) {
+            return;
+        }
+
+        LocalDate start = first;
+        if (built != -1) {
+            // The period which is not closed at the end time must be built again from its start.
+            ZonedDateTime resume = Chrono.utcBySeconds(built);
+            for (Span span : Span.values()) {
+                ZonedDateTime date = span.calculateStartTime(resume);
+                if (date.isBefore(resume)) {
+                    resume = date;
+                }
+            }
+
+            if (start.isBefore(resume.toLocalDate())) {
+                start = resume.toLocalDate();
+            }
+        }
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        TickerManager manager = new TickerManager();
+        List<Tick>[] closed = new List[Span.values().length];
+        for (Span span : Span.values()) {
+            List<Tick> ticks = closed[span.ordinal()] = new ArrayList();
+            manager.on(span).closing.expose.to(ticks::add);
+        }
+
+        for (LocalDate day = start; day.isBefore(end); day = day.plusDays(1)) {
+            source.apply(day).to(manager::update);
+
+            // the restored tickers may be reading the stores, write the closed ticks of the day at once
+            lock.writeLock().lock();
+            try {
+                for (Span span : Span.values()) {
+                    closed[span.ordinal()].forEach(on(span)::store);
+                    closed[span.ordinal()].clear();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // store the latest ticks as the closed ticks
+        lock.writeLock().lock();
+        try {
+            for (Span span : Span.values()) {
+                Tick t = manager.on(span).current;
+                if (t != null) {
+                    on(span).store(new Tick(t.openTime, t.openPrice, t.closePrice(), t.highPrice(), t.lowPrice(), t.longVolume(),
+                            t.longLosscutVolume(), t.shortVolume(), t.shortLosscutVolume()));
+                }
+                on(span).commit();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        manager.dispose();
+
+        try {
+            Files.writeString(marker().asJavaPath(), String.valueOf(endTime));
+            synchronized (this) {
+                time = endTime;
+            }
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+        log.info("Build ticks {} [{} - {}] {}", service, start, end, stopwatch.stop().elapsed());
+    }
+
+    /**
+     * Find the latest built {@link Tick} of the specified {@link Span}.
+     *
+     * @param span A target span.
+     * @return The latest tick or null.
+     */
+    Tick latest(Span span) {
+        long end = time();
+        if (end == -1) {
+            return null;
+        }
+
+        FeatherStore<Tick> store = on(span);
+        lock.readLock().lock();
+        try {
+            long first = store.firstTime();
+            for (long slot = span.calculateStartTime(Chrono.utcBySeconds(end - 1)).toEpochSecond(); first <= slot; slot -= span.seconds) {
+                Tick tick = store.at(slot);
+                if (tick != null) {
+                    return tick;
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the first built {@link Tick} of the specified {@link Span}.
+     *
+     * @param span A target span.
+     * @return The first tick or null.
+     */
+    Tick first(Span span) {
+        FeatherStore<Tick> store = on(span);
+        lock.readLock().lock();
+        try {
+            return store.first();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read the built {@link Tick}s of the specified {@link Span} in the specified range.
+     *
+     * @param span A target span.
+     * @param start A starting time. (epoch seconds)
+     * @param end A ending time. (epoch seconds)
+     * @return The built ticks.
+     */
+    List<Tick> query(Span span, long start, long end) {
+        FeatherStore<Tick> store = on(span);
+        lock.readLock().lock();
+        try {
+            return store.query(start, end).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hint that the built {@link Tick}s in the specified range will be accessed soon. They are
+     * loaded from disk on the background thread.
+     *
+     * @param span A target span.
+     * @param start A starting time. (epoch seconds)
+     * @param end A ending time. (epoch seconds)
+     */
+    void prefetch(Span span, long start, long end) {
+        on(span).prefetch(start, end);
+    }
+}
\ No newline at end of file
@@ -14,8 +14,12 @@ import java.util.Objects;
 
 import cointoss.analyze.OnlineStats;
 import cointoss.execution.Execution;
+import cointoss.util.Chrono;
+import cointoss.util.arithmetic.Num;
 import cointoss.util.feather.FeatherStore;
+import cointoss.util.feather.MemoryBudget;
 import kiss.Disposable;
+import kiss.I;
 import kiss.Signal;
 import kiss.Signaling;
 
@@ -39,6 +43,9 @@ public final class Ticker implements Disposable {
     /** The tick store. */
     public final FeatherStore<Tick> ticks;
 
+    /** The closed ticks in primitive columns. */
+    public final TickColumns columns;
+
     /** The cache of upper tickers. */
     final Ticker[] uppers;
 
@@ -48,6 +55,12 @@ public final class Ticker implements Disposable {
     /** The end time (epoch ms) of the latest tick. */
     private long currentTickEndTime;
 
+    /** The prebuilt closed ticks. (null when the ticker is not restored) */
+    private TickStore archive;
+
+    /** The end time (epoch seconds) of the prebuilt ticks. */
+    private long archiveEndTime;
+
     /** The realtime statistics for spread. */
     public final OnlineStats spreadStats = new OnlineStats();
 
@@ -71,7 +84,44 @@ public final class Ticker implements Disposable {
         this.span = Objects.requireNonNull(span);
         this.uppers = new Ticker[span.uppers.length];
         this.ticks = FeatherStore.create(Tick.class, span);
+        this.columns = new TickColumns(span);
         this.manager = manager;
+
+        // the heap holds only the recently used ticks, the evicted ones are restored from columns
+        ticks.enableSegmentSupplier(this::supply);
+    }
+
+    /**
+     * Supply the evicted segment again.
+     * 
+     * @param start The start time of segment. (epoch seconds)
+     * @return The ticks in the segment.
+     */
+    private Signal<Tick> supply(long start) {
+        long end = start + span.segmentSeconds;
+        Tick latest = current;
+        Signal<Tick> closed = columns.query(start, end);
+
+        if (archive != null && start < archiveEndTime) {
+            closed = I.signal(archive.query(span, start, Math.min(end, archiveEndTime) - 1))
+                    .take(tick -> start <= tick.openTime && tick.openTime + span.seconds <= archiveEndTime)
+                    .concat(closed);
+        }
+        return latest != null && start <= latest.openTime && latest.openTime < end ? closed.concat(I.signal(latest)) : closed;
+    }
+
+    /**
+     * Hint that the ticks in the specified range will be accessed soon. The prebuilt ticks on disk
+     * are loaded on the background thread. If this ticker is not restored, nothing will happen.
+     * 
+     * @param start A starting time. (epoch seconds)
+     * @param end A ending time. (epoch seconds)
+     */
+    public void prefetch(long start, long end) {
+        TickStore store = archive;
+        if (store != null) {
+            store.prefetch(span, start, end);
+        }
     }
 
     /**
@@ -80,13 +130,63 @@ public final class Ticker implements Disposable {
      * @param execution The latest {@link Execution}.
      */
     final void init(Execution execution) {
-        current = new Tick(span.calculateStartTime(execution.date).toEpochSecond(), execution.price, this);
+        init(execution.mills, execution.date, execution.price);
+    }
+
+    /**
+     * Initialize {@link Ticker}.
+     * 
+     * @param mills The executed time. (epoch mills)
+     * @param date The executed date or null to compute it from the executed time.
+     * @param price The executed price.
+     */
+    final void init(long mills, ZonedDateTime date, Num price) {
+        current = new Tick(span.calculateStartTime(date != null ? date : Chrono.utcByMills(mills)).toEpochSecond(), price, this);
         currentTickEndTime = computeEndTime();
 
         ticks.store(current);
         opening.accept(current);
     }
 
+    /**
+     * Restore {@link Ticker} from the prebuilt ticks. The closed ticks are read from the specified
+     * store on demand, and the tick which is not closed at the end time is continued.
+     * 
+     * @param archive The prebuilt ticks.
+     * @param seed The latest prebuilt tick.
+     * @param time The end time of the prebuilt ticks. (epoch seconds)
+     */
+    final void restore(TickStore archive, Tick seed, long time) {
+        this.archive = archive;
+        this.archiveEndTime = time;
+
+        // the evicted ticks are restored from the archive, but the realtime ticks after the archive
+        // are not, so the newest segments are pinned
+        ticks.enableMemoryBudget(MemoryBudget.Shared, Tick.Bytes, span.segmentSize);
+
+        // expose the whole range of the prebuilt ticks
+        Tick first = archive.first(span);
+        if (first != null) {
+            ticks.store(first);
+        }
+
+        if (time < seed.openTime + span.seconds) {
+            // continue the period which is not closed yet
+            current = new Tick(seed.openTime, seed.openPrice, this);
+            current.highPrice = seed.highPrice();
+            current.lowPrice = seed.lowPrice();
+            current.longVolume -= seed.longVolume();
+            current.longLosscutVolume -= seed.longLosscutVolume();
+            current.shortVolume -= seed.shortVolume();
+            current.shortLosscutVolume -= seed.shortLosscutVolume();
+        } else {
+            // the closed tick will be closed again by the next execution
+            current = seed;
+        }
+        currentTickEndTime = computeEndTime();
+        ticks.store(current);
+    }
+
     /**
      * Add the new {@link Tick} if needed.
      * 
@@ -94,24 +194,44 @@ public final class Ticker implements Disposable {
      * @return When the new {@link Tick} was added, this method will return <code>true</code>.
      */
     final boolean createTick(Execution execution) {
+        return createTick(execution.mills, execution.date, execution.price);
+    }
+
+    /**
+     * Check whether the execution at the specified time closes the current {@link Tick}.
+     * 
+     * @param mills The executed time. (epoch mills)
+     * @return Result.
+     */
+    final boolean closes(long mills) {
+        return currentTickEndTime <= mills;
+    }
+
+    /**
+     * Add the new {@link Tick} if needed.
+     * 
+     * @param mills The executed time. (epoch mills)
+     * @param date The executed date or null to compute it from the executed time.
+     * @param price The executed price.
+     * @return When the new {@link Tick} was added, this method will return <code>true</code>.
+     */
+    final boolean createTick(long mills, ZonedDateTime date, Num price) {
         // Make sure whether the execution does not exceed the end time of current tick.
-        if (currentTickEndTime <= execution.mills) {
+        if (currentTickEndTime <= mills) {
             // If the end time of current tick does not reach the start time of tick which
             // execution actually belongs to, it is assumed that there was a blank time
             // (i.e. server error, maintenance). So we complement them in advance.
-            ZonedDateTime start = span.calculateStartTime(execution.date);
+            ZonedDateTime start = span.calculateStartTime(date != null ? date : Chrono.utcByMills(mills));
 
             while (current.openTime + span.seconds < start.toEpochSecond()) {
-                current.freeze();
-                closing.accept(current);
+                close();
                 current = new Tick(current.openTime + span.seconds, current.closePrice(), this);
                 ticks.store(current);
             }
 
             // create the latest tick for execution
-            current.freeze();
-            closing.accept(current);
-            current = new Tick(current.openTime + span.seconds, execution.price, this);
+            close();
+            current = new Tick(current.openTime + span.seconds, price, this);
             currentTickEndTime = computeEndTime();
             ticks.store(current);
             opening.accept(current);
@@ -121,6 +241,15 @@ public final class Ticker implements Disposable {
         }
     }
 
+    /**
+     * Close the current {@link Tick}.
+     */
+    private void close() {
+        current.freeze();
+        columns.add(current);
+        closing.accept(current);
+    }
+
     private long computeEndTime() {
         return (current.openTime + span.seconds) * 1000;
     }
@@ -9,9 +9,13 @@
  */
 package cointoss.ticker;
 
+import java.time.ZonedDateTime;
+
 import cointoss.Direction;
 import cointoss.Market;
 import cointoss.execution.Execution;
+import cointoss.execution.ExecutionBuffer;
+import cointoss.util.Chrono;
 import cointoss.util.arithmetic.Num;
 import kiss.Disposable;
 import kiss.I;
@@ -23,6 +27,9 @@ public final class TickerManager implements Disposable {
     /** The latest execution. */
     public final Variable<Execution> latest = Variable.of(Market.BASE);
 
+    /** The latest price. */
+    Num latestPrice = Market.BASE.price;
+
     /** Total of long volume since application startup. */
     double longVolume = 0;
 
@@ -77,6 +84,37 @@ public final class TickerManager implements Disposable {
         return I.signal(tickers);
     }
 
+    /**
+     * Restore all {@link Ticker}s from the prebuilt ticks instead of replaying the whole log. Only
+     * the executions after the returned time must be applied to this manager.
+     * 
+     * @param store The prebuilt ticks.
+     * @return The end time of the prebuilt ticks, or null if nothing is restored.
+     */
+    public ZonedDateTime restore(TickStore store) {
+        long time = store.time();
+        if (initialized || time == -1) {
+            return null;
+        }
+
+        Tick[] seeds = new Tick[size];
+        for (int i = 0; i < size; i++) {
+            seeds[i] = store.latest(tickers[i].span);
+            if (seeds[i] == null) {
+                return null;
+            }
+        }
+
+        // the minutely tick holds the latest price
+        initialized = true;
+        latestPrice = seeds[0].closePrice();
+
+        for (int i = 0; i < size; i++) {
+            tickers[i].restore(store, seeds[i], time);
+        }
+        return Chrono.utcBySeconds(time);
+    }
+
     /**
      * Update all {@link Ticker}s by {@link Execution}.
      * 
@@ -84,49 +122,101 @@ public final class TickerManager implements Disposable {
      */
     public void update(Execution e) {
         if (initialized == false) {
-            // initialize tickers once if needed
-            initialized = true;
             // for the first time only, set LTP before updating tickers
             latest.set(e);
+        }
+
+        update(e.mills, e.date, e.price, e.direction, e.size.doubleValue(), e.delay);
+
+        // update the latest execution at last
+        latest.set(e);
+    }
+
+    /**
+     * Update all {@link Ticker}s by the current execution of {@link ExecutionBuffer.Cursor}
+     * without materializing {@link Execution}. The latest execution is updated only around the
+     * minutely {@link Tick} boundary (the observers of closing tick see the last execution of the
+     * closed tick), so the caller must set the last execution by itself when the replay is
+     * completed.
+     * 
+     * @param cursor The cursor positioned at the latest execution.
+     */
+    public void update(ExecutionBuffer.Cursor cursor) {
+        boolean first = initialized == false;
+
+        if (!first && tickers[0].closes(cursor.mills()) && cursor.index() != 0) {
+            latest.set(cursor.previous());
+        }
+
+        if (update(cursor.mills(), null, cursor.price(), cursor.direction(), cursor.size(), cursor.delay()) || first) {
+            latest.set(cursor.execution());
+        }
+    }
+
+    /**
+     * Update all {@link Ticker}s by the primitive values of execution.
+     * 
+     * @param mills The executed time. (epoch mills)
+     * @param date The executed date or null to compute it from the executed time.
+     * @param price The executed price.
+     * @param direction The taker's direction.
+     * @param size The executed size.
+     * @param delay The delay of execution.
+     * @return When the new minutely {@link Tick} was added, this method will return
+     *         <code>true</code>.
+     */
+    private boolean update(long mills, ZonedDateTime date, Num price, Direction direction, double size, int delay) {
+        boolean created;
+
+        if (initialized == false) {
+            // initialize tickers once if needed
+            initialized = true;
+            latestPrice = price;
+            created = true;
 
             for (Ticker ticker : tickers) {
-                ticker.init(e);
+                ticker.init(mills, date, price);
             }
         } else {
             // update tickers
-            update(tickers[0], e, e.price, e.price.compareTo(latest.v.price));
+            created = update(tickers[0], mills, date, price, price.compareTo(latestPrice));
         }
 
         // update total related values
-        if (e.direction == Direction.BUY) {
-            longVolume += e.size.doubleValue();
-            if (e.delay == Execution.DelayHuge) {
-                shortLosscutVolume += e.size.doubleValue();
+        if (direction == Direction.BUY) {
+            longVolume += size;
+            if (delay == Execution.DelayHuge) {
+                shortLosscutVolume += size;
             }
         } else {
-            shortVolume += e.size.doubleValue();
-            if (e.delay == Execution.DelayHuge) {
-                longLosscutVolume += e.size.doubleValue();
+            shortVolume += size;
+            if (delay == Execution.DelayHuge) {
+                longLosscutVolume += size;
             }
         }
 
-        // update the latest execution at last
-        latest.set(e);
+        // update the latest price at last
+        latestPrice = price;
+
+        return created;
     }
 
     /**
      * Update the specified {@link Ticker}.
      * 
      * @param ticker A target ticker to update.
-     * @param execution A latest {@link Execution}.
+     * @param mills The executed time. (epoch mills)
+     * @param date The executed date or null to compute it from the executed time.
      * @param price A latest price to cache.
      * @param comparisonResult The comparison result between previous price and current price.
+     * @return When the new {@link Tick} was added, this method will return <code>true</code>.
      */
-    private void update(Ticker ticker, Execution execution, Num price, int comparisonResult) {
-        if (ticker.createTick(execution)) {
+    private boolean update(Ticker ticker, long mills, ZonedDateTime date, Num price, int comparisonResult) {
+        if (ticker.createTick(mills, date, price)) {
             for (Ticker upper : ticker.uppers) {
-                update(upper, execution, price, comparisonResult);
+                update(upper, mills, date, price, comparisonResult);
             }
+            return true;
         } else {
             // If a new tick is not added, the maximum value and the minimum value will be updated.
             switch (comparisonResult) {
@@ -141,6 +231,7 @@ public final class TickerManager implements Disposable {
                 updateLowPrice(ticker, price);
                 break;
             }
+            return false;
         }
     }
 
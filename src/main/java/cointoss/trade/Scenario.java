@@ -30,6 +30,7 @@ import cointoss.order.OrderStrategy.Takable;
 import cointoss.ticker.Span;
 import cointoss.util.Chrono;
 import cointoss.util.arithmetic.Num;
+import cointoss.util.arithmetic.NumAccumulator;
 import kiss.Disposable;
 import kiss.I;
 import kiss.Signal;
@@ -72,7 +73,7 @@ public abstract class Scenario extends ScenarioBase implements Directional, Disp
 
         // calculate profit
         disposerForExit.add(observeExitExecutedSize().to(size -> {
-            setRealizedProfit(exitPrice.diff(directional, entryPrice).multiply(size));
+            setRealizedProfit(new NumAccumulator().setDiff(directional, exitPrice, entryPrice).multiply(size).toNum());
         }));
 
         disposerForExit.add(observeEntryExecutedSize().first().to(this::exit));
@@ -238,20 +239,21 @@ public abstract class Scenario extends ScenarioBase implements Directional, Disp
      * @param sizeSetter
      */
     private void updateOrderRelatedStatus(Deque<Order> orders, Consumer<Num> priceSetter, Consumer<Num> sizeSetter, Function<Order, Num> sizeExtractor, Consumer<Num> commissionSetter) {
-        Num totalSize = Num.ZERO;
-        Num totalPrice = Num.ZERO;
-        Num totalCommision = Num.ZERO;
+        NumAccumulator totalSize = new NumAccumulator();
+        NumAccumulator totalPrice = new NumAccumulator();
+        NumAccumulator totalCommision = new NumAccumulator();
 
         for (Order order : orders) {
             Num size = sizeExtractor.apply(order);
-            totalSize = totalSize.plus(size);
-            totalPrice = totalPrice.plus(size.multiply(order.price));
-            totalCommision = totalCommision.plus(order.commission);
+            totalSize.plus(size);
+            totalPrice.plusMultiply(size, order.price);
+            totalCommision.plus(order.commission);
         }
 
-        priceSetter.accept(totalPrice.divide(totalSize).scale(this, market.service.setting.base.scale));
-        sizeSetter.accept(totalSize);
-        commissionSetter.accept(totalCommision);
+        Num size = totalSize.toNum();
+        priceSetter.accept(totalPrice.divide(size).toNum().scale(this, market.service.setting.base.scale));
+        sizeSetter.accept(size);
+        commissionSetter.accept(totalCommision.toNum());
     }
 
     /**
@@ -377,7 +379,7 @@ public abstract class Scenario extends ScenarioBase implements Directional, Disp
             });
         } else {
             // losscut
-            disposer = market.tickers.latest.observe().take(e -> e.price.isLessThanOrEqual(directional, price)).first().to(e -> {
+            disposer = (directional.isBuy() ? market.triggers.below(price) : market.triggers.above(price)).to(e -> {
                 disposeEntry();
 
                 market.request(directional.inverse(), entryExecutedSize.minus(exitExecutedSize), strategy).to(o -> {
@@ -21,6 +21,7 @@ import cointoss.Directional;
 import cointoss.order.Order;
 import cointoss.util.ObservableNumProperty;
 import cointoss.util.arithmetic.Num;
+import cointoss.util.arithmetic.NumAccumulator;
 import icy.manipulator.Icy;
 import kiss.Managed;
 
@@ -149,7 +150,10 @@ abstract class ScenarioBaseModel implements Directional, Profitable {
     @Override
     @PerformanceSensitive
     public final Num unrealizedProfit(Num currentPrice) {
-        return currentPrice.diff(direction(), entryPrice()).multiply(entryExecutedSize().minus(exitExecutedSize())).minus(commission());
+        return new NumAccumulator().setDiff(direction(), currentPrice, entryPrice())
+                .multiply(entryExecutedSize().minus(exitExecutedSize()))
+                .minus(commission())
+                .toNum();
     }
 
     /**
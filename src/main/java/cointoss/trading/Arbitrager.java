@@ -13,12 +13,15 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import cointoss.Currency;
 import cointoss.Direction;
 import cointoss.Market;
 import cointoss.arbitrage.Arbitrage;
 import cointoss.market.MarketServiceProvider;
+import cointoss.order.OrderBook;
 import cointoss.trade.Funds;
 import cointoss.trade.Trader;
 import cointoss.util.arithmetic.Num;
@@ -53,12 +56,12 @@ public class Arbitrager extends Trader {
 
         Num size = markets.stream().map(e -> e.service.setting.target.minimumSize).max(Comparator.naturalOrder()).get();
         Signal<Entry<Market, Num>> highestSellPrice = I.signal(markets)
-                .combineLatestMap(m -> m.orderBook.longs.predictRealTakingPrice(I.signal(size)))
+                .combineLatestMap(m -> predictRealTakingPrice(m, m.orderBook.longs, size))
                 .map(this::max)
                 .diff()
                 .skip(e -> e.getValue().isZero());
         Signal<Entry<Market, Num>> lowestBuyPrice = I.signal(markets)
-                .combineLatestMap(m -> m.orderBook.shorts.predictRealTakingPrice(I.signal(size)))
+                .combineLatestMap(m -> predictRealTakingPrice(m, m.orderBook.shorts, size))
                 .map(this::min)
                 .diff()
                 .skip(e -> e.getValue().isZero());
@@ -84,6 +87,36 @@ public class Arbitrager extends Trader {
         });
     }
 
+    /**
+     * Predict the real taking price at most once per 100 ms. The taking prices are combined across
+     * all markets, so this private view samples the order book only when any batch of changes
+     * arrived in the interval. The shared order book manager is never reconfigured, because it is
+     * used by the other traders and UI too.
+     * 
+     * @param market A target market.
+     * @param book A target side of order book.
+     * @param size A taking size.
+     * @return The taking price.
+     */
+    private Signal<Num> predictRealTakingPrice(Market market, OrderBook book, Num size) {
+        return new Signal<Num>((observer, disposer) -> {
+            AtomicBoolean changed = new AtomicBoolean(true);
+
+            disposer.add(market.orderBook.batch.to(batch -> changed.set(true)));
+            disposer.add(I.schedule(0, 100, TimeUnit.MILLISECONDS, false, market.service.scheduler()).to(() -> {
+                if (changed.getAndSet(false)) {
+                    Num price;
+                    // read the consistent snapshot, the manager applies the batch in its lock
+                    synchronized (market.orderBook) {
+                        price = book.predictRealTakingPrice(size);
+                    }
+                    observer.accept(price);
+                }
+            }));
+            return disposer;
+        }).diff();
+    }
+
     Entry<Market, Num> min(Map<Market, Num> markets) {
         return markets.entrySet().stream().min(Comparator.comparing(e -> e.getValue())).get();
     }
@@ -14,20 +14,37 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import icy.manipulator.Icy;
 import kiss.I;
 import kiss.Managed;
+import kiss.Signal;
 import kiss.Signaling;
 import kiss.Storable;
 
+/**
+ * Token bucket based access limiter. The state is the single timestamp (by
+ * {@link System#nanoTime()}) when all reserved permits will be refilled, it is updated by CAS only,
+ * so the limiter is safe to share between threads without any lock.
+ */
 @Icy
 abstract class APILimiterModel {
 
-    /** The current using permits. */
-    @Managed
-    private long usingPermits = 0;
+    /** The permit scheduler for asynchronous acquisition. */
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(run -> {
+        Thread thread = new Thread(run);
+        thread.setName("APILimiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The time (by {@link System#nanoTime()}) when all reserved permits are refilled. */
+    private final AtomicLong refilledTime = new AtomicLong(System.nanoTime());
 
     /** The threshold of the overload mode. */
     private long thresholdOverload;
@@ -37,7 +54,7 @@ abstract class APILimiterModel {
 
     /** The latest access time. */
     @Managed
-    private long lastAccessedTime;
+    private volatile long lastAccessedTime;
 
     /**
      * Configure the access capacity.
@@ -92,7 +109,7 @@ abstract class APILimiterModel {
     private String register(String name) {
         if (name != null) {
             IndirectReference indirect = database.ref.computeIfAbsent(name, k -> new IndirectReference());
-            usingPermits = indirect.usingPermits;
+            refilledTime.set(System.nanoTime() + indirect.usingPermits * refillTime);
             lastAccessedTime = indirect.lastAccessedTime;
             indirect.ref = this;
         }
@@ -112,38 +129,92 @@ abstract class APILimiterModel {
      * @param weight The weight to access.
      */
     public final void acquire(int weight) {
+        long wait = reserve(weight);
+
+        if (0 < wait) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                throw I.quiet(e);
+            }
+        }
+    }
+
+    /**
+     * Get access rights asynchronously. The returned {@link Signal} reserves the rights when it is
+     * subscribed and emits the weight when the rights can be used. No thread is blocked while
+     * waiting.
+     * 
+     * @return The permit notification.
+     */
+    public final Signal<Integer> acquireAsync() {
+        return acquireAsync(1);
+    }
+
+    /**
+     * Get access rights asynchronously. The returned {@link Signal} reserves the rights when it is
+     * subscribed and emits the weight when the rights can be used. No thread is blocked while
+     * waiting.
+     * 
+     * @param weight The weight to access.
+     * @return The permit notification.
+     */
+    public final Signal<Integer> acquireAsync(int weight) {
+        return new Signal<>((observer, disposer) -> {
+            long wait = reserve(weight);
+
+            if (wait <= 0) {
+                observer.accept(weight);
+                observer.complete();
+            } else {
+                ScheduledFuture<?> future = scheduler.schedule(() -> {
+                    observer.accept(weight);
+                    observer.complete();
+                }, wait, TimeUnit.NANOSECONDS);
+                disposer.add(() -> future.cancel(false));
+            }
+            return disposer;
+        });
+    }
+
+    /**
+     * Reserve access rights atomically.
+     * 
+     * @param weight The weight to access.
+     * @return The waiting time (ns) until the reserved rights can be used.
+     */
+    private long reserve(int weight) {
         if (weight < 1) {
             weight = 1;
         }
 
-        long now = System.nanoTime();
-        long elapsedTime = now - lastAccessedTime;
-        long refilledPermits = elapsedTime / refillTime;
-        usingPermits -= refilledPermits;
-        if (usingPermits < 0) {
-            usingPermits = 0;
-        }
+        long cost = weight * refillTime;
+        long allowance = (thresholdOverload + 1) * refillTime;
 
-        long nextUsingPermits = usingPermits + weight;
-        long overloadedPermits = nextUsingPermits - thresholdOverload;
-
-        if (overloadedPermits <= 1 /* Not 0 */) {
-            // allow to access
-            usingPermits = nextUsingPermits;
-            lastAccessedTime = now;
-            if (persistable() != null) save.accept(this);
-            return; // immediately
-        } else {
-            // wait to access
-            try {
-                TimeUnit.NANOSECONDS.sleep(overloadedPermits * refillTime);
-            } catch (InterruptedException e) {
-                throw I.quiet(e);
+        while (true) {
+            long now = System.nanoTime();
+            long current = refilledTime.get();
+            long next = (current - now < 0 ? now : current) + cost;
+
+            if (refilledTime.compareAndSet(current, next)) {
+                lastAccessedTime = now;
+                if (persistable() != null) save.accept(this);
+
+                return Math.max(0, next - now - allowance);
             }
-            acquire(weight);
         }
     }
 
+    /**
+     * Compute the current using permits.
+     * 
+     * @return The number of permits which are not refilled yet.
+     */
+    private long usingPermits() {
+        long remaining = refilledTime.get() - System.nanoTime();
+        return remaining <= 0 || refillTime <= 0 ? 0 : remaining / refillTime;
+    }
+
     /** The singleton instance. */
     private static final Persist database = new Persist();
 
@@ -185,7 +256,7 @@ abstract class APILimiterModel {
          * @return The usingPermits property.
          */
         long getUsingPermits() {
-            return ref.usingPermits;
+            return ref.usingPermits();
         }
 
         /**
@@ -31,6 +31,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.config.Configurator;
 
+import cointoss.util.InboundQueue.Overflow;
 import icy.manipulator.Icy;
 import kiss.Disposable;
 import kiss.I;
@@ -74,6 +75,18 @@ public abstract class EfficientWebSocketModel {
 
     private boolean socketIO;
 
+    /** The reusable scanner for the message. */
+    private final JSONScanner scanner = new JSONScanner();
+
+    /** The message which is loaded in the scanner. */
+    private String scanned;
+
+    /** The reusable scanner for the conflation key on the receiving thread. */
+    private final JSONScanner keyScanner = new JSONScanner();
+
+    /** The inbound buffer of the current connection. */
+    private volatile InboundQueue inbound;
+
     /**
      * 
      */
@@ -105,6 +118,18 @@ public abstract class EfficientWebSocketModel {
         return null;
     }
 
+    /**
+     * Peek channel id from the raw message without building the JSON tree. The message is
+     * dispatched by {@link #extractId()} as usual when this function is not specified or returns
+     * null.
+     * 
+     * @return Chainable API.
+     */
+    @Icy.Property
+    public Function<JSONScanner, String> peekId() {
+        return null;
+    }
+
     /**
      * Sets the maximum number of subscriptions per connection. Default value is 25. A number less
      * than or equal to 0 is considered unlimited.
@@ -167,6 +192,41 @@ public abstract class EfficientWebSocketModel {
         return null;
     }
 
+    /**
+     * Sets the size of the inbound ring buffer. If the positive size is specified, the received
+     * message is buffered and dispatched on the dedicated thread for each connection, so the slow
+     * subscriber can't stall the frame reading. Otherwise, the message is dispatched on the
+     * receiving thread directly. Default value is 0.
+     * 
+     * @return Chainable API.
+     */
+    @Icy.Property
+    public int inboundBuffer() {
+        return 0;
+    }
+
+    /**
+     * Sets the overflow policy of the inbound ring buffer. Default value is {@link Overflow#BLOCK}.
+     * 
+     * @return Chainable API.
+     */
+    @Icy.Property
+    public Overflow overflow() {
+        return Overflow.BLOCK;
+    }
+
+    /**
+     * Extract the conflation key from the raw message. The pending message which has the same key
+     * is replaced by the newer one when the overflow policy is {@link Overflow#CONFLATE}. Return
+     * null if the message must not be conflated (i.e. the order book diff).
+     * 
+     * @return Chainable API.
+     */
+    @Icy.Property
+    public Function<JSONScanner, String> conflateBy() {
+        return null;
+    }
+
     /**
      * Outputs a detailed log.
      * 
@@ -225,6 +285,15 @@ public abstract class EfficientWebSocketModel {
         return (EfficientWebSocket) this;
     }
 
+    /**
+     * Get the inbound ring buffer of the current connection to monitor the queue depth.
+     * 
+     * @return The inbound buffer or null if the buffering is disabled or no connection.
+     */
+    public final InboundQueue inbound() {
+        return inbound;
+    }
+
     /**
      * Execute command on this connection.
      * 
@@ -235,6 +304,18 @@ public abstract class EfficientWebSocketModel {
         return signals.computeIfAbsent(topic.id, id -> new Supersonic(topic)).expose;
     }
 
+    /**
+     * Execute command on this connection and receive the raw message by {@link JSONScanner}. The
+     * JSON tree is never built for this subscriber. The emitted scanner is reused for the next
+     * message, so the observer must read all necessary values synchronously.
+     * 
+     * @param topic A subscription command (i.e. bean-like object).
+     * @return A shared connection.
+     */
+    public final synchronized Signal<JSONScanner> subscribeStreaming(IdentifiableTopic topic) {
+        return signals.computeIfAbsent(topic.id, id -> new Supersonic(topic)).streaming;
+    }
+
     /**
      * Subscribe the specified topic.
      * 
@@ -250,9 +331,8 @@ public abstract class EfficientWebSocketModel {
                 cleanup.add(I.schedule(0, 10, SECONDS, true, scheduler())
                         .takeWhile(count -> connection.isPresent())
                         .takeWhile(count -> !subscribed.contains(topic))
+                        .concatMap(count -> limit.acquireAsync().map(permit -> count))
                         .to(count -> {
-                            limit.acquire();
-
                             if (socketIO) {
                                 // 42["join-room","transactions_btc_jpy"]
                                 String command = "42[\"join-room\",\"" + topic.id + "\"]";
@@ -303,6 +383,10 @@ public abstract class EfficientWebSocketModel {
     private synchronized void connect() {
         logger.trace("Starting websocket [{}].", address());
 
+        int capacity = inboundBuffer();
+        InboundQueue queue = inbound = capacity <= 0 ? null : new InboundQueue("Websocket " + address(), capacity, overflow(), this::dispatch, this::error);
+        Consumer<String> receiver = text -> receive(queue, text);
+
         I.http(address() + (socketIO ? "?EIO=3&transport=websocket" : ""), ws -> {
             logger.trace("Connected websocket [{}].", address());
 
@@ -311,14 +395,45 @@ public abstract class EfficientWebSocketModel {
                 connected.accept(ws);
             }
             connection.set(ws);
-        }, client()).to(debug ? I.bundle(this::outputTestCode, this::dispatch) : this::dispatch, e -> {
-            error(e);
+        }, client()).to(debug ? I.bundle(this::outputTestCode, receiver) : receiver, e -> {
+            terminate(queue, () -> error(e));
         }, () -> {
-            disconnect("User Closed", null);
-            signals.values().forEach(signal -> signal.complete());
+            terminate(queue, () -> {
+                disconnect("User Closed", null);
+                signals.values().forEach(signal -> signal.complete());
+            });
         });
     }
 
+    /**
+     * Receive websocket message.
+     * 
+     * @param queue The inbound buffer or null.
+     * @param text A message.
+     */
+    private void receive(InboundQueue queue, String text) {
+        if (queue == null) {
+            dispatch(text);
+        } else {
+            Function<JSONScanner, String> conflater = conflateBy();
+            queue.offer(text, conflater == null || queue.overflow() != Overflow.CONFLATE ? null : conflater.apply(keyScanner.reset(text)));
+        }
+    }
+
+    /**
+     * Terminate connection after all buffered messages are dispatched.
+     * 
+     * @param queue The inbound buffer or null.
+     * @param action An action on termination.
+     */
+    private void terminate(InboundQueue queue, Runnable action) {
+        if (queue == null) {
+            action.run();
+        } else {
+            queue.close(action);
+        }
+    }
+
     /**
      * Send close message to disconnect this websocket.
      */
@@ -370,11 +485,24 @@ public abstract class EfficientWebSocketModel {
             text = text.substring(start, end);
         }
 
+        // try to dispatch without building the JSON tree
+        Function<JSONScanner, String> peeker = peekId();
+        if (peeker != null) {
+            String id = peeker.apply(scan(text));
+            if (id != null) {
+                Supersonic signaling = signals.get(id);
+                if (signaling != null) {
+                    signaling.accept(text, null);
+                    return;
+                }
+            }
+        }
+
         JSON json = I.json(text);
 
         Supersonic signaling = signals.get(extractId().apply(json));
         if (signaling != null) {
-            signaling.accept(json);
+            signaling.accept(text, json);
         } else {
             Predicate<JSON> reject = ignoreMessageIf();
             if (reject != null && reject.test(json)) {
@@ -438,6 +566,20 @@ public abstract class EfficientWebSocketModel {
         }
     }
 
+    /**
+     * Load the message into the reusable scanner.
+     * 
+     * @param text A message.
+     * @return The loaded scanner.
+     */
+    private JSONScanner scan(String text) {
+        if (scanned != text) {
+            scanned = text;
+            scanner.reset(text);
+        }
+        return scanner;
+    }
+
     /**
      * Output test code.
      * 
@@ -545,27 +687,60 @@ public abstract class EfficientWebSocketModel {
         /** The managed observers. */
         private final CopyOnWriteArrayList<Observer> managed = new CopyOnWriteArrayList();
 
+        /** The managed observers for the raw message. */
+        private final CopyOnWriteArrayList<Observer> streamed = new CopyOnWriteArrayList();
+
         /** The exposed interface. */
-        private final Signal<JSON> expose = new Signal<>((observer, disposer) -> {
+        private final Signal<JSON> expose = new Signal<>((observer, disposer) -> register(managed, observer, disposer));
+
+        /** The exposed interface for the raw message. */
+        private final Signal<JSONScanner> streaming = new Signal<>((observer, disposer) -> register(streamed, observer, disposer));
+
+        /**
+         * Binding topic.
+         * 
+         * @param topic
+         */
+        private Supersonic(IdentifiableTopic topic) {
+            this.topic = topic;
+        }
+
+        /**
+         * Register the observer and subscribe topic if needed.
+         * 
+         * @param observers A list of observers.
+         * @param observer A new observer.
+         * @param disposer A disposer.
+         * @return A disposer.
+         */
+        private Disposable register(CopyOnWriteArrayList<Observer> observers, Observer observer, Disposable disposer) {
             // First of all, you must register an observer. Because if you go ahead with the next
             // subscription request, you won't be able to read the message if the reply comes back
             // super fast (i.e local mocking server).
-            managed.add(observer);
-            if (managed.size() == 1) sendSubscribe(topic);
+            observers.add(observer);
+            if (managed.size() + streamed.size() == 1) sendSubscribe(topic);
 
             return disposer.add(() -> {
-                managed.remove(observer);
-                if (managed.size() == 0) snedUnsubscribe(topic);
+                observers.remove(observer);
+                if (managed.size() + streamed.size() == 0) snedUnsubscribe(topic);
             });
-        });
+        }
 
         /**
-         * Binding topic.
+         * Dispatch the message. The JSON tree is built only when it is required.
          * 
-         * @param topic
+         * @param text A raw message.
+         * @param json A parsed message or null.
          */
-        private Supersonic(IdentifiableTopic topic) {
-            this.topic = topic;
+        private void accept(String text, JSON json) {
+            if (!streamed.isEmpty()) {
+                JSONScanner scanner = scan(text);
+                streamed.forEach(o -> o.accept(scanner));
+            }
+
+            if (!managed.isEmpty()) {
+                accept(json != null ? json : I.json(text));
+            }
         }
 
         @Override
@@ -576,11 +751,13 @@ public abstract class EfficientWebSocketModel {
         @Override
         public void complete() {
             managed.forEach(Observer::complete);
+            streamed.forEach(Observer::complete);
         }
 
         @Override
         public void error(Throwable error) {
             managed.forEach(o -> o.error(error));
+            streamed.forEach(o -> o.error(error));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * The bounded ring buffer between the websocket receiving thread and the dedicated dispatching
+ * thread.
+ * <p>
+ * The receiving thread only stores the message and returns immediately, so the slow subscriber
+ * can't stall the frame reading. When the buffer is full, the message is handled by the
+ * {@link Overflow} policy. The termination of connection is also queued, so the subscriber
+ * receives all buffered messages before the completion or error.
+ */
+public final class InboundQueue {
+
+    /**
+     * The overflow policy.
+     */
+    public enum Overflow {
+        /** Block the receiving thread until the space is available. */
+        BLOCK,
+
+        /** Discard the oldest message. */
+        DROP_OLDEST,
+
+        /**
+         * Replace the pending message which has the same conflation key (i.e. the order book
+         * snapshot), and discard the oldest message when the buffer is full.
+         */
+        CONFLATE;
+    }
+
+    /** The message buffer. */
+    private final String[] messages;
+
+    /** The conflation key buffer. */
+    private final String[] keys;
+
+    /** The slot of pending message by the conflation key. */
+    private final Map<String, Integer> pending = new HashMap();
+
+    /** The overflow policy. */
+    private final Overflow overflow;
+
+    /** The buffer lock. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** The waiting condition of dispatcher. */
+    private final Condition notEmpty = lock.newCondition();
+
+    /** The waiting condition of receiver. */
+    private final Condition notFull = lock.newCondition();
+
+    /** The index of the oldest message. */
+    private int head;
+
+    /** The number of buffered messages. */
+    private volatile int size;
+
+    /** The maximum number of buffered messages. */
+    private volatile int peak;
+
+    /** The number of received messages. */
+    private volatile long received;
+
+    /** The number of dropped messages. */
+    private volatile long dropped;
+
+    /** The number of conflated messages. */
+    private volatile long conflated;
+
+    /** The receiving state. */
+    private boolean closed;
+
+    /** The dispatching state. */
+    private boolean terminated;
+
+    /** The action which is invoked after all messages are dispatched. */
+    private Runnable closing;
+
+    /**
+     * Create the buffer and start the dispatching thread.
+     *
+     * @param name A thread name.
+     * @param capacity A buffer size.
+     * @param overflow An overflow policy.
+     * @param dispatcher A message dispatcher.
+     * @param error An error handler of dispatcher.
+     */
+    InboundQueue(String name, int capacity, Overflow overflow, Consumer<String> dispatcher, Consumer<Throwable> error) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive. [" + capacity + "]");
+        }
+
+        this.messages = new String[capacity];
+        this.keys = new String[capacity];
+        this.overflow = Objects.requireNonNull(overflow);
+
+        Thread thread = new Thread(() -> drain(dispatcher, error));
+        thread.setName(name + " Dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get the buffer size.
+     *
+     * @return The buffer size.
+     */
+    public int capacity() {
+        return messages.length;
+    }
+
+    /**
+     * Get the overflow policy.
+     *
+     * @return The overflow policy.
+     */
+    public Overflow overflow() {
+        return overflow;
+    }
+
+    /**
+     * Get the number of buffered messages.
+     *
+     * @return The current queue depth.
+     */
+    public int depth() {
+        return size;
+    }
+
+    /**
+     * Get the maximum number of buffered messages.
+     *
+     * @return The peak queue depth.
+     */
+    public int peakDepth() {
+        return peak;
+    }
+
+    /**
+     * Get the number of received messages.
+     *
+     * @return The number of received messages.
+     */
+    public long received() {
+        return received;
+    }
+
+    /**
+     * Get the number of discarded messages by overflow.
+     *
+     * @return The number of dropped messages.
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Get the number of replaced messages by conflation.
+     *
+     * @return The number of conflated messages.
+     */
+    public long conflated() {
+        return conflated;
+    }
+
+    /**
+     * Store the message.
+     *
+     * @param message A message to dispatch.
+     * @param key A conflation key or null.
+     */
+    void offer(String message, String key) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            received++;
+
+            if (key != null && overflow == Overflow.CONFLATE) {
+                Integer slot = pending.get(key);
+                if (slot != null) {
+                    messages[slot] = message;
+                    conflated++;
+                    return;
+                }
+            } else {
+                key = null;
+            }
+
+            while (size == messages.length) {
+                if (overflow == Overflow.BLOCK) {
+                    notFull.await();
+                    if (closed) return;
+                } else {
+                    poll();
+                    dropped++;
+                }
+            }
+
+            int slot = (head + size) % messages.length;
+            messages[slot] = message;
+            keys[slot] = key;
+            if (key != null) pending.put(key, slot);
+            if (peak < ++size) peak = size;
+
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            dropped++;
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop receiving message. The specified action is invoked on the dispatching thread after all
+     * buffered messages are dispatched.
+     *
+     * @param action An action on termination.
+     */
+    void close(Runnable action) {
+        boolean immediate;
+
+        lock.lock();
+        try {
+            closed = true;
+            immediate = terminated;
+            if (!immediate) closing = action;
+
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (immediate && action != null) {
+            action.run();
+        }
+    }
+
+    /**
+     * Dispatch messages until this buffer is closed.
+     *
+     * @param dispatcher A message dispatcher.
+     * @param error An error handler of dispatcher.
+     */
+    private void drain(Consumer<String> dispatcher, Consumer<Throwable> error) {
+        while (true) {
+            String message = null;
+            Runnable action = null;
+
+            lock.lock();
+            try {
+                while (size == 0 && !closed) {
+                    notEmpty.await();
+                }
+
+                if (size != 0) {
+                    message = poll();
+                    notFull.signal();
+                } else {
+                    terminated = true;
+                    action = closing;
+                    closing = null;
+                }
+            } catch (InterruptedException e) {
+                terminated = true;
+                action = closing;
+                closing = null;
+            } finally {
+                lock.unlock();
+            }
+
+            if (message == null) {
+                if (action != null) action.run();
+                return;
+            }
+
+            try {
+                dispatcher.accept(message);
+            } catch (Throwable e) {
+                error.accept(e);
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest message. This method must be invoked in lock.
+     *
+     * @return The oldest message.
+     */
+    private String poll() {
+        String message = messages[head];
+        String key = keys[head];
+        if (key != null) pending.remove(key);
+
+        messages[head] = null;
+        keys[head] = null;
+        head = (head + 1) % messages.length;
+        size--;
+
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "InboundQueue [depth=" + size + "/" + messages.length + ", peak=" + peak + ", received=" + received + ", dropped=" + dropped + ", conflated=" + conflated + ", overflow=" + overflow + "]";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,534 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util;
+
+import java.util.Arrays;
+
+import cointoss.util.arithmetic.Num;
+import kiss.Disposable;
+import kiss.JSON;
+import kiss.Observer;
+import kiss.Signal;
+
+/**
+ * The pull style scanner for JSON text.
+ * <p>
+ * Unlike {@link JSON}, this scanner never builds the object tree. The text is copied into the
+ * reusable character buffer and only the requested value is located by skipping the other values,
+ * so the realtime message can be dispatched and converted without the intermediate objects.
+ * <p>
+ * The path is the sequence of the property name (or the index of array). The wildcard "*" is
+ * available only in {@link #find(String...)}. The escaped property name is not supported.
+ * <p>
+ * This class is not thread-safe. The scanner emitted by {@link #find(String...)} is reused for each
+ * element and is valid only until the next {@link #reset(String)}, so the observer must read all
+ * necessary values synchronously.
+ */
+public final class JSONScanner {
+
+    /** The wildcard path. */
+    private static final String Wildcard = "*";
+
+    /** The character buffer. */
+    private char[] buffer;
+
+    /** The start position of the scanning range. */
+    private int start;
+
+    /** The end position of the scanning range. (exclusive) */
+    private int end;
+
+    /** The reusable scanner for the element. */
+    private JSONScanner element;
+
+    /**
+     * Create the empty scanner.
+     */
+    public JSONScanner() {
+        this(new char[1024]);
+    }
+
+    /**
+     * Create the scanner with the shared buffer.
+     *
+     * @param buffer A character buffer.
+     */
+    private JSONScanner(char[] buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Load the new JSON text.
+     *
+     * @param text A JSON text.
+     * @return Chainable API.
+     */
+    public JSONScanner reset(String text) {
+        return reset(text, 0, text.length());
+    }
+
+    /**
+     * Load the new JSON text.
+     *
+     * @param text A JSON text.
+     * @param from A start index of the text. (inclusive)
+     * @param to A end index of the text. (exclusive)
+     * @return Chainable API.
+     */
+    public JSONScanner reset(String text, int from, int to) {
+        int length = to - from;
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        text.getChars(from, to, buffer, 0);
+
+        this.end = length;
+        this.start = skipWhitespace(0);
+        return this;
+    }
+
+    /**
+     * Check whether the value exists at the specified path or not.
+     *
+     * @param path A property path.
+     * @return Result.
+     */
+    public boolean has(String... path) {
+        return locate(path) != -1;
+    }
+
+    /**
+     * Read the value at the specified path as text. The string value is unescaped and the object or
+     * array value is returned as raw JSON text.
+     *
+     * @param path A property path.
+     * @return The value or null.
+     */
+    public String text(String... path) {
+        int pos = locate(path);
+        return pos == -1 ? null : decode(pos);
+    }
+
+    /**
+     * Read the first character of the value at the specified path. This is useful to decode the
+     * enumeration like side without any allocation.
+     *
+     * @param path A property path.
+     * @return The first character or 0 if the value doesn't exist or is empty.
+     */
+    public char asChar(String... path) {
+        int pos = locate(path);
+        if (pos == -1) {
+            return 0;
+        }
+
+        char c = charAt(pos);
+        if (c == '"') {
+            c = charAt(pos + 1);
+            return c == '"' ? 0 : c;
+        }
+        return c;
+    }
+
+    /**
+     * Read the value at the specified path as boolean.
+     *
+     * @param path A property path.
+     * @return The value.
+     */
+    public boolean asBoolean(String... path) {
+        char c = asChar(path);
+        return c == 't' || c == 'T';
+    }
+
+    /**
+     * Read the value at the specified path as long without any allocation.
+     *
+     * @param path A property path.
+     * @return The value.
+     * @throws NumberFormatException If the value doesn't exist or is not integral.
+     */
+    public long asLong(String... path) {
+        int pos = require(path);
+        int i = charAt(pos) == '"' ? pos + 1 : pos;
+        boolean negative = charAt(i) == '-';
+        if (negative) i++;
+
+        long value = 0;
+        int digits = 0;
+        char c;
+        while ('0' <= (c = charAt(i)) && c <= '9') {
+            value = value * 10 + (c - '0');
+            digits++;
+            i++;
+        }
+
+        if (digits == 0 || 18 < digits || !isTerminator(c)) {
+            // parse strictly
+            return Long.parseLong(decode(pos));
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Read the value at the specified path as double.
+     *
+     * @param path A property path.
+     * @return The value.
+     * @throws NumberFormatException If the value doesn't exist or is not numeric.
+     */
+    public double asDouble(String... path) {
+        return Double.parseDouble(decode(require(path)));
+    }
+
+    /**
+     * Read the value at the specified path as {@link Num}.
+     *
+     * @param path A property path.
+     * @return The value.
+     * @throws NumberFormatException If the value doesn't exist or is not numeric.
+     */
+    public Num asNum(String... path) {
+        return Num.of(decode(require(path)));
+    }
+
+    /**
+     * Find all values at the specified path. The wildcard "*" matches all properties of object and
+     * all elements of array. The emitted scanner is reused for each value.
+     *
+     * @param path A property path.
+     * @return The matched values.
+     */
+    public Signal<JSONScanner> find(String... path) {
+        return new Signal<>((observer, disposer) -> {
+            walk(start, path, 0, observer, disposer);
+            observer.complete();
+            return disposer;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, start, end - start);
+    }
+
+    /**
+     * Emit all values at the specified path.
+     *
+     * @param pos A position of the current value.
+     * @param path A property path.
+     * @param depth A current depth of path.
+     * @param observer A value observer.
+     * @param disposer A disposer.
+     */
+    private void walk(int pos, String[] path, int depth, Observer<? super JSONScanner> observer, Disposable disposer) {
+        if (depth == path.length) {
+            if (element == null) {
+                element = new JSONScanner(buffer);
+            }
+            element.buffer = buffer;
+            element.start = pos;
+            element.end = skipValue(pos);
+            observer.accept(element);
+            return;
+        }
+
+        String name = path[depth];
+        boolean wildcard = name.equals(Wildcard);
+        char c = charAt(pos);
+
+        if (c == '{') {
+            pos = skipWhitespace(pos + 1);
+            while (!disposer.isDisposed() && charAt(pos) == '"') {
+                int keyEnd = skipString(pos);
+                int value = skipWhitespace(skipWhitespace(keyEnd) + 1);
+                if (wildcard || matches(pos + 1, keyEnd - 1, name)) {
+                    walk(value, path, depth + 1, observer, disposer);
+                    if (!wildcard) return;
+                }
+                pos = next(value);
+            }
+        } else if (c == '[') {
+            int index = wildcard ? -1 : index(name);
+            pos = skipWhitespace(pos + 1);
+            for (int i = 0; !disposer.isDisposed() && pos < end && charAt(pos) != ']'; i++) {
+                if (wildcard || i == index) {
+                    walk(pos, path, depth + 1, observer, disposer);
+                    if (!wildcard) return;
+                }
+                pos = next(pos);
+            }
+        }
+    }
+
+    /**
+     * Locate the value at the specified path.
+     *
+     * @param path A property path.
+     * @return A position of the value or -1.
+     */
+    private int locate(String[] path) {
+        int pos = start;
+        for (String name : path) {
+            char c = charAt(pos);
+
+            if (c == '{') {
+                pos = skipWhitespace(pos + 1);
+                int found = -1;
+                while (charAt(pos) == '"') {
+                    int keyEnd = skipString(pos);
+                    int value = skipWhitespace(skipWhitespace(keyEnd) + 1);
+                    if (matches(pos + 1, keyEnd - 1, name)) {
+                        found = value;
+                        break;
+                    }
+                    pos = next(value);
+                }
+                pos = found;
+            } else if (c == '[') {
+                int index = index(name);
+                int found = -1;
+                pos = skipWhitespace(pos + 1);
+                for (int i = 0; 0 <= index && pos < end && charAt(pos) != ']'; i++) {
+                    if (i == index) {
+                        found = pos;
+                        break;
+                    }
+                    pos = next(pos);
+                }
+                pos = found;
+            } else {
+                pos = -1;
+            }
+
+            if (pos == -1) {
+                return -1;
+            }
+        }
+        return pos < end ? pos : -1;
+    }
+
+    /**
+     * Locate the required value at the specified path.
+     *
+     * @param path A property path.
+     * @return A position of the value.
+     */
+    private int require(String[] path) {
+        int pos = locate(path);
+        if (pos == -1 || charAt(pos) == 'n') {
+            throw new NumberFormatException("No value at " + Arrays.toString(path) + " in " + this);
+        }
+        return pos;
+    }
+
+    /**
+     * Decode the value at the specified position.
+     *
+     * @param pos A position of the value.
+     * @return The decoded value.
+     */
+    private String decode(int pos) {
+        char c = charAt(pos);
+
+        if (c == '"') {
+            int last = skipString(pos) - 1;
+            int escape = -1;
+            for (int i = pos + 1; i < last; i++) {
+                if (buffer[i] == '\\') {
+                    escape = i;
+                    break;
+                }
+            }
+
+            if (escape == -1) {
+                return new String(buffer, pos + 1, last - pos - 1);
+            }
+
+            StringBuilder builder = new StringBuilder(last - pos).append(buffer, pos + 1, escape - pos - 1);
+            for (int i = escape; i < last; i++) {
+                c = buffer[i];
+                if (c != '\\' || last <= i + 1) {
+                    builder.append(c);
+                } else {
+                    switch (c = buffer[++i]) {
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'u':
+                        if (i + 4 < last) {
+                            builder.append((char) Integer.parseInt(new String(buffer, i + 1, 4), 16));
+                            i += 4;
+                            break;
+                        }
+                    default:
+                        builder.append(c);
+                    }
+                }
+            }
+            return builder.toString();
+        } else if (c == 'n' && charAt(pos + 1) == 'u') {
+            return null;
+        } else {
+            return new String(buffer, pos, skipValue(pos) - pos);
+        }
+    }
+
+    /**
+     * Test whether the property name matches or not.
+     *
+     * @param from A start position of the name.
+     * @param to A end position of the name.
+     * @param name A expected name.
+     * @return Result.
+     */
+    private boolean matches(int from, int to, String name) {
+        if (to - from != name.length()) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (buffer[i] != name.charAt(i - from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse the array index.
+     *
+     * @param name A path name.
+     * @return An index or -1.
+     */
+    private static int index(String name) {
+        int index = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || '9' < c || 9 <= i) {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return name.isEmpty() ? -1 : index;
+    }
+
+    /**
+     * Skip the current value and the following separator.
+     *
+     * @param pos A position of the value.
+     * @return A position of the next value.
+     */
+    private int next(int pos) {
+        pos = skipWhitespace(skipValue(pos));
+        return charAt(pos) == ',' ? skipWhitespace(pos + 1) : pos;
+    }
+
+    /**
+     * Skip the current value.
+     *
+     * @param pos A position of the value.
+     * @return A position just after the value.
+     */
+    private int skipValue(int pos) {
+        char c = charAt(pos);
+
+        if (c == '"') {
+            return skipString(pos);
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            while (pos < end) {
+                c = buffer[pos];
+                if (c == '"') {
+                    pos = skipString(pos);
+                    continue;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if ((c == '}' || c == ']') && --depth == 0) {
+                    return pos + 1;
+                }
+                pos++;
+            }
+            return end;
+        } else {
+            // the scalar value consumes one character at least to avoid the infinite loop on the
+            // malformed text
+            do {
+                pos++;
+            } while (pos < end && !isTerminator(buffer[pos]));
+            return Math.min(pos, end);
+        }
+    }
+
+    /**
+     * Skip the current string.
+     *
+     * @param pos A position of the starting quote.
+     * @return A position just after the ending quote.
+     */
+    private int skipString(int pos) {
+        for (int i = pos + 1; i < end; i++) {
+            char c = buffer[i];
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Skip whitespaces.
+     *
+     * @param pos A current position.
+     * @return A position of the next non-whitespace character.
+     */
+    private int skipWhitespace(int pos) {
+        while (pos < end && buffer[pos] <= ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Read the character safely.
+     *
+     * @param pos A position.
+     * @return The character or 0 if the position is out of range.
+     */
+    private char charAt(int pos) {
+        return 0 <= pos && pos < end ? buffer[pos] : 0;
+    }
+
+    /**
+     * Test whether the character terminates the scalar value or not.
+     *
+     * @param c A character.
+     * @return Result.
+     */
+    private static boolean isTerminator(char c) {
+        return c == ',' || c == '}' || c == ']' || c == '"' || c <= ' ';
+    }
+}
\ No newline at end of file
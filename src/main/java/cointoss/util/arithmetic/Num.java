@@ -81,10 +81,10 @@ public class Num extends Arithmetic<Num> {
     public static final Num MIN = new Num(Long.MIN_VALUE, 0);
 
     /** Express a real number as the product of an integer N and a power of 10. */
-    private final long v;
+    final long v;
 
     /** Express a real number as the product of an integer N and a power of 10. */
-    private final int scale;
+    final int scale;
 
     /**
      * Construct the number as a binary format with dynamic fixed precision.
@@ -102,7 +102,7 @@ public class Num extends Arithmetic<Num> {
      * Use an arbitrary double-precision decimal point for real numbers that do not fit in the range
      * of Long.
      */
-    private final BigDecimal big;
+    final BigDecimal big;
 
     /**
      * Constructs the number as a signed decimal number with arbitrary precision.
@@ -379,10 +379,19 @@ public class Num extends Arithmetic<Num> {
      * 
      * @return
      */
-    private BigDecimal big() {
-        if (big != null) {
-            return big;
-        } else if (scale == 0) {
+    BigDecimal big() {
+        return big != null ? big : big(v, scale);
+    }
+
+    /**
+     * Convert the scaled value to {@link BigDecimal}.
+     * 
+     * @param v An unscaled value.
+     * @param scale A scale.
+     * @return
+     */
+    static BigDecimal big(long v, int scale) {
+        if (scale == 0) {
             return new BigDecimal(v, CONTEXT);
         } else {
             return new BigDecimal(v, CONTEXT).scaleByPowerOfTen(-scale);
@@ -830,6 +839,32 @@ public class Num extends Arithmetic<Num> {
         }
     }
 
+    /**
+     * Compute the unscaled value at the specified scale. (this × 10^scale)
+     * 
+     * @param scale A target scale.
+     * @return An unscaled value.
+     * @throws ArithmeticException If this number can't be expressed exactly in the long value at
+     *             the specified scale.
+     */
+    public long unscaled(int scale) {
+        if (big != null) {
+            return big.setScale(scale).unscaledValue().longValueExact();
+        } else if (this.scale == scale || v == 0) {
+            return v;
+        } else if (18 < Math.abs(scale - this.scale)) {
+            throw new ArithmeticException(this + " can't be expressed at scale " + scale + ".");
+        } else if (this.scale < scale) {
+            return Math.multiplyExact(v, (long) pow10(scale - this.scale));
+        } else {
+            long divisor = (long) pow10(this.scale - scale);
+            if (v % divisor != 0) {
+                throw new ArithmeticException(this + " can't be expressed at scale " + scale + ".");
+            }
+            return v / divisor;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1029,6 +1064,21 @@ public class Num extends Arithmetic<Num> {
         return ZERO.create(value);
     }
 
+    /**
+     * Build the number from the unscaled value. The result is {@code unscaled × 10^-scale}.
+     * 
+     * @param unscaled An unscaled value.
+     * @param scale A scale of the unscaled value.
+     * @return A created number.
+     */
+    public static Num ofUnscaled(long unscaled, int scale) {
+        if (0 <= scale) {
+            return new Num(unscaled, scale);
+        } else {
+            return ZERO.create(BigDecimal.valueOf(unscaled, scale));
+        }
+    }
+
     /**
      * Detect max value.
      * 
@@ -1194,7 +1244,7 @@ public class Num extends Arithmetic<Num> {
      * @param scale
      * @return
      */
-    private static double pow10(int scale) {
+    static double pow10(int scale) {
         if (0 <= scale) {
             return positives[scale];
         } else {
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util.arithmetic;
+
+import java.math.BigDecimal;
+
+import cointoss.Directional;
+import cointoss.util.Primitives;
+
+/**
+ * The mutable and reusable accumulator for {@link Num}.
+ * <p>
+ * Each operation is performed in place with the same precision and rounding rules as the
+ * corresponding operation of {@link Num}, so the chain of operations produces the exactly same
+ * result without any intermediate object. The scaled long representation is used as long as the
+ * value fits in it, and it falls back to {@link BigDecimal} on overflow.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class NumAccumulator {
+
+    /** The unscaled value. */
+    private long v;
+
+    /** The scale. */
+    private int scale;
+
+    /** The arbitrary precision value for overflow. */
+    private BigDecimal big;
+
+    /**
+     * Create the accumulator with zero.
+     */
+    public NumAccumulator() {
+    }
+
+    /**
+     * Create the accumulator with the specified value.
+     *
+     * @param value An initial value.
+     */
+    public NumAccumulator(Num value) {
+        set(value);
+    }
+
+    /**
+     * Set the value.
+     *
+     * @param value A new value.
+     * @return Chainable API.
+     */
+    public NumAccumulator set(Num value) {
+        this.v = value.v;
+        this.scale = value.scale;
+        this.big = value.big;
+        return this;
+    }
+
+    /**
+     * Set the value.
+     *
+     * @param value A new value.
+     * @return Chainable API.
+     */
+    public NumAccumulator set(long value) {
+        this.v = value;
+        this.scale = 0;
+        this.big = null;
+        return this;
+    }
+
+    /**
+     * Set the difference between the specified values based on the direction.
+     *
+     * @param direction A direction.
+     * @param value A base value.
+     * @param target A target value.
+     * @return Chainable API.
+     * @see Num#diff(Directional, Num)
+     */
+    public NumAccumulator setDiff(Directional direction, Num value, Num target) {
+        return direction.isSell() ? set(target).minus(value) : set(value).minus(target);
+    }
+
+    /**
+     * Set the value to zero.
+     *
+     * @return Chainable API.
+     */
+    public NumAccumulator clear() {
+        return set(0);
+    }
+
+    /**
+     * Add the value.
+     *
+     * @param value An augend.
+     * @return Chainable API.
+     * @see Num#plus(Num)
+     */
+    public NumAccumulator plus(Num value) {
+        return add(value.v, value.scale, value.big, false);
+    }
+
+    /**
+     * Subtract the value.
+     *
+     * @param value A subtrahend.
+     * @return Chainable API.
+     * @see Num#minus(Num)
+     */
+    public NumAccumulator minus(Num value) {
+        return add(value.v, value.scale, value.big, true);
+    }
+
+    /**
+     * Add the product of the specified values. This is equivalent to
+     * {@code plus(multiplicand.multiply(multiplier))} without the intermediate object.
+     *
+     * @param multiplicand A multiplicand.
+     * @param multiplier A multiplier.
+     * @return Chainable API.
+     */
+    public NumAccumulator plusMultiply(Num multiplicand, Num multiplier) {
+        return addProduct(multiplicand, multiplier, false);
+    }
+
+    /**
+     * Subtract the product of the specified values. This is equivalent to
+     * {@code minus(multiplicand.multiply(multiplier))} without the intermediate object.
+     *
+     * @param multiplicand A multiplicand.
+     * @param multiplier A multiplier.
+     * @return Chainable API.
+     */
+    public NumAccumulator minusMultiply(Num multiplicand, Num multiplier) {
+        return addProduct(multiplicand, multiplier, true);
+    }
+
+    /**
+     * Multiply by the value.
+     *
+     * @param value A multiplier.
+     * @return Chainable API.
+     * @see Num#multiply(Num)
+     */
+    public NumAccumulator multiply(Num value) {
+        if (big != null) {
+            big = big.multiply(value.big(), Num.CONTEXT);
+        } else if (value.big != null) {
+            big = Num.big(v, scale).multiply(value.big, Num.CONTEXT);
+        } else {
+            try {
+                v = Math.multiplyExact(v, value.v);
+                scale += value.scale;
+            } catch (ArithmeticException e) {
+                big = Num.big(v, scale).multiply(value.big());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Divide by the value.
+     *
+     * @param value A divisor.
+     * @return Chainable API.
+     * @see Num#divide(Num)
+     */
+    public NumAccumulator divide(Num value) {
+        if (big != null) {
+            big = big.divide(value.big(), Num.CONTEXT);
+        } else if (value.big != null) {
+            big = Num.big(v, scale).divide(value.big, Num.CONTEXT);
+        } else {
+            if (value.v == 0) throw new ArithmeticException("Trying to divide " + toNum() + " by 0.");
+
+            double divided = (double) v / value.v;
+            try {
+                int computed = Num.computeScale(divided);
+                double longed = divided * Num.pow10(computed);
+                if (Long.MIN_VALUE < longed && longed < Long.MAX_VALUE) {
+                    v = (long) longed;
+                    scale = computed + scale - value.scale;
+                } else {
+                    big = BigDecimal.valueOf(divided);
+                }
+            } catch (ArithmeticException e) {
+                big = BigDecimal.valueOf(divided);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Make the value absolute.
+     *
+     * @return Chainable API.
+     * @see Num#abs()
+     */
+    public NumAccumulator abs() {
+        if (big != null) {
+            big = big.abs();
+        } else if (v == Long.MIN_VALUE) {
+            big = Num.big(v, scale).abs();
+        } else {
+            v = Math.abs(v);
+        }
+        return this;
+    }
+
+    /**
+     * Negate the value.
+     *
+     * @return Chainable API.
+     * @see Num#negate()
+     */
+    public NumAccumulator negate() {
+        if (big != null) {
+            big = big.negate();
+        } else if (v == Long.MIN_VALUE) {
+            big = Num.big(v, scale).negate();
+        } else {
+            v = -v;
+        }
+        return this;
+    }
+
+    /**
+     * Return the sign of the current value.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int signum() {
+        return big != null ? big.signum() : Long.signum(v);
+    }
+
+    /**
+     * Check whether the current value is zero or not.
+     *
+     * @return Result.
+     */
+    public boolean isZero() {
+        return signum() == 0;
+    }
+
+    /**
+     * Convert the current value to double.
+     *
+     * @return The current value.
+     */
+    public double doubleValue() {
+        return big != null ? big.doubleValue() : Primitives.roundDecimal(v * Num.pow10(-scale), scale);
+    }
+
+    /**
+     * Create the immutable {@link Num} of the current value.
+     *
+     * @return The current value.
+     */
+    public Num toNum() {
+        return big != null ? new Num(big) : v == 0 && scale == 0 ? Num.ZERO : new Num(v, scale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return toNum().toString();
+    }
+
+    /**
+     * Add or subtract the product of the specified values.
+     *
+     * @param multiplicand A multiplicand.
+     * @param multiplier A multiplier.
+     * @param subtract Subtract or not.
+     * @return Chainable API.
+     */
+    private NumAccumulator addProduct(Num multiplicand, Num multiplier, boolean subtract) {
+        if (multiplicand.big == null && multiplier.big == null) {
+            try {
+                return add(Math.multiplyExact(multiplicand.v, multiplier.v), multiplicand.scale + multiplier.scale, null, subtract);
+            } catch (ArithmeticException e) {
+                return add(0, 0, multiplicand.big().multiply(multiplier.big()), subtract);
+            }
+        } else {
+            return add(0, 0, multiplicand.big().multiply(multiplier.big(), Num.CONTEXT), subtract);
+        }
+    }
+
+    /**
+     * Add or subtract the value.
+     *
+     * @param ov The unscaled value of operand.
+     * @param os The scale of operand.
+     * @param ob The arbitrary precision value of operand.
+     * @param subtract Subtract or not.
+     * @return Chainable API.
+     */
+    private NumAccumulator add(long ov, int os, BigDecimal ob, boolean subtract) {
+        if (big != null) {
+            BigDecimal operand = ob != null ? ob : Num.big(ov, os);
+            big = subtract ? big.subtract(operand, Num.CONTEXT) : big.add(operand, Num.CONTEXT);
+        } else if (ob != null) {
+            BigDecimal self = Num.big(v, scale);
+            big = subtract ? self.subtract(ob, Num.CONTEXT) : self.add(ob, Num.CONTEXT);
+        } else {
+            try {
+                long left = v;
+                long right = ov;
+                int s = scale;
+
+                if (scale < os) {
+                    left = (long) (v * Num.pow10(os - scale));
+                    s = os;
+                } else if (os < scale) {
+                    right = (long) (ov * Num.pow10(scale - os));
+                }
+                v = subtract ? Math.subtractExact(left, right) : Math.addExact(left, right);
+                scale = s;
+            } catch (ArithmeticException e) {
+                BigDecimal self = Num.big(v, scale);
+                BigDecimal operand = Num.big(ov, os);
+                big = subtract ? self.subtract(operand) : self.add(operand);
+            }
+        }
+        return this;
+    }
+}
\ No newline at end of file
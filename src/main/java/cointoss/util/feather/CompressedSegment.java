@@ -0,0 +1,435 @@
+/*
+ * Copyright (C) 2021 Nameless Production Committee
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://opensource.org/licenses/mit-license.php
+ */
+package cointoss.util.feather;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The Gorilla-style columnar encoding of the segment.
+ * <p>
+ * The time of each item is implicit (the start time of segment and the position in segment), so
+ * only the defined flags and the values are encoded. The fixed-width record which is written by
+ * {@link DataCodec} is split into 8 bytes words, and each word is encoded as the column over all
+ * defined items in the segment. Each column is encoded by XOR with the previous value or by
+ * delta-of-delta, whichever is smaller. The slowly changing values (i.e. prices, open interests and
+ * quiet ticks) become a few bits per item.
+ * <p>
+ * The encoded layout is the following bit stream.
+ * <ol>
+ * <li>The number of items. (32 bits)</li>
+ * <li>The defined flag for each item. (1 bit per item)</li>
+ * <li>For each word column, the encoding type (1 bit) and the encoded values.</li>
+ * </ol>
+ */
+final class CompressedSegment {
+
+    /** The column encoding which XORs the previous value. */
+    private static final int XOR = 0;
+
+    /** The column encoding which stores the delta of delta. */
+    private static final int DELTA = 1;
+
+    /**
+     * Hide constructor.
+     */
+    private CompressedSegment() {
+    }
+
+    /**
+     * Read the number of items from the encoded segment without decoding.
+     *
+     * @param encoded The encoded segment.
+     * @return The number of items.
+     */
+    static int size(ByteBuffer encoded) {
+        return encoded.getInt(encoded.position());
+    }
+
+    /**
+     * Encode the segment.
+     *
+     * @param codec The data definition.
+     * @param items The segment items. The null item is undefined.
+     * @return The encoded segment.
+     */
+    static <T> ByteBuffer encode(DataCodec<T> codec, T[] items) {
+        int words = (codec.size() + 7) / 8;
+        int defined = 0;
+        for (T item : items) {
+            if (item != null) defined++;
+        }
+
+        BitWriter out = new BitWriter();
+        out.write(items.length, 32);
+
+        // defined flags and word columns
+        ByteBuffer record = ByteBuffer.allocate(words * 8);
+        long[] columns = new long[words * defined];
+        int index = 0;
+        for (T item : items) {
+            if (item == null) {
+                out.write(0, 1);
+            } else {
+                out.write(1, 1);
+
+                Arrays.fill(record.array(), (byte) 0);
+                record.clear();
+                codec.write(item, record);
+                for (int w = 0; w < words; w++) {
+                    columns[w * defined + index] = record.getLong(w * 8);
+                }
+                index++;
+            }
+        }
+
+        // encode each column in the smaller way
+        for (int w = 0; w < words; w++) {
+            BitWriter xor = new BitWriter();
+            encodeXOR(xor, columns, w * defined, defined);
+
+            BitWriter delta = new BitWriter();
+            encodeDelta(delta, columns, w * defined, defined);
+
+            if (xor.size <= delta.size) {
+                out.write(XOR, 1);
+                out.append(xor);
+            } else {
+                out.write(DELTA, 1);
+                out.append(delta);
+            }
+        }
+        return out.toBuffer();
+    }
+
+    /**
+     * Decode the segment.
+     *
+     * @param codec The data definition.
+     * @param encoded The encoded segment.
+     * @param startTime The start time of segment.
+     * @param duration The time that one element has.
+     * @param items The container of decoded items. The items beyond its length are ignored.
+     * @return The number of decoded items, the first index and the last index.
+     */
+    static <T> int[] decode(DataCodec<T> codec, ByteBuffer encoded, long startTime, long duration, T[] items) {
+        int words = (codec.size() + 7) / 8;
+        BitReader in = new BitReader(encoded);
+        int size = (int) in.read(32);
+
+        // defined flags
+        int[] positions = new int[size];
+        int defined = 0;
+        for (int i = 0; i < size; i++) {
+            if (in.read(1) == 1) {
+                positions[defined++] = i;
+            }
+        }
+
+        // word columns
+        long[] columns = new long[words * defined];
+        for (int w = 0; w < words; w++) {
+            if (in.read(1) == XOR) {
+                decodeXOR(in, columns, w * defined, defined);
+            } else {
+                decodeDelta(in, columns, w * defined, defined);
+            }
+        }
+
+        // materialize
+        ByteBuffer record = ByteBuffer.allocate(words * 8);
+        int count = 0;
+        int firstIndex = -1;
+        int lastIndex = -1;
+        for (int j = 0; j < defined; j++) {
+            int i = positions[j];
+            if (items.length <= i) {
+                break;
+            }
+
+            for (int w = 0; w < words; w++) {
+                record.putLong(w * 8, columns[w * defined + j]);
+            }
+            record.clear();
+            items[i] = codec.read(startTime + i * duration, record);
+
+            if (firstIndex == -1) firstIndex = i;
+            lastIndex = i;
+            count++;
+        }
+        return new int[] {count, firstIndex, lastIndex};
+    }
+
+    /**
+     * Encode the column by XOR with the previous value. The meaningful bits of XOR are stored in the
+     * window of the previous leading and trailing zeros if possible.
+     *
+     * @param out The output.
+     * @param values The values.
+     * @param offset The start index of column.
+     * @param length The number of values.
+     */
+    private static void encodeXOR(BitWriter out, long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        long previous = values[offset];
+        out.write(previous, 64);
+
+        int leading = -1;
+        int trailing = 0;
+        for (int i = 1; i < length; i++) {
+            long value = values[offset + i];
+            long xor = value ^ previous;
+
+            if (xor == 0) {
+                out.write(0, 1);
+            } else {
+                int lz = Long.numberOfLeadingZeros(xor);
+                int tz = Long.numberOfTrailingZeros(xor);
+
+                if (leading != -1 && leading <= lz && trailing <= tz) {
+                    out.write(0b10, 2);
+                    out.write(xor >>> trailing, 64 - leading - trailing);
+                } else {
+                    leading = lz;
+                    trailing = tz;
+                    out.write(0b11, 2);
+                    out.write(lz, 6);
+                    out.write(63 - lz - tz, 6);
+                    out.write(xor >>> tz, 64 - lz - tz);
+                }
+            }
+            previous = value;
+        }
+    }
+
+    /**
+     * Decode the column which is encoded by {@link #encodeXOR(BitWriter, long[], int, int)}.
+     *
+     * @param in The input.
+     * @param values The values.
+     * @param offset The start index of column.
+     * @param length The number of values.
+     */
+    private static void decodeXOR(BitReader in, long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        long previous = in.read(64);
+        values[offset] = previous;
+
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < length; i++) {
+            if (in.read(1) == 1) {
+                if (in.read(1) == 1) {
+                    leading = (int) in.read(6);
+                    trailing = 64 - leading - (int) in.read(6) - 1;
+                }
+                previous ^= in.read(64 - leading - trailing) << trailing;
+            }
+            values[offset + i] = previous;
+        }
+    }
+
+    /**
+     * Encode the column by the delta of delta. The small delta of delta is stored in the variable
+     * width.
+     *
+     * @param out The output.
+     * @param values The values.
+     * @param offset The start index of column.
+     * @param length The number of values.
+     */
+    private static void encodeDelta(BitWriter out, long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        long previous = values[offset];
+        out.write(previous, 64);
+
+        long delta = 0;
+        for (int i = 1; i < length; i++) {
+            long value = values[offset + i];
+            long d = value - previous;
+            long dod = d - delta;
+
+            if (dod == 0) {
+                out.write(0, 1);
+            } else if (-64 <= dod && dod < 64) {
+                out.write(0b10, 2);
+                out.write(dod, 7);
+            } else if (-256 <= dod && dod < 256) {
+                out.write(0b110, 3);
+                out.write(dod, 9);
+            } else if (-2048 <= dod && dod < 2048) {
+                out.write(0b1110, 4);
+                out.write(dod, 12);
+            } else {
+                out.write(0b1111, 4);
+                out.write(dod, 64);
+            }
+            delta = d;
+            previous = value;
+        }
+    }
+
+    /**
+     * Decode the column which is encoded by {@link #encodeDelta(BitWriter, long[], int, int)}.
+     *
+     * @param in The input.
+     * @param values The values.
+     * @param offset The start index of column.
+     * @param length The number of values.
+     */
+    private static void decodeDelta(BitReader in, long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        long previous = in.read(64);
+        values[offset] = previous;
+
+        long delta = 0;
+        for (int i = 1; i < length; i++) {
+            if (in.read(1) == 1) {
+                int bits = in.read(1) == 0 ? 7 : in.read(1) == 0 ? 9 : in.read(1) == 0 ? 12 : 64;
+                long dod = in.read(bits);
+                delta += bits == 64 ? dod : dod << (64 - bits) >> (64 - bits);
+            }
+            previous += delta;
+            values[offset + i] = previous;
+        }
+    }
+
+    /**
+     * The growable bit stream writer. Bits are written from the most significant bit.
+     */
+    private static final class BitWriter {
+
+        /** The written words. */
+        private long[] words = new long[8];
+
+        /** The number of written bits. */
+        private long size;
+
+        /**
+         * Write the lower bits of the specified value.
+         *
+         * @param value A value to write.
+         * @param bits The number of bits. (0 - 64)
+         */
+        private void write(long value, int bits) {
+            if (bits == 0) {
+                return;
+            }
+            if (bits < 64) {
+                value &= (1L << bits) - 1;
+            }
+
+            int index = (int) (size >>> 6);
+            if (words.length <= index + 1) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+
+            int free = 64 - (int) (size & 63);
+            if (bits <= free) {
+                words[index] |= value << (free - bits);
+            } else {
+                int rest = bits - free;
+                words[index] |= value >>> rest;
+                words[index + 1] |= value << (64 - rest);
+            }
+            size += bits;
+        }
+
+        /**
+         * Write all bits of the specified stream.
+         *
+         * @param other A stream to append.
+         */
+        private void append(BitWriter other) {
+            int full = (int) (other.size >>> 6);
+            for (int i = 0; i < full; i++) {
+                write(other.words[i], 64);
+            }
+
+            int rest = (int) (other.size & 63);
+            if (rest != 0) {
+                write(other.words[full] >>> (64 - rest), rest);
+            }
+        }
+
+        /**
+         * Export the written bits.
+         *
+         * @return A buffer which is ready to read.
+         */
+        private ByteBuffer toBuffer() {
+            int length = (int) ((size + 63) >>> 6);
+            ByteBuffer buffer = ByteBuffer.allocate(length * 8);
+            for (int i = 0; i < length; i++) {
+                buffer.putLong(words[i]);
+            }
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * The bit stream reader over the buffer which is written by {@link BitWriter}.
+     */
+    private static final class BitReader {
+
+        /** The source. */
+        private final ByteBuffer buffer;
+
+        /** The start position of source. */
+        private final int base;
+
+        /** The number of read bits. */
+        private long position;
+
+        /**
+         * Create reader.
+         *
+         * @param buffer The source.
+         */
+        private BitReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.base = buffer.position();
+        }
+
+        /**
+         * Read the specified number of bits as the unsigned value.
+         *
+         * @param bits The number of bits. (0 - 64)
+         * @return The read value.
+         */
+        private long read(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+
+            int index = base + (int) (position >>> 6) * 8;
+            int used = (int) (position & 63);
+            long value = (buffer.getLong(index) << used) >>> (64 - bits);
+
+            if (64 - used < bits) {
+                value |= buffer.getLong(index + 8) >>> (128 - used - bits);
+            }
+            position += bits;
+            return value;
+        }
+    }
+}
\ No newline at end of file
@@ -13,10 +13,25 @@ import static java.nio.file.StandardCopyOption.*;
 import static java.nio.file.StandardOpenOption.*;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.FileLock;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
 import java.util.concurrent.locks.StampedLock;
 
 import kiss.I;
@@ -29,7 +44,20 @@ class DiskStorage<T> {
             + 8 // offset time;
             + 8 // start time
             + 8 // end time
-            + 104; // reserved space, use in future
+            + 4 // segment layout
+            + 100; // reserved space, use in future
+
+    /** The segment layout which stores each item at the fixed position. */
+    private static final int LAYOUT_FIXED = 0;
+
+    /** The segment layout which stores each segment as the compressed block. */
+    private static final int LAYOUT_COMPRESSED = 1;
+
+    /** The compressed block header size. */
+    private static final int BLOCK_HEADER_SIZE = 0 //
+            + 8 // start time of segment
+            + 4 // capacity
+            + 4; // length
 
     /** The item prefix. */
     private static final byte ITEM_UNDEFINED = 0;
@@ -37,6 +65,12 @@ class DiskStorage<T> {
     /** The item prefix. */
     private static final byte ITEM_DEFINED = 1;
 
+    /** The maximum number of memory-mapped regions. */
+    private static final int MAX_REGIONS = 256;
+
+    /** The unmapper of memory-mapped region. (null if it is not available) */
+    private static final MethodHandle unmapper = findUnmapper();
+
     /** The actual file. */
     private final File file;
 
@@ -70,6 +104,33 @@ class DiskStorage<T> {
     /** The end time of all records. (excluded) */
     private long endTime;
 
+    /** The flag whether segments are accessed through the memory-mapped regions or not. */
+    private final boolean mapped;
+
+    /** The flag whether segments are stored as the compressed blocks or not. */
+    private final boolean compressed;
+
+    /** The segment offset table of compressed blocks. (key is the start time of segment) */
+    private final Map<Long, Long> blocks = new HashMap();
+
+    /** The end position of compressed blocks. */
+    private long tail = HEADER_SIZE;
+
+    /** The number of times that all memory-mapped regions are released. */
+    private int released;
+
+    /** The memory-mapped regions for each segment. (key is the file position) */
+    private final Map<Long, MappedByteBuffer> regions = Collections.synchronizedMap(new LinkedHashMap<Long, MappedByteBuffer>(16, 0.75f, true) {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, MappedByteBuffer> eldest) {
+            return MAX_REGIONS < size();
+        }
+    });
+
     /**
      * Create disk storage.
      * 
@@ -78,6 +139,36 @@ class DiskStorage<T> {
      * @param duration The time that one element has.
      */
     DiskStorage(File databaseFile, DataCodec<T> codec, long duration) {
+        this(databaseFile, codec, duration, false);
+    }
+
+    /**
+     * Create disk storage.
+     * 
+     * @param databaseFile The actual storage file.
+     * @param codec The data definition.
+     * @param duration The time that one element has.
+     * @param mapped Use the memory-mapped regions to access segments.
+     */
+    DiskStorage(File databaseFile, DataCodec<T> codec, long duration, boolean mapped) {
+        this(databaseFile, codec, duration, mapped, false);
+    }
+
+    /**
+     * Create disk storage.
+     * <p>
+     * The segment layout is recorded in the file header, so the existing file is always accessed
+     * in its own layout regardless of the specified one. In the compressed layout, each segment is
+     * encoded by {@link CompressedSegment} and is accessed by its start time through the segment
+     * offset table, the memory-mapped regions are not used.
+     * 
+     * @param databaseFile The actual storage file.
+     * @param codec The data definition.
+     * @param duration The time that one element has.
+     * @param mapped Use the memory-mapped regions to access segments.
+     * @param compressed Use the compressed segment layout for the new file.
+     */
+    DiskStorage(File databaseFile, DataCodec<T> codec, long duration, boolean mapped, boolean compressed) {
         try {
             this.file = databaseFile;
             this.channel = databaseFile.isPresent() ? databaseFile.newFileChannel(READ, WRITE)
@@ -87,12 +178,25 @@ class DiskStorage<T> {
             this.itemWidth = codec.size() + 1;
             this.duration = duration;
 
-            if (HEADER_SIZE < channel.size()) {
-                readHeader();
-            } else {
+            boolean exist = HEADER_SIZE <= channel.size();
+            int layout = exist ? readHeader() : compressed ? LAYOUT_COMPRESSED : LAYOUT_FIXED;
+            this.compressed = layout == LAYOUT_COMPRESSED;
+            this.mapped = mapped && !this.compressed;
+
+            if (!exist) {
                 offsetTime = Long.MAX_VALUE;
                 startTime = Long.MAX_VALUE;
                 endTime = -1;
+
+                if (this.compressed && lockForProcess != null) {
+                    // record the layout before any segment is written
+                    headerModified = true;
+                    writeHeader();
+                }
+            }
+
+            if (this.compressed) {
+                readBlocks();
             }
         } catch (IOException e) {
             throw I.quiet(e);
@@ -103,7 +207,10 @@ class DiskStorage<T> {
      * Close all related resources.
      */
     void close() {
+        long stamp = lock.writeLock();
+
         try {
+            releaseRegions();
             channel.close();
             if (lockForProcess != null) {
                 lockForProcess.close();
@@ -111,13 +218,17 @@ class DiskStorage<T> {
             }
         } catch (IOException e) {
             throw I.quiet(e);
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
     /**
      * Parse header.
+     * 
+     * @return The segment layout.
      */
-    private void readHeader() {
+    private int readHeader() {
         try {
             // read
             ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
@@ -128,6 +239,7 @@ class DiskStorage<T> {
             offsetTime = buffer.getLong();
             startTime = buffer.getLong();
             endTime = buffer.getLong();
+            return buffer.getInt();
         } catch (IOException e) {
             throw I.quiet(e);
         }
@@ -153,9 +265,10 @@ class DiskStorage<T> {
                 buffer.putLong(offsetTime);
                 buffer.putLong(startTime);
                 buffer.putLong(endTime);
+                buffer.putInt(compressed ? LAYOUT_COMPRESSED : LAYOUT_FIXED);
 
-                // write
-                buffer.flip();
+                // write whole header including the reserved space
+                buffer.clear();
                 channel.write(buffer, 0);
 
                 // update stataus
@@ -266,9 +379,14 @@ class DiskStorage<T> {
                 data.clear();
             }
 
+            // unmap and close the current file before swapping, the mapped file can't be replaced
+            // on some platforms (i.e. Windows)
+            releaseRegions();
+            channel.close();
+            rebuild.close();
+
             // swap database file
             rebuild.file.renameTo(file.name(), REPLACE_EXISTING);
-            rebuild.close();
 
             // swap object header
             offsetTime = rebuild.offsetTime;
@@ -276,7 +394,6 @@ class DiskStorage<T> {
             endTime = rebuild.endTime;
 
             // swap channel
-            channel.close();
             channel = file.newFileChannel(READ, WRITE);
         } catch (IOException e) {
             throw I.quiet(e);
@@ -296,14 +413,32 @@ class DiskStorage<T> {
         long stamp = lock.readLock();
 
         try {
-            ByteBuffer buffer = ByteBuffer.allocate(itemWidth * items.length);
-            int size = channel.read(buffer, HEADER_SIZE + (truncatedTime - offsetTime) / duration * itemWidth);
-            if (size == -1) {
-                return new int[] {0, -1, -1};
+            if (compressed) {
+                Long block = blocks.get(truncatedTime);
+                if (block == null) {
+                    return new int[] {0, -1, -1};
+                }
+                return CompressedSegment.decode(codec, readBlock(block), truncatedTime, duration, items);
+            }
+
+            long position = HEADER_SIZE + (truncatedTime - offsetTime) / duration * itemWidth;
+            ByteBuffer buffer;
+
+            if (mapped) {
+                MappedByteBuffer region = region(position, itemWidth * items.length, false);
+                if (region == null) {
+                    return new int[] {0, -1, -1};
+                }
+                buffer = region.duplicate();
+            } else {
+                buffer = ByteBuffer.allocate(itemWidth * items.length);
+                if (channel.read(buffer, position) == -1) {
+                    return new int[] {0, -1, -1};
+                }
+                buffer.flip();
             }
-            buffer.flip();
 
-            int readableItemSize = size / itemWidth;
+            int readableItemSize = Math.min(items.length, buffer.remaining() / itemWidth);
             int skip = 0;
             int firstIndex = -1;
             int lastIndex = -1;
@@ -328,7 +463,8 @@ class DiskStorage<T> {
     }
 
     /**
-     * Write data to disk cache.
+     * Write data to disk cache. The written data is not synchronized to the device, it is left to
+     * the batched write and {@link #close()}.
      * 
      * @param truncatedTime
      * @param items
@@ -341,15 +477,115 @@ class DiskStorage<T> {
         }
 
         long stamp = lock.writeLock();
+
+        try {
+            writeSegment(truncatedTime, items);
+        } finally {
+            writeHeader();
+
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Write the multiple segments to disk cache at once. The segments are written in ascending
+     * order of file position and synchronized to the device only once.
+     * 
+     * @param segments The segments which are keyed by the start time.
+     */
+    void write(SortedMap<Long, T[]> segments) {
+        if (lockForProcess == null || segments.isEmpty()) {
+            // The current process does not have write permission because it is being used by
+            // another process.
+            return;
+        }
+
+        long stamp = lock.writeLock();
+
+        try {
+            int generation = released;
+            List<MappedByteBuffer> regions = new ArrayList();
+            for (Entry<Long, T[]> entry : segments.entrySet()) {
+                MappedByteBuffer region = writeSegment(entry.getKey(), entry.getValue());
+
+                // the database is rebuilt, the previous regions are already forced and unmapped
+                if (generation != released) {
+                    generation = released;
+                    regions.clear();
+                }
+
+                if (region != null) {
+                    regions.add(region);
+                }
+            }
+
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+
+            // the modified header forces the channel by itself
+            if (!mapped && !headerModified) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw I.quiet(e);
+        } finally {
+            writeHeader();
+
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Write the segment data. This method must be invoked in write lock.
+     * 
+     * @param truncatedTime The start time of segment.
+     * @param items The segment items.
+     * @return The written region in memory-mapped mode, otherwise null.
+     */
+    private MappedByteBuffer writeSegment(long truncatedTime, T[] items) {
         int firstIndex = -1;
         int lastIndex = -1;
 
         try {
+            if (compressed) {
+                for (int i = 0; i < items.length; i++) {
+                    if (items[i] != null) {
+                        if (firstIndex == -1) firstIndex = i;
+                        lastIndex = i;
+                    }
+                }
+
+                if (firstIndex != -1) {
+                    writeBlock(truncatedTime, items);
+                }
+                return null;
+            }
+
             if (truncatedTime < offsetTime) {
                 updateOffsetTime(truncatedTime);
             }
 
             long startPosition = HEADER_SIZE + (truncatedTime - offsetTime) / duration * itemWidth;
+
+            if (mapped) {
+                MappedByteBuffer region = region(startPosition, itemWidth * items.length, true);
+                ByteBuffer buffer = region.duplicate();
+
+                for (int i = 0; i < items.length; i++) {
+                    T item = items[i];
+                    if (item != null) {
+                        buffer.position(i * itemWidth);
+                        buffer.put(ITEM_DEFINED);
+                        codec.write(item, buffer);
+
+                        if (firstIndex == -1) firstIndex = i;
+                        lastIndex = i;
+                    }
+                }
+                return region;
+            }
+
             ByteBuffer buffer = ByteBuffer.allocate(itemWidth * items.length);
 
             for (int i = 0; i < items.length; i++) {
@@ -374,13 +610,198 @@ class DiskStorage<T> {
                 buffer.flip();
                 channel.write(buffer, startPosition);
             }
+            return null;
         } catch (IOException e) {
             throw I.quiet(e);
         } finally {
             updateTime(truncatedTime + firstIndex * duration, truncatedTime + lastIndex * duration);
-            writeHeader();
+        }
+    }
 
-            lock.unlockWrite(stamp);
+    /**
+     * Build the segment offset table by scanning all compressed blocks. When the same segment is
+     * found more than once, the later one is valid because the relocated block is always appended.
+     * The incomplete block at the end of file is ignored.
+     */
+    private void readBlocks() throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+
+        while (tail + BLOCK_HEADER_SIZE <= size) {
+            readFully(header.clear(), tail);
+
+            long start = header.getLong(0);
+            int capacity = header.getInt(8);
+            int length = header.getInt(12);
+            if (capacity <= 0 || length < 0 || capacity < length || size < tail + BLOCK_HEADER_SIZE + capacity) {
+                break;
+            }
+            blocks.put(start, tail);
+            tail += BLOCK_HEADER_SIZE + capacity;
+        }
+    }
+
+    /**
+     * Read the encoded segment of the compressed block.
+     * 
+     * @param position The file position of block.
+     * @return The encoded segment.
+     */
+    private ByteBuffer readBlock(long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        readFully(header, position);
+
+        ByteBuffer encoded = ByteBuffer.allocate(header.getInt(12));
+        readFully(encoded, position + BLOCK_HEADER_SIZE);
+        return encoded.flip();
+    }
+
+    /**
+     * Write the segment as the compressed block. This method must be invoked in write lock. The
+     * items which are already stored but are not specified are retained. The block is rewritten in
+     * place while the encoded segment fits its capacity, otherwise it is relocated to the end of
+     * file with some slack for the growing segment.
+     * 
+     * @param truncatedTime The start time of segment.
+     * @param items The segment items.
+     */
+    private void writeBlock(long truncatedTime, T[] items) throws IOException {
+        Long position = blocks.get(truncatedTime);
+        int capacity = 0;
+
+        if (position != null) {
+            ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+            readFully(header, position);
+            capacity = header.getInt(8);
+
+            // merge the stored items
+            ByteBuffer stored = readBlock(position);
+            T[] previous = Arrays.copyOf(items, CompressedSegment.size(stored));
+            Arrays.fill(previous, null);
+            CompressedSegment.decode(codec, stored, truncatedTime, duration, previous);
+
+            items = Arrays.copyOf(items, Math.max(items.length, previous.length));
+            for (int i = 0; i < previous.length; i++) {
+                if (items[i] == null) items[i] = previous[i];
+            }
+        }
+
+        ByteBuffer encoded = CompressedSegment.encode(codec, items);
+        int length = encoded.remaining();
+
+        ByteBuffer block;
+        if (position == null || capacity < length) {
+            position = tail;
+            capacity = Math.max(64, length + length / 2);
+            tail += BLOCK_HEADER_SIZE + capacity;
+            blocks.put(truncatedTime, position);
+
+            // write the whole capacity, so the file always ends with the complete block
+            block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + capacity);
+        } else {
+            block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + length);
+        }
+        block.putLong(truncatedTime).putInt(capacity).putInt(length).put(encoded).clear();
+        channel.write(block, position);
+    }
+
+    /**
+     * Read bytes until the buffer is full or the end of file.
+     * 
+     * @param buffer The destination.
+     * @param position The file position.
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read == -1) {
+                return;
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Retrieve the memory-mapped region at the specified position. The region is remapped when the
+     * required size exceeds the current mapping.
+     * 
+     * @param position The file position.
+     * @param size The required byte size.
+     * @param grow Whether the file can be extended or not.
+     * @return The mapped region or null if no data exists at the position.
+     */
+    private MappedByteBuffer region(long position, int size, boolean grow) throws IOException {
+        MappedByteBuffer region = regions.get(position);
+        if (region != null && size <= region.capacity()) {
+            return region;
+        }
+
+        if (!grow) {
+            long available = channel.size() - position;
+            if (available <= 0) {
+                return null;
+            }
+            size = (int) Math.min(size, available);
+
+            if (region != null && size <= region.capacity()) {
+                return region;
+            }
+        }
+
+        region = channel.map(lockForProcess == null ? MapMode.READ_ONLY : MapMode.READ_WRITE, position, size);
+        regions.put(position, region);
+        return region;
+    }
+
+    /**
+     * Flush and unmap all memory-mapped regions. This method must be invoked in write lock, because
+     * the unmapped region must not be accessed anymore.
+     */
+    private void releaseRegions() {
+        synchronized (regions) {
+            for (MappedByteBuffer region : regions.values()) {
+                if (lockForProcess != null) {
+                    region.force();
+                }
+                unmap(region);
+            }
+            regions.clear();
+            released++;
+        }
+    }
+
+    /**
+     * Unmap the memory-mapped region immediately. If the unmapper is not available, the region is
+     * unmapped by GC.
+     * 
+     * @param region A target region.
+     */
+    private static void unmap(MappedByteBuffer region) {
+        if (unmapper != null) {
+            try {
+                unmapper.invokeExact((ByteBuffer) region);
+            } catch (Throwable e) {
+                // unmapped by GC
+            }
+        }
+    }
+
+    /**
+     * Find the unmapper of memory-mapped region.
+     * 
+     * @return The unmapper or null.
+     */
+    private static MethodHandle findUnmapper() {
+        try {
+            Class type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+
+            return MethodHandles.lookup()
+                    .findVirtual(type, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (Throwable e) {
+            return null;
         }
     }
 
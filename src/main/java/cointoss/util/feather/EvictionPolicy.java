@@ -9,6 +9,9 @@
  */
 package cointoss.util.feather;
 
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
 public interface EvictionPolicy {
 
     /**
@@ -21,6 +24,33 @@ public interface EvictionPolicy {
      */
     long access(long time);
 
+    /**
+     * Bind the evictor which removes the specified time from the owner store at any time. The
+     * policy which is shared by many stores (i.e. {@link MemoryBudget}) evicts the time of the
+     * other store through it.
+     * 
+     * @param evictor The evictor of the owner store.
+     */
+    default void bind(LongConsumer evictor) {
+    }
+
+    /**
+     * Evict the times which are requested by the other stores sharing this policy but are not
+     * evicted yet. The owner store calls it periodically on the background thread while it holds
+     * its own write lock, so the requested times are released even if the owner is never accessed
+     * again.
+     * 
+     * @param evictor The evictor which is guarded by the owner store.
+     */
+    default void drain(LongConsumer evictor) {
+    }
+
+    /**
+     * Forget all accessed times because the owner store is cleared or disposed.
+     */
+    default void release() {
+    }
+
     /**
      * Provide the {@link EvictionPolicy} which never evict any value.
      * 
@@ -55,6 +85,99 @@ public interface EvictionPolicy {
                 long result = policy.access(time);
                 return result == time ? -1 : result;
             }
+
+            @Override
+            public void release() {
+                policy = new LRU(size);
+            }
+        };
+    }
+
+    /**
+     * Provides an {@link EvictionPolicy} based on the S3-FIFO algorithm with a specified size. The
+     * new time enters the small probationary queue and is promoted to the main queue only if it is
+     * accessed again, so the one-time scan (i.e. backtest) does not evict the frequently accessed
+     * times (i.e. chart).
+     * 
+     * @param size A cache size.
+     * @return A new {@link EvictionPolicy}.
+     */
+    static EvictionPolicy byS3FIFO(int size) {
+        return new S3FIFO(size);
+    }
+
+    /**
+     * Provides an {@link EvictionPolicy} which never evicts the newest times with a specified
+     * size. The older times are managed by the specified policy.
+     * 
+     * @param size The number of pinned times.
+     * @param base The policy for the older times.
+     * @return A new {@link EvictionPolicy}.
+     */
+    static EvictionPolicy byTimeWindow(int size, EvictionPolicy base) {
+        return new EvictionPolicy() {
+
+            /** The pinned times in ascending order. */
+            private final long[] pins = new long[Math.max(1, size)];
+
+            /** The number of pinned times. */
+            private int count;
+
+            @Override
+            public long access(long time) {
+                int index = Arrays.binarySearch(pins, 0, count, time);
+                if (0 <= index) {
+                    return -1;
+                }
+                index = -index - 1;
+
+                if (count < pins.length) {
+                    System.arraycopy(pins, index, pins, index + 1, count - index);
+                    pins[index] = time;
+                    count++;
+                    return -1;
+                }
+
+                if (index == 0) {
+                    return base.access(time);
+                }
+
+                // pin the new time and demote the oldest pinned time
+                long demoted = pins[0];
+                System.arraycopy(pins, 1, pins, 0, index - 1);
+                pins[index - 1] = time;
+                return base.access(demoted);
+            }
+
+            @Override
+            public void bind(LongConsumer evictor) {
+                base.bind(evictor);
+            }
+
+            @Override
+            public void drain(LongConsumer evictor) {
+                base.drain(evictor);
+            }
+
+            @Override
+            public void release() {
+                count = 0;
+                base.release();
+            }
         };
     }
+
+    /**
+     * Provides an {@link EvictionPolicy} which shares the specified memory budget with the other
+     * stores. When the total memory usage exceeds the budget, the least recently used segment of
+     * any store is evicted. The segment of the other store is evicted on the next access of its
+     * owner or on its periodic drain.
+     * 
+     * @param budget The shared budget.
+     * @param segmentBytes The approximate memory usage of each segment. (byte)
+     * @return A new {@link EvictionPolicy}.
+     */
+    static EvictionPolicy byMemory(MemoryBudget budget, long segmentBytes) {
+        return budget.policy(segmentBytes);
+    }
 }
\ No newline at end of file
@@ -10,14 +10,26 @@
 package cointoss.util.feather;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.LongFunction;
 import java.util.function.Predicate;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import com.google.common.annotations.VisibleForTesting;
 
 import cointoss.ticker.Span;
@@ -30,6 +42,51 @@ import psychopath.File;
 
 public final class FeatherStore<E extends TemporalData> implements Disposable {
 
+    /** The logging system. */
+    private static final Logger log = LogManager.getLogger(FeatherStore.class);
+
+    /** The background writer for all stores. */
+    private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(run -> {
+        Thread thread = new Thread(run);
+        thread.setName("FeatherStore Flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The background reader for all stores. */
+    private static final ExecutorService prefetcher = Executors.newFixedThreadPool(2, run -> {
+        Thread thread = new Thread(run);
+        thread.setName("FeatherStore Prefetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The maximum number of segments which are prefetched but not accessed yet. */
+    private static final int MAX_PREFETCH = 32;
+
+    /** The stores which have the pending writes. */
+    private static final Set<FeatherStore> writeBehinds = ConcurrentHashMap.newKeySet();
+
+    /** The stores which join the memory budget. */
+    private static final Set<FeatherStore> budgets = ConcurrentHashMap.newKeySet();
+
+    static {
+        // write all pending segments before shutdown
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (FeatherStore store : writeBehinds) {
+                store.flush();
+            }
+        }));
+
+        // release the segments which are requested to evict by the other stores even if the owner
+        // store is idle (only the store which can restore them, see drain)
+        flusher.scheduleWithFixedDelay(() -> {
+            for (FeatherStore store : budgets) {
+                store.drain();
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+    }
+
     /** The item type. */
     private final Model<E> model;
 
@@ -48,6 +105,9 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
     /** The disk store. */
     private DiskStorage<E> disk;
 
+    /** The original data source which can supply the evicted segment again. */
+    private LongFunction<Signal<E>> supplier;
+
     /** The eviction policy. */
     private EvictionPolicy eviction;
 
@@ -63,6 +123,21 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
     /** The date-time of last item. */
     private long last = -1;
 
+    /** The periodic write-behind task. */
+    private ScheduledFuture writeBehind;
+
+    /** The segments which are loading or loaded on the background thread. */
+    private final ConcurrentHashMap<Long, CompletableFuture<OnHeap<E>>> prefetched = new ConcurrentHashMap();
+
+    /** The number of segments to read ahead on the sequential access. */
+    private int readAhead;
+
+    /** The start time of the last accessed segment. */
+    private long lastAccess = -1;
+
+    /** The step of the last segment access. */
+    private long lastStep;
+
     /**
      * Create the store for timeseries data.
      * 
@@ -102,6 +177,8 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
      */
     @Override
     public void vandalize() {
+        budgets.remove(this);
+        eviction.release();
     }
 
     /**
@@ -172,7 +249,7 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
      */
     private void startPassiveSupplier(Signal<E> passive) {
         if (passive != null) {
-            add(passive.effectOnDispose(this::commit).to(e -> {
+            add(passive.effectOnDispose(this::commitOnDispose).to(e -> {
                 store(e);
             }));
         }
@@ -195,8 +272,62 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
      * @return Chainable API.
      */
     public synchronized FeatherStore<E> enableDiskStore(File databaseFile, DataCodec<E> dataType) {
+        return enableDiskStore(databaseFile, dataType, false);
+    }
+
+    /**
+     * Enable the transparent disk persistence.
+     * 
+     * @param databaseFile An actual file to store data.
+     * @param dataType The data definition.
+     * @param memoryMapped Access each segment through the memory-mapped region instead of the
+     *            file channel. Segment loading becomes a simple memory access without system call
+     *            and copy.
+     * @return Chainable API.
+     */
+    public synchronized FeatherStore<E> enableDiskStore(File databaseFile, DataCodec<E> dataType, boolean memoryMapped) {
+        return enableDiskStore(databaseFile, dataType, memoryMapped, false);
+    }
+
+    /**
+     * Enable the transparent disk persistence with the compressed segment layout. Each segment is
+     * stored as the columnar block which is encoded by XOR or delta-of-delta of the adjacent items,
+     * so the sparse or slowly changing data takes much less space and I/O. The existing file keeps
+     * its own layout.
+     * 
+     * @param databaseFile An actual file to store data.
+     * @return Chainable API.
+     */
+    public synchronized FeatherStore<E> enableCompressedDiskStore(File databaseFile) {
+        return enableCompressedDiskStore(databaseFile, null);
+    }
+
+    /**
+     * Enable the transparent disk persistence with the compressed segment layout. Each segment is
+     * stored as the columnar block which is encoded by XOR or delta-of-delta of the adjacent items,
+     * so the sparse or slowly changing data takes much less space and I/O. The existing file keeps
+     * its own layout.
+     * 
+     * @param databaseFile An actual file to store data.
+     * @param dataType The data definition.
+     * @return Chainable API.
+     */
+    public synchronized FeatherStore<E> enableCompressedDiskStore(File databaseFile, DataCodec<E> dataType) {
+        return enableDiskStore(databaseFile, dataType, false, true);
+    }
+
+    /**
+     * Enable the transparent disk persistence.
+     * 
+     * @param databaseFile An actual file to store data.
+     * @param dataType The data definition.
+     * @param memoryMapped Access each segment through the memory-mapped region.
+     * @param compressed Use the compressed segment layout.
+     * @return Chainable API.
+     */
+    private FeatherStore<E> enableDiskStore(File databaseFile, DataCodec<E> dataType, boolean memoryMapped, boolean compressed) {
         if (databaseFile != null && this.disk == null) {
-            this.disk = new DiskStorage(databaseFile, dataType != null ? dataType : DataCodec.of(model), itemDuration);
+            this.disk = new DiskStorage(databaseFile, dataType != null ? dataType : DataCodec.of(model), itemDuration, memoryMapped, compressed);
             if (disk.startTime() < first) {
                 first = disk.startTime();
             }
@@ -207,13 +338,97 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
         return this;
     }
 
+    /**
+     * Enable the asynchronous write-behind. The modified segments are written to disk on the
+     * background thread at the specified interval, so {@link #commit()} on the caller thread has
+     * only few segments to write. The segments which are modified in the last interval may be lost
+     * on the crash, the interval is the trade-off between durability and throughput.
+     * 
+     * @param interval The interval of writing.
+     * @param unit The unit of interval.
+     * @return Chainable API.
+     */
+    public synchronized FeatherStore<E> enableWriteBehind(long interval, TimeUnit unit) {
+        if (writeBehind != null) {
+            writeBehind.cancel(false);
+        } else {
+            writeBehinds.add(this);
+            add(() -> {
+                synchronized (this) {
+                    writeBehind.cancel(false);
+                }
+                flusher.execute(() -> {
+                    flush();
+                    writeBehinds.remove(this);
+                });
+            });
+        }
+        writeBehind = flusher.scheduleWithFixedDelay(this::flush, interval, interval, unit);
+        return this;
+    }
+
+    /**
+     * Enable the original data source. When the segment which is not on heap (and disk) is
+     * requested, the supplier is called with the start time (epoch seconds) of segment and the
+     * supplied items are cached on heap. Since the evicted segment can be restored at any time, the
+     * heap holds only the recently used segments.
+     * 
+     * @param supplier The original data source.
+     * @return Chainable API.
+     */
+    public synchronized FeatherStore<E> enableSegmentSupplier(LongFunction<Signal<E>> supplier) {
+        this.supplier = supplier;
+        return this;
+    }
+
+    /**
+     * Enable the sequential read-ahead. When the segments on disk are accessed sequentially in
+     * either direction (i.e. range query or chart scrolling), the next segments in the same
+     * direction are loaded on the background thread.
+     * 
+     * @param segments The number of segments to read ahead.
+     * @return Chainable API.
+     */
+    public synchronized FeatherStore<E> enableReadAhead(int segments) {
+        this.readAhead = Math.max(0, Math.min(segments, MAX_PREFETCH));
+        return this;
+    }
+
     /**
      * Disable the automatic memory saving.
      * 
      * @return Chainable API.
      */
     public synchronized FeatherStore<E> disableMemorySaving() {
-        eviction = EvictionPolicy.never();
+        return enableEvictionPolicy(EvictionPolicy.never());
+    }
+
+    /**
+     * Configure the automatic memory saving.
+     * 
+     * @param policy The policy to evict the segment from heap.
+     * @return Chainable API.
+     */
+    public synchronized FeatherStore<E> enableEvictionPolicy(EvictionPolicy policy) {
+        budgets.remove(this);
+        eviction.release();
+        eviction = Objects.requireNonNull(policy);
+        policy.bind(time -> evict(time, true));
+        return this;
+    }
+
+    /**
+     * Join the memory ceiling which is shared by many stores. The segment is evicted when the total
+     * memory usage of the budget exceeds its capacity, but the newest segments are never evicted.
+     * 
+     * @param budget The shared budget.
+     * @param itemBytes The approximate memory usage of each item. (byte)
+     * @param pinned The number of the newest segments which are never evicted.
+     * @return Chainable API.
+     */
+    public synchronized FeatherStore<E> enableMemoryBudget(MemoryBudget budget, int itemBytes, int pinned) {
+        enableEvictionPolicy(EvictionPolicy.byTimeWindow(pinned, EvictionPolicy.byMemory(budget, (long) itemBytes * itemSize)));
+        budgets.add(this);
         return this;
     }
 
@@ -292,7 +507,7 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
      * 
      * @param item Time series items to store.
      */
-    public void store(E item) {
+    public synchronized void store(E item) {
         long time = item.seconds();
         long[] index = index(time);
 
@@ -302,6 +517,7 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
             segment = new OnHeap(model, index[0], itemSize);
             tryEvict(index[0]);
             indexed.put(index[0], segment);
+            discard(index[0]);
         }
 
         if (accumulator == null) {
@@ -414,6 +630,8 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
             segment.clear();
         }
         indexed.clear();
+        prefetched.clear();
+        eviction.release();
 
         if (disk == null) {
             first = Long.MAX_VALUE;
@@ -612,21 +830,21 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
      * @return
      */
     private OnHeap<E> supply(long startTime) {
+        detectSequentialAccess(startTime);
+
         // Memory Cache
         OnHeap<E> segment = indexed.get(startTime);
         if (segment != null) {
+            tryEvict(startTime);
             return segment;
         }
 
         // Disk Cache
         if (disk != null) {
-            segment = new OnHeap(model, startTime, itemSize);
-            int[] result = disk.read(startTime, segment.items);
-            segment.sync = true;
+            CompletableFuture<OnHeap<E>> future = prefetched.remove(startTime);
+            segment = future == null ? load(startTime) : future.join();
 
-            if (1 <= result[0]) {
-                segment.min = result[1];
-                segment.max = result[2];
+            if (segment != null) {
                 tryEvict(startTime);
                 indexed.put(startTime, segment);
 
@@ -635,53 +853,286 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
         }
 
         // Original Data Source
-        // if (supplier != null) {
-        // Signal<E> supply = supplier.apply(startTime);
-        // if (supply != null) {
-        // long endTime = startTime + segmentDuration;
-        //
-        // OnHeap<E> heap = new OnHeap(model, startTime, itemSize);
-        // indexed.put(startTime, heap);
-        // tryEvict(startTime);
-        // supply.to(item -> {
-        // long timestamp = item.seconds();
-        // if (startTime <= timestamp && timestamp < endTime) {
-        // heap.set((int) index(timestamp)[1], item);
-        // }
-        // });
-        // return heap;
-        // }
-        // }
+        if (supplier != null) {
+            Signal<E> supply = supplier.apply(startTime);
+            if (supply != null) {
+                long endTime = startTime + segmentDuration;
+
+                OnHeap<E> heap = new OnHeap(model, startTime, itemSize);
+                supply.to(item -> {
+                    long timestamp = item.seconds();
+                    if (startTime <= timestamp && timestamp < endTime) {
+                        heap.set((int) index(timestamp)[1], item);
+                    }
+                });
+
+                if (heap.size() != 0) {
+                    tryEvict(startTime);
+                    indexed.put(startTime, heap);
+                    discard(startTime);
+                    return heap;
+                }
+            }
+        }
 
         // Not Found
         return null;
     }
 
     /**
-     * Forcibly saves all data that currently exists on the heap to disk immediately. All data on
-     * disk will be overwritten. If the disk store is not enabled, nothing will happen.
+     * Read the segment from disk.
+     * 
+     * @param startTime The start time of segment.
+     * @return The loaded segment or null.
+     */
+    private OnHeap<E> load(long startTime) {
+        OnHeap<E> segment = new OnHeap(model, startTime, itemSize);
+        int[] result = disk.read(startTime, segment.items);
+
+        if (1 <= result[0]) {
+            segment.min = result[1];
+            segment.max = result[2];
+            return segment;
+        }
+        return null;
+    }
+
+    /**
+     * Hint that the items in the specified range will be accessed soon. The segments on disk are
+     * loaded on the background thread from the start time toward the end time, so the following
+     * access does not wait for disk. If the disk store is not enabled, nothing will happen.
+     * 
+     * @param start A starting time.
+     * @param end A ending time.
+     */
+    public void prefetch(long start, long end) {
+        if (disk == null || last < first) {
+            return;
+        }
+
+        long min = index(first)[0];
+        long max = index(last)[0];
+        long from = Math.max(min, Math.min(max, index(start)[0]));
+        long to = Math.max(min, Math.min(max, index(end)[0]));
+        long step = from <= to ? segmentDuration : -segmentDuration;
+
+        for (long time = from, i = 0; i < MAX_PREFETCH; time += step, i++) {
+            prefetch(time, from);
+
+            if (time == to) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Load the segment on the background thread if it is not on heap. When too many segments are
+     * prefetched, the farthest one from the origin is discarded.
+     * 
+     * @param startTime The start time of segment.
+     * @param origin The start time of segment where the access is now.
+     */
+    private void prefetch(long startTime, long origin) {
+        if (startTime < 0 || indexed.containsKey(startTime) || prefetched.containsKey(startTime)) {
+            return;
+        }
+
+        while (MAX_PREFETCH <= prefetched.size()) {
+            long farthest = -1;
+            for (long time : prefetched.keySet()) {
+                if (farthest == -1 || Math.abs(origin - farthest) < Math.abs(origin - time)) {
+                    farthest = time;
+                }
+            }
+
+            // the requested segment is the farthest one
+            if (farthest == -1 || Math.abs(origin - farthest) <= Math.abs(origin - startTime)) {
+                return;
+            }
+            discard(farthest);
+        }
+
+        prefetched.computeIfAbsent(startTime, key -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return load(key);
+            } catch (Throwable e) {
+                log.error("Fail to prefetch the segment of " + model.type.getSimpleName() + ".", e);
+                return null;
+            }
+        }, prefetcher));
+    }
+
+    /**
+     * Discard the prefetched segment. It must be called whenever the segment is put on heap, written
+     * to disk or evicted, because the prefetched segment may hold the disk state before them.
+     * 
+     * @param startTime The start time of segment.
+     */
+    private void discard(long startTime) {
+        CompletableFuture<OnHeap<E>> future = prefetched.remove(startTime);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Detect the sequential segment access in either direction and read ahead the next segments.
+     * 
+     * @param startTime The start time of the accessed segment.
+     */
+    private void detectSequentialAccess(long startTime) {
+        long step = startTime - lastAccess;
+        if (step == 0) {
+            return;
+        }
+        lastAccess = startTime;
+
+        if (step != segmentDuration && step != -segmentDuration) {
+            lastStep = 0;
+            return;
+        }
+
+        if (step == -lastStep) {
+            // the direction is changed, the segments behind are no longer needed
+            for (long time : prefetched.keySet()) {
+                if ((time - startTime) * step < 0) {
+                    discard(time);
+                }
+            }
+        } else if (step == lastStep && readAhead != 0 && disk != null) {
+            long min = index(first)[0];
+            long max = index(last)[0];
+            for (int i = 1; i <= readAhead; i++) {
+                long time = startTime + step * i;
+                if (time < min || max < time) {
+                    break;
+                }
+                prefetch(time, startTime);
+            }
+        }
+        lastStep = step;
+    }
+
+    /**
+     * Forcibly saves all modified data that currently exists on the heap to disk immediately. The
+     * modified segments are written in order of the file position and synchronized to the device
+     * at once. If the disk store is not enabled, nothing will happen.
      */
-    public void commit() {
+    public synchronized void commit() {
         if (disk != null) {
-            for (Entry<Long, OnHeap<E>> entry : indexed.entrySet()) {
-                disk.write(entry.getKey(), entry.getValue().items);
+            TreeMap<Long, E[]> items = new TreeMap();
+            List<OnHeap<E>> segments = new ArrayList();
+            List<Integer> versions = new ArrayList();
+
+            for (OnHeap<E> segment : indexed.values()) {
+                // the latest item can be modified in place without storing (i.e. the current tick)
+                int version = segment.version;
+                E[] values = segment.items;
+                if (values != null && (segment.written != version || segment.startTime == index(last)[0])) {
+                    items.put(segment.startTime, values);
+                    segments.add(segment);
+                    versions.add(version);
+                }
+            }
+
+            disk.write(items);
+
+            for (int i = 0; i < segments.size(); i++) {
+                segments.get(i).written = versions.get(i);
+                discard(segments.get(i).startTime);
             }
         }
     }
 
+    /**
+     * Save the modified data on the background thread.
+     */
+    private void flush() {
+        try {
+            commit();
+        } catch (Throwable e) {
+            log.error("Fail to write the segments of " + model.type.getSimpleName() + ".", e);
+        }
+    }
+
+    /**
+     * Save the modified data when the data source is disposed. If the write-behind is enabled, it
+     * is delegated to the background thread.
+     */
+    private void commitOnDispose() {
+        if (writeBehind != null) {
+            flusher.execute(this::flush);
+        } else {
+            commit();
+        }
+    }
+
     /**
      * Try to evict segment for memory compaction.
      * 
      * @param time
      */
     private void tryEvict(long time) {
-        long evictableTime = eviction.access(time);
+        EvictionPolicy policy = eviction;
+        long evictableTime;
+        synchronized (policy) {
+            evictableTime = policy.access(time);
+        }
+
         if (evictableTime != -1) {
-            OnHeap<E> segment = indexed.remove(evictableTime);
-            if (disk != null) {
+            evict(evictableTime, true);
+        }
+    }
+
+    /**
+     * Evict the segments which are requested by the other stores sharing the eviction policy. It
+     * runs on the background thread under the same lock as {@link #store(TemporalData)} and
+     * {@link #commit()}, so the writer never stores into the detached segment. The segment is only
+     * detached from the index and is not cleared, the unlocked reader which holds it can continue
+     * to use it.
+     * <p>
+     * Only the store which has the original data source is drained here, because it never touches
+     * the date-time of first and last item on eviction. The other store releases the requested
+     * segments on its next access.
+     */
+    private void drain() {
+        if (supplier != null) {
+            synchronized (this) {
+                try {
+                    eviction.drain(time -> evict(time, false));
+                } catch (Throwable e) {
+                    log.error("Fail to release the segments of " + model.type.getSimpleName() + ".", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict the specified segment from heap.
+     * 
+     * @param evictableTime The start time of segment.
+     * @param clear Clear the evicted segment eagerly or leave it to the garbage collector.
+     */
+    private void evict(long evictableTime, boolean clear) {
+        // write before removing, the background reader must not load the stale segment
+        OnHeap<E> segment = indexed.get(evictableTime);
+        if (segment != null) {
+            if (disk != null && (segment.written != segment.version || evictableTime == index(last)[0])) {
                 disk.write(evictableTime, segment.items);
             }
-            segment.clear();
+            indexed.remove(evictableTime);
+
+            // the segment which is prefetched while it is on heap holds the stale disk state
+            discard(evictableTime);
+
+            if (clear) {
+                segment.clear();
+            }
+
+            // The evicted items are still available from the original data source.
+            if (supplier != null) {
+                return;
+            }
 
             if (evictableTime <= first) {
                 OnHeap<E> heap = indexed.firstValue();
@@ -729,6 +1180,23 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
         return Objects.equals(item, container[(int) index[1]]);
     }
 
+    /**
+     * For test.
+     * 
+     * @param item
+     * @return
+     */
+    @VisibleForTesting
+    boolean existOnPrefetch(E item) {
+        CompletableFuture<OnHeap<E>> future = prefetched.get(index(item.seconds())[0]);
+        if (future == null) {
+            return false;
+        }
+
+        OnHeap<E> segment = future.join();
+        return segment != null && item.equals(segment.get((int) index(item.seconds())[1]));
+    }
+
     /**
      * On-Heap data container.
      */
@@ -745,8 +1213,11 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
         /** The last item index. */
         private int max = Integer.MIN_VALUE;
 
-        /** Flag whether the data is in sync with disk. */
-        private boolean sync;
+        /** The modification count. */
+        private volatile int version;
+
+        /** The modification count which is written to disk. */
+        private volatile int written;
 
         /**
          * @param startTime The starting time (epoch seconds).
@@ -788,7 +1259,7 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
             if (index < min) min = index;
             if (max < index) max = index;
 
-            sync = false;
+            version++;
         }
 
         /**
@@ -796,7 +1267,6 @@ public final class FeatherStore<E extends TemporalData> implements Disposable {
          */
         void clear() {
             items = null;
-            sync = false;
         }
 
         /**
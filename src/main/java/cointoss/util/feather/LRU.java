@@ -10,29 +10,37 @@
 package cointoss.util.feather;
 
 /**
- * The primitive long specialized LRU queue.
+ * The primitive long specialized LRU queue. The position of each item is indexed by hash, so all
+ * operations are constant time.
  */
 class LRU implements EvictionPolicy {
 
-    private int index;
+    /** The items. */
+    private final long[] values;
 
-    private long[] values;
+    /** The next (more recent) position of each item. */
+    private final int[] nexts;
 
-    private int[] nexts;
+    /** The previous (older) position of each item. */
+    private final int[] prevs;
 
-    private int[] prevs;
+    /** The position of each item. */
+    private final LongIndex positions;
 
-    private int eldest;
+    /** The number of items. */
+    private int size;
 
-    private int latest;
+    /** The position of eldest item. */
+    private int eldest = -1;
+
+    /** The position of latest item. */
+    private int latest = -1;
 
     LRU(int size) {
-        index = size - 1;
         values = new long[size];
         nexts = new int[size];
         prevs = new int[size];
-        eldest = -1;
-        latest = -1;
+        positions = new LongIndex(size);
     }
 
     long latest() {
@@ -48,70 +56,75 @@ class LRU implements EvictionPolicy {
      */
     @Override
     public long access(long item) {
-        // first assign
-        if (eldest == -1) {
-            eldest = latest = index;
-            prevs[index] = -1;
-            nexts[index] = -1;
-            values[index--] = item;
-            return -1;
-        }
+        int index = positions.get(item);
 
-        // imcompleted assign
+        // move to latest
         if (index != -1) {
-            values[index] = item;
-            updateLatest(index--);
+            if (index != latest) {
+                unlink(index);
+                link(index);
+            }
             return -1;
         }
 
-        // ignore latest
-        if (values[latest] == item) {
+        // imcompleted assign
+        if (size < values.length) {
+            index = size++;
+            values[index] = item;
+            positions.put(item, index);
+            link(index);
             return -1;
         }
 
-        // completed assign
-        for (int i = 0; i < values.length; i++) {
-            if (values[i] == item) {
-                delete(i);
-                updateLatest(i);
-                return values[eldest];
-            }
-        }
-
-        // delete eldest
-        int e = eldest;
-        long v = values[e];
-        delete(e);
+        // replace eldest by latest
+        index = eldest;
+        long evicted = values[index];
+        unlink(index);
+        positions.remove(evicted);
 
-        // replace by latest
-        values[e] = item;
-        updateLatest(e);
+        values[index] = item;
+        positions.put(item, index);
+        link(index);
 
-        return v;
+        return evicted;
     }
 
-    private void updateLatest(int newLatest) {
-        nexts[latest] = newLatest;
-
-        prevs[newLatest] = latest;
-        nexts[newLatest] = -1;
-        latest = newLatest;
+    /**
+     * Append the item at the specified position as the latest.
+     * 
+     * @param index A position.
+     */
+    private void link(int index) {
+        prevs[index] = latest;
+        nexts[index] = -1;
+
+        if (latest == -1) {
+            eldest = index;
+        } else {
+            nexts[latest] = index;
+        }
+        latest = index;
     }
 
-    private void delete(int target) {
-        int prev = prevs[target];
-        int next = nexts[target];
+    /**
+     * Detach the item at the specified position.
+     * 
+     * @param index A position.
+     */
+    private void unlink(int index) {
+        int prev = prevs[index];
+        int next = nexts[index];
 
-        if (prev != -1) {
+        if (prev == -1) {
+            eldest = next;
+        } else {
             nexts[prev] = next;
         }
 
-        if (next != -1) {
+        if (next == -1) {
+            latest = prev;
+        } else {
             prevs[next] = prev;
         }
-
-        if (eldest == target) {
-            eldest = next;
-        }
     }
 }
\ No newline at end of file
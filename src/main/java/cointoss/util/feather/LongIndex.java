@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2021 Nameless Production Committee
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://opensource.org/licenses/mit-license.php
+ */
+package cointoss.util.feather;
+
+/**
+ * The primitive long to non-negative int hash table with the fixed capacity. It uses the open
+ * addressing with linear probing, so no object is allocated after creation.
+ */
+class LongIndex {
+
+    /** The keys. */
+    private final long[] keys;
+
+    /** The values, -1 means the empty slot. */
+    private final int[] values;
+
+    /** The bit mask of slot. */
+    private final int mask;
+
+    /**
+     * Create the index which can hold the specified number of entries.
+     * 
+     * @param size The maximum number of entries.
+     */
+    LongIndex(int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            values[i] = -1;
+        }
+    }
+
+    /**
+     * Compute the home slot of the specified key.
+     * 
+     * @param key A key.
+     * @return A slot.
+     */
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Get the value of the specified key.
+     * 
+     * @param key A key.
+     * @return The value or -1 if the key is not found.
+     */
+    int get(long key) {
+        for (int i = slot(key);; i = (i + 1) & mask) {
+            if (values[i] == -1) {
+                return -1;
+            }
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+    }
+
+    /**
+     * Associate the value with the specified key.
+     * 
+     * @param key A key.
+     * @param value A non-negative value.
+     */
+    void put(long key, int value) {
+        for (int i = slot(key);; i = (i + 1) & mask) {
+            if (values[i] == -1 || keys[i] == key) {
+                keys[i] = key;
+                values[i] = value;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove the specified key.
+     * 
+     * @param key A key.
+     */
+    void remove(long key) {
+        int i = slot(key);
+        while (true) {
+            if (values[i] == -1) {
+                return;
+            }
+            if (keys[i] == key) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // shift the following entries backward to keep the probe sequences
+        int hole = i;
+        for (int j = (hole + 1) & mask; values[j] != -1; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2021 Nameless Production Committee
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://opensource.org/licenses/mit-license.php
+ */
+package cointoss.util.feather;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongConsumer;
+
+/**
+ * The memory ceiling which is shared by many {@link FeatherStore}s in the same JVM.
+ * <p>
+ * Each store declares the approximate memory usage of its segment, and the least recently used
+ * segment of any store is evicted when the total usage exceeds the capacity. The segment is always
+ * evicted by its owner store, the segment of the other store is queued and is evicted on the next
+ * access of the owner store, so the owner never sees the segment cleared by the other thread. The
+ * idle owner which has the segment supplier drains its queue periodically under its own write lock
+ * (see {@link EvictionPolicy#drain(LongConsumer)}), so the queued segment is excluded from the
+ * ceiling check only until the next drain. It is suitable for the stores which can restore the
+ * evicted segment (i.e. disk store or segment supplier).
+ */
+public final class MemoryBudget {
+
+    /** The shared budget which uses the quarter of max heap. */
+    public static final MemoryBudget Shared = new MemoryBudget(Runtime.getRuntime().maxMemory() / 4);
+
+    /** The segments in access order. */
+    private final LinkedHashMap<Segment, Segment> segments = new LinkedHashMap(16, 0.75f, true);
+
+    /** The maximum memory usage. (byte) */
+    private long capacity;
+
+    /** The current memory usage. (byte) */
+    private long used;
+
+    /** The memory usage of the segments which are queued to evict by the other store. (byte) */
+    private long queued;
+
+    /**
+     * Create budget with the specified capacity.
+     * 
+     * @param capacity The maximum memory usage. (byte)
+     */
+    public MemoryBudget(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get the maximum memory usage.
+     * 
+     * @return The maximum memory usage. (byte)
+     */
+    public synchronized long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Change the maximum memory usage. It is applied from the next segment loading.
+     * 
+     * @param capacity The maximum memory usage. (byte)
+     * @return Chainable API.
+     */
+    public synchronized MemoryBudget capacity(long capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * Get the current memory usage which includes the segments queued to evict.
+     * 
+     * @return The current memory usage. (byte)
+     */
+    public synchronized long used() {
+        return used;
+    }
+
+    /**
+     * Create the new {@link EvictionPolicy} for the store which joins this budget.
+     * 
+     * @param segmentBytes The approximate memory usage of each segment. (byte)
+     * @return A new {@link EvictionPolicy}.
+     */
+    EvictionPolicy policy(long segmentBytes) {
+        return new Member(segmentBytes);
+    }
+
+    /**
+     * The segment of the member store.
+     */
+    private static final class Segment {
+
+        /** The owner. */
+        private final Member owner;
+
+        /** The start time of segment. */
+        private final long time;
+
+        /**
+         * @param owner The owner.
+         * @param time The start time of segment.
+         */
+        private Segment(Member owner, long time) {
+            this.owner = owner;
+            this.time = time;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(owner) * 31 + Long.hashCode(time);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof Segment) {
+                Segment other = (Segment) obj;
+                return other.owner == owner && other.time == time;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The policy of the member store.
+     */
+    private final class Member implements EvictionPolicy {
+
+        /** The memory usage of each segment. */
+        private final long bytes;
+
+        /** The evictor of the owner store. */
+        private LongConsumer evictor = time -> {
+        };
+
+        /** The segments which are evicted by the other store and are not released yet. */
+        private final ConcurrentLinkedQueue<Long> pendings = new ConcurrentLinkedQueue();
+
+        /**
+         * @param bytes The memory usage of each segment.
+         */
+        private Member(long bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long access(long time) {
+            // evict the segments which are requested by the other stores
+            int released = 0;
+            Long pending;
+            while ((pending = pendings.poll()) != null) {
+                if (pending != time) {
+                    evictor.accept(pending);
+                }
+                // the accessing segment is alive, it is counted again by the registration below
+                released++;
+            }
+
+            List<Long> victims = null;
+
+            synchronized (MemoryBudget.this) {
+                used -= released * bytes;
+                queued -= released * bytes;
+
+                Segment segment = new Segment(this, time);
+                if (segments.get(segment) != null) {
+                    return -1;
+                }
+                segments.put(segment, segment);
+                used += bytes;
+
+                // the segment which is queued before this registration is alive again
+                if (pendings.remove(time)) {
+                    used -= bytes;
+                    queued -= bytes;
+                }
+
+                Iterator<Segment> iterator = segments.keySet().iterator();
+                while (capacity < used - queued && iterator.hasNext()) {
+                    Segment eldest = iterator.next();
+                    if (eldest != segment) {
+                        iterator.remove();
+
+                        if (eldest.owner == this) {
+                            used -= bytes;
+                            (victims == null ? victims = new ArrayList() : victims).add(eldest.time);
+                        } else {
+                            // the other store may be accessing its segment on the other thread, its
+                            // memory is released when the owner evicts it
+                            queued += eldest.owner.bytes;
+                            eldest.owner.pendings.add(eldest.time);
+                        }
+                    }
+                }
+            }
+
+            // evict outside of lock, the evictor may write the segment to disk
+            if (victims != null) {
+                for (long victim : victims) {
+                    evictor.accept(victim);
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void drain(LongConsumer evictor) {
+            int released = 0;
+            Long pending;
+            while ((pending = pendings.poll()) != null) {
+                evictor.accept(pending);
+                released++;
+            }
+
+            if (released != 0) {
+                synchronized (MemoryBudget.this) {
+                    used -= released * bytes;
+                    queued -= released * bytes;
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void bind(LongConsumer evictor) {
+            this.evictor = evictor;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void release() {
+            synchronized (MemoryBudget.this) {
+                int released = pendings.size();
+                pendings.clear();
+                used -= released * bytes;
+                queued -= released * bytes;
+
+                Iterator<Segment> iterator = segments.keySet().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().owner == this) {
+                        iterator.remove();
+                        used -= bytes;
+                    }
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
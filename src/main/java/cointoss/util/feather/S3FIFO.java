@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2021 Nameless Production Committee
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://opensource.org/licenses/mit-license.php
+ */
+package cointoss.util.feather;
+
+/**
+ * The primitive long specialized S3-FIFO queue. The new item enters the small queue, and only the
+ * item which is accessed again while it is in the small queue is promoted to the main queue. The
+ * item evicted from the small queue is remembered in the ghost queue, it enters the main queue
+ * directly when it is accessed again. All operations are constant time except for the lazy
+ * promotion.
+ */
+class S3FIFO implements EvictionPolicy {
+
+    /** The state of item in small queue. (lower 2 bits hold the access frequency) */
+    private static final int SMALL = 0;
+
+    /** The state of item in main queue. (lower 2 bits hold the access frequency) */
+    private static final int MAIN = 4;
+
+    /** The state of item in ghost queue. */
+    private static final int GHOST = 8;
+
+    /** The maximum number of items in small and main queues. */
+    private final int capacity;
+
+    /** The target size of small queue. */
+    private final int smallCapacity;
+
+    /** The probationary queue. */
+    private final Ring small;
+
+    /** The protected queue. */
+    private final Ring main;
+
+    /** The recently evicted items. */
+    private final Ring ghost;
+
+    /** The state of each item. */
+    private final LongIndex states;
+
+    S3FIFO(int size) {
+        this.capacity = Math.max(2, size);
+        this.smallCapacity = Math.max(1, capacity / 10);
+        this.small = new Ring(capacity + 1);
+        this.main = new Ring(capacity + 1);
+        this.ghost = new Ring(capacity - smallCapacity);
+        this.states = new LongIndex(capacity + 1 + ghost.values.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long access(long item) {
+        int state = states.get(item);
+
+        // increase frequency
+        if (state != -1 && state != GHOST) {
+            if ((state & 3) != 3) {
+                states.put(item, state + 1);
+            }
+            return -1;
+        }
+
+        if (state == GHOST) {
+            main.add(item);
+            states.put(item, MAIN);
+        } else {
+            small.add(item);
+            states.put(item, SMALL);
+        }
+
+        if (small.size + main.size <= capacity) {
+            return -1;
+        }
+        return evict(item);
+    }
+
+    /**
+     * Evict one item except for the specified item.
+     * 
+     * @param added The latest added item.
+     * @return The evicted item.
+     */
+    private long evict(long added) {
+        while (true) {
+            boolean fromSmall = smallCapacity <= small.size || main.size == 0;
+
+            // never evict the latest added item
+            if (fromSmall && small.peek() == added && small.size == 1) {
+                fromSmall = false;
+            } else if (!fromSmall && main.peek() == added && main.size == 1) {
+                fromSmall = true;
+            }
+
+            if (fromSmall) {
+                long item = small.poll();
+                int state = states.get(item);
+
+                if ((state & 3) != 0 && item != added) {
+                    main.add(item);
+                    states.put(item, MAIN);
+                } else if (item == added) {
+                    small.add(item);
+                } else {
+                    if (ghost.size == ghost.values.length) {
+                        long forgotten = ghost.poll();
+                        if (states.get(forgotten) == GHOST) {
+                            states.remove(forgotten);
+                        }
+                    }
+                    ghost.add(item);
+                    states.put(item, GHOST);
+                    return item;
+                }
+            } else {
+                long item = main.poll();
+                int state = states.get(item);
+
+                if ((state & 3) != 0 || item == added) {
+                    main.add(item);
+                    states.put(item, item == added ? state : state - 1);
+                } else {
+                    states.remove(item);
+                    return item;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void release() {
+        for (Ring ring : new Ring[] {small, main, ghost}) {
+            while (ring.size != 0) {
+                states.remove(ring.poll());
+            }
+        }
+    }
+
+    /**
+     * The fixed size ring buffer.
+     */
+    private static class Ring {
+
+        /** The items. */
+        private final long[] values;
+
+        /** The position of the first item. */
+        private int head;
+
+        /** The number of items. */
+        private int size;
+
+        private Ring(int capacity) {
+            this.values = new long[Math.max(1, capacity)];
+        }
+
+        private void add(long item) {
+            values[(head + size++) % values.length] = item;
+        }
+
+        private long peek() {
+            return values[head];
+        }
+
+        private long poll() {
+            long item = values[head];
+            head = (head + 1) % values.length;
+            size--;
+            return item;
+        }
+    }
+}
\ No newline at end of file
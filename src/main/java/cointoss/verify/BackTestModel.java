@@ -20,7 +20,9 @@ import cointoss.MarketService;
 import cointoss.analyze.Analyzer;
 import cointoss.analyze.ConsoleAnalyzer;
 import cointoss.analyze.TradingStats;
+import cointoss.execution.ExecutionDayCache;
 import cointoss.execution.LogType;
+import cointoss.order.OrderBookLog;
 import cointoss.trade.Trader;
 import cointoss.util.Chrono;
 import cointoss.util.Loggings;
@@ -142,6 +144,28 @@ interface BackTestModel {
         return LogType.Normal;
     }
 
+    /**
+     * Set the number of days which are read concurrently. The days are read sequentially by default,
+     * so the caller must opt in to use more threads and memory.
+     * 
+     * @return
+     */
+    @Icy.Property
+    default int parallelism() {
+        return 1;
+    }
+
+    /**
+     * Set the memory size (megabytes) of the decoded days which are shared by the concurrent
+     * backtests in this JVM. The decoded days are not shared by default.
+     * 
+     * @return
+     */
+    @Icy.Property
+    default long dayCacheSize() {
+        return 0;
+    }
+
     /**
      * Activate test with {@link ConsoleAnalyzer}.
      */
@@ -160,9 +184,9 @@ interface BackTestModel {
         }
 
         Loggings.requestTradingLoggerReset();
+        ExecutionDayCache.Shared.reserve(dayCacheSize());
 
         VerifiableMarket market = new VerifiableMarket(service());
-        market.tickers.tickers().to(e -> e.ticks.disableMemorySaving());
         market.service.baseCurrency = initialBaseCurrency();
         market.service.targetCurrency = initialTargetCurrency();
 
@@ -171,8 +195,13 @@ interface BackTestModel {
         market.register(traders());
         analyzer.initialize(market, traders());
 
+        // replay the recorded order book in the order of time with executions
+        OrderBookLog.Replay book = service().orderBookLog.replay(start(), end());
+
+        // the executions are materialized only when the traders or the matching require them
         LocalDateTime start = LocalDateTime.now();
-        market.readLog(log -> log.range(start(), end(), type()).effect(market::perform).effectOnError(Throwable::printStackTrace));
+        market.service.log.buffers(start(), end(), parallelism(), type())
+                .to(executions -> market.perform(executions, book), Throwable::printStackTrace);
         LocalDateTime end = LocalDateTime.now();
 
         for (Trader trader : traders()) {
@@ -0,0 +1,404 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.verify;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import cointoss.MarketService;
+import cointoss.analyze.TradingStats;
+import cointoss.execution.ExecutionBuffer;
+import cointoss.execution.ExecutionDayCache;
+import cointoss.execution.LogType;
+import cointoss.trade.Trader;
+import cointoss.util.Chrono;
+import cointoss.util.arithmetic.Num;
+import kiss.I;
+
+/**
+ * The parameter sweep runner of backtest.
+ * <p>
+ * The execution log is decoded only once into the shared {@link ExecutionBuffer}, then each
+ * parameter set is tested on the isolated {@link VerifiableMarket} in parallel. The parameter is
+ * assigned to the public field of {@link Trader} which is created by the specified factory, and the
+ * result is ranked by the specified order (the total profit and loss by default).
+ * <p>
+ * The executions in the warm-up days are replayed before the trader is registered, so the tickers
+ * are filled without materializing them. The executions in the tested days are materialized only
+ * when the trader observes the timeline or the matching engine requires them.
+ */
+public class BackTestSweep {
+
+    /** The target market. */
+    private final MarketService service;
+
+    /** The trader factory. */
+    private final Supplier<? extends Trader> factory;
+
+    /** The candidate values by field name. */
+    private final Map<String, List<Object>> grid = new LinkedHashMap();
+
+    /** The start date. */
+    private ZonedDateTime start;
+
+    /** The end date. */
+    private ZonedDateTime end;
+
+    /** The number of warm-up days before the start date. */
+    private int warmUp;
+
+    /** The log type. */
+    private LogType type = LogType.Normal;
+
+    /** The memory size (megabytes) of the shared decoded days. */
+    private long dayCacheSize;
+
+    /** The initial base currency. */
+    private Num initialBaseCurrency = Num.ZERO;
+
+    /** The initial target currency. */
+    private Num initialTargetCurrency = Num.ZERO;
+
+    /** The number of random samples, zero means the full grid search. */
+    private int samples;
+
+    /** The seed of random search. */
+    private long seed;
+
+    /** The executor. */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /** The ranking order. */
+    private Comparator<TradingStats> ranking = Comparator.comparing((TradingStats stats) -> stats.profitAndLoss.total()).reversed();
+
+    /**
+     * Create sweep runner.
+     *
+     * @param service A target market.
+     * @param factory A trader factory.
+     */
+    public BackTestSweep(MarketService service, Supplier<? extends Trader> factory) {
+        this.service = Objects.requireNonNull(service);
+        this.factory = Objects.requireNonNull(factory);
+    }
+
+    /**
+     * Set the start date.
+     *
+     * @param year A year.
+     * @param month A month.
+     * @param day A day.
+     * @return Chainable API.
+     */
+    public BackTestSweep start(int year, int month, int day) {
+        return start(Chrono.utc(LocalDate.of(year, month, day)));
+    }
+
+    /**
+     * Set the start date.
+     *
+     * @param start A start date.
+     * @return Chainable API.
+     */
+    public BackTestSweep start(ZonedDateTime start) {
+        this.start = Objects.requireNonNull(start);
+        return this;
+    }
+
+    /**
+     * Set the end date.
+     *
+     * @param year A year.
+     * @param month A month.
+     * @param day A day.
+     * @return Chainable API.
+     */
+    public BackTestSweep end(int year, int month, int day) {
+        return end(Chrono.utc(LocalDate.of(year, month, day)));
+    }
+
+    /**
+     * Set the end date.
+     *
+     * @param end An end date.
+     * @return Chainable API.
+     */
+    public BackTestSweep end(ZonedDateTime end) {
+        this.end = Objects.requireNonNull(end);
+        return this;
+    }
+
+    /**
+     * Set the warm-up days before the start date. The executions in these days update the tickers
+     * only, the trader is registered after them.
+     *
+     * @param days The number of warm-up days.
+     * @return Chainable API.
+     */
+    public BackTestSweep warmUp(int days) {
+        this.warmUp = Math.max(0, days);
+        return this;
+    }
+
+    /**
+     * Set the log type.
+     *
+     * @param type A log type.
+     * @return Chainable API.
+     */
+    public BackTestSweep type(LogType type) {
+        this.type = Objects.requireNonNull(type);
+        return this;
+    }
+
+    /**
+     * Share the decoded days with the other backtests and sweeps in this JVM.
+     *
+     * @param megabytes The memory size of the shared decoded days.
+     * @return Chainable API.
+     */
+    public BackTestSweep dayCacheSize(long megabytes) {
+        this.dayCacheSize = Math.max(0, megabytes);
+        return this;
+    }
+
+    /**
+     * Set the initial assets.
+     *
+     * @param value An initial base currency.
+     * @return Chainable API.
+     */
+    public BackTestSweep initialBaseCurrency(double value) {
+        this.initialBaseCurrency = Num.of(value);
+        return this;
+    }
+
+    /**
+     * Set the initial assets.
+     *
+     * @param value An initial target currency.
+     * @return Chainable API.
+     */
+    public BackTestSweep initialTargetCurrency(double value) {
+        this.initialTargetCurrency = Num.of(value);
+        return this;
+    }
+
+    /**
+     * Declare the candidate values of the trader's public field.
+     *
+     * @param name A field name.
+     * @param values All candidate values.
+     * @return Chainable API.
+     */
+    public BackTestSweep param(String name, Object... values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("Parameter [" + name + "] requires candidate values.");
+        }
+        grid.put(Objects.requireNonNull(name), Arrays.asList(values));
+        return this;
+    }
+
+    /**
+     * Test the randomly selected parameter sets instead of the full grid.
+     *
+     * @param samples The number of parameter sets to test.
+     * @param seed A random seed.
+     * @return Chainable API.
+     */
+    public BackTestSweep random(int samples, long seed) {
+        this.samples = Math.max(0, samples);
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Set the executor.
+     *
+     * @param pool An executor.
+     * @return Chainable API.
+     */
+    public BackTestSweep pool(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool);
+        return this;
+    }
+
+    /**
+     * Set the ranking order.
+     *
+     * @param ranking A ranking order.
+     * @return Chainable API.
+     */
+    public BackTestSweep rankBy(Comparator<TradingStats> ranking) {
+        this.ranking = Objects.requireNonNull(ranking);
+        return this;
+    }
+
+    /**
+     * Build all parameter sets to test.
+     *
+     * @return All parameter sets.
+     */
+    List<Map<String, Object>> parameters() {
+        long total = 1;
+        for (List<Object> values : grid.values()) {
+            total = Math.multiplyExact(total, values.size());
+        }
+
+        List<Map<String, Object>> sets = new ArrayList();
+        if (samples == 0 || total <= samples) {
+            for (long i = 0; i < total; i++) {
+                sets.add(parameter(i));
+            }
+        } else {
+            Random random = new Random(seed);
+            Set<Long> selected = new LinkedHashSet();
+            while (selected.size() < samples) {
+                selected.add(Math.floorMod(random.nextLong(), total));
+            }
+            for (long index : selected) {
+                sets.add(parameter(index));
+            }
+        }
+        return sets;
+    }
+
+    /**
+     * Decode the parameter set by the mixed radix index.
+     *
+     * @param index An index of parameter set.
+     * @return A parameter set.
+     */
+    private Map<String, Object> parameter(long index) {
+        Map<String, Object> set = new LinkedHashMap();
+        for (Entry<String, List<Object>> entry : grid.entrySet()) {
+            List<Object> values = entry.getValue();
+            set.put(entry.getKey(), values.get((int) (index % values.size())));
+            index /= values.size();
+        }
+        return set;
+    }
+
+    /**
+     * Run all parameter sets.
+     *
+     * @return The ranked results.
+     */
+    public List<TradingStats> run() {
+        Objects.requireNonNull(start, "Start date is required.");
+        Objects.requireNonNull(end, "End date is required.");
+        ExecutionDayCache.Shared.reserve(dayCacheSize);
+
+        ExecutionBuffer history = warmUp == 0 ? null
+                : ExecutionBuffer.of(service.log.range(start.minusDays(warmUp), start.minusDays(1), type));
+        return run(history, ExecutionBuffer.of(service.log.range(start, end, type)));
+    }
+
+    /**
+     * Run all parameter sets on the specified executions.
+     *
+     * @param executions The shared executions.
+     * @return The ranked results.
+     */
+    List<TradingStats> run(ExecutionBuffer executions) {
+        return run(null, executions);
+    }
+
+    /**
+     * Run all parameter sets on the specified executions.
+     *
+     * @param history The shared executions in the warm-up period, or null.
+     * @param executions The shared executions.
+     * @return The ranked results.
+     */
+    List<TradingStats> run(ExecutionBuffer history, ExecutionBuffer executions) {
+        List<Map<String, Object>> sets = parameters();
+        List<TradingStats> results = pool
+                .submit(() -> sets.parallelStream().map(set -> run(history, executions, set)).collect(Collectors.toList()))
+                .join();
+
+        List<TradingStats> ranked = new ArrayList(results);
+        ranked.sort(ranking);
+        return ranked;
+    }
+
+    /**
+     * Run the single parameter set on the isolated market.
+     *
+     * @param history The shared executions in the warm-up period, or null.
+     * @param executions The shared executions.
+     * @param set A parameter set.
+     * @return A result.
+     */
+    private TradingStats run(ExecutionBuffer history, ExecutionBuffer executions, Map<String, Object> set) {
+        Trader trader = factory.get();
+        for (Entry<String, Object> entry : set.entrySet()) {
+            assign(trader, entry.getKey(), entry.getValue());
+        }
+
+        VerifiableMarket market = new VerifiableMarket(service);
+        try {
+            if (history != null) {
+                // no trader is registered yet, tickers are updated from the columns directly
+                market.replay(history);
+            }
+            market.service.baseCurrency = initialBaseCurrency;
+            market.service.targetCurrency = initialTargetCurrency;
+            market.register(trader);
+
+            LocalDateTime start = LocalDateTime.now();
+            market.perform(executions, null);
+            LocalDateTime end = LocalDateTime.now();
+
+            TradingStats stats = trader.statistics();
+            stats.duration = Duration.between(start, end);
+            return stats;
+        } finally {
+            market.dispose();
+        }
+    }
+
+    /**
+     * Assign the parameter to the trader's public field.
+     *
+     * @param trader A target trader.
+     * @param name A field name.
+     * @param value A value.
+     */
+    private void assign(Trader trader, String name, Object value) {
+        try {
+            Field field = trader.getClass().getField(name);
+            Class type = I.wrap(field.getType());
+
+            field.set(trader, value == null || type.isInstance(value) ? value : I.transform(String.valueOf(value), type));
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException(trader.getClass().getSimpleName() + " has no public field [" + name + "].", e);
+        } catch (IllegalAccessException e) {
+            throw I.quiet(e);
+        }
+    }
+}
\ No newline at end of file
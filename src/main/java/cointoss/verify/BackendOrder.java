@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.verify;
+
+import cointoss.Direction;
+import cointoss.Directional;
+import cointoss.order.Order;
+import cointoss.order.OrderState;
+import cointoss.order.OrderType;
+import cointoss.order.QuantityCondition;
+import cointoss.util.arithmetic.Num;
+import kiss.Signaling;
+
+/**
+ * The server side representation of {@link Order} in the emulated market.
+ */
+class BackendOrder implements Directional {
+
+    /** The frontend order. */
+    final Order front;
+
+    /** The order direction. */
+    final Direction direction;
+
+    /** The order size. */
+    final Num size;
+
+    /** The order id. */
+    String id;
+
+    /** The order price. */
+    Num price;
+
+    /** The order type. */
+    OrderType type;
+
+    /** The order type. */
+    QuantityCondition condition;
+
+    /** The order state. */
+    OrderState state;
+
+    /** The order state. */
+    Num remainingSize;
+
+    /** The order state. */
+    Num executedSize;
+
+    /** The minimum price for market order. */
+    Num marketMinPrice;
+
+    /**
+     * The time which this order is created, Using epoch mills to make time-related calculation
+     * faster.
+     */
+    long createTimeMills;
+
+    /**
+     * The time which this order will be canceled completely. Using epoch mills to make
+     * time-related calculation faster.
+     */
+    long cancelTimeMills;
+
+    /** The cancel event emitter. */
+    final Signaling<Order> canceling = new Signaling();
+
+    /** The arrival sequence which is assigned by {@link MatchingEngine}. */
+    long sequence;
+
+    /** The price level which holds this order, managed by {@link MatchingEngine}. */
+    MatchingEngine.Level level;
+
+    /** The previous order in the same price level, managed by {@link MatchingEngine}. */
+    BackendOrder prev;
+
+    /** The next order in the same price level, managed by {@link MatchingEngine}. */
+    BackendOrder next;
+
+    /**
+     * Create backend managed order.
+     *
+     * @param o
+     */
+    BackendOrder(Order o) {
+        this.front = o;
+        this.direction = o.direction;
+        this.size = o.size;
+        this.executedSize = o.executedSize;
+        this.price = o.price;
+        this.type = o.type;
+        this.condition = o.quantityCondition;
+        this.createTimeMills = o.creationTime.toInstant().toEpochMilli();
+        this.marketMinPrice = isBuy() ? Num.ZERO : Num.MAX;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Direction direction() {
+        return direction;
+    }
+
+    /**
+     * Detect whether this order must be matched (or discarded) as soon as it is activated.
+     *
+     * @return A result.
+     */
+    boolean isImmediate() {
+        return type.isTaker() || condition == QuantityCondition.FillOrKill || condition == QuantityCondition.ImmediateOrCancel;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "BackendOrder [direction=" + direction + ", size=" + size + ", id=" + id + ", price=" + price + ", type=" + type + ", condition=" + condition + ", state=" + state + ", remainingSize=" + remainingSize + ", executedSize=" + executedSize + ", marketMinPrice=" + marketMinPrice + ", createTimeMills=" + createTimeMills + ", cancelTimeMills=" + cancelTimeMills + "]";
+    }
+}
\ No newline at end of file
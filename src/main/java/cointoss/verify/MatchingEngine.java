@@ -9,6 +9,392 @@
  */
 package cointoss.verify;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import cointoss.execution.Execution;
+import cointoss.order.Order;
+import cointoss.order.OrderType;
+import cointoss.order.QuantityCondition;
+import cointoss.util.arithmetic.Num;
+import cointoss.util.map.ConcurrentNavigableDoubleMap;
+import cointoss.util.map.DoubleMap;
+
+/**
+ * Price-time priority order book for the emulated market.
+ * <p>
+ * Resting maker orders are queued in price levels which are keyed by primitive price, buy side is
+ * sorted in descending order and sell side is sorted in ascending order. Taker, fill-or-kill and
+ * immediate-or-cancel orders are held in the immediate queue which has higher priority than any
+ * resting order. Orders which are not activated yet (by latency) are parked in the pending queue.
+ * <p>
+ * Insertion and cancellation cost O(log n) (only when the price level is created or removed),
+ * finding the best tradable order costs O(1). The removed or rescheduled orders are not searched in
+ * the pending and cancellation queues, their stale entries are skipped when the market time reaches
+ * them.
+ */
 public class MatchingEngine {
 
+    /** The minimum price which is always tradable for buy order. */
+    private final Num minimumPrice;
+
+    /** The buy side price levels. (descending) */
+    private final ConcurrentNavigableDoubleMap<Level> bids = DoubleMap.createReversedMap();
+
+    /** The sell side price levels. (ascending) */
+    private final ConcurrentNavigableDoubleMap<Level> asks = DoubleMap.createSortedMap();
+
+    /** The cached best buy level. */
+    private Level bestBid;
+
+    /** The cached best sell level. */
+    private Level bestAsk;
+
+    /** The immediate orders. (taker, FOK and IOC) */
+    private final Level immediates = new Level(null);
+
+    /** The orders which are waiting for activation. (the removed order is skipped lazily) */
+    private final PriorityQueue<BackendOrder> pendings = new PriorityQueue<>(Comparator
+            .<BackendOrder> comparingLong(o -> o.createTimeMills)
+            .thenComparingLong(o -> o.sequence));
+
+    /** The orders which are waiting for delayed cancellation. (the stale entry is skipped lazily) */
+    private final PriorityQueue<Canceling> cancelings = new PriorityQueue<>(Comparator.<Canceling> comparingLong(c -> c.mills)
+            .thenComparingLong(c -> c.order.sequence));
+
+    /** The all managed orders in arrival order. */
+    private final Set<BackendOrder> actives = new LinkedHashSet();
+
+    /** The lookup table from frontend order. */
+    private final Map<Order, BackendOrder> fronts = new IdentityHashMap();
+
+    /** The arrival sequence. */
+    private long sequence;
+
+    /**
+     * Create engine.
+     *
+     * @param minimumPrice The minimum price which is always tradable for buy order.
+     */
+    MatchingEngine(Num minimumPrice) {
+        this.minimumPrice = minimumPrice;
+    }
+
+    /**
+     * Clear all orders.
+     */
+    void clear() {
+        bids.clear();
+        asks.clear();
+        bestBid = null;
+        bestAsk = null;
+        immediates.head = immediates.tail = null;
+        pendings.clear();
+        cancelings.clear();
+        actives.clear();
+        fronts.clear();
+        sequence = 0;
+    }
+
+    /**
+     * Accept the new order. It will be activated when the market time reaches its creation time.
+     *
+     * @param order A new order.
+     */
+    void add(BackendOrder order) {
+        order.sequence = sequence++;
+        actives.add(order);
+        fronts.put(order.front, order);
+        pendings.add(order);
+    }
+
+    /**
+     * Remove the specified order from this engine.
+     *
+     * @param order A target order.
+     */
+    void remove(BackendOrder order) {
+        if (actives.remove(order)) {
+            fronts.remove(order.front);
+
+            // the pending and canceling entries are discarded on advance
+            if (order.level != null) {
+                unlink(order);
+            }
+        }
+    }
+
+    /**
+     * Find the backend order by the frontend order.
+     *
+     * @param front A frontend order.
+     * @return The associated backend order or null.
+     */
+    BackendOrder find(Order front) {
+        return fronts.get(front);
+    }
+
+    /**
+     * Check whether this engine manages any order or not.
+     *
+     * @return Result.
+     */
+    boolean isEmpty() {
+        return actives.isEmpty();
+    }
+
+    /**
+     * List up all managed orders in arrival order.
+     *
+     * @return All orders.
+     */
+    List<BackendOrder> orders() {
+        return new ArrayList(actives);
+    }
+
+    /**
+     * Cancel the specified order at the specified time.
+     *
+     * @param order A target order.
+     * @param mills The cancellation time. (epoch mills)
+     */
+    void cancelAt(BackendOrder order, long mills) {
+        if (actives.contains(order) && order.cancelTimeMills != mills) {
+            // the previous entry becomes stale
+            order.cancelTimeMills = mills;
+            cancelings.add(new Canceling(order, mills));
+        }
+    }
+
+    /**
+     * Advance the market time. All pending orders which reach their creation time are activated and
+     * all orders which reach their cancellation time are canceled.
+     *
+     * @param mills The current market time. (epoch mills)
+     * @param canceler The cancellation handler.
+     */
+    void advance(long mills, Consumer<BackendOrder> canceler) {
+        while (!cancelings.isEmpty() && cancelings.peek().mills <= mills) {
+            Canceling canceling = cancelings.poll();
+            BackendOrder order = canceling.order;
+
+            if (order.cancelTimeMills == canceling.mills && actives.contains(order)) {
+                canceler.accept(order);
+            }
+        }
+
+        while (!pendings.isEmpty() && pendings.peek().createTimeMills <= mills) {
+            BackendOrder order = pendings.poll();
+
+            if (!actives.contains(order)) {
+                // removed before activation
+                continue;
+            } else if (order.isImmediate()) {
+                immediates.append(order);
+            } else if (order.isBuy()) {
+                Level level = bids.computeIfAbsent(order.price.doubleValue(), p -> new Level(order.price));
+                if (bestBid == null || level.price.isGreaterThan(bestBid.price)) {
+                    bestBid = level;
+                }
+                level.append(order);
+            } else {
+                Level level = asks.computeIfAbsent(order.price.doubleValue(), p -> new Level(order.price));
+                if (bestAsk == null || level.price.isLessThan(bestAsk.price)) {
+                    bestAsk = level;
+                }
+                level.append(order);
+            }
+        }
+    }
+
+    /**
+     * Find the order which has the highest priority and can trade with the specified
+     * {@link Execution}. The immediate orders which can't trade with it are discarded.
+     *
+     * @param e A target {@link Execution}.
+     * @return The matched order or null.
+     */
+    BackendOrder match(Execution e) {
+        BackendOrder order;
+        while ((order = immediates.head) != null) {
+            // check quantity condition
+            if (order.condition == QuantityCondition.FillOrKill && !validateTradable(order, e)) {
+                remove(order);
+                continue;
+            }
+
+            if (order.condition == QuantityCondition.ImmediateOrCancel && !validateTradableByPrice(order, e)) {
+                remove(order);
+                continue;
+            }
+            return order;
+        }
+
+        BackendOrder bid = null;
+        if (bestBid != null) {
+            if (bestBid.price.isGreaterThan(e.price)) {
+                bid = bestBid.head;
+            } else {
+                Level minimum = bids.get(minimumPrice.doubleValue());
+                if (minimum != null) bid = minimum.head;
+            }
+        }
+
+        BackendOrder ask = bestAsk != null && bestAsk.price.isLessThan(e.price) ? bestAsk.head : null;
+
+        if (bid == null) {
+            return ask;
+        } else if (ask == null) {
+            return bid;
+        } else {
+            return bid.sequence < ask.sequence ? bid : ask;
+        }
+    }
+
+    /**
+     * Unlink the specified order from its price level.
+     *
+     * @param order A target order.
+     */
+    private void unlink(BackendOrder order) {
+        Level level = order.level;
+        level.unlink(order);
+
+        if (level.head == null && level != immediates) {
+            if (order.isBuy()) {
+                bids.remove(level.price.doubleValue());
+                if (level == bestBid) bestBid = bids.firstValue();
+            } else {
+                asks.remove(level.price.doubleValue());
+                if (level == bestAsk) bestAsk = asks.firstValue();
+            }
+        }
+    }
+
+    /**
+     * Test whether this order can trade with the specified {@link Execution}.
+     *
+     * @param e A target {@link Execution}.
+     * @return A result.
+     */
+    private boolean validateTradable(BackendOrder order, Execution e) {
+        return validateTradableBySize(order, e) && validateTradableByPrice(order, e);
+    }
+
+    /**
+     * Test whether this order price can trade with the specified {@link Execution}.
+     *
+     * @param e A target {@link Execution}.
+     * @return A result.
+     */
+    private boolean validateTradableByPrice(BackendOrder order, Execution e) {
+        if (order.type == OrderType.Taker) {
+            return true;
+        }
+        if (order.isBuy()) {
+            Num price = order.price;
+            return price.isGreaterThan(e.price) || price.is(minimumPrice);
+        } else {
+            return order.price.isLessThan(e.price);
+        }
+    }
+
+    /**
+     * Test whether this order size can trade with the specified {@link Execution}.
+     *
+     * @param e A target {@link Execution}.
+     * @return A result.
+     */
+    private boolean validateTradableBySize(BackendOrder order, Execution e) {
+        return order.size.isLessThanOrEqual(e.size);
+    }
+
+    /**
+     * The scheduled cancellation of order.
+     */
+    private static final class Canceling {
+
+        /** The target order. */
+        private final BackendOrder order;
+
+        /** The cancellation time. (epoch mills) */
+        private final long mills;
+
+        /**
+         * @param order The target order.
+         * @param mills The cancellation time. (epoch mills)
+         */
+        private Canceling(BackendOrder order, long mills) {
+            this.order = order;
+            this.mills = mills;
+        }
+    }
+
+    /**
+     * The FIFO queue of orders at the same price.
+     */
+    static class Level {
+
+        /** The level price. */
+        final Num price;
+
+        /** The oldest order. */
+        BackendOrder head;
+
+        /** The newest order. */
+        BackendOrder tail;
+
+        /**
+         * @param price
+         */
+        private Level(Num price) {
+            this.price = price;
+        }
+
+        /**
+         * Append the order at last.
+         *
+         * @param order
+         */
+        private void append(BackendOrder order) {
+            order.level = this;
+            order.prev = tail;
+            order.next = null;
+
+            if (tail == null) {
+                head = order;
+            } else {
+                tail.next = order;
+            }
+            tail = order;
+        }
+
+        /**
+         * Unlink the order.
+         *
+         * @param order
+         */
+        private void unlink(BackendOrder order) {
+            if (order.prev == null) {
+                head = order.next;
+            } else {
+                order.prev.next = order.next;
+            }
+
+            if (order.next == null) {
+                tail = order.prev;
+            } else {
+                order.next.prev = order.prev;
+            }
+            order.level = null;
+            order.prev = order.next = null;
+        }
+    }
 }
\ No newline at end of file
@@ -18,7 +18,9 @@ import java.util.concurrent.TimeUnit;
 import cointoss.Market;
 import cointoss.MarketService;
 import cointoss.execution.Execution;
+import cointoss.execution.ExecutionBuffer;
 import cointoss.order.Order;
+import cointoss.order.OrderBookLog;
 import cointoss.order.OrderBookManager;
 import kiss.Signal;
 
@@ -69,6 +71,36 @@ public class VerifiableMarket extends Market {
         return perform(e, service.now().plusSeconds(lag));
     }
 
+    /**
+     * Emulate the decoded executions in order. {@link Execution} is materialized and emitted to
+     * {@link #timeline} only when the timeline is observed, any price trigger is registered or the
+     * matching engine requires it, otherwise tickers and price volumes are updated from the
+     * primitive columns directly.
+     * 
+     * @param executions The decoded executions.
+     * @param book The recorded order book which is replayed until each execution, or null.
+     * @return Chainable API.
+     */
+    public VerifiableMarket perform(ExecutionBuffer executions, OrderBookLog.Replay book) {
+        ExecutionBuffer.Cursor cursor = executions.cursor();
+        while (cursor.next()) {
+            if (book != null) {
+                book.until(cursor.mills(), service::emulateOrderBook);
+            }
+
+            if (isTimelineObserved() || triggers.size() != 0 || !service.emulate(cursor)) {
+                perform(cursor.execution());
+            } else {
+                update(cursor);
+            }
+        }
+
+        if (cursor.index() != 0) {
+            tickers.latest.set(executions.get(cursor.index() - 1));
+        }
+        return this;
+    }
+
     private VerifiableMarket perform(Execution e, ZonedDateTime date) {
         ((Execution.ÅssignableÅrbitrary) e).date(date);
         service.emulate(e, timelineObservers);
@@ -10,9 +10,7 @@
 package cointoss.verify;
 
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.PriorityQueue;
@@ -27,23 +25,22 @@ import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 import cointoss.Currency;
-import cointoss.Direction;
-import cointoss.Directional;
 import cointoss.MarketService;
 import cointoss.MarketSetting;
 import cointoss.execution.Execution;
+import cointoss.execution.ExecutionBuffer;
 import cointoss.execution.ExecutionLogRepository;
 import cointoss.market.Exchange;
 import cointoss.order.Order;
 import cointoss.order.OrderBookPageChanges;
 import cointoss.order.OrderManager;
 import cointoss.order.OrderState;
-import cointoss.order.OrderType;
 import cointoss.order.QuantityCondition;
 import cointoss.util.Chrono;
 import cointoss.util.EfficientWebSocket;
 import cointoss.util.RetryPolicy;
 import cointoss.util.arithmetic.Num;
+import cointoss.util.arithmetic.NumAccumulator;
 import kiss.I;
 import kiss.Signal;
 import kiss.Signaling;
@@ -57,12 +54,15 @@ public class VerifiableMarketService extends MarketService {
     /** The managed id. */
     private int id = 0;
 
-    /** The order manager. */
-    private final List<BackendOrder> orderActive = new ArrayList<>();
+    /** The order matching engine. */
+    private final MatchingEngine engine = new MatchingEngine(setting.base.minimumSize);
 
     /** The order manager. */
     final Signaling<Order> orderUpdateRealtimely = new Signaling();
 
+    /** The emulated order book. */
+    private final Signaling<OrderBookPageChanges> orderBooks = new Signaling();
+
     /** The initial base currency. */
     public Num baseCurrency = Num.HUNDRED;
 
@@ -78,6 +78,9 @@ public class VerifiableMarketService extends MarketService {
     /** The latest execution epoch mills. */
     private long nowMills = 0;
 
+    /** The reusable calculator for average price. */
+    private final NumAccumulator calculator = new NumAccumulator();
+
     /** The testable scheduler. */
     private final SchedulerEmulator scheduler = new SchedulerEmulator();
 
@@ -94,9 +97,16 @@ public class VerifiableMarketService extends MarketService {
      * 
      */
     public VerifiableMarketService() {
-        super(Exchange.TestNet, "TestableMarket", MarketSetting.with.derivative()
-                .target(Currency.UNKNOWN.minimumSize(0.0001))
-                .base(Currency.UNKNOWN.minimumSize(0.01)));
+        this(MarketSetting.with.derivative().target(Currency.UNKNOWN.minimumSize(0.0001)).base(Currency.UNKNOWN.minimumSize(0.01)));
+    }
+
+    /**
+     * Create the service with the specified setting.
+     * 
+     * @param setting A market setting.
+     */
+    public VerifiableMarketService(MarketSetting setting) {
+        super(Exchange.TestNet, "TestableMarket", setting);
     }
 
     /**
@@ -129,7 +139,7 @@ public class VerifiableMarketService extends MarketService {
      */
     public void clear() {
         id = 0;
-        orderActive.clear();
+        engine.clear();
         now = Chrono.MIN;
         nowMills = 0;
         latestPrice = null;
@@ -170,17 +180,8 @@ public class VerifiableMarketService extends MarketService {
             child.createTimeMills = nowMills + latency.lag();
             child.remainingSize = order.size;
 
-            // taker has high priority
-            if (order.type.isMaker()) {
-                orderActive.add(child); // last
-            } else {
-                int i = indexFirstMaker();
-                if (i == -1) {
-                    orderActive.add(child); // last
-                } else {
-                    orderActive.add(i, child); // before maker
-                }
-            }
+            // taker has high priority, it is managed by matching engine
+            engine.add(child);
 
             if (!executionsBeforeOrderResponse.isEmpty()) {
                 for (Execution execution : executionsBeforeOrderResponse) {
@@ -193,16 +194,6 @@ public class VerifiableMarketService extends MarketService {
         });
     }
 
-    private int indexFirstMaker() {
-        for (int i = 0; i < orderActive.size(); i++) {
-            BackendOrder b = orderActive.get(i);
-            if (b.type.isMaker()) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
     /** The prepared execution store. */
     private final LinkedList<Execution> executionsAfterOrderCancelResponse = new LinkedList();
 
@@ -222,7 +213,7 @@ public class VerifiableMarketService extends MarketService {
      */
     @Override
     public Signal<Order> cancel(Order order) {
-        BackendOrder backend = findBy(order);
+        BackendOrder backend = engine.find(order);
 
         // associated backend order is not found, do nothing
         if (backend == null || backend.type.isTaker()) {
@@ -230,26 +221,27 @@ public class VerifiableMarketService extends MarketService {
         }
 
         // when latency is zero, cancel order immediately
-        ZonedDateTime delay = latency.emulate(now);
+        ZonedDateTime current = now();
+        ZonedDateTime delay = latency.emulate(current);
 
-        if (delay == now) {
+        if (delay == current) {
             Signal<BackendOrder> response = I.signal(backend);
 
             if (executionsAfterOrderCancelResponse.isEmpty()) {
                 response = response.effect(() -> {
-                    backend.cancel();
+                    cancel(backend);
                 });
             } else {
                 response = response.effectOnComplete(() -> {
                     executionsAfterOrderCancelResponse.forEach(e -> emulate(e, noop));
-                    backend.cancel();
+                    cancel(backend);
                 });
             }
             return response.mapTo(order);
         }
 
         // backend order will be canceled in the specified delay
-        backend.cancelTimeMills = Chrono.epochMills(delay);
+        engine.cancelAt(backend, Chrono.epochMills(delay));
 
         return backend.canceling.expose;
     }
@@ -337,7 +329,7 @@ public class VerifiableMarketService extends MarketService {
      */
     @Override
     public Signal<Order> orders() {
-        return I.signal(orderActive).map(o -> {
+        return I.signal(engine.orders()).map(o -> {
             Order order = Order.with.direction(o.direction, o.size)
                     .price(o.price)
                     .quantityCondition(o.condition)
@@ -354,7 +346,7 @@ public class VerifiableMarketService extends MarketService {
      */
     @Override
     public Signal<Order> orders(OrderState state) {
-        return I.signal(orderActive).take(o -> o.state == state).map(o -> {
+        return I.signal(engine.orders()).take(o -> o.state == state).map(o -> {
             Order order = Order.with.direction(o.direction, o.size)
                     .price(o.price)
                     .quantityCondition(o.condition)
@@ -387,7 +379,7 @@ public class VerifiableMarketService extends MarketService {
      */
     @Override
     public Signal<OrderBookPageChanges> orderBook() {
-        return Signal.never();
+        return I.signal();
     }
 
     /**
@@ -395,7 +387,16 @@ public class VerifiableMarketService extends MarketService {
      */
     @Override
     protected Signal<OrderBookPageChanges> connectOrderBookRealtimely() {
-        return Signal.never();
+        return orderBooks.expose;
+    }
+
+    /**
+     * Emulate the changes of order book.
+     * 
+     * @param changes The changes of order book.
+     */
+    public void emulateOrderBook(OrderBookPageChanges changes) {
+        orderBooks.accept(changes);
     }
 
     /**
@@ -403,6 +404,9 @@ public class VerifiableMarketService extends MarketService {
      */
     @Override
     public ZonedDateTime now() {
+        if (now == null) {
+            now = Chrono.utcByMills(nowMills);
+        }
         return now;
     };
 
@@ -432,7 +436,7 @@ public class VerifiableMarketService extends MarketService {
         long seconds = unit.toSeconds(time);
 
         for (long i = 0; i < seconds; i++) {
-            now = now.plusSeconds(1);
+            now = now().plusSeconds(1);
             nowMills += 1000;
 
             while (!tasks.isEmpty() && tasks.peek().activeTime <= nowMills) {
@@ -441,6 +445,30 @@ public class VerifiableMarketService extends MarketService {
         }
     }
 
+    /**
+     * Emulate the execution at the cursor without materializing {@link Execution}. It is possible
+     * only when the matching engine has no order and no scheduled task is due, so only the market
+     * time and the latest price are advanced.
+     * 
+     * @param cursor The cursor positioned at the current execution.
+     * @return Returns <code>false</code> if the execution must be emulated by
+     *         {@link #emulate(Execution, Consumer)}.
+     */
+    final boolean emulate(ExecutionBuffer.Cursor cursor) {
+        long mills = cursor.mills();
+        if (!engine.isEmpty() || (!tasks.isEmpty() && tasks.peek().activeTime <= mills)) {
+            return false;
+        }
+
+        // the date is computed lazily
+        if (nowMills < mills) {
+            now = null;
+            nowMills = mills;
+        }
+        latestPrice = cursor.price();
+        return true;
+    }
+
     /**
      * Emulate {@link Execution}.
      */
@@ -448,78 +476,57 @@ public class VerifiableMarketService extends MarketService {
         now = e.date;
         nowMills = e.mills;
 
-        // emulate market execution
-        Iterator<BackendOrder> iterator = orderActive.iterator();
+        // activate delayed orders and cancel expired orders
+        engine.advance(e.mills, this::cancel);
 
-        while (iterator.hasNext()) {
-            BackendOrder order = iterator.next();
-
-            // time base filter
-            if (e.mills < order.createTimeMills) {
-                continue;
-            }
+        // emulate market execution
+        BackendOrder order = engine.match(e);
 
-            // check canceling time
-            if (order.cancelTimeMills != 0 && order.cancelTimeMills <= e.mills) {
-                order.cancel();
-                continue;
+        if (order != null) {
+            if (order.condition == QuantityCondition.ImmediateOrCancel) {
+                order.remainingSize = Num.min(e.size, order.remainingSize);
             }
 
-            // check quantity condition
-            if (order.condition == QuantityCondition.FillOrKill && !validateTradable(order, e)) {
-                iterator.remove();
-                continue;
+            Num executedSize = Num.min(e.size, order.remainingSize);
+            if (order.type.isTaker() && executedSize.isNot(0)) {
+                order.marketMinPrice = order.isBuy() ? Num.max(order.marketMinPrice, e.price, latestPrice)
+                        : Num.min(order.marketMinPrice, e.price, latestPrice);
+                order.price = calculator.set(order.price)
+                        .multiply(order.executedSize)
+                        .plusMultiply(order.marketMinPrice, executedSize)
+                        .divide(executedSize.plus(order.executedSize))
+                        .toNum();
             }
+            order.executedSize = order.executedSize.plus(executedSize);
+            order.remainingSize = order.remainingSize.minus(executedSize);
 
-            if (order.condition == QuantityCondition.ImmediateOrCancel) {
-                if (validateTradableByPrice(order, e)) {
-                    order.remainingSize = Num.min(e.size, order.remainingSize);
-                } else {
-                    iterator.remove();
-                    continue;
-                }
+            if (order.remainingSize.isZero()) {
+                order.state = OrderState.COMPLETED;
+                engine.remove(order);
             }
 
-            if (validateTradableByPrice(order, e)) {
-                Num executedSize = Num.min(e.size, order.remainingSize);
-                if (order.type.isTaker() && executedSize.isNot(0)) {
-                    order.marketMinPrice = order.isBuy() ? Num.max(order.marketMinPrice, e.price, latestPrice)
-                            : Num.min(order.marketMinPrice, e.price, latestPrice);
-                    order.price = order.price.multiply(order.executedSize)
-                            .plus(order.marketMinPrice.multiply(executedSize))
-                            .divide(executedSize.plus(order.executedSize));
-                }
-                order.executedSize = order.executedSize.plus(executedSize);
-                order.remainingSize = order.remainingSize.minus(executedSize);
+            orderUpdateRealtimely.accept(OrderManager.Update.execute(order.id, order.executedSize, order.price, Num.ZERO));
 
-                if (order.remainingSize.isZero()) {
-                    order.state = OrderState.COMPLETED;
-                    iterator.remove();
-                }
-
-                orderUpdateRealtimely.accept(OrderManager.Update.execute(order.id, order.executedSize, order.price, Num.ZERO));
+            while (!tasks.isEmpty() && tasks.peek().activeTime <= nowMills) {
+                tasks.poll().run();
+            }
 
-                while (!tasks.isEmpty() && tasks.peek().activeTime <= nowMills) {
-                    tasks.poll().run();
-                }
+            executor.accept(Execution.with.direction(e.direction, executedSize)
+                    .price(order.type.isTaker() ? order.marketMinPrice : order.price)
+                    .date(e.date)
+                    .id(e.id)
+                    .consecutive(e.consecutive)
+                    .delay(e.delay));
 
-                executor.accept(Execution.with.direction(e.direction, executedSize)
-                        .price(order.type.isTaker() ? order.marketMinPrice : order.price)
+            if (executedSize.isNot(e.size)) {
+                emulate(Execution.with.direction(e.direction, e.size.minus(executedSize))
+                        .price(e.price)
                         .date(e.date)
                         .id(e.id)
                         .consecutive(e.consecutive)
-                        .delay(e.delay));
-
-                if (executedSize.isNot(e.size)) {
-                    emulate(Execution.with.direction(e.direction, e.size.minus(executedSize))
-                            .price(e.price)
-                            .date(e.date)
-                            .id(e.id)
-                            .consecutive(e.consecutive)
-                            .delay(e.delay), executor);
-                }
-                return;
+                        .delay(e.delay), executor);
             }
+            return;
         }
 
         latestPrice = e.price;
@@ -532,155 +539,17 @@ public class VerifiableMarketService extends MarketService {
     }
 
     /**
-     * Test whether this order can trade with the specified {@link Execution}.
-     * 
-     * @param e A target {@link Execution}.
-     * @return A result.
-     */
-    private boolean validateTradable(BackendOrder order, Execution e) {
-        return validateTradableBySize(order, e) && validateTradableByPrice(order, e);
-    }
-
-    /**
-     * Test whether this order price can trade with the specified {@link Execution}.
-     * 
-     * @param e A target {@link Execution}.
-     * @return A result.
-     */
-    private boolean validateTradableByPrice(BackendOrder order, Execution e) {
-        if (order.type == OrderType.Taker) {
-            return true;
-        }
-        if (order.isBuy()) {
-            Num price = order.price;
-            return price.isGreaterThan(e.price) || price.is(setting.base.minimumSize);
-        } else {
-            return order.price.isLessThan(e.price);
-        }
-    }
-
-    /**
-     * Test whether this order size can trade with the specified {@link Execution}.
-     * 
-     * @param e A target {@link Execution}.
-     * @return A result.
-     */
-    private boolean validateTradableBySize(BackendOrder order, Execution e) {
-        return order.size.isLessThanOrEqual(e.size);
-    }
-
-    /**
-     * Find {@link BackendOrder} by fronend {@link Order}.
+     * Cancel the specified order actually.
      * 
-     * @param order
-     * @return
+     * @param order A target order.
      */
-    private BackendOrder findBy(Order order) {
-        for (BackendOrder back : orderActive) {
-            if (back.front == order) {
-                return back;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * For test.
-     */
-    private class BackendOrder implements Directional {
-
-        /** The frontend order. */
-        private final Order front;
-
-        /** The order direction. */
-        private final Direction direction;
-
-        /** The order size. */
-        private final Num size;
-
-        /** The order id. */
-        private String id;
-
-        /** The order price. */
-        private Num price;
-
-        /** The order type. */
-        private OrderType type;
-
-        /** The order type. */
-        private QuantityCondition condition;
-
-        /** The order state. */
-        private OrderState state;
-
-        /** The order state. */
-        private Num remainingSize;
-
-        /** The order state. */
-        private Num executedSize;
-
-        /** The minimum price for market order. */
-        private Num marketMinPrice;
-
-        /**
-         * The time which this order is created, Using epoch mills to make time-related calculation
-         * faster.
-         */
-        private long createTimeMills;
+    private void cancel(BackendOrder order) {
+        engine.remove(order);
 
-        /**
-         * The time which this order will be canceled completely. Using epoch mills to make
-         * time-related calculation faster.
-         */
-        private long cancelTimeMills;
-
-        /** The cancel event emitter. */
-        private final Signaling<Order> canceling = new Signaling();
-
-        /**
-         * Create backend managed order.
-         * 
-         * @param o
-         */
-        private BackendOrder(Order o) {
-            this.front = o;
-            this.direction = o.direction;
-            this.size = o.size;
-            this.executedSize = o.executedSize;
-            this.price = o.price;
-            this.type = o.type;
-            this.condition = o.quantityCondition;
-            this.createTimeMills = o.creationTime.toInstant().toEpochMilli();
-            this.marketMinPrice = isBuy() ? Num.ZERO : Num.MAX;
-        }
+        order.state = OrderState.CANCELED;
+        orderUpdateRealtimely.accept(OrderManager.Update.cancel(order.id));
 
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public Direction direction() {
-            return direction;
-        }
-
-        /**
-         * Cancel this order actually.
-         */
-        private void cancel() {
-            orderActive.remove(this);
-
-            state = OrderState.CANCELED;
-            orderUpdateRealtimely.accept(OrderManager.Update.cancel(id));
-
-            canceling.accept(front);
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public String toString() {
-            return "BackendOrder [direction=" + direction + ", size=" + size + ", id=" + id + ", price=" + price + ", type=" + type + ", condition=" + condition + ", state=" + state + ", remainingSize=" + remainingSize + ", executedSize=" + executedSize + ", marketMinPrice=" + marketMinPrice + ", createTimeMills=" + createTimeMills + ", cancelTimeMills=" + cancelTimeMills + "]";
-        }
+        order.canceling.accept(order.front);
     }
 
     /**
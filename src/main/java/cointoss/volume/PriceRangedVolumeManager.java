@@ -66,10 +66,21 @@ public class PriceRangedVolumeManager {
      * @param e
      */
     public void update(Execution e) {
-        if (e.direction == Direction.BUY) {
-            buyer.update(e.price, e.size.floatValue());
+        update(e.direction, e.price, e.size.floatValue());
+    }
+
+    /**
+     * Update the current record.
+     * 
+     * @param direction The taker's direction.
+     * @param price The executed price.
+     * @param size The executed size.
+     */
+    public void update(Direction direction, Num price, float size) {
+        if (direction == Direction.BUY) {
+            buyer.update(price, size);
         } else {
-            seller.update(e.price, e.size.floatValue());
+            seller.update(price, size);
         }
     }
 
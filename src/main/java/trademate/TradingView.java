@@ -11,6 +11,8 @@ package trademate;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.time.ZonedDateTime;
+
 import cointoss.Market;
 import cointoss.MarketService;
 import cointoss.execution.LogType;
@@ -102,7 +104,9 @@ public class TradingView extends View {
             boolean update = chart.showRealtimeUpdate.exact();
             chart.showRealtimeUpdate.set(false);
             chart.market.set(market);
-            market.readLog(log -> log.fromLast(5, LogType.Fast));
+            ZonedDateTime restored = restoreTickers();
+            market.readLog(log -> restored == null ? log.fromLast(5, LogType.Fast) : log.from(restored, LogType.Fast));
+            service.orderBookLog.record();
             chart.showRealtimeUpdate.set(update);
             isLoading.set(false);
 
@@ -114,6 +118,22 @@ public class TradingView extends View {
         UserActionHelper.of(ui()).when(User.DoubleClick, () -> OrderView.ActiveMarket.set(market));
     }
 
+    /**
+     * Restore the tickers from the prebuilt ticks. The initial build takes a long time, so it is
+     * built in background and the recent log is read instead until it is completed.
+     * 
+     * @return The end time of the prebuilt ticks, or null if nothing is restored.
+     */
+    private ZonedDateTime restoreTickers() {
+        if (service.tickStore.time() == -1) {
+            Viewtify.inWorker(() -> service.tickStore.build());
+            return null;
+        }
+
+        service.tickStore.build();
+        return market.tickers.restore(service.tickStore);
+    }
+
     private void updateTab() {
         Disposable diposer;
 
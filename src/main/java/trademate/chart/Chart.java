@@ -16,6 +16,7 @@ import java.util.function.DoubleFunction;
 
 import cointoss.ticker.Span;
 import cointoss.ticker.Tick;
+import cointoss.ticker.TickColumns;
 import cointoss.ticker.Ticker;
 import cointoss.util.Chrono;
 import cointoss.util.arithmetic.Num;
@@ -187,10 +188,38 @@ public class Chart extends Region {
                 startTick = endTick;
             }
 
-            ticker.ticks.query(start, end).to(tick -> {
-                max.set(Num.max(max.v, tick.highPrice()));
-                min.set(Num.min(min.v, tick.lowPrice()));
-            });
+            // the closed ticks are scanned on the primitive columns directly
+            TickColumns columns = ticker.columns;
+            long columnStart = columns.isEmpty() ? Long.MAX_VALUE : columns.firstTime();
+            long columnEnd = columns.isEmpty() ? Long.MIN_VALUE : columns.lastTime();
+            int from = columns.indexOf(Math.max(start, columnStart));
+            int to = columns.indexOf(Math.min(end, columnEnd));
+
+            if (from != -1 && to != -1 && from <= to) {
+                double high = Double.NEGATIVE_INFINITY;
+                double low = Double.POSITIVE_INFINITY;
+                for (int i = from; i <= to; i++) {
+                    high = Math.max(high, columns.highPrice(i));
+                    low = Math.min(low, columns.lowPrice(i));
+                }
+                max.set(Num.max(max.v, Num.of(high)));
+                min.set(Num.min(min.v, Num.of(low)));
+            }
+
+            // the ticks out of columns (i.e. the prebuilt ticks and the latest tick)
+            if (start < columnStart) {
+                ticker.ticks.query(start, Math.min(end, columnStart - 1)).to(tick -> {
+                    max.set(Num.max(max.v, tick.highPrice()));
+                    min.set(Num.min(min.v, tick.lowPrice()));
+                });
+            }
+
+            if (columnEnd != Long.MIN_VALUE && columnEnd + span.seconds <= end) {
+                ticker.ticks.query(Math.max(start, columnEnd + span.seconds), end).to(tick -> {
+                    max.set(Num.max(max.v, tick.highPrice()));
+                    min.set(Num.min(min.v, tick.lowPrice()));
+                });
+            }
         }
 
         Num margin = max.v.minus(min).multiply(Num.of(0.5));
@@ -179,6 +179,9 @@ public class ChartCanvas extends Region implements UserActionHelper<ChartCanvas>
     /** Flag whether price-ranged volume should layout on the next rendering phase or not. */
     private final LayoutAssistant layoutPriceRangedVolumeLatest = new LayoutAssistant(this);
 
+    /** The start time of the visible segment which the past ticks are prefetched for. */
+    private long prefetchedSegment = -1;
+
     /** Chart UI */
     private final EnhancedCanvas candles = new EnhancedCanvas().visibleWhen(layoutCandle.canLayout).bindSizeTo(this);
 
@@ -829,6 +832,14 @@ public class ChartCanvas extends Region implements UserActionHelper<ChartCanvas>
                         }
                     });
 
+                    // the past range will be scrolled into view, load it in advance only when the
+                    // visible range reaches the other segment
+                    long segment = start - Math.floorMod(start, ticker.span.segmentSeconds);
+                    if (prefetchedSegment != segment) {
+                        prefetchedSegment = segment;
+                        ticker.prefetch(start, start - (end - start));
+                    }
+
                     // reduce drawing cost at initialization phase
                     if (chart.showRealtimeUpdate.is(true)) {
                         for (Plotter plotter : plotters) {
@@ -280,6 +280,7 @@ public class BackTestView extends View implements Analyzer {
                             .traders(I.signal(builders).flatIterable(b -> b.build()).take(Trader::isEnable).toList())
                             .initialBaseCurrency(3000000)
                             .type(fastLog.value() ? LogType.Fast : LogType.Normal)
+                            .dayCacheSize(512)
                             .run(this);
                 });
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import antibug.CleanRoom;
+import cointoss.Direction;
+import cointoss.util.Chrono;
+import kiss.I;
+
+class BinaryLogTest {
+
+    @RegisterExtension
+    CleanRoom room = new CleanRoom();
+
+    private static final ZonedDateTime base = Chrono.utc(2021, 1, 1);
+
+    private Path write(List<Execution> executions) {
+        Path file = room.locateFile("test.blog");
+
+        try {
+            BinaryLog.Writer writer = new BinaryLog.Writer(Files.newOutputStream(file));
+            executions.forEach(writer::write);
+            writer.close();
+        } catch (IOException e) {
+            throw I.quiet(e);
+        }
+        return file;
+    }
+
+    @Test
+    void readWrite() {
+        Execution e1 = Execution.with.buy(1).price(10).id(1).date(base);
+        Execution e2 = Execution.with.sell(0.25).price(10.5).id(3).date(base.plusSeconds(1)).delay(12);
+        Execution e3 = Execution.with.buy(100).price(9.125).id(4).date(base.plusSeconds(1)).consecutive(Execution.ConsecutiveSameBuyer);
+
+        List<Execution> executions = BinaryLog.read(write(List.of(e1, e2, e3))).toList();
+        assert executions.size() == 3;
+        assert same(executions.get(0), e1);
+        assert same(executions.get(1), e2);
+        assert same(executions.get(2), e3);
+    }
+
+    @Test
+    void empty() {
+        assert BinaryLog.read(write(List.of())).toList().isEmpty();
+    }
+
+    @Test
+    void multipleBlocks() {
+        List<Execution> executions = new ArrayList();
+        for (int i = 0; i < BinaryLog.BLOCK_SIZE * 2 + 10; i++) {
+            executions.add(Execution.with.direction(i % 2 == 0 ? Direction.BUY : Direction.SELL, 0.01 * (i % 7 + 1))
+                    .price(100 + i % 13 - 0.5 * (i % 3))
+                    .id(i * 2 + 1)
+                    .date(base.plusSeconds(i)));
+        }
+
+        List<Execution> decoded = BinaryLog.read(write(executions)).toList();
+        assert decoded.size() == executions.size();
+        for (int i = 0; i < executions.size(); i++) {
+            assert same(decoded.get(i), executions.get(i));
+        }
+    }
+
+    @Test
+    void seekByTime() {
+        List<Execution> executions = new ArrayList();
+        for (int i = 0; i < BinaryLog.BLOCK_SIZE * 3; i++) {
+            executions.add(Execution.with.buy(1).price(100).id(i).date(base.plusSeconds(i)));
+        }
+
+        ZonedDateTime from = base.plusSeconds(BinaryLog.BLOCK_SIZE + 5);
+        List<Execution> decoded = BinaryLog.read(write(executions), from.toInstant().toEpochMilli()).toList();
+        assert decoded.size() == BinaryLog.BLOCK_SIZE * 2 - 5;
+        assert decoded.get(0).date.isEqual(from);
+    }
+
+    @Test
+    void broken() throws IOException {
+        Path file = room.locateFile("broken.blog");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+
+        Throwable[] error = new Throwable[1];
+        BinaryLog.read(file).to(e -> {
+        }, e -> error[0] = e);
+        assert error[0] instanceof IOException;
+    }
+
+    private boolean same(Execution one, Execution other) {
+        assert one.id == other.id;
+        assert one.direction == other.direction;
+        assert one.size.equals(other.size);
+        assert one.price.equals(other.price);
+        assert one.date.isEqual(other.date);
+        assert one.consecutive == other.consecutive;
+        assert one.delay == other.delay;
+        return true;
+    }
+}
\ No newline at end of file
@@ -154,8 +154,34 @@ class CacheTest {
         assert executions.size() == 2;
         assert executions.get(0).equals(e1);
         assert executions.get(1).equals(e2);
-        assert cache.existNormal();
-        assert cache.existCompact() == false;
+        assert cache.existNormal() == false;
+        assert cache.existCompact();
+    }
+
+    @Test
+    void readExternalRepositoryMergeSameSideExecutions() {
+        Execution e1 = Execution.with.buy(1).price(10);
+        Execution e2 = Execution.with.buy(2).price(10);
+
+        ExecutionLogRepository external = new ExecutionLogRepository(market.service) {
+
+            @Override
+            public Signal<Execution> convert(ZonedDateTime date) {
+                return I.signal(e1, e2);
+            }
+
+            @Override
+            public Signal<ZonedDateTime> collect() {
+                return I.signal(Chrono.utc(2020, 12, 15));
+            }
+        };
+
+        // the external log is written in the compact form
+        Cache cache = log.cache(Chrono.utc(2020, 12, 15));
+        List<Execution> executions = cache.readExternalRepository(external).toList();
+        assert executions.size() == 1;
+        assert executions.get(0).size.is(3);
+        assert executions.get(0).price.is(10);
     }
 
     @Test
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import cointoss.Direction;
+import cointoss.util.Chrono;
+import cointoss.util.arithmetic.Num;
+import kiss.I;
+
+class ExecutionBufferTest {
+
+    @Test
+    void roundtrip() {
+        Execution e1 = Execution.with.buy(1).price(10).id(1).date(Chrono.utc(2020, 1, 1)).consecutive(Execution.ConsecutiveSameBuyer).delay(3);
+        Execution e2 = Execution.with.sell(0.25).price(10.5).id(2).date(Chrono.utc(2020, 1, 2)).delay(Execution.DelayHuge);
+
+        ExecutionBuffer buffer = ExecutionBuffer.of(I.signal(e1, e2));
+        assert buffer.size() == 2;
+
+        List<Execution> list = buffer.replay().toList();
+        assert list.get(0).equals(e1);
+        assert list.get(1).equals(e2);
+        assert list.get(1).direction == Direction.SELL;
+        assert list.get(1).size.is(0.25);
+        assert list.get(0).price.is(10);
+        assert list.get(0).consecutive == Execution.ConsecutiveSameBuyer;
+        assert buffer.mills(1) == e2.mills;
+    }
+
+    @Test
+    void fresh() {
+        ExecutionBuffer buffer = ExecutionBuffer.of(I.signal(Execution.with.buy(1).price(10)));
+        assert buffer.get(0) != buffer.get(0);
+    }
+
+    @Test
+    void rescale() {
+        ExecutionBuffer buffer = ExecutionBuffer.of(I.signal(Execution.with.buy(1).price(10), Execution.with.buy(Num.of("0.001"))
+                .price(Num.of("10.25"))));
+
+        assert buffer.get(0).price.is(10);
+        assert buffer.get(0).size.is(1);
+        assert buffer.get(1).price.is(10.25);
+        assert buffer.get(1).size.is(0.001);
+    }
+
+    @Test
+    void error() {
+        try {
+            ExecutionBuffer.of(I.signalError(new IllegalStateException()));
+            assert false;
+        } catch (IllegalStateException e) {
+            // success
+        }
+    }
+}
\ No newline at end of file
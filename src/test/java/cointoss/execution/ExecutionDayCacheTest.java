@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import cointoss.Direction;
+import kiss.I;
+import kiss.Signal;
+
+class ExecutionDayCacheTest {
+
+    /** The decoded size of day. */
+    private static final long DAY = ExecutionBuffer.of(day(new AtomicInteger()).get()).memory();
+
+    /**
+     * Build the counting source.
+     * 
+     * @param counter
+     * @return
+     */
+    private static Supplier<Signal<Execution>> day(AtomicInteger counter) {
+        return () -> {
+            counter.incrementAndGet();
+            return I.signal(Executions.sequence(10, Direction.BUY, 1, 100));
+        };
+    }
+
+    @Test
+    void decodeOnce() {
+        ExecutionDayCache cache = new ExecutionDayCache(DAY * 10);
+        AtomicInteger counter = new AtomicInteger();
+
+        List<Execution> first = cache.read("day", day(counter)).toList();
+        List<Execution> second = cache.read("day", day(counter)).toList();
+        assert first.size() == 10;
+        assert second.size() == 10;
+        assert counter.get() == 1;
+        assert cache.hits() == 1;
+        assert cache.misses() == 1;
+        assert cache.memory() == DAY;
+
+        // each reader receives the isolated instance
+        assert first.get(0) != second.get(0);
+        assert first.get(0).price.is(second.get(0).price);
+    }
+
+    @Test
+    void lazy() {
+        ExecutionDayCache cache = new ExecutionDayCache(DAY * 10);
+        AtomicInteger counter = new AtomicInteger();
+
+        Signal<Execution> signal = cache.read("day", day(counter));
+        assert counter.get() == 0;
+        signal.toList();
+        assert counter.get() == 1;
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        ExecutionDayCache cache = new ExecutionDayCache(DAY * 2);
+        AtomicInteger counter = new AtomicInteger();
+
+        cache.read("1", day(counter)).toList();
+        cache.read("2", day(counter)).toList();
+        cache.read("1", day(counter)).toList(); // touch
+        cache.read("3", day(counter)).toList(); // evict 2
+        assert counter.get() == 3;
+        assert cache.evictions() == 1;
+        assert cache.memory() == DAY * 2;
+
+        cache.read("1", day(counter)).toList();
+        assert counter.get() == 3;
+        cache.read("2", day(counter)).toList();
+        assert counter.get() == 4;
+    }
+
+    @Test
+    void sharedIsDisabledByDefault() {
+        assert ExecutionDayCache.Shared.capacity() == 0;
+    }
+
+    @Test
+    void reserve() {
+        ExecutionDayCache cache = new ExecutionDayCache(0);
+        assert cache.reserve(2).capacity() == 2 * 1024 * 1024;
+        assert cache.reserve(1).capacity() == 2 * 1024 * 1024;
+        assert cache.reserve(3).capacity() == 3 * 1024 * 1024;
+    }
+
+    @Test
+    void disabled() {
+        ExecutionDayCache cache = new ExecutionDayCache(0);
+        AtomicInteger counter = new AtomicInteger();
+
+        cache.read("day", day(counter)).toList();
+        cache.read("day", day(counter)).toList();
+        assert counter.get() == 2;
+        assert cache.memory() == 0;
+    }
+
+    @Test
+    void shrink() {
+        ExecutionDayCache cache = new ExecutionDayCache(DAY * 3);
+        AtomicInteger counter = new AtomicInteger();
+
+        cache.read("1", day(counter)).toList();
+        cache.read("2", day(counter)).toList();
+        cache.read("3", day(counter)).toList();
+        assert cache.memory() == DAY * 3;
+
+        cache.capacity(DAY);
+        assert cache.memory() == DAY;
+        assert cache.evictions() == 2;
+    }
+
+    @Test
+    void errorIsNotCached() {
+        ExecutionDayCache cache = new ExecutionDayCache(DAY * 10);
+        AtomicInteger counter = new AtomicInteger();
+
+        List<Throwable> errors = new ArrayList();
+        cache.read("day", () -> I.signalError(new IllegalStateException())).to(e -> {
+        }, errors::add);
+        assert errors.size() == 1;
+        assert errors.get(0) instanceof IllegalStateException;
+
+        assert cache.read("day", day(counter)).toList().size() == 10;
+        assert counter.get() == 1;
+    }
+}
\ No newline at end of file
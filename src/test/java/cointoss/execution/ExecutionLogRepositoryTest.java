@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+import kiss.I;
+import kiss.Signal;
+
+class ExecutionLogRepositoryTest {
+
+    /**
+     * Build rows.
+     *
+     * @param size
+     * @return
+     */
+    private Signal<String[]> rows(int size) {
+        return I.signal(0).recurse(i -> i + 1).take(size).map(i -> new String[] {String.valueOf(i), i % 3 == 0 ? null : "value"});
+    }
+
+    @Test
+    void reverse() {
+        List<String[]> rows = ExecutionLogRepository.reverse(rows(10), 3).toList();
+        assert rows.size() == 10;
+
+        for (int i = 0; i < rows.size(); i++) {
+            int expected = 9 - i;
+            assert rows.get(i)[0].equals(String.valueOf(expected));
+            assert Objects.equals(rows.get(i)[1], expected % 3 == 0 ? null : "value");
+        }
+    }
+
+    @Test
+    void reverseWithinSingleChunk() {
+        List<String[]> rows = ExecutionLogRepository.reverse(rows(5), 100).toList();
+        assert rows.size() == 5;
+        assert rows.get(0)[0].equals("4");
+        assert rows.get(4)[0].equals("0");
+    }
+
+    @Test
+    void reverseJustChunkSize() {
+        List<String[]> rows = ExecutionLogRepository.reverse(rows(9), 3).toList();
+        assert rows.size() == 9;
+        assert rows.get(0)[0].equals("8");
+        assert rows.get(8)[0].equals("0");
+    }
+
+    @Test
+    void reverseEmpty() {
+        assert ExecutionLogRepository.reverse(I.signal(), 3).toList().isEmpty();
+    }
+
+    @Test
+    void reverseTake() {
+        List<String[]> rows = ExecutionLogRepository.reverse(rows(10), 3).take(4).toList();
+        assert rows.size() == 4;
+        assert rows.get(3)[0].equals("6");
+    }
+
+    @Test
+    void reverseError() {
+        List<String[]> rows = new ArrayList();
+        List<Throwable> errors = new ArrayList();
+
+        ExecutionLogRepository.reverse(rows(10).concat(I.signalError(new IllegalStateException())), 3).to(rows::add, errors::add);
+        assert rows.isEmpty();
+        assert errors.size() == 1;
+        assert errors.get(0) instanceof IllegalStateException;
+    }
+}
\ No newline at end of file
@@ -12,15 +12,23 @@ package cointoss.execution;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
 import antibug.CleanRoom;
+import cointoss.Currency;
+import cointoss.MarketSetting;
 import cointoss.util.Chrono;
 import cointoss.verify.VerifiableMarket;
+import cointoss.verify.VerifiableMarketService;
 import kiss.I;
+import kiss.Signal;
 import psychopath.Locator;
 
 class ExecutionLogTest {
@@ -68,6 +76,174 @@ class ExecutionLogTest {
         assertIterableEquals(original, restored);
     }
 
+    @Test
+    void catchUpConcurrentlyInIdOrder() {
+        SequentialService service = new SequentialService(LongStream.iterate(7, id -> id < 100000, id -> id + 7), LongStream.range(100000, 100010));
+
+        List<Execution> list = catchUp(service, 100009);
+        assert service.requests.stream().anyMatch(Request::concurrent);
+        assertIterableEquals(service.expected(), list.stream().map(e -> e.id).toList());
+    }
+
+    @Test
+    void catchUpConcurrentlyDiscardWindowsAfterTruncatedOne() {
+        SequentialService service = new SequentialService(LongStream
+                .concat(LongStream.rangeClosed(1, 1000).map(id -> id * 1000), LongStream.range(30000, 30300)), LongStream.of(1000000));
+
+        List<Execution> list = catchUp(service, 1000000);
+        assert service.requests.stream().anyMatch(r -> r.concurrent && r.size == SequentialService.Limit);
+        assertIterableEquals(service.expected(), list.stream().map(e -> e.id).toList());
+    }
+
+    @Test
+    void catchUpConcurrentlyDiscardNewestFirstTruncatedWindow() {
+        SequentialService service = new SequentialService(LongStream
+                .concat(LongStream.rangeClosed(1, 1000).map(id -> id * 1000), LongStream.range(30000, 30300)), LongStream.of(1000000), true);
+
+        List<Execution> list = catchUp(service, 1000000);
+        assert service.requests.stream().anyMatch(r -> r.concurrent && r.size == SequentialService.Limit);
+        assertIterableEquals(service.expected(), list.stream().map(e -> e.id).toList());
+    }
+
+    @Test
+    void catchUpWithLimitedRealtimeBuffer() {
+        SequentialService service = new SequentialService(LongStream
+                .concat(LongStream.range(1, 1000).map(id -> id * 1000), LongStream.range(1000000, 1200010)), LongStream.range(1000000, 1200010));
+
+        List<Execution> list = catchUp(service, 1200009);
+        assertIterableEquals(service.expected(), list.stream().map(e -> e.id).toList());
+
+        // the oldest realtime executions are dropped from buffer and retrieved by REST API
+        for (Execution e : list) {
+            assert e.delay == (e.id < 1000010 ? SequentialService.Rest : SequentialService.Realtime);
+        }
+    }
+
+    /**
+     * Read executions from the network until the specified id.
+     * 
+     * @param service A target service.
+     * @param lastId The last id to read.
+     * @return The read executions.
+     */
+    private List<Execution> catchUp(SequentialService service, long lastId) {
+        return new ExecutionLog(service, Locator.directory(room.locateRadom())).fromId(0).takeUntil(e -> e.id == lastId).toList();
+    }
+
+    /**
+     * The service which responds the sequential executions in the requested id range like the
+     * actual exchanges. The truncated response holds the oldest executions in range, or the newest
+     * ones (i.e. bitFlyer).
+     */
+    private static class SequentialService extends VerifiableMarketService {
+
+        /** The maximum number of executions per response. */
+        private static final int Limit = 100;
+
+        /** The delay of the execution which is retrieved by REST API. */
+        private static final int Rest = 1;
+
+        /** The delay of the execution which is retrieved by realtime API. */
+        private static final int Realtime = 2;
+
+        /** The execution ids on REST API. */
+        private final long[] ids;
+
+        /** The execution ids on realtime API. */
+        private final long[] realtimes;
+
+        /** The truncated response holds the newest executions. */
+        private final boolean newestFirst;
+
+        /** The request history. */
+        private final List<Request> requests = new CopyOnWriteArrayList();
+
+        /**
+         * @param ids The execution ids on REST API.
+         * @param realtimes The execution ids on realtime API.
+         */
+        private SequentialService(LongStream ids, LongStream realtimes) {
+            this(ids, realtimes, false);
+        }
+
+        /**
+         * @param ids The execution ids on REST API.
+         * @param realtimes The execution ids on realtime API.
+         * @param newestFirst The truncated response holds the newest executions.
+         */
+        private SequentialService(LongStream ids, LongStream realtimes, boolean newestFirst) {
+            super(MarketSetting.with.derivative()
+                    .target(Currency.UNKNOWN.minimumSize(0.0001))
+                    .base(Currency.UNKNOWN.minimumSize(0.01))
+                    .acquirableExecutionSize(Limit)
+                    .acquirableExecutionConcurrency(4));
+            this.newestFirst = newestFirst;
+            this.realtimes = realtimes.toArray();
+            this.ids = LongStream.concat(ids, LongStream.of(this.realtimes)).sorted().distinct().toArray();
+        }
+
+        /**
+         * Compute the expected ids.
+         * 
+         * @return
+         */
+        private List<Long> expected() {
+            return LongStream.of(ids).filter(id -> id <= realtimes[realtimes.length - 1]).boxed().toList();
+        }
+
+        /**
+         * Create the execution.
+         * 
+         * @param id
+         * @param delay
+         * @return
+         */
+        private Execution execution(long id, int delay) {
+            return Execution.with.buy(1).price(10).id(id).date(Chrono.utcByMills(1609459200000L + id)).delay(delay);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Signal<Execution> executions(long startId, long endId) {
+            int from = Arrays.binarySearch(ids, startId + 1);
+            int to = Arrays.binarySearch(ids, endId);
+            from = from < 0 ? -from - 1 : from;
+            to = to < 0 ? -to - 1 : to;
+
+            // truncate the response
+            if (Limit < to - from) {
+                if (newestFirst) {
+                    from = to - Limit;
+                } else {
+                    to = from + Limit;
+                }
+            }
+
+            List<Execution> list = new ArrayList();
+            for (int index = from; index < to; index++) {
+                list.add(execution(ids[index], Rest));
+            }
+            requests.add(new Request(startId, endId, list.size(), Thread.currentThread().getName().startsWith("ExecutionLog")));
+            return I.signal(list);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Signal<Execution> connectExecutionRealtimely() {
+            return I.signal(LongStream.of(realtimes).mapToObj(id -> execution(id, Realtime)).toList());
+        }
+    }
+
+    /**
+     * The request history.
+     */
+    private record Request(long start, long end, int size, boolean concurrent) {
+    }
+
     /**
      * Create dummy execution log.
      * 
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import antibug.profiler.Benchmark;
+import cointoss.Market;
+
+public class ExecutionLoggerBenchmark {
+
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark();
+        List<Execution> executions = Executions.synthetic(100000, 1);
+
+        for (ExecutionLogger logger : new ExecutionLogger[] {new ExecutionLogger(), new ExecutionDeltaLogger()}) {
+            String name = logger.getClass().getSimpleName();
+            List<String[]> encoded = encode(logger, executions);
+
+            benchmark.measure(name + "#encode", () -> {
+                return encode(logger, executions);
+            });
+
+            benchmark.measure(name + "#decode", () -> {
+                Execution previous = Market.BASE;
+                for (String[] values : encoded) {
+                    previous = logger.decode(previous, values);
+                }
+                return previous;
+            });
+        }
+
+        benchmark.perform();
+    }
+
+    /**
+     * Encode all executions.
+     * 
+     * @param logger
+     * @param executions
+     * @return
+     */
+    private static List<String[]> encode(ExecutionLogger logger, List<Execution> executions) {
+        List<String[]> encoded = new ArrayList(executions.size());
+        Execution previous = Market.BASE;
+        for (Execution execution : executions) {
+            encoded.add(logger.encode(previous, execution));
+            previous = execution;
+        }
+        return encoded;
+    }
+}
\ No newline at end of file
@@ -9,10 +9,13 @@
  */
 package cointoss.execution;
 
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import cointoss.Direction;
+import cointoss.util.Chrono;
 import cointoss.util.arithmetic.Num;
 
 public class Executions {
@@ -51,4 +54,29 @@ public class Executions {
         return list;
     }
 
+    /**
+     * Create the repeatable synthetic stream of {@link Execution}s. The price follows the random
+     * walk by 0.5 and the time advances by 0-999 ms.
+     * 
+     * @param count The number of executions.
+     * @param seed The random seed.
+     * @return
+     */
+    public static List<Execution> synthetic(int count, long seed) {
+        Random random = new Random(seed);
+        List<Execution> list = new ArrayList(count);
+        ZonedDateTime date = Chrono.utc(2020, 1, 1);
+        double price = 10000;
+
+        for (int i = 0; i < count; i++) {
+            price = Math.max(1, price + (random.nextInt(5) - 2) * 0.5);
+            date = date.plusNanos(random.nextInt(1000) * 1000000L);
+
+            list.add(Execution.with.direction(random.nextBoolean() ? Direction.BUY : Direction.SELL, (random.nextInt(100) + 1) / 100d)
+                    .price(price)
+                    .id(i + 1)
+                    .date(date));
+        }
+        return list;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import kiss.I;
+import kiss.Signal;
+
+class ParallelReaderTest {
+
+    /**
+     * Build the source which emits the specified range of numbers slowly.
+     *
+     * @param source
+     * @return
+     */
+    private Signal<Integer> read(int source) {
+        return I.signal(0).recurse(i -> i + 1).take(ParallelReader.CHUNK_SIZE * 3 + 7).map(i -> {
+            if (i % 1000 == 0) Thread.sleep((7 - source) % 3);
+            return source * 100000 + i;
+        });
+    }
+
+    @Test
+    void ordered() {
+        List<Integer> items = ParallelReader.read(I.signal(0, 1, 2, 3, 4, 5, 6), this::read, 4).toList();
+        List<Integer> expected = I.signal(0, 1, 2, 3, 4, 5, 6).concatMap(this::read).toList();
+
+        assert items.equals(expected);
+    }
+
+    @Test
+    void sequential() {
+        List<Integer> items = ParallelReader.read(I.signal(0, 1, 2), this::read, 1).toList();
+        List<Integer> expected = I.signal(0, 1, 2).concatMap(this::read).toList();
+
+        assert items.equals(expected);
+    }
+
+    @Test
+    void empty() {
+        assert ParallelReader.read(I.signal(), this::read, 4).toList().isEmpty();
+    }
+
+    @Test
+    void error() {
+        List<Integer> items = new ArrayList();
+        List<Throwable> errors = new ArrayList();
+
+        ParallelReader.<Integer, Integer> read(I.signal(0, 1, 2), i -> i == 1 ? I.signalError(new IllegalStateException()) : I.signal(i), 3)
+                .to(items::add, errors::add);
+
+        assert items.equals(List.of(0));
+        assert errors.size() == 1;
+        assert errors.get(0) instanceof IllegalStateException;
+    }
+
+    @Test
+    void dispose() {
+        List<Integer> items = ParallelReader.read(I.signal(0, 1, 2, 3), this::read, 2).take(10).toList();
+
+        assert items.size() == 10;
+        assert items.get(0) == 0;
+        assert items.get(9) == 9;
+    }
+}
\ No newline at end of file
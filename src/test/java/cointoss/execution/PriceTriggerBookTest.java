@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import cointoss.util.arithmetic.Num;
+import kiss.Disposable;
+import kiss.Variable;
+
+class PriceTriggerBookTest {
+
+    private final PriceTriggerBook book = new PriceTriggerBook();
+
+    private void execute(double price) {
+        book.update(Execution.with.buy(1).price(price));
+    }
+
+    @Test
+    void above() {
+        List<Num> fired = new ArrayList();
+        book.above(Num.of(10)).to(e -> fired.add(e.price));
+        assert book.size() == 1;
+
+        execute(9);
+        assert fired.isEmpty();
+        execute(10);
+        assert fired.size() == 1;
+        assert fired.get(0).is(10);
+        assert book.size() == 0;
+
+        execute(11);
+        assert fired.size() == 1;
+    }
+
+    @Test
+    void below() {
+        List<Num> fired = new ArrayList();
+        book.below(Num.of(10)).to(e -> fired.add(e.price));
+
+        execute(11);
+        assert fired.isEmpty();
+        execute(9);
+        assert fired.size() == 1;
+        assert fired.get(0).is(9);
+        assert book.size() == 0;
+    }
+
+    @Test
+    void popOnlyCrossed() {
+        List<Integer> fired = new ArrayList();
+        for (int i = 1; i <= 100; i++) {
+            int price = i;
+            book.above(Num.of(price)).to(e -> fired.add(price));
+            book.below(Num.of(-price)).to(e -> fired.add(-price));
+        }
+        assert book.size() == 200;
+
+        execute(50);
+        assert fired.size() == 50;
+        for (int i = 1; i <= 50; i++) {
+            assert fired.contains(i);
+        }
+
+        execute(-20);
+        assert fired.size() == 70;
+        assert fired.contains(-20);
+        assert fired.contains(-1);
+        assert !fired.contains(-21);
+        assert book.size() == 130;
+    }
+
+    @Test
+    void complete() {
+        List<String> events = new ArrayList();
+        book.above(Num.of(10)).to(e -> events.add("fire"), e -> events.add("error"), () -> events.add("complete"));
+
+        execute(10);
+        assert events.equals(List.of("fire", "complete"));
+    }
+
+    @Test
+    void dispose() {
+        List<Num> fired = new ArrayList();
+        Disposable disposer = book.above(Num.of(10)).to(e -> fired.add(e.price));
+        book.above(Num.of(12)).to(e -> fired.add(e.price));
+        assert book.size() == 2;
+
+        disposer.dispose();
+        assert book.size() == 1;
+
+        execute(15);
+        assert fired.size() == 1;
+        assert fired.get(0).is(15);
+    }
+
+    @Test
+    void variable() {
+        List<Num> fired = new ArrayList();
+        Variable<Num> price = Variable.of(Num.of(10));
+        book.below(price).to(e -> fired.add(e.price));
+
+        // trailing
+        price.set(Num.of(12));
+        execute(12.5);
+        assert fired.isEmpty();
+        execute(11);
+        assert fired.size() == 1;
+
+        // fired trigger ignores the later change
+        price.set(Num.of(20));
+        assert book.size() == 0;
+    }
+
+    @Test
+    void variableMovesOrder() {
+        List<String> fired = new ArrayList();
+        Variable<Num> first = Variable.of(Num.of(10));
+        Variable<Num> second = Variable.of(Num.of(20));
+        book.above(first).to(e -> fired.add("first"));
+        book.above(second).to(e -> fired.add("second"));
+
+        first.set(Num.of(30));
+        execute(25);
+        assert fired.equals(List.of("second"));
+        execute(30);
+        assert fired.equals(List.of("second", "first"));
+    }
+
+    @Test
+    void armInObserver() {
+        List<Num> fired = new ArrayList();
+        book.above(Num.of(10)).to(e -> {
+            fired.add(e.price);
+            book.above(Num.of(20)).to(x -> fired.add(x.price));
+        });
+
+        execute(25);
+        assert fired.size() == 1;
+        execute(25);
+        assert fired.size() == 2;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import antibug.profiler.Benchmark;
+import cointoss.Currency;
+import cointoss.Direction;
+import cointoss.MarketSetting;
+import cointoss.util.arithmetic.Num;
+
+public class OrderBookBenchmark {
+
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark();
+        MarketSetting setting = MarketSetting.with.derivative()
+                .target(Currency.UNKNOWN.minimumSize(0.0001))
+                .base(Currency.UNKNOWN.minimumSize(0.01));
+
+        // build the repeatable synthetic board changes around the moving center price
+        Random random = new Random(1);
+        List<List<OrderBookPage>> changes = new ArrayList();
+        double center = 10000;
+        for (int i = 0; i < 10000; i++) {
+            center = Math.max(100, center + (random.nextInt(5) - 2) * 0.5);
+
+            List<OrderBookPage> pages = new ArrayList();
+            for (int j = 0; j < 20; j++) {
+                Num price = Num.of(center + random.nextInt(200) * 0.5);
+                float size = random.nextInt(5) == 0 ? 0 : (random.nextInt(1000) + 1) / 100f;
+                pages.add(new OrderBookPage(price, size));
+            }
+            changes.add(pages);
+        }
+
+        benchmark.measure("OrderBook#update", () -> {
+            OrderBook book = new OrderBook(setting, Direction.SELL);
+            for (List<OrderBookPage> pages : changes) {
+                book.update(pages);
+            }
+            return book;
+        });
+
+        OrderBook book = new OrderBook(setting, Direction.SELL);
+        for (List<OrderBookPage> pages : changes) {
+            book.update(pages);
+        }
+
+        benchmark.measure("OrderBook#predictTakingPrice", () -> {
+            return book.predictTakingPrice(Num.of(25));
+        });
+
+        benchmark.perform();
+    }
+}
\ No newline at end of file
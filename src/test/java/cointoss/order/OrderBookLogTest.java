@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import antibug.CleanRoom;
+import cointoss.util.arithmetic.Num;
+import cointoss.verify.VerifiableMarketService;
+import kiss.Disposable;
+import psychopath.Locator;
+
+class OrderBookLogTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000;
+
+    @RegisterExtension
+    CleanRoom room = new CleanRoom();
+
+    private OrderBookLog createLog() {
+        return new OrderBookLog(new VerifiableMarketService(), Locator.directory(room.locateRadom()), 1000);
+    }
+
+    private OrderBookPageChanges changes(double bid, float bidSize, double ask, float askSize) {
+        OrderBookPageChanges changes = new OrderBookPageChanges();
+        changes.bids.add(new OrderBookPage(Num.of(bid), bidSize));
+        changes.asks.add(new OrderBookPage(Num.of(ask), askSize));
+        return changes;
+    }
+
+    private List<OrderBookPageChanges> replay(OrderBookLog log, long start, long end, long until) {
+        List<OrderBookPageChanges> list = new ArrayList();
+        log.replay(start, end).until(until, list::add);
+        return list;
+    }
+
+    @Test
+    void storeAndReplay() {
+        OrderBookLog log = createLog();
+        log.store(changes(100, 1, 101, 2), 10);
+        log.store(changes(99.5, 3, 101.25, 4), 20);
+        log.flush();
+
+        List<OrderBookPageChanges> list = replay(log, 0, DAY, DAY);
+        assert list.size() == 3; // snapshot + 2 changes
+        assert list.get(0).bids.isEmpty();
+        assert list.get(1).bids.get(0).price.is(100);
+        assert list.get(1).asks.get(0).size == 2f;
+        assert list.get(2).bids.get(0).price.is(99.5);
+        assert list.get(2).asks.get(0).price.is(101.25);
+        assert list.get(2).asks.get(0).size == 4f;
+    }
+
+    @Test
+    void recordOnlyOnce() {
+        VerifiableMarketService service = new VerifiableMarketService();
+        OrderBookLog log = new OrderBookLog(service, Locator.directory(room.locateRadom()), 1000);
+        Disposable recording = log.record();
+        assert log.record() == recording;
+
+        service.emulateOrderBook(changes(100, 1, 101, 1));
+        recording.dispose();
+
+        List<OrderBookPageChanges> list = new ArrayList();
+        log.replay(service.now(), service.now().plusDays(1)).until(Long.MAX_VALUE, list::add);
+        assert list.size() == 2; // snapshot + 1 change
+
+        // restart after stopping
+        assert log.record() != recording;
+    }
+
+    @Test
+    void replayUntil() {
+        OrderBookLog log = createLog();
+        log.store(changes(100, 1, 101, 1), 10);
+        log.store(changes(100, 2, 101, 2), 20);
+        log.store(changes(100, 3, 101, 3), 30);
+        log.flush();
+
+        List<OrderBookPageChanges> list = new ArrayList();
+        OrderBookLog.Replay replay = log.replay(0, DAY);
+        replay.until(5, list::add);
+        assert list.isEmpty();
+        replay.until(20, list::add);
+        assert list.size() == 3;
+        replay.until(100, list::add);
+        assert list.size() == 4;
+        assert list.get(3).bids.get(0).size == 3f;
+    }
+
+    @Test
+    void seekBySnapshot() {
+        OrderBookLog log = createLog();
+        log.store(changes(100, 1, 101, 1), 0);
+        log.store(changes(99, 2, 102, 2), 500);
+        log.store(changes(100, 0, 101, 5), 1500); // new chunk
+        log.store(changes(98, 1, 103, 1), 2000);
+        log.flush();
+
+        List<OrderBookPageChanges> list = replay(log, 1600, DAY, 1700);
+        assert list.size() == 2; // snapshot + change at 1500
+
+        OrderBookPageChanges snapshot = list.get(0);
+        assert snapshot.clearInside;
+        assert snapshot.bids.size() == 2;
+        assert snapshot.bids.get(0).price.is(100);
+        assert snapshot.bids.get(1).price.is(99);
+        assert snapshot.asks.size() == 2;
+        assert snapshot.asks.get(0).price.is(101);
+        assert snapshot.asks.get(1).price.is(102);
+    }
+
+    @Test
+    void splitByDay() {
+        OrderBookLog log = createLog();
+        log.store(changes(100, 1, 101, 1), DAY - 10);
+        log.store(changes(100, 2, 101, 2), DAY + 10);
+        log.flush();
+
+        assert replay(log, 0, DAY, Long.MAX_VALUE).size() == 2;
+        assert replay(log, DAY, DAY * 2, Long.MAX_VALUE).size() == 2;
+        assert replay(log, 0, DAY * 2, Long.MAX_VALUE).size() == 4;
+    }
+
+    @Test
+    void end() {
+        OrderBookLog log = createLog();
+        log.store(changes(100, 1, 101, 1), 10);
+        log.store(changes(100, 2, 101, 2), 20);
+        log.flush();
+
+        assert replay(log, 0, 20, Long.MAX_VALUE).size() == 2;
+    }
+
+    @Test
+    void empty() {
+        assert replay(createLog(), 0, DAY, Long.MAX_VALUE).isEmpty();
+    }
+}
\ No newline at end of file
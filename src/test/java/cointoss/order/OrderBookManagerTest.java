@@ -10,9 +10,11 @@
 package cointoss.order;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
+import cointoss.order.OrderBookManager.Batch;
 import cointoss.util.arithmetic.Num;
 import cointoss.verify.VerifiableMarketService;
 
@@ -100,6 +102,87 @@ class OrderBookManagerTest {
         assert manager.findLargestOrder(10, 20).is(12, 8);
     }
 
+    @Test
+    void publishForEachChanges() {
+        OrderBookManager manager = new OrderBookManager(new VerifiableMarketService());
+        List<Batch> batches = manager.batch.toList();
+        List<Object> asks = manager.shorts.update.toList();
+        List<Object> bids = manager.longs.update.toList();
+
+        manager.receive(changes(page(11, 1), page(10, 1)));
+        manager.receive(changes(page(12, 2), List.of()));
+
+        assert batches.size() == 2;
+        assert batches.get(0).sequence == 1;
+        assert batches.get(0).changes == 1;
+        assert batches.get(1).sequence == 2;
+        assert batches.get(1).ask.is(12, 2);
+        assert batches.get(1).bid.is(10, 1);
+        assert asks.size() == 2;
+        assert bids.size() == 1;
+    }
+
+    @Test
+    void conflate() {
+        OrderBookManager manager = new OrderBookManager(new VerifiableMarketService()).conflate(1, TimeUnit.DAYS);
+        List<Batch> batches = manager.batch.toList();
+        List<Object> asks = manager.shorts.update.toList();
+        List<OrderBookPage> best = manager.shorts.best.observe().toList();
+
+        manager.receive(changes(page(15, 1), page(10, 1)));
+        manager.receive(changes(page(14, 1), page(11, 1)));
+        manager.receive(changes(page(13, 1), page(12, 1)));
+        assert batches.isEmpty();
+        assert asks.isEmpty();
+        assert best.isEmpty();
+
+        manager.flush();
+        assert batches.size() == 1;
+        assert batches.get(0).sequence == 1;
+        assert batches.get(0).changes == 3;
+        assert batches.get(0).ask.is(13, 1);
+        assert batches.get(0).bid.is(12, 1);
+        assert asks.size() == 1;
+        assert best.size() == 1;
+
+        // no changes
+        manager.flush();
+        assert batches.size() == 1;
+    }
+
+    @Test
+    void stopConflation() {
+        OrderBookManager manager = new OrderBookManager(new VerifiableMarketService()).conflate(1, TimeUnit.DAYS);
+        List<Batch> batches = manager.batch.toList();
+
+        manager.receive(changes(page(15, 1), page(10, 1)));
+        manager.receive(changes(page(14, 1), page(11, 1)));
+        assert batches.isEmpty();
+
+        // pending changes are flushed
+        manager.conflate(0, TimeUnit.DAYS);
+        assert batches.size() == 1;
+        assert batches.get(0).changes == 2;
+
+        manager.receive(changes(page(13, 1), page(12, 1)));
+        assert batches.size() == 2;
+        assert batches.get(1).sequence == 2;
+    }
+
+    /**
+     * Build changes.
+     * 
+     * @param asks
+     * @param bids
+     * @return
+     */
+    private OrderBookPageChanges changes(List<OrderBookPage> asks, List<OrderBookPage> bids) {
+        OrderBookPageChanges changes = new OrderBookPageChanges();
+        changes.asks.addAll(asks);
+        changes.bids.addAll(bids);
+        return changes;
+    }
+
     /**
      * Build order.
      * 
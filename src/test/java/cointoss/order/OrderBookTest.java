@@ -373,6 +373,59 @@ class OrderBookTest {
         assert book.predictTakingPrice(6).is(15);
     }
 
+    @Test
+    void finerPrice() {
+        OrderBook book = new OrderBook(setting, Direction.BUY);
+        Collection<OrderBookPage> list = book.groupBy(Num.ONE);
+        book.update(unit(1000, 1));
+        book.update(unit(1001, 1));
+
+        // rescale price tick
+        book.update(Collections.singletonList(new OrderBookPage(Num.of("1000.5"), 2)));
+        assert book.groupBy(Num.ONE) == list;
+        assert list.size() == 2;
+        assertList(list, 0, 1001, 1, 1);
+        assertList(list, 1, 1000, 3, 4);
+
+        Collection<OrderBookPage> finer = book.groupBy(Num.of("0.5"));
+        assert finer.size() == 3;
+        assert at(1, finer).price.is(1000.5);
+        assert at(1, finer).size == 2;
+
+        // remove by the finer price
+        book.update(Collections.singletonList(new OrderBookPage(Num.of("1000.5"), 0)));
+        assert finer.size() == 2;
+        assert book.computeBestPrice(Num.of(1001), Num.of(2), Num.of("0.5")).is(1000.5);
+    }
+
+    @Test
+    void findLargestOrder() {
+        OrderBook book = new OrderBook(setting, Direction.SELL);
+        book.update(unit(1000, 1));
+        book.update(unit(1005, 4));
+        book.update(unit(1012, 2));
+        book.update(unit(1020, 8));
+        book.groupBy(Num.TEN);
+
+        assert book.findLargestOrder(Num.of(1000), Num.of(1015)).price.is(1000);
+        assert book.findLargestOrder(Num.of(1000), Num.of(1015)).size == 5;
+        assert book.findLargestOrder(Num.of(1000), Num.of(1030)).price.is(1020);
+        assert book.findLargestOrder(Num.of(1100), Num.of(1200)).size == 0;
+    }
+
+    @Test
+    void headAndTail() {
+        OrderBook book = new OrderBook(setting, Direction.BUY);
+        book.update(unit(1000, 1));
+        book.update(unit(1001, 1));
+        book.update(unit(1002, 1));
+        book.update(unit(1003, 1));
+        book.groupBy(Num.ONE);
+
+        assert book.headMap(Num.of(1002)).size() == 2;
+        assert book.tailMap(Num.of(1002)).size() == 3;
+    }
+
     /**
      * Helper method to assert.
      * 
@@ -273,4 +273,104 @@ class DoubleIndicatorTest extends TickerTestSupport {
         assert indicator.valueAt(tick2) == 15d;
         assert indicator.valueAt(ticker.ticks.at(3 * sec)) == 20d;
     }
+
+    @Test
+    void emaOnLatest() {
+        Ticker ticker = ticker(Span.Minute5, 1, 2, 3);
+        long sec = ticker.span.seconds;
+        Tick tick2 = ticker.ticks.at(2 * sec);
+
+        DoubleIndicator indicator = DoubleIndicator.build(ticker, tick -> tick.closePrice().doubleValue()).ema(2);
+        double prev = indicator.valueAt(ticker.ticks.at(1 * sec));
+        assert indicator.valueAt(tick2) == (3 - prev) * (2.0 / 3) + prev;
+
+        // update latest price
+        manager.update(Execution.with.buy(1).price(10));
+        assert indicator.valueAt(tick2) == (10 - prev) * (2.0 / 3) + prev;
+
+        // step into next tick
+        manager.update(Execution.with.buy(1).price(20).date(tick2.date().plusSeconds(Span.Minute5.seconds)));
+        double closed = (10 - prev) * (2.0 / 3) + prev;
+        assert indicator.valueAt(tick2) == closed;
+        assert indicator.valueAt(ticker.ticks.at(3 * sec)) == (20 - closed) * (2.0 / 3) + closed;
+    }
+
+    @Test
+    void movingAverageOnLongSeries() {
+        double[] values = new double[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i * 7) % 13 + i * 0.25;
+        }
+
+        Ticker ticker = ticker(Span.Minute5, values);
+        long sec = ticker.span.seconds;
+        DoubleIndicator sma = DoubleIndicator.build(ticker, tick -> tick.openPrice.doubleValue()).sma(7);
+        DoubleIndicator wma = DoubleIndicator.build(ticker, tick -> tick.openPrice.doubleValue()).wma(7);
+
+        for (int i = 0; i < values.length; i++) {
+            int size = Math.min(i + 1, 7);
+            double sum = 0;
+            double weighted = 0;
+            for (int j = 0; j < size; j++) {
+                sum += values[i - j];
+                weighted += values[i - j] * (size - j);
+            }
+
+            Tick tick = ticker.ticks.at(i * sec);
+            assert Math.abs(sma.valueAt(tick) - sum / size) < 1e-9;
+            assert Math.abs(wma.valueAt(tick) - weighted / (size * (size + 1) / 2)) < 1e-9;
+        }
+    }
+
+    @Test
+    void movingAverageFromLatest() {
+        double[] values = new double[600];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i * 7) % 13 + i * 0.25;
+        }
+
+        Ticker ticker = ticker(Span.Minute5, values);
+        long sec = ticker.span.seconds;
+        DoubleIndicator sma = DoubleIndicator.build(ticker, tick -> tick.openPrice.doubleValue()).sma(7);
+        DoubleIndicator ema = DoubleIndicator.build(ticker, tick -> tick.openPrice.doubleValue()).ema(7);
+
+        // request from the latest to the past
+        for (int i = values.length - 2; 0 <= i; i--) {
+            int size = Math.min(i + 1, 7);
+            double sum = 0;
+            for (int j = 0; j < size; j++) {
+                sum += values[i - j];
+            }
+            assert Math.abs(sma.valueAt(ticker.ticks.at(i * sec)) - sum / size) < 1e-9;
+        }
+
+        // the seed is forgotten
+        double expected = values[0];
+        for (int i = 1; i < values.length - 1; i++) {
+            expected = (values[i] - expected) * (2.0 / 8) + expected;
+        }
+        assert Math.abs(ema.valueAt(ticker.ticks.at((values.length - 2) * sec)) - expected) < 1e-9;
+    }
+
+    @Test
+    void movingAverageBeyondCapacity() {
+        double[] values = new double[TickColumns.CHUNK_SIZE * 3];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i * 7) % 13 + i * 0.25;
+        }
+
+        Ticker ticker = ticker(Span.Minute5, values);
+        long sec = ticker.span.seconds;
+        DoubleIndicator sma = DoubleIndicator.build(ticker, tick -> tick.openPrice.doubleValue()).sma(7);
+
+        // the state is seeded again on the way, but the value is still exact
+        for (int i = 0; i < values.length - 1; i++) {
+            int size = Math.min(i + 1, 7);
+            double sum = 0;
+            for (int j = 0; j < size; j++) {
+                sum += values[i - j];
+            }
+            assert Math.abs(sma.valueAt(ticker.ticks.at(i * sec)) - sum / size) < 1e-9;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.ticker;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import cointoss.execution.Execution;
+
+class TickColumnsTest extends TickerTestSupport {
+
+    @Test
+    void storeClosedTick() {
+        TickColumns columns = manager.on(Span.Minute1).columns;
+        assert columns.isEmpty();
+
+        manager.update(Execution.with.buy(1).price(10));
+        manager.update(Execution.with.buy(2).price(15));
+        manager.update(Execution.with.sell(1).price(5));
+        manager.update(Execution.with.sell(1).price(12));
+        assert columns.isEmpty();
+
+        manager.update(Execution.with.buy(1).price(20).date(afterMinute(1)));
+        assert columns.size() == 1;
+        assert columns.openTime(0) == manager.on(Span.Minute1).ticks.first().openTime;
+        assert columns.openPrice(0) == 10;
+        assert columns.highPrice(0) == 15;
+        assert columns.lowPrice(0) == 5;
+        assert columns.closePrice(0) == 12;
+        assert columns.longVolume(0) == 3;
+        assert columns.shortVolume(0) == 2;
+        assert columns.volume(0) == 5;
+    }
+
+    @Test
+    void complementBlankTick() {
+        TickColumns columns = manager.on(Span.Minute1).columns;
+
+        manager.update(Execution.with.buy(1).price(10));
+        manager.update(Execution.with.buy(1).price(20).date(afterMinute(3)));
+        assert columns.size() == 3;
+        assert columns.closePrice(1) == 10;
+        assert columns.volume(1) == 0;
+        assert columns.indexOf(columns.firstTime() + 60 * 2 + 30) == 2;
+        assert columns.indexOf(columns.lastTime() + 60) == -1;
+    }
+
+    @Test
+    void view() {
+        TickColumns columns = manager.on(Span.Minute1).columns;
+
+        manager.update(Execution.with.buy(1).price(10));
+        manager.update(Execution.with.buy(1).price(20));
+        manager.update(Execution.with.buy(1).price(30).date(afterMinute(1)));
+
+        Tick tick = columns.view(0);
+        assert tick.openTime == columns.firstTime();
+        assert tick.openPrice().is(10);
+        assert tick.closePrice().is(20);
+        assert tick.highPrice().is(20);
+        assert tick.lowPrice().is(10);
+        assert tick.volume() == 2;
+    }
+
+    @Test
+    void viewKeepsExactPrice() {
+        TickColumns columns = manager.on(Span.Minute1).columns;
+
+        manager.update(Execution.with.buy(1).price(10));
+        manager.update(Execution.with.buy(1).price(11).date(afterMinute(1)));
+        manager.update(Execution.with.buy(1).price(10.7).date(afterMinute(2)));
+        manager.update(Execution.with.buy(1).price(10.03).date(afterMinute(3)));
+        manager.update(Execution.with.buy(1).price(12).date(afterMinute(4)));
+
+        // the scale is expanded by the precise price
+        assert columns.view(0).openPrice().is(10);
+        assert columns.view(1).openPrice().is(11);
+        assert columns.view(2).openPrice().is(10.7);
+        assert columns.view(3).openPrice().is(10.03);
+        assert columns.openPrice(2) == 10.7;
+        assert columns.openPrice(3) == 10.03;
+    }
+
+    @Test
+    void query() {
+        TickColumns columns = manager.on(Span.Minute1).columns;
+
+        for (int i = 0; i < 10; i++) {
+            manager.update(Execution.with.buy(1).price(i + 1).date(afterMinute(i)));
+        }
+        assert columns.size() == 9;
+
+        long first = columns.firstTime();
+        List<Tick> ticks = columns.query(first + 60 * 2, first + 60 * 5).toList();
+        assert ticks.size() == 3;
+        assert ticks.get(0).openPrice().is(3);
+        assert ticks.get(2).openPrice().is(5);
+
+        assert columns.query(first + 1, first + 61).toList().size() == 1;
+        assert columns.query(first - 600, first + 6000).toList().size() == 9;
+    }
+
+    @Test
+    void evictedTickIsRestoredFromColumns() {
+        Ticker ticker = manager.on(Span.Minute1);
+        int ticks = (int) (Span.Minute1.segmentSeconds / Span.Minute1.seconds) * (Span.Minute1.segmentSize + 2);
+
+        for (int i = 0; i < ticks; i++) {
+            manager.update(Execution.with.buy(1).price(i + 1).date(afterMinute(i)));
+        }
+
+        Tick first = ticker.ticks.first();
+        assert first != null;
+        assert first.openTime == ticker.columns.firstTime();
+        assert first.openPrice().is(1);
+        assert ticker.ticks.at(first.openTime + 60 * 10).openPrice().is(11);
+    }
+}
\ No newline at end of file
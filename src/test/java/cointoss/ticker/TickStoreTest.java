@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.ticker;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import antibug.CleanRoom;
+import cointoss.Direction;
+import cointoss.execution.Execution;
+import cointoss.util.Chrono;
+import cointoss.util.arithmetic.Num;
+import cointoss.util.feather.FeatherStore;
+import cointoss.verify.VerifiableMarketService;
+import kiss.I;
+import kiss.Signal;
+import psychopath.Locator;
+
+class TickStoreTest {
+
+    private static final LocalDate Day1 = LocalDate.of(2021, 1, 4);
+
+    private static final LocalDate Day2 = Day1.plusDays(1);
+
+    private static final LocalDate Day3 = Day1.plusDays(2);
+
+    private static final LocalDate Day4 = Day1.plusDays(3);
+
+    @RegisterExtension
+    CleanRoom room = new CleanRoom();
+
+    /** The executions at every 7 minutes. */
+    private final List<Execution> executions = new ArrayList();
+
+    TickStoreTest() {
+        ZonedDateTime start = Chrono.utc(Day1);
+        for (int i = 0; i < 3 * 24 * 60 / 7; i++) {
+            executions.add(Execution.with.direction(i % 3 == 0 ? Direction.SELL : Direction.BUY, Num.of(0.25 * (i % 4 + 1)))
+                    .price(100 + (i * 37) % 41 * 0.5)
+                    .date(start.plusMinutes(i * 7))
+                    .delay(i % 13 == 0 ? Execution.DelayHuge : 1));
+        }
+    }
+
+    private TickStore createStore() {
+        return new TickStore(new VerifiableMarketService(), Locator.directory(room.locateRadom()));
+    }
+
+    private Signal<Execution> at(LocalDate day) {
+        return I.signal(executions).take(e -> e.date.toLocalDate().equals(day));
+    }
+
+    private Signal<Execution> from(LocalDate day) {
+        return I.signal(executions).take(e -> !e.date.toLocalDate().isBefore(day));
+    }
+
+    private List<String> ticks(FeatherStore<Tick> ticks, LocalDate start, LocalDate end) {
+        return ticks.query(Chrono.utc(start).toEpochSecond(), Chrono.utc(end).toEpochSecond() - 1).map(Tick::toString).toList();
+    }
+
+    @Test
+    void build() {
+        TickStore store = createStore();
+        assert store.time() == -1;
+
+        store.build(this::at, Day1, Day3);
+        assert store.time() == Chrono.utc(Day3).toEpochSecond();
+
+        TickerManager manager = new TickerManager();
+        manager.tickers().to(ticker -> ticker.ticks.disableMemorySaving());
+        I.signal(executions).take(e -> e.date.toLocalDate().isBefore(Day3)).to(manager::update);
+
+        assert store.on(Span.Day1).at(Chrono.utc(Day1).toEpochSecond()) != null;
+        assert store.on(Span.Day1).at(Chrono.utc(Day2).toEpochSecond()) != null;
+        assert store.on(Span.Day1).at(Chrono.utc(Day3).toEpochSecond()) == null;
+
+        for (Span span : new Span[] {Span.Minute1, Span.Minute15, Span.Hour1, Span.Hour8}) {
+            assert ticks(store.on(span), Day1, Day3).equals(ticks(manager.on(span).ticks, Day1, Day3));
+        }
+    }
+
+    @Test
+    void buildIncrementally() {
+        TickStore store = createStore();
+        store.build(this::at, Day1, Day2);
+        store.build(this::at, Day1, Day3);
+
+        TickStore full = createStore();
+        full.build(this::at, Day1, Day3);
+
+        for (Span span : Span.values()) {
+            assert store.latest(span).toString().equals(full.latest(span).toString());
+        }
+        assert ticks(store.on(Span.Minute5), Day1, Day3).equals(ticks(full.on(Span.Minute5), Day1, Day3));
+    }
+
+    @Test
+    void buildNothing() {
+        TickStore store = createStore();
+        store.build(this::at, Day1, Day3);
+        store.build(day -> {
+            throw new AssertionError();
+        }, Day1, Day3);
+    }
+
+    @Test
+    void restore() {
+        TickStore store = createStore();
+        store.build(this::at, Day1, Day3);
+
+        TickerManager restored = new TickerManager();
+        ZonedDateTime time = restored.restore(store);
+        assert time.isEqual(Chrono.utc(Day3));
+        from(Day3).to(restored::update);
+
+        TickerManager replayed = new TickerManager();
+        replayed.tickers().to(ticker -> ticker.ticks.disableMemorySaving());
+        from(Day1).to(replayed::update);
+
+        for (Span span : Span.values()) {
+            assert restored.on(span).ticks.last().toString().equals(replayed.on(span).ticks.last().toString());
+        }
+        assert ticks(restored.on(Span.Hour1).ticks, Day2, Day4).equals(ticks(replayed.on(Span.Hour1).ticks, Day2, Day4));
+    }
+
+    @Test
+    void restoreWithoutBuild() {
+        TickerManager manager = new TickerManager();
+        assert manager.restore(createStore()) == null;
+    }
+
+    @Test
+    void restoreAfterUpdate() {
+        TickStore store = createStore();
+        store.build(this::at, Day1, Day3);
+
+        TickerManager manager = new TickerManager();
+        at(Day1).to(manager::update);
+        assert manager.restore(store) == null;
+    }
+}
\ No newline at end of file
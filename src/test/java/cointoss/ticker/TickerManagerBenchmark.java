@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.ticker;
+
+import java.util.List;
+
+import antibug.profiler.Benchmark;
+import cointoss.execution.Execution;
+import cointoss.execution.Executions;
+
+public class TickerManagerBenchmark {
+
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark();
+        List<Execution> executions = Executions.synthetic(100000, 1);
+
+        benchmark.measure("TickerManager#update", () -> {
+            TickerManager manager = new TickerManager();
+            for (Execution execution : executions) {
+                manager.update(execution);
+            }
+            return manager;
+        });
+
+        benchmark.perform();
+    }
+}
\ No newline at end of file
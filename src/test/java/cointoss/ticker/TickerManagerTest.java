@@ -15,14 +15,20 @@ import static cointoss.ticker.Span.Minute15;
 import static cointoss.ticker.Span.Minute5;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import com.google.common.base.Predicate;
 
 import antibug.powerassert.PowerAssertOff;
+import cointoss.Direction;
 import cointoss.execution.Execution;
+import cointoss.execution.ExecutionBuffer;
 import cointoss.util.Chrono;
+import cointoss.util.arithmetic.Num;
+import kiss.I;
 
 class TickerManagerTest {
 
@@ -322,4 +328,33 @@ class TickerManagerTest {
             assert ticker.ticks.size() == 1;
         });
     }
+
+    @Test
+    void updateByCursor() {
+        List<Execution> executions = new ArrayList();
+        for (int i = 0; i < 200; i++) {
+            executions.add(Execution.with.direction(i % 3 == 0 ? Direction.SELL : Direction.BUY, Num.of(0.01 * (i % 7 + 1)))
+                    .price(100 + (i * 37) % 23 * 0.5)
+                    .date(Base.plusSeconds(i * 47))
+                    .delay(i % 11 == 0 ? Execution.DelayHuge : 1));
+        }
+
+        TickerManager cursored = new TickerManager();
+        ExecutionBuffer.Cursor cursor = ExecutionBuffer.of(I.signal(executions)).cursor();
+        while (cursor.next()) {
+            cursored.update(cursor);
+        }
+        executions.forEach(manager::update);
+
+        assert cursored.latestPrice.is(manager.latestPrice);
+        assert cursored.longLosscutVolume == manager.longLosscutVolume;
+        assert cursored.shortLosscutVolume == manager.shortLosscutVolume;
+        for (Span span : Span.values()) {
+            assert cursored.on(span).ticks.size() == manager.on(span).ticks.size();
+            assert cursored.on(span).ticks.query(0L, Long.MAX_VALUE)
+                    .map(Tick::toString)
+                    .toList()
+                    .equals(manager.on(span).ticks.query(0L, Long.MAX_VALUE).map(Tick::toString).toList());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+class APILimiterTest {
+
+    @Test
+    void acquireWithinLimit() {
+        APILimiter limiter = APILimiter.with.limit(100).refresh(1, SECONDS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 40; i++) {
+            limiter.acquire();
+        }
+        assert System.nanoTime() - start < MILLISECONDS.toNanos(100);
+    }
+
+    @Test
+    void acquireOverLimit() {
+        APILimiter limiter = APILimiter.with.limit(10).refresh(500, MILLISECONDS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+        }
+        // half of the capacity is usable immediately, the rest needs to be refilled
+        assert MILLISECONDS.toNanos(150) <= System.nanoTime() - start;
+    }
+
+    @Test
+    void acquireConcurrently() throws Exception {
+        APILimiter limiter = APILimiter.with.limit(20).refresh(200, MILLISECONDS);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch latch = new CountDownLatch(40);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 40; i++) {
+            pool.execute(() -> {
+                limiter.acquire();
+                latch.countDown();
+            });
+        }
+        assert latch.await(5, SECONDS);
+        pool.shutdown();
+
+        // 40 permits need at least (40 - 11) refills of 10ms
+        assert MILLISECONDS.toNanos(250) <= System.nanoTime() - start;
+    }
+
+    @Test
+    void acquireAsync() throws Exception {
+        APILimiter limiter = APILimiter.with.limit(10).refresh(100, MILLISECONDS);
+        List<Integer> permits = new ArrayList();
+        CountDownLatch latch = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquireAsync(1).to(permit -> {
+                synchronized (permits) {
+                    permits.add(permit);
+                }
+                latch.countDown();
+            });
+        }
+
+        // the first permits are available immediately without thread switching
+        assert 6 <= permits.size();
+        assert latch.await(5, SECONDS);
+        assert permits.size() == 10;
+    }
+
+    @Test
+    void acquireAsyncCanBeCanceled() throws Exception {
+        APILimiter limiter = APILimiter.with.limit(2).refresh(200, MILLISECONDS);
+        limiter.acquire(2);
+
+        List<Integer> permits = new ArrayList();
+        limiter.acquireAsync(1).to(permits::add).dispose();
+
+        Thread.sleep(300);
+        assert permits.isEmpty();
+    }
+}
\ No newline at end of file
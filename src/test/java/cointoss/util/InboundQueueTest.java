@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import cointoss.util.InboundQueue.Overflow;
+
+class InboundQueueTest {
+
+    /** The dispatched messages. */
+    private final List<String> dispatched = new CopyOnWriteArrayList();
+
+    /** The dispatching errors. */
+    private final List<Throwable> errors = new CopyOnWriteArrayList();
+
+    /** The gate to stall the dispatcher. */
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    /**
+     * Create the queue which stalls until the gate is opened.
+     * 
+     * @param capacity
+     * @param overflow
+     * @return
+     */
+    private InboundQueue stalled(int capacity, Overflow overflow) {
+        return new InboundQueue("test", capacity, overflow, message -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new Error(e);
+            }
+            dispatched.add(message);
+        }, errors::add);
+    }
+
+    /**
+     * Close the queue and wait the termination.
+     * 
+     * @param queue
+     */
+    private void closeAndWait(InboundQueue queue) throws InterruptedException {
+        CountDownLatch terminated = new CountDownLatch(1);
+        gate.countDown();
+        queue.close(terminated::countDown);
+        assert terminated.await(3, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Wait until the dispatcher takes the first message.
+     * 
+     * @param queue
+     */
+    private void awaitDepth(InboundQueue queue, int depth) throws InterruptedException {
+        for (int i = 0; i < 300 && queue.depth() != depth; i++) {
+            Thread.sleep(10);
+        }
+        assert queue.depth() == depth;
+    }
+
+    @Test
+    void dispatchInOrder() throws InterruptedException {
+        InboundQueue queue = stalled(4, Overflow.BLOCK);
+        gate.countDown();
+        for (int i = 0; i < 100; i++) {
+            queue.offer(String.valueOf(i), null);
+        }
+        closeAndWait(queue);
+
+        assert dispatched.size() == 100;
+        for (int i = 0; i < 100; i++) {
+            assert dispatched.get(i).equals(String.valueOf(i));
+        }
+        assert queue.received() == 100;
+        assert queue.dropped() == 0;
+        assert queue.depth() == 0;
+        assert queue.peakDepth() <= 4;
+    }
+
+    @Test
+    void dropOldest() throws InterruptedException {
+        InboundQueue queue = stalled(2, Overflow.DROP_OLDEST);
+        queue.offer("taken", null);
+        awaitDepth(queue, 0);
+
+        queue.offer("1", null);
+        queue.offer("2", null);
+        queue.offer("3", null);
+        queue.offer("4", null);
+        assert queue.depth() == 2;
+        assert queue.dropped() == 2;
+        closeAndWait(queue);
+
+        assert dispatched.equals(List.of("taken", "3", "4"));
+    }
+
+    @Test
+    void conflate() throws InterruptedException {
+        InboundQueue queue = stalled(3, Overflow.CONFLATE);
+        queue.offer("taken", null);
+        awaitDepth(queue, 0);
+
+        queue.offer("snapshot1", "board");
+        queue.offer("diff1", null);
+        queue.offer("snapshot2", "board");
+        queue.offer("diff2", null);
+        assert queue.depth() == 3;
+        assert queue.conflated() == 1;
+        assert queue.dropped() == 0;
+        closeAndWait(queue);
+
+        assert dispatched.equals(List.of("taken", "snapshot2", "diff1", "diff2"));
+    }
+
+    @Test
+    void conflateAfterDispatched() throws InterruptedException {
+        InboundQueue queue = stalled(3, Overflow.CONFLATE);
+        gate.countDown();
+        queue.offer("snapshot1", "board");
+        awaitDepth(queue, 0);
+        queue.offer("snapshot2", "board");
+        closeAndWait(queue);
+
+        assert dispatched.equals(List.of("snapshot1", "snapshot2"));
+        assert queue.conflated() == 0;
+    }
+
+    @Test
+    void block() throws InterruptedException {
+        InboundQueue queue = stalled(1, Overflow.BLOCK);
+        queue.offer("taken", null);
+        awaitDepth(queue, 0);
+        queue.offer("1", null);
+
+        Thread producer = new Thread(() -> queue.offer("2", null));
+        producer.start();
+        producer.join(100);
+        assert producer.isAlive();
+
+        gate.countDown();
+        producer.join(3000);
+        assert producer.isAlive() == false;
+        closeAndWait(queue);
+
+        assert dispatched.equals(List.of("taken", "1", "2"));
+        assert queue.dropped() == 0;
+    }
+
+    @Test
+    void closeAfterDispatched() throws InterruptedException {
+        InboundQueue queue = stalled(8, Overflow.BLOCK);
+        queue.offer("1", null);
+        queue.offer("2", null);
+
+        List<String> snapshot = new CopyOnWriteArrayList();
+        CountDownLatch terminated = new CountDownLatch(1);
+        queue.close(() -> {
+            snapshot.addAll(dispatched);
+            terminated.countDown();
+        });
+        queue.offer("ignored", null);
+        gate.countDown();
+
+        assert terminated.await(3, TimeUnit.SECONDS);
+        assert snapshot.equals(List.of("1", "2"));
+    }
+
+    @Test
+    void closeTwice() throws InterruptedException {
+        InboundQueue queue = stalled(8, Overflow.BLOCK);
+        closeAndWait(queue);
+
+        CountDownLatch terminated = new CountDownLatch(1);
+        queue.close(terminated::countDown);
+        assert terminated.await(3, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void error() throws InterruptedException {
+        InboundQueue queue = new InboundQueue("test", 8, Overflow.BLOCK, message -> {
+            if (message.equals("error")) throw new IllegalStateException();
+            dispatched.add(message);
+        }, errors::add);
+        queue.offer("1", null);
+        queue.offer("error", null);
+        queue.offer("2", null);
+        closeAndWait(queue);
+
+        assert dispatched.equals(List.of("1", "2"));
+        assert errors.size() == 1;
+        assert errors.get(0) instanceof IllegalStateException;
+    }
+
+    @Test
+    void invalidCapacity() {
+        try {
+            new InboundQueue("test", 0, Overflow.BLOCK, dispatched::add, errors::add);
+            assert false;
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+}
\ No newline at end of file
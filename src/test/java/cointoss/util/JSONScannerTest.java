@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class JSONScannerTest {
+
+    /**
+     * Build scanner.
+     * 
+     * @param json
+     * @return
+     */
+    private JSONScanner scan(String json) {
+        return new JSONScanner().reset(json.replace('\'', '"'));
+    }
+
+    @Test
+    void text() {
+        JSONScanner scanner = scan("{'key':'value', 'number' : 10, 'bool':true, 'null':null}");
+        assert scanner.text("key").equals("value");
+        assert scanner.text("number").equals("10");
+        assert scanner.text("bool").equals("true");
+        assert scanner.text("null") == null;
+        assert scanner.text("unknown") == null;
+    }
+
+    @Test
+    void textEscaped() {
+        JSONScanner scanner = scan("{'key':'a\\'b\\\\c\\nd\\u0041'}");
+        assert scanner.text("key").equals("a\"b\\c\ndA");
+    }
+
+    @Test
+    void textNested() {
+        JSONScanner scanner = scan("{'params':{'channel':'ch','message':[{'id':1},{'id':2,'list':[1,2,{'deep':'found'}]}]}}");
+        assert scanner.text("params", "channel").equals("ch");
+        assert scanner.text("params", "message", "1", "list", "2", "deep").equals("found");
+        assert scanner.text("params", "message", "2") == null;
+        assert scanner.text("params", "message", "0").equals("{\"id\":1}");
+    }
+
+    @Test
+    void textSkipComplexValue() {
+        JSONScanner scanner = scan("{'skip':{'a':'}]','b':[{},[]]},'key':'value'}");
+        assert scanner.text("key").equals("value");
+    }
+
+    @Test
+    void has() {
+        JSONScanner scanner = scan("{'key':'value', 'null':null}");
+        assert scanner.has("key");
+        assert scanner.has("null");
+        assert scanner.has("unknown") == false;
+    }
+
+    @Test
+    void asLong() {
+        JSONScanner scanner = scan("{'plain':1826991347, 'quoted':'330377764', 'negative':-12, 'max':9223372036854775807}");
+        assert scanner.asLong("plain") == 1826991347L;
+        assert scanner.asLong("quoted") == 330377764L;
+        assert scanner.asLong("negative") == -12;
+        assert scanner.asLong("max") == Long.MAX_VALUE;
+    }
+
+    @Test
+    void asLongInvalid() {
+        JSONScanner scanner = scan("{'decimal':1.5, 'text':'text', 'null':null}");
+
+        for (String key : new String[] {"decimal", "text", "null", "unknown"}) {
+            try {
+                scanner.asLong(key);
+                assert false;
+            } catch (NumberFormatException e) {
+                // success
+            }
+        }
+    }
+
+    @Test
+    void asNum() {
+        JSONScanner scanner = scan("{'plain':999469.0, 'quoted':'9331.91000000', 'exponent':1e-3}");
+        assert scanner.asNum("plain").is(999469);
+        assert scanner.asNum("quoted").is(9331.91);
+        assert scanner.asNum("exponent").is(0.001);
+    }
+
+    @Test
+    void asDouble() {
+        JSONScanner scanner = scan("{'plain':0.01, 'quoted':'1.5'}");
+        assert scanner.asDouble("plain") == 0.01;
+        assert scanner.asDouble("quoted") == 1.5;
+    }
+
+    @Test
+    void asBoolean() {
+        JSONScanner scanner = scan("{'true':true, 'false':false, 'quoted':'true'}");
+        assert scanner.asBoolean("true");
+        assert scanner.asBoolean("false") == false;
+        assert scanner.asBoolean("quoted");
+        assert scanner.asBoolean("unknown") == false;
+    }
+
+    @Test
+    void asChar() {
+        JSONScanner scanner = scan("{'side':'BUY', 'empty':''}");
+        assert scanner.asChar("side") == 'B';
+        assert scanner.asChar("empty") == 0;
+        assert scanner.asChar("unknown") == 0;
+    }
+
+    @Test
+    void find() {
+        JSONScanner scanner = scan("{'message':[{'id':1,'side':'BUY'},{'id':2,'side':'SELL'}]}");
+        List<String> list = scanner.find("message", "*").map(e -> e.asLong("id") + e.text("side")).toList();
+        assert list.size() == 2;
+        assert list.get(0).equals("1BUY");
+        assert list.get(1).equals("2SELL");
+    }
+
+    @Test
+    void findObject() {
+        JSONScanner scanner = scan("{'data':{'a':1,'b':2}}");
+        assert scanner.find("data").map(e -> e.asLong("b")).toList().equals(List.of(2L));
+        assert scanner.find("data", "*").map(e -> e.asLong()).toList().equals(List.of(1L, 2L));
+        assert scanner.find("unknown").toList().isEmpty();
+    }
+
+    @Test
+    void findTake() {
+        JSONScanner scanner = scan("[1,2,3,4]");
+        assert scanner.find("*").map(e -> e.asLong()).take(2).toList().equals(List.of(1L, 2L));
+    }
+
+    @Test
+    void reset() {
+        JSONScanner scanner = new JSONScanner();
+        assert scanner.reset("{\"key\":\"first\"}").text("key").equals("first");
+        assert scanner.reset("{\"key\":\"" + "x".repeat(5000) + "\"}").text("key").length() == 5000;
+        assert scanner.reset("{\"key\":\"third\"}").text("key").equals("third");
+    }
+
+    @Test
+    void resetRange() {
+        String text = "42[\"room\",{\"key\":\"value\"}]";
+        JSONScanner scanner = new JSONScanner().reset(text, text.indexOf('{'), text.lastIndexOf('}') + 1);
+        assert scanner.text("key").equals("value");
+    }
+
+    @Test
+    void malformed() {
+        assert scan("{'key':'value'").text("key").equals("value");
+        assert scan("{'key':").text("key") == null;
+        assert scan("[}]").text("3") == null;
+        assert scan("").text("key") == null;
+    }
+}
\ No newline at end of file
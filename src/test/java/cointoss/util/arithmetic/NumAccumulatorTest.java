@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util.arithmetic;
+
+import org.junit.jupiter.api.Test;
+
+import cointoss.Direction;
+
+class NumAccumulatorTest {
+
+    @Test
+    void initialValue() {
+        assert new NumAccumulator().toNum().is(0);
+        assert new NumAccumulator().isZero();
+        assert new NumAccumulator(Num.of("1.5")).toNum().is(1.5);
+    }
+
+    @Test
+    void plus() {
+        NumAccumulator acc = new NumAccumulator();
+        Num expected = Num.ZERO;
+
+        for (String value : new String[] {"1", "0.25", "12.345", "-3.5", "0.0001"}) {
+            acc.plus(Num.of(value));
+            expected = expected.plus(Num.of(value));
+        }
+        assert acc.toNum().equals(expected);
+    }
+
+    @Test
+    void minus() {
+        NumAccumulator acc = new NumAccumulator(Num.of(10));
+        acc.minus(Num.of("0.5")).minus(Num.of("12.25"));
+
+        assert acc.toNum().equals(Num.of(10).minus(Num.of("0.5")).minus(Num.of("12.25")));
+    }
+
+    @Test
+    void multiply() {
+        NumAccumulator acc = new NumAccumulator(Num.of("1.5"));
+        acc.multiply(Num.of("2.25")).multiply(Num.of(-4));
+
+        assert acc.toNum().equals(Num.of("1.5").multiply(Num.of("2.25")).multiply(Num.of(-4)));
+    }
+
+    @Test
+    void divide() {
+        assert new NumAccumulator(Num.of(10)).divide(Num.of(4)).toNum().equals(Num.of(10).divide(Num.of(4)));
+        assert new NumAccumulator(Num.of(1)).divide(Num.of(3)).toNum().equals(Num.of(1).divide(Num.of(3)));
+        assert new NumAccumulator(Num.of("1.25")).divide(Num.of("0.5")).toNum().equals(Num.of("1.25").divide(Num.of("0.5")));
+    }
+
+    @Test
+    void divideByZero() {
+        try {
+            new NumAccumulator(Num.ONE).divide(Num.ZERO);
+            assert false;
+        } catch (ArithmeticException e) {
+            // success
+        }
+    }
+
+    @Test
+    void plusMultiply() {
+        NumAccumulator acc = new NumAccumulator();
+        acc.plusMultiply(Num.of("1.5"), Num.of(100)).plusMultiply(Num.of("0.3"), Num.of("101.5"));
+
+        assert acc.toNum().equals(Num.of("1.5").multiply(Num.of(100)).plus(Num.of("0.3").multiply(Num.of("101.5"))));
+    }
+
+    @Test
+    void minusMultiply() {
+        NumAccumulator acc = new NumAccumulator(Num.of(200));
+        acc.minusMultiply(Num.of("1.5"), Num.of(100));
+
+        assert acc.toNum().equals(Num.of(200).minus(Num.of("1.5").multiply(Num.of(100))));
+    }
+
+    @Test
+    void abs() {
+        assert new NumAccumulator(Num.of("-1.5")).abs().toNum().is(1.5);
+        assert new NumAccumulator(Num.of("1.5")).abs().toNum().is(1.5);
+    }
+
+    @Test
+    void negate() {
+        assert new NumAccumulator(Num.of("-1.5")).negate().toNum().is(1.5);
+        assert new NumAccumulator(Num.of("1.5")).negate().toNum().is(-1.5);
+    }
+
+    @Test
+    void setDiff() {
+        assert new NumAccumulator().setDiff(Direction.BUY, Num.of(10), Num.of(7)).toNum().is(3);
+        assert new NumAccumulator().setDiff(Direction.SELL, Num.of(10), Num.of(7)).toNum().is(-3);
+    }
+
+    @Test
+    void overflow() {
+        Num large = Num.of(Long.MAX_VALUE / 2);
+        NumAccumulator acc = new NumAccumulator(large);
+        acc.plus(large).plus(large);
+
+        assert acc.toNum().equals(large.plus(large).plus(large));
+
+        acc.set(large).multiply(Num.of(10)).minus(Num.ONE);
+        assert acc.toNum().equals(large.multiply(Num.of(10)).minus(Num.ONE));
+    }
+
+    @Test
+    void overflowByProduct() {
+        Num large = Num.of(Long.MAX_VALUE / 2);
+        NumAccumulator acc = new NumAccumulator(Num.ONE);
+        acc.plusMultiply(large, Num.of(3));
+
+        assert acc.toNum().equals(Num.ONE.plus(large.multiply(Num.of(3))));
+    }
+
+    @Test
+    void reuse() {
+        NumAccumulator acc = new NumAccumulator(Num.of(5));
+        acc.multiply(Num.of(3));
+        assert acc.toNum().is(15);
+
+        acc.clear();
+        assert acc.isZero();
+        assert acc.plus(Num.of("0.1")).toNum().is(0.1);
+
+        acc.set(7);
+        assert acc.toNum().is(7);
+        assert acc.signum() == 1;
+        assert acc.doubleValue() == 7;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util.arithmetic;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import antibug.profiler.Benchmark;
+
+public class NumBenchmark {
+
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark();
+
+        // the weighted average of prices, which is the typical calculation on the hot path
+        int size = 1000;
+        Random random = new Random(1);
+        double[] prices = new double[size];
+        double[] sizes = new double[size];
+        for (int i = 0; i < size; i++) {
+            prices[i] = 10000 + random.nextInt(2000) * 0.5;
+            sizes[i] = (random.nextInt(100) + 1) / 100d;
+        }
+
+        Num[] numPrices = new Num[size];
+        Num[] numSizes = new Num[size];
+        BigDecimal[] bigPrices = new BigDecimal[size];
+        BigDecimal[] bigSizes = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            numPrices[i] = Num.of(prices[i]);
+            numSizes[i] = Num.of(sizes[i]);
+            bigPrices[i] = BigDecimal.valueOf(prices[i]);
+            bigSizes[i] = BigDecimal.valueOf(sizes[i]);
+        }
+
+        benchmark.measure("Num", () -> {
+            Num total = Num.ZERO;
+            Num amount = Num.ZERO;
+            for (int i = 0; i < size; i++) {
+                total = total.plus(numPrices[i].multiply(numSizes[i]));
+                amount = amount.plus(numSizes[i]);
+            }
+            return total.divide(amount);
+        });
+
+        NumAccumulator total = new NumAccumulator();
+        NumAccumulator amount = new NumAccumulator();
+        benchmark.measure("NumAccumulator", () -> {
+            total.clear();
+            amount.clear();
+            for (int i = 0; i < size; i++) {
+                total.plusMultiply(numPrices[i], numSizes[i]);
+                amount.plus(numSizes[i]);
+            }
+            return total.divide(amount.toNum()).toNum();
+        });
+
+        benchmark.measure("Java Primitive", () -> {
+            double sum = 0;
+            double volume = 0;
+            for (int i = 0; i < size; i++) {
+                sum += prices[i] * sizes[i];
+                volume += sizes[i];
+            }
+            return sum / volume;
+        });
+
+        benchmark.measure("Java BigDecimal", () -> {
+            BigDecimal sum = BigDecimal.ZERO;
+            BigDecimal volume = BigDecimal.ZERO;
+            for (int i = 0; i < size; i++) {
+                sum = sum.add(bigPrices[i].multiply(bigSizes[i]));
+                volume = volume.add(bigSizes[i]);
+            }
+            return sum.divide(volume, MathContext.DECIMAL64);
+        });
+
+        benchmark.perform();
+    }
+}
\ No newline at end of file
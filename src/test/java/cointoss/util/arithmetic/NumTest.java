@@ -40,6 +40,30 @@ class NumTest {
         assert Num.of("-12.0120").is(-12.012);
     }
 
+    @Test
+    void unscaled() {
+        assert Num.of("12.34").unscaled(2) == 1234;
+        assert Num.of("12.34").unscaled(4) == 123400;
+        assert Num.of("1200").unscaled(-2) == 12;
+        assert Num.of("-0.5").unscaled(1) == -5;
+        assert Num.ZERO.unscaled(8) == 0;
+
+        try {
+            Num.of("12.34").unscaled(1);
+            assert false;
+        } catch (ArithmeticException e) {
+            // success
+        }
+    }
+
+    @Test
+    void ofUnscaled() {
+        assert Num.ofUnscaled(1234, 2).is(12.34);
+        assert Num.ofUnscaled(-5, 1).is(-0.5);
+        assert Num.ofUnscaled(12, 0).is(12);
+        assert Num.ofUnscaled(12, -2).is(1200);
+    }
+
     @Test
     void parseStringExponential() {
         assert Num.of("1.7E-7").is(0.00000017);
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2021 Nameless Production Committee
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://opensource.org/licenses/mit-license.php
+ */
+package cointoss.util.feather;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CompressedSegmentTest {
+
+    private final DataCodec<Value> codec = DataCodec.of(Value.class);
+
+    /**
+     * Helper to encode and decode the items.
+     *
+     * @param items
+     * @return
+     */
+    private Value[] roundtrip(Value[] items) {
+        Value[] decoded = new Value[items.length];
+        int[] result = CompressedSegment.decode(codec, CompressedSegment.encode(codec, items), 0, 1, decoded);
+
+        int count = 0;
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < items.length; i++) {
+            assert Objects.equals(items[i], decoded[i]);
+
+            if (items[i] != null) {
+                if (first == -1) first = i;
+                last = i;
+                count++;
+            }
+        }
+        assert result[0] == count;
+        assert result[1] == first;
+        assert result[2] == last;
+        return decoded;
+    }
+
+    @Test
+    void empty() {
+        roundtrip(new Value[0]);
+        roundtrip(new Value[10]);
+    }
+
+    @Test
+    void single() {
+        roundtrip(new Value[] {new Value(1, 2.5, 3, true)});
+    }
+
+    @Test
+    void sparse() {
+        Value[] items = new Value[100];
+        items[3] = new Value(3, 10, 1, true);
+        items[50] = new Value(50, 10.5, 2, false);
+        items[99] = new Value(99, 9.5, 1, true);
+        roundtrip(items);
+    }
+
+    @Test
+    void random() {
+        Random random = new Random(1);
+        Value[] items = new Value[1000];
+        for (int i = 0; i < items.length; i++) {
+            if (random.nextInt(4) != 0) {
+                items[i] = new Value(random.nextLong(), Double.longBitsToDouble(random.nextLong()), random.nextFloat(), random.nextBoolean());
+            }
+        }
+        roundtrip(items);
+    }
+
+    @Test
+    void extreme() {
+        roundtrip(new Value[] {new Value(Long.MIN_VALUE, Double.NaN, Float.MAX_VALUE, true), new Value(Long.MAX_VALUE, Double.MAX_VALUE, 0, false),
+                new Value(0, -0d, Float.NaN, true), new Value(Long.MIN_VALUE, Double.NEGATIVE_INFINITY, -1, false)});
+    }
+
+    @Test
+    void partial() {
+        Value[] items = new Value[10];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Value(i, i, i, true);
+        }
+
+        Value[] decoded = new Value[4];
+        int[] result = CompressedSegment.decode(codec, CompressedSegment.encode(codec, items), 0, 1, decoded);
+        assert result[0] == 4;
+        assert result[1] == 0;
+        assert result[2] == 3;
+        assert decoded[3].equals(items[3]);
+    }
+
+    @Test
+    void size() {
+        assert CompressedSegment.size(CompressedSegment.encode(codec, new Value[123])) == 123;
+    }
+
+    @Test
+    void compressSlowlyChangingValues() {
+        Value[] items = new Value[1440];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Value(1000 + i * 60, 100 + i / 30 * 0.5, 1.5f, i % 100 == 0);
+        }
+        roundtrip(items);
+
+        ByteBuffer encoded = CompressedSegment.encode(codec, items);
+        assert encoded.remaining() * 10 < items.length * (codec.size() + 1);
+    }
+
+    public record Value(long count, double price, float size, boolean flag) {
+    }
+}
\ No newline at end of file
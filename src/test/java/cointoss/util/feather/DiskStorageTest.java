@@ -9,10 +9,14 @@
  */
 package cointoss.util.feather;
 
+import java.util.SortedMap;
+import java.util.TreeMap;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
 import antibug.CleanRoom;
+import psychopath.File;
 import psychopath.Locator;
 
 public class DiskStorageTest {
@@ -29,7 +33,45 @@ public class DiskStorageTest {
      * @return
      */
     private <T> DiskStorage<T> createStorage(Class<T> type, long duration) {
-        return new DiskStorage(Locator.file(room.locateRadom()), DataCodec.of(type), duration);
+        return createStorage(Locator.file(room.locateRadom()), type, duration);
+    }
+
+    /**
+     * Helper to create new storage.
+     * 
+     * @param <T>
+     * @param file
+     * @param type
+     * @param duration
+     * @return
+     */
+    private <T> DiskStorage<T> createStorage(File file, Class<T> type, long duration) {
+        return new DiskStorage(file, DataCodec.of(type), duration);
+    }
+
+    /**
+     * Helper to create new compressed storage.
+     * 
+     * @param <T>
+     * @param file
+     * @param type
+     * @param duration
+     * @return
+     */
+    private <T> DiskStorage<T> createCompressedStorage(File file, Class<T> type, long duration) {
+        return new DiskStorage(file, DataCodec.of(type), duration, false, true);
+    }
+
+    /**
+     * Helper to create new memory-mapped storage.
+     * 
+     * @param <T>
+     * @param type
+     * @param duration
+     * @return
+     */
+    private <T> DiskStorage<T> createMappedStorage(Class<T> type, long duration) {
+        return new DiskStorage(Locator.file(room.locateRadom()), DataCodec.of(type), duration, true);
     }
 
     @Test
@@ -209,6 +251,247 @@ public class DiskStorageTest {
         assert items[2].value == base + 2;
     }
 
+    @Test
+    void mappedRead() {
+        DiskStorage<IntValue> storage = createMappedStorage(IntValue.class, 1);
+        storage.write(0, new IntValue(0), new IntValue(1), new IntValue(2));
+
+        IntValue[] items = new IntValue[1];
+        assert storage.read(0, items)[0] == 1;
+        assert items[0].value == 0;
+
+        items = new IntValue[5];
+        assert storage.read(0, items)[0] == 3;
+        assert items[0].value == 0;
+        assert items[1].value == 1;
+        assert items[2].value == 2;
+        assert items[3] == null;
+        assert items[4] == null;
+    }
+
+    @Test
+    void mappedReadNoItem() {
+        DiskStorage<IntValue> storage = createMappedStorage(IntValue.class, 1);
+        storage.write(0, new IntValue(0));
+
+        assert storage.read(5, new IntValue[3])[0] == 0;
+    }
+
+    @Test
+    void mappedReadSparse() {
+        DiskStorage<IntValue> storage = createMappedStorage(IntValue.class, 1);
+        storage.write(0, null, new IntValue(1), null, new IntValue(3), null);
+
+        IntValue[] items = new IntValue[5];
+        int[] result = storage.read(0, items);
+        assert result[0] == 2;
+        assert result[1] == 1;
+        assert result[2] == 3;
+        assert items[0] == null;
+        assert items[1].value == 1;
+        assert items[2] == null;
+        assert items[3].value == 3;
+        assert items[4] == null;
+    }
+
+    @Test
+    void mappedOverwrite() {
+        DiskStorage<IntValue> storage = createMappedStorage(IntValue.class, 1);
+        storage.write(0, new IntValue(0), new IntValue(1));
+        storage.write(1, new IntValue(10), new IntValue(20));
+
+        IntValue[] items = new IntValue[3];
+        assert storage.read(0, items)[0] == 3;
+        assert items[0].value == 0;
+        assert items[1].value == 10;
+        assert items[2].value == 20;
+    }
+
+    @Test
+    void mappedRebuildAutomatically() {
+        DiskStorage<IntValue> storage = createMappedStorage(IntValue.class, 1);
+        int base = 60 * 60 * 24 * 35;
+        storage.write(base, new IntValue(base), null, new IntValue(base + 2));
+        assert storage.offsetTime() == 60 * 60 * 24 * 31;
+
+        storage.write(0, new IntValue(0));
+        assert storage.offsetTime() == 0;
+
+        IntValue[] items = new IntValue[3];
+        assert storage.read(0, items)[0] == 1;
+        assert items[0].value == 0;
+
+        items = new IntValue[3];
+        assert storage.read(base, items)[0] == 2;
+        assert items[0].value == base;
+        assert items[1] == null;
+        assert items[2].value == base + 2;
+    }
+
+    @Test
+    void compressedRead() {
+        DiskStorage<IntValue> storage = createCompressedStorage(Locator.file(room.locateRadom()), IntValue.class, 1);
+        storage.write(0, new IntValue(0), new IntValue(1), new IntValue(2));
+
+        IntValue[] items = new IntValue[1];
+        assert storage.read(0, items)[0] == 1;
+        assert items[0].value == 0;
+
+        items = new IntValue[5];
+        assert storage.read(0, items)[0] == 3;
+        assert items[0].value == 0;
+        assert items[1].value == 1;
+        assert items[2].value == 2;
+        assert items[3] == null;
+        assert items[4] == null;
+    }
+
+    @Test
+    void compressedReadNoItem() {
+        DiskStorage<IntValue> storage = createCompressedStorage(Locator.file(room.locateRadom()), IntValue.class, 1);
+        assert storage.read(0, new IntValue[3])[0] == 0;
+
+        storage.write(0, new IntValue(0));
+        assert storage.read(5, new IntValue[3])[0] == 0;
+    }
+
+    @Test
+    void compressedReadSparse() {
+        DiskStorage<IntValue> storage = createCompressedStorage(Locator.file(room.locateRadom()), IntValue.class, 1);
+        storage.write(0, null, new IntValue(1), null, new IntValue(3), null);
+
+        IntValue[] items = new IntValue[5];
+        int[] result = storage.read(0, items);
+        assert result[0] == 2;
+        assert result[1] == 1;
+        assert result[2] == 3;
+        assert items[0] == null;
+        assert items[1].value == 1;
+        assert items[2] == null;
+        assert items[3].value == 3;
+        assert items[4] == null;
+    }
+
+    @Test
+    void compressedOverwrite() {
+        DiskStorage<IntValue> storage = createCompressedStorage(Locator.file(room.locateRadom()), IntValue.class, 1);
+        storage.write(0, new IntValue(0), null, new IntValue(2));
+        storage.write(0, null, new IntValue(1), new IntValue(20));
+
+        IntValue[] items = new IntValue[3];
+        assert storage.read(0, items)[0] == 3;
+        assert items[0].value == 0;
+        assert items[1].value == 1;
+        assert items[2].value == 20;
+    }
+
+    @Test
+    void compressedGrow() {
+        DiskStorage<IntValue> storage = createCompressedStorage(Locator.file(room.locateRadom()), IntValue.class, 1);
+        IntValue[] segment = new IntValue[1000];
+        for (int i = 0; i < segment.length; i++) {
+            segment[i] = new IntValue(i * i * 31);
+            storage.write(0, segment);
+        }
+        storage.write(1000, new IntValue(1000));
+
+        IntValue[] items = new IntValue[1000];
+        assert storage.read(0, items)[0] == 1000;
+        for (int i = 0; i < items.length; i++) {
+            assert items[i].value == i * i * 31;
+        }
+
+        items = new IntValue[1];
+        assert storage.read(1000, items)[0] == 1;
+        assert items[0].value == 1000;
+    }
+
+    @Test
+    void compressedStartAndEndTime() {
+        DiskStorage<IntValue> storage = createCompressedStorage(Locator.file(room.locateRadom()), IntValue.class, 1);
+        assert storage.startTime() == Long.MAX_VALUE;
+        assert storage.endTime() == -1;
+
+        storage.write(10, null, new IntValue(11));
+        assert storage.startTime() == 11;
+        assert storage.endTime() == 11;
+
+        storage.write(5, new IntValue(5));
+        storage.write(15, new IntValue(15));
+        assert storage.startTime() == 5;
+        assert storage.endTime() == 15;
+    }
+
+    @Test
+    void compressedReopen() {
+        File file = Locator.file(room.locateRadom());
+        DiskStorage<IntValue> storage = createCompressedStorage(file, IntValue.class, 1);
+        storage.write(0, new IntValue(0), null, new IntValue(2));
+        storage.write(10, new IntValue(10));
+        storage.close();
+
+        // the file keeps its own layout
+        storage = new DiskStorage(file, DataCodec.of(IntValue.class), 1);
+        assert storage.startTime() == 0;
+        assert storage.endTime() == 10;
+
+        IntValue[] items = new IntValue[3];
+        assert storage.read(0, items)[0] == 2;
+        assert items[0].value == 0;
+        assert items[1] == null;
+        assert items[2].value == 2;
+
+        items = new IntValue[1];
+        assert storage.read(10, items)[0] == 1;
+        assert items[0].value == 10;
+    }
+
+    @Test
+    void compressedReopenEmpty() {
+        File file = Locator.file(room.locateRadom());
+        createCompressedStorage(file, IntValue.class, 1).close();
+
+        DiskStorage<IntValue> storage = new DiskStorage(file, DataCodec.of(IntValue.class), 1);
+        storage.write(0, new IntValue(0));
+        storage.close();
+
+        storage = createCompressedStorage(file, IntValue.class, 1);
+        IntValue[] items = new IntValue[1];
+        assert storage.read(0, items)[0] == 1;
+        assert items[0].value == 0;
+    }
+
+    @Test
+    void fixedLayoutIsKept() {
+        File file = Locator.file(room.locateRadom());
+        DiskStorage<IntValue> storage = createStorage(file, IntValue.class, 1);
+        storage.write(0, new IntValue(0), new IntValue(1));
+        storage.close();
+
+        storage = createCompressedStorage(file, IntValue.class, 1);
+        storage.write(1, new IntValue(10));
+
+        IntValue[] items = new IntValue[2];
+        assert storage.read(0, items)[0] == 2;
+        assert items[0].value == 0;
+        assert items[1].value == 10;
+    }
+
+    @Test
+    void compressedBatch() {
+        DiskStorage<IntValue> storage = createCompressedStorage(Locator.file(room.locateRadom()), IntValue.class, 1);
+        SortedMap<Long, IntValue[]> segments = new TreeMap();
+        segments.put(0L, new IntValue[] {new IntValue(0), new IntValue(1)});
+        segments.put(2L, new IntValue[] {null, new IntValue(3)});
+        storage.write(segments);
+        assert storage.endTime() == 3;
+
+        IntValue[] items = new IntValue[2];
+        assert storage.read(2, items)[0] == 1;
+        assert items[0] == null;
+        assert items[1].value == 3;
+    }
+
     public record IntValue(int value) {
     }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2021 Nameless Production Committee
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://opensource.org/licenses/mit-license.php
+ */
+package cointoss.util.feather;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+class EvictionPolicyTest {
+
+    @Test
+    void timeWindow() {
+        EvictionPolicy policy = EvictionPolicy.byTimeWindow(2, EvictionPolicy.byLRU(2));
+        assert policy.access(10) == -1;
+        assert policy.access(20) == -1;
+        assert policy.access(30) == -1; // 10 is demoted
+        assert policy.access(40) == -1; // 20 is demoted
+        assert policy.access(50) == 10; // 30 is demoted
+
+        // access to the old time never evicts the newest times
+        assert policy.access(1) == 20;
+        assert policy.access(2) == 30;
+        assert policy.access(40) == -1;
+        assert policy.access(50) == -1;
+    }
+
+    @Test
+    void timeWindowRelease() {
+        EvictionPolicy policy = EvictionPolicy.byTimeWindow(1, EvictionPolicy.byLRU(1));
+        policy.access(10);
+        policy.access(20);
+        policy.release();
+
+        assert policy.access(30) == -1;
+        assert policy.access(40) == -1;
+    }
+
+    @Test
+    void memory() {
+        MemoryBudget budget = new MemoryBudget(300);
+        List<String> evicted = new ArrayList();
+
+        EvictionPolicy one = EvictionPolicy.byMemory(budget, 100);
+        one.bind(time -> evicted.add("one" + time));
+        EvictionPolicy other = EvictionPolicy.byMemory(budget, 100);
+        other.bind(time -> evicted.add("other" + time));
+
+        assert one.access(1) == -1;
+        assert other.access(1) == -1;
+        assert one.access(2) == -1;
+        assert budget.used() == 300;
+        assert evicted.isEmpty();
+
+        // the least recently used segment of any store is evicted by its owner on the next access
+        assert other.access(2) == -1;
+        assert evicted.isEmpty();
+        assert budget.used() == 400;
+
+        // hit
+        other.access(1);
+        one.access(3);
+        assert evicted.equals(List.of("one1", "one2"));
+        assert budget.used() == 300;
+    }
+
+    @Test
+    void memoryReaccessPendingSegment() {
+        MemoryBudget budget = new MemoryBudget(100);
+        List<Long> evicted = new ArrayList();
+
+        EvictionPolicy one = EvictionPolicy.byMemory(budget, 100);
+        one.bind(evicted::add);
+        EvictionPolicy other = EvictionPolicy.byMemory(budget, 100);
+
+        one.access(1);
+        other.access(1); // one1 is queued
+        one.access(1); // one1 is alive again and other1 is queued
+        assert evicted.isEmpty();
+        assert budget.used() == 200;
+
+        other.access(2); // other1 is evicted and one1 is queued
+        assert budget.used() == 200;
+    }
+
+    @Test
+    void memoryEvictOnOwnerThread() throws Exception {
+        MemoryBudget budget = new MemoryBudget(500);
+        Set<Thread>[] evictors = new Set[2];
+        Thread[] threads = new Thread[2];
+
+        for (int i = 0; i < threads.length; i++) {
+            Set<Thread> evictor = evictors[i] = ConcurrentHashMap.newKeySet();
+            EvictionPolicy policy = EvictionPolicy.byMemory(budget, 100);
+            policy.bind(time -> evictor.add(Thread.currentThread()));
+
+            threads[i] = new Thread(() -> {
+                for (int time = 0; time < 100000; time++) {
+                    synchronized (policy) {
+                        policy.access(time % 50);
+                    }
+                }
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < threads.length; i++) {
+            assert evictors[i].equals(Set.of(threads[i]));
+        }
+    }
+
+    @Test
+    void memoryDrainIdleOwner() {
+        MemoryBudget budget = new MemoryBudget(200);
+        List<Long> evicted = new ArrayList();
+
+        EvictionPolicy one = EvictionPolicy.byMemory(budget, 100);
+        one.bind(time -> {
+            throw new AssertionError("The idle owner must not be accessed.");
+        });
+        EvictionPolicy other = EvictionPolicy.byMemory(budget, 100);
+
+        one.access(1);
+        one.access(2);
+        other.access(1); // one1 is queued
+        assert budget.used() == 300;
+
+        // the idle owner releases the queued segment by drain
+        one.drain(evicted::add);
+        assert evicted.equals(List.of(1L));
+        assert budget.used() == 200;
+
+        // nothing is queued
+        one.drain(evicted::add);
+        assert evicted.equals(List.of(1L));
+        assert budget.used() == 200;
+    }
+
+    @Test
+    void memoryRelease() {
+        MemoryBudget budget = new MemoryBudget(1000);
+        EvictionPolicy one = EvictionPolicy.byMemory(budget, 100);
+        EvictionPolicy other = EvictionPolicy.byMemory(budget, 100);
+        one.access(1);
+        one.access(2);
+        other.access(1);
+        assert budget.used() == 300;
+
+        one.release();
+        assert budget.used() == 100;
+    }
+}
\ No newline at end of file
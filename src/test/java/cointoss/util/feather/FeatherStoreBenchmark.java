@@ -48,6 +48,17 @@ public class FeatherStoreBenchmark {
             return memory.size();
         });
 
+        benchmark.measure("Read from memory", () -> {
+            for (int i = 0; i < 10000; i++) {
+                memory.at(i * span.seconds);
+            }
+            return 10;
+        });
+
+        benchmark.measure("Query on memory", () -> {
+            return memory.query(0, 10000 * span.seconds).toList().size();
+        });
+
         benchmark.perform();
     }
 
@@ -11,6 +11,8 @@ package cointoss.util.feather;
 
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -452,4 +454,228 @@ class FeatherStoreTest {
         store.clear();
         assert store.lastTime() == 600;
     }
+
+    @Test
+    void commitOnlyModifiedSegments() {
+        FeatherStore<Mutable> store = FeatherStore.create(Mutable.class, Span.Minute1).enableDiskStore(databaseFile());
+        Mutable old = new Mutable(0, 1);
+        Mutable latest = new Mutable(days, 1);
+        store.store(old, latest);
+        store.commit();
+
+        // modify in place without storing
+        old.count = 2;
+        latest.count = 2;
+        store.commit();
+        store.clear();
+
+        // the untouched segment is not written again, but the latest segment is written
+        assert store.at(0).count == 1;
+        assert store.at(days).count == 2;
+    }
+
+    @Test
+    void commitStoredSegments() {
+        FeatherStore<Mutable> store = FeatherStore.create(Mutable.class, Span.Minute1).enableDiskStore(databaseFile());
+        store.store(new Mutable(0, 1), new Mutable(days, 1));
+        store.commit();
+
+        store.store(new Mutable(0, 3));
+        store.commit();
+        store.clear();
+        assert store.at(0).count == 3;
+    }
+
+    @Test
+    void writeBehind() throws Exception {
+        FeatherStore<Value> store = FeatherStore.create(Value.class, Span.Minute1)
+                .enableDiskStore(databaseFile())
+                .enableWriteBehind(10, TimeUnit.MILLISECONDS);
+        store.store(value(0));
+
+        for (int i = 0; i < 100 && !store.existOnDisk(value(0)); i++) {
+            Thread.sleep(20);
+        }
+        assert store.existOnDisk(value(0));
+        store.dispose();
+    }
+
+    @Test
+    void prefetch() {
+        FeatherStore<Value> store = FeatherStore.create(Value.class, Span.Minute1).enableDiskStore(databaseFile());
+        store.store(day(0), day(1), day(2), day(3));
+        store.commit();
+        store.clear();
+
+        store.prefetch(0, days * 2);
+        assert store.existOnPrefetch(day(0));
+        assert store.existOnPrefetch(day(1));
+        assert store.existOnPrefetch(day(2));
+        assert store.existOnPrefetch(day(3)) == false;
+        assert store.existOnHeap(day(1)) == false;
+
+        assert store.at(days).value == days;
+        assert store.existOnHeap(day(1));
+        assert store.existOnPrefetch(day(1)) == false;
+    }
+
+    @Test
+    void prefetchReverse() {
+        FeatherStore<Value> store = FeatherStore.create(Value.class, Span.Minute1).enableDiskStore(databaseFile());
+        store.store(day(0), day(1), day(2), day(3));
+        store.commit();
+        store.clear();
+
+        store.prefetch(days * 3, days * 2);
+        assert store.existOnPrefetch(day(3));
+        assert store.existOnPrefetch(day(2));
+        assert store.existOnPrefetch(day(1)) == false;
+    }
+
+    @Test
+    void readAhead() {
+        int segment = (int) Span.Minute1.segmentSeconds;
+        FeatherStore<Value> store = FeatherStore.create(Value.class, Span.Minute1).enableDiskStore(databaseFile()).enableReadAhead(2);
+        for (int i = 0; i < 10; i++) {
+            store.store(value(segment * i));
+        }
+        store.commit();
+        store.clear();
+
+        // forward
+        store.at(0);
+        store.at(segment);
+        assert store.existOnPrefetch(value(segment * 2)) == false;
+        store.at(segment * 2);
+        assert store.existOnPrefetch(value(segment * 3));
+        assert store.existOnPrefetch(value(segment * 4));
+        assert store.existOnPrefetch(value(segment * 5)) == false;
+
+        // backward
+        store.at(segment * 9);
+        store.at(segment * 8);
+        store.at(segment * 7);
+        assert store.existOnPrefetch(value(segment * 6));
+        assert store.existOnPrefetch(value(segment * 5));
+    }
+
+    @Test
+    void shareMemoryBudgetAcrossThreads() throws Exception {
+        int segment = (int) Span.Minute1.segmentSeconds;
+        MemoryBudget budget = new MemoryBudget(300);
+        List<Throwable> errors = new CopyOnWriteArrayList();
+        Thread[] threads = new Thread[2];
+
+        FeatherStore<Value>[] stores = new FeatherStore[threads.length];
+
+        for (int i = 0; i < threads.length; i++) {
+            FeatherStore<Value> store = stores[i] = FeatherStore.create(Value.class, Span.Minute1)
+                    .enableDiskStore(databaseFile())
+                    .enableEvictionPolicy(EvictionPolicy.byMemory(budget, 100));
+
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 2000; j++) {
+                        int time = segment * (j % 20) + j * 60 % segment;
+                        store.store(value(time));
+                        assert store.at(time).value == time;
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assert errors.isEmpty();
+
+        // the queued segments are released on the next access of each owner
+        for (FeatherStore<Value> store : stores) {
+            store.at(0);
+        }
+        assert budget.used() <= 400;
+    }
+
+    @Test
+    void readAheadOnQuery() {
+        int segment = (int) Span.Minute1.segmentSeconds;
+        FeatherStore<Value> store = FeatherStore.create(Value.class, Span.Minute1).enableDiskStore(databaseFile()).enableReadAhead(2);
+        for (int i = 0; i < 10; i++) {
+            store.store(value(segment * i));
+        }
+        store.commit();
+        store.clear();
+
+        assert store.query(0, segment * 9).toList().size() == 10;
+        assert store.query(segment * 9, 0).toList().size() == 10;
+    }
+
+    @Test
+    void prefetchDiscardFarthest() {
+        int segment = (int) Span.Minute1.segmentSeconds;
+        FeatherStore<Value> store = FeatherStore.create(Value.class, Span.Minute1).enableDiskStore(databaseFile());
+        for (int i = 0; i < 40; i++) {
+            store.store(value(segment * i));
+        }
+        store.commit();
+        store.clear();
+
+        store.prefetch(0, segment * 39);
+        assert store.existOnPrefetch(value(0));
+        assert store.existOnPrefetch(value(segment * 31));
+        assert store.existOnPrefetch(value(segment * 32)) == false;
+
+        store.prefetch(segment * 39, segment * 39);
+        assert store.existOnPrefetch(value(segment * 39));
+        assert store.existOnPrefetch(value(0)) == false;
+        assert store.existOnPrefetch(value(segment * 31));
+    }
+
+    @Test
+    void readAheadDiscardOnDirectionChange() {
+        int segment = (int) Span.Minute1.segmentSeconds;
+        FeatherStore<Value> store = FeatherStore.create(Value.class, Span.Minute1).enableDiskStore(databaseFile()).enableReadAhead(2);
+        for (int i = 0; i < 10; i++) {
+            store.store(value(segment * i));
+        }
+        store.commit();
+        store.clear();
+
+        store.at(0);
+        store.at(segment);
+        store.at(segment * 2);
+        store.at(segment * 3);
+        assert store.existOnPrefetch(value(segment * 4));
+        assert store.existOnPrefetch(value(segment * 5));
+
+        // backward
+        store.at(segment * 2);
+        assert store.existOnPrefetch(value(segment * 4)) == false;
+        assert store.existOnPrefetch(value(segment * 5)) == false;
+    }
+
+    private static class Mutable implements TemporalData {
+
+        public int time;
+
+        public int count;
+
+        private Mutable() {
+        }
+
+        private Mutable(int time, int count) {
+            this.time = time;
+            this.count = count;
+        }
+
+        @Override
+        public ZonedDateTime date() {
+            return Chrono.utcBySeconds(time);
+        }
+    }
 }
\ No newline at end of file
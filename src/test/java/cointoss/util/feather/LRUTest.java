@@ -82,4 +82,42 @@ class LRUTest {
         assert cache.eldest() == 3;
         assert cache.latest() == 5;
     }
+
+    @Test
+    void hitEvictsNothing() {
+        LRU cache = new LRU(3);
+        cache.access(1);
+        cache.access(2);
+        cache.access(3);
+        assert cache.access(1) == -1;
+        assert cache.access(1) == -1;
+        assert cache.access(4) == 2;
+    }
+
+    @Test
+    void hitBeforeFull() {
+        LRU cache = new LRU(3);
+        cache.access(1);
+        cache.access(1);
+        cache.access(2);
+        cache.access(3);
+        assert cache.eldest() == 1;
+        assert cache.access(4) == 1;
+        assert cache.access(5) == 2;
+    }
+
+    @Test
+    void large() {
+        LRU cache = new LRU(1000);
+        for (int i = 0; i < 1000; i++) {
+            assert cache.access(i * 60) == -1;
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assert cache.access(i * 60) == -1;
+        }
+        for (int i = 1; i < 1000; i += 2) {
+            assert cache.access(100000 + i) == i * 60;
+        }
+        assert cache.eldest() == 0;
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2021 Nameless Production Committee
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          http://opensource.org/licenses/mit-license.php
+ */
+package cointoss.util.feather;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class S3FIFOTest {
+
+    @Test
+    void fill() {
+        S3FIFO cache = new S3FIFO(3);
+        assert cache.access(1) == -1;
+        assert cache.access(2) == -1;
+        assert cache.access(3) == -1;
+        assert cache.access(1) == -1;
+    }
+
+    @Test
+    void evictOneTimeAccess() {
+        S3FIFO cache = new S3FIFO(3);
+        cache.access(1);
+        cache.access(2);
+        cache.access(3);
+        assert cache.access(4) == 1;
+        assert cache.access(5) == 2;
+    }
+
+    @Test
+    void keepReaccessed() {
+        S3FIFO cache = new S3FIFO(3);
+        cache.access(1);
+        cache.access(1);
+        cache.access(2);
+        cache.access(3);
+        assert cache.access(4) == 2;
+        assert cache.access(5) == 3;
+        assert cache.access(6) == 4;
+    }
+
+    @Test
+    void neverEvictLatest() {
+        S3FIFO cache = new S3FIFO(2);
+        for (int i = 0; i < 100; i++) {
+            assert cache.access(i) != i;
+        }
+    }
+
+    @Test
+    void ghost() {
+        S3FIFO cache = new S3FIFO(10);
+        for (int i = 0; i < 10; i++) {
+            cache.access(i);
+        }
+        assert cache.access(10) == 0;
+
+        // the recently evicted item enters the main queue directly
+        assert cache.access(0) == 1;
+        for (int i = 11; i < 19; i++) {
+            assert cache.access(i) != 0;
+        }
+    }
+
+    @Test
+    void scanResistance() {
+        S3FIFO cache = new S3FIFO(20);
+        Set<Long> cached = new HashSet();
+
+        // hot items
+        for (int round = 0; round < 3; round++) {
+            for (long i = 0; i < 10; i++) {
+                access(cache, cached, i);
+            }
+        }
+
+        // one-time scan
+        for (long i = 1000; i < 2000; i++) {
+            access(cache, cached, i);
+        }
+
+        for (long i = 0; i < 10; i++) {
+            assert cached.contains(i);
+        }
+        assert cached.size() == 20;
+    }
+
+    private void access(S3FIFO cache, Set<Long> cached, long item) {
+        cached.add(item);
+        long evicted = cache.access(item);
+        if (evicted != -1) {
+            assert cached.remove(evicted);
+        }
+    }
+}
\ No newline at end of file
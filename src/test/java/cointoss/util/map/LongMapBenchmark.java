@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.util.map;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import antibug.profiler.Benchmark;
+
+public class LongMapBenchmark {
+
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark();
+
+        int size = 100000;
+        Random random = new Random(1);
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt(size * 10);
+        }
+
+        benchmark.measure("SkipListLongMap#put", () -> {
+            ConcurrentNavigableLongMap<Long> map = LongMap.createSortedMap();
+            for (long key : keys) {
+                map.put(key, key);
+            }
+            return map;
+        });
+
+        benchmark.measure("ConcurrentSkipListMap#put", () -> {
+            ConcurrentSkipListMap<Long, Long> map = new ConcurrentSkipListMap();
+            for (long key : keys) {
+                map.put(key, key);
+            }
+            return map;
+        });
+
+        ConcurrentNavigableLongMap<Long> primitive = LongMap.createSortedMap();
+        ConcurrentSkipListMap<Long, Long> boxed = new ConcurrentSkipListMap();
+        for (long key : keys) {
+            primitive.put(key, key);
+            boxed.put(key, key);
+        }
+
+        benchmark.measure("SkipListLongMap#floorKey", () -> {
+            long sum = 0;
+            for (long key : keys) {
+                sum += primitive.floorKey(key + 1);
+            }
+            return sum;
+        });
+
+        benchmark.measure("ConcurrentSkipListMap#floorKey", () -> {
+            long sum = 0;
+            for (long key : keys) {
+                sum += boxed.floorKey(key + 1);
+            }
+            return sum;
+        });
+
+        benchmark.perform();
+    }
+}
\ No newline at end of file
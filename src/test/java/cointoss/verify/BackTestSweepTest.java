@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.verify;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import cointoss.Direction;
+import cointoss.Market;
+import cointoss.analyze.TradingStats;
+import cointoss.execution.ExecutionBuffer;
+import cointoss.execution.Executions;
+import cointoss.trade.Funds;
+import cointoss.trade.Trader;
+import kiss.I;
+
+class BackTestSweepTest {
+
+    private BackTestSweep sweep() {
+        return new BackTestSweep(new VerifiableMarketService(), Parameterized::new);
+    }
+
+    @Test
+    void grid() {
+        List<Map<String, Object>> sets = sweep().param("value", 1, 2, 3).param("ratio", 0.1, 0.2).parameters();
+        assert sets.size() == 6;
+        assert sets.get(0).get("value").equals(1);
+        assert sets.get(0).get("ratio").equals(0.1);
+        assert sets.get(1).get("value").equals(2);
+        assert sets.get(5).get("value").equals(3);
+        assert sets.get(5).get("ratio").equals(0.2);
+    }
+
+    @Test
+    void empty() {
+        assert sweep().parameters().size() == 1;
+    }
+
+    @Test
+    void random() {
+        List<Map<String, Object>> sets = sweep().param("value", 1, 2, 3, 4, 5).param("ratio", 0.1, 0.2, 0.3).random(4, 7).parameters();
+        assert sets.size() == 4;
+        assert sets.stream().distinct().count() == 4;
+
+        // repeatable
+        assert sets.equals(sweep().param("value", 1, 2, 3, 4, 5).param("ratio", 0.1, 0.2, 0.3).random(4, 7).parameters());
+    }
+
+    @Test
+    void randomOverGrid() {
+        assert sweep().param("value", 1, 2).random(10, 0).parameters().size() == 2;
+    }
+
+    @Test
+    void run() {
+        ExecutionBuffer executions = ExecutionBuffer.of(I.signal(Executions.sequence(10, Direction.BUY, 1, 100)));
+
+        List<TradingStats> results = sweep().param("value", 1, 3, 2)
+                .param("ratio", "0.5")
+                .rankBy(Comparator.comparing(stats -> -(int) stats.properties.get("value")))
+                .run(executions);
+
+        assert results.size() == 3;
+        assert results.get(0).properties.get("value").equals(3);
+        assert results.get(1).properties.get("value").equals(2);
+        assert results.get(2).properties.get("value").equals(1);
+        assert results.get(0).properties.get("ratio").equals(0.5);
+    }
+
+    @Test
+    void warmUp() {
+        ExecutionBuffer history = ExecutionBuffer.of(I.signal(Executions.sequence(10, Direction.BUY, 1, 100)));
+        ExecutionBuffer executions = ExecutionBuffer.of(I.signal(Executions.sequence(10, Direction.BUY, 1, 110)));
+
+        List<TradingStats> results = new BackTestSweep(new VerifiableMarketService(), Observer::new).run(history, executions);
+        assert results.size() == 1;
+        assert results.get(0).properties.get("warmedPrice").equals(100d);
+    }
+
+    @Test
+    void unknownField() {
+        ExecutionBuffer executions = ExecutionBuffer.of(I.signal());
+
+        try {
+            sweep().param("unknown", 1).run(executions);
+            assert false;
+        } catch (IllegalArgumentException e) {
+            // success
+        }
+    }
+
+    /**
+     * Parameterized trader.
+     */
+    public static class Parameterized extends Trader {
+
+        public int value;
+
+        public double ratio;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void declareStrategy(Market market, Funds fund) {
+        }
+    }
+
+    /**
+     * The trader which observes the warmed market.
+     */
+    public static class Observer extends Trader {
+
+        public double warmedPrice;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void declareStrategy(Market market, Funds fund) {
+            warmedPrice = market.tickers.latest.v.price.doubleValue();
+        }
+    }
+}
\ No newline at end of file
@@ -72,4 +72,30 @@ class LatencyTest {
             assert order.isCanceled();
         });
     }
+
+    @Test
+    void cancelAgain() {
+        VerifiableMarket market = new VerifiableMarket();
+        market.service.latency = Latency.fixed(3, SECONDS);
+
+        market.request(Order.with.buy(1).price(10)).to(order -> {
+            // after 3 sec, order is accepted
+            market.perform(Execution.with.buy(1).price(11), 3);
+            assert order.isNotCanceled();
+
+            market.cancel(order).to();
+
+            // after 1 sec, cancel again
+            market.perform(Execution.with.buy(1).price(11), 1);
+            market.cancel(order).to();
+
+            // the first cancellation is rescheduled
+            market.perform(Execution.with.buy(1).price(11), 2);
+            assert order.isNotCanceled();
+
+            // after 3 sec from the second cancellation, order is canceled
+            market.perform(Execution.with.buy(1).price(11), 1);
+            assert order.isCanceled();
+        });
+    }
 }
\ No newline at end of file
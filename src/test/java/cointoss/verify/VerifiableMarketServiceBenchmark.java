@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2021 cointoss Development Team
+ *
+ * Licensed under the MIT License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *          https://opensource.org/licenses/MIT
+ */
+package cointoss.verify;
+
+import java.util.List;
+
+import antibug.profiler.Benchmark;
+import cointoss.execution.Execution;
+import cointoss.execution.Executions;
+import cointoss.order.Order;
+import kiss.I;
+
+public class VerifiableMarketServiceBenchmark {
+
+    public static void main(String[] args) {
+        Benchmark benchmark = new Benchmark();
+        List<Execution> executions = Executions.synthetic(100000, 1);
+
+        benchmark.measure("VerifiableMarketService#emulate", () -> {
+            VerifiableMarket market = new VerifiableMarket();
+
+            for (int i = 0; i < executions.size(); i++) {
+                Execution e = executions.get(i);
+
+                // keep some resting orders on both sides of the market
+                if (i % 100 == 0) {
+                    market.request(Order.with.direction(e.inverse(), 1).price(e.price)).to(I.NoOP);
+                }
+                market.service.emulate(e, executed -> {
+                });
+            }
+            return market;
+        });
+
+        benchmark.perform();
+    }
+}
\ No newline at end of file
@@ -11,6 +11,9 @@ package cointoss.verify;
 
 import static cointoss.order.OrderState.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -18,9 +21,13 @@ import org.junit.jupiter.api.Test;
 import com.google.common.util.concurrent.AtomicDouble;
 
 import cointoss.execution.Execution;
+import cointoss.execution.ExecutionBuffer;
 import cointoss.order.Order;
 import cointoss.order.QuantityCondition;
+import cointoss.ticker.Span;
+import cointoss.util.Chrono;
 import cointoss.util.arithmetic.Num;
+import kiss.I;
 
 class VerifiableMarketTest {
 
@@ -134,6 +141,30 @@ class VerifiableMarketTest {
         assert order2.executedSize.is(0.3);
     }
 
+    @Test
+    void singleExecutionFillBetterPriceFirst() {
+        Order order1 = market.orders.requestNow(Order.with.buy(1).price(10));
+        Order order2 = market.orders.requestNow(Order.with.buy(1).price(11));
+        Order order3 = market.orders.requestNow(Order.with.buy(1).price(11));
+
+        market.perform(Execution.with.sell(1.5).price(9));
+        assert order1.executedSize.is(0);
+        assert order2.executedSize.is(1);
+        assert order3.executedSize.is(0.5);
+    }
+
+    @Test
+    void cancelBeforeExecution() {
+        Order order1 = market.orders.requestNow(Order.with.sell(1).price(10));
+        Order order2 = market.orders.requestNow(Order.with.sell(1).price(11));
+        market.cancel(order1).to();
+
+        market.perform(Execution.with.buy(1).price(12));
+        assert order1.isCanceled();
+        assert order1.executedSize.is(0);
+        assert order2.executedSize.is(1);
+    }
+
     @Test
     void executeExtra() {
         market.request(Order.with.buy(10).price(10)).to(order -> {
@@ -384,4 +415,37 @@ class VerifiableMarketTest {
         market.perform(Execution.with.buy(5).price(10));
         assert size.get() == 20d;
     }
+
+    @Test
+    void performBuffer() {
+        List<Execution> executions = new ArrayList();
+        for (int i = 0; i < 100; i++) {
+            executions.add(Execution.with.buy(1).price(10 - i % 5).date(Chrono.MIN.plusSeconds(i * 30)));
+        }
+        ExecutionBuffer buffer = ExecutionBuffer.of(I.signal(executions));
+
+        VerifiableMarket expected = new VerifiableMarket();
+        executions.forEach(expected::perform);
+
+        market.request(Order.with.buy(1).price(8)).to(order -> {
+            // the order is matched by the materialized execution
+            market.perform(buffer, null);
+            assert order.executedSize.is(1);
+        });
+        assert market.tickers.latest.v.price.is(expected.tickers.latest.v.price);
+        assert market.tickers.on(Span.Minute1).ticks.size() == expected.tickers.on(Span.Minute1).ticks.size();
+    }
+
+    @Test
+    void performBufferWithObservedTimeline() {
+        List<Execution> executions = new ArrayList();
+        for (int i = 0; i < 100; i++) {
+            executions.add(Execution.with.sell(1).price(10 + i % 5).date(Chrono.MIN.plusSeconds(i * 30)));
+        }
+
+        List<Execution> observed = new ArrayList();
+        market.timeline.to(observed::add);
+        market.perform(ExecutionBuffer.of(I.signal(executions)), null);
+        assert observed.size() == executions.size();
+    }
 }
\ No newline at end of file